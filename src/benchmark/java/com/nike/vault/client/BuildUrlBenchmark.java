@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.auth.VaultCredentialsProvider;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares building request URLs from the cached base URL against resolving and parsing the full URL string for
+ * every request.  Run with './gradlew benchmark -PbenchmarkIncludes=BuildUrl'.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildUrlBenchmark {
+
+    private static final String PATH = "app/my-app/config";
+
+    private UrlResolver urlResolver;
+
+    private VaultClient cachedClient;
+
+    private VaultClient uncachedClient;
+
+    @Setup
+    public void setup() {
+        System.setProperty(DefaultVaultUrlResolver.VAULT_ADDR_SYS_PROPERTY, "https://vault.example.com:8200");
+        urlResolver = new DefaultVaultUrlResolver();
+
+        final VaultCredentialsProvider credentialsProvider = mock(VaultCredentialsProvider.class);
+        final OkHttpClient httpClient = new OkHttpClient();
+        cachedClient = new VaultClient(urlResolver, credentialsProvider, httpClient);
+        uncachedClient = new VaultClient(urlResolver, credentialsProvider, httpClient);
+        uncachedClient.setUrlRefreshInterval(0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * How URLs were built before the base URL was cached.
+     */
+    @Benchmark
+    public HttpUrl resolveAndParse() {
+        String baseUrl = urlResolver.resolve();
+        if (!baseUrl.endsWith("/")) {
+            baseUrl += "/";
+        }
+        return HttpUrl.parse(baseUrl + VaultClient.SECRET_PATH_PREFIX + PATH);
+    }
+
+    @Benchmark
+    public HttpUrl resolveEveryRequest() {
+        return uncachedClient.buildUrl(VaultClient.SECRET_PATH_PREFIX, PATH);
+    }
+
+    @Benchmark
+    public HttpUrl cachedBaseUrl() {
+        return cachedClient.buildUrl(VaultClient.SECRET_PATH_PREFIX, PATH);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.auth.TokenVaultCredentials;
+import com.nike.vault.client.model.VaultResponse;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the read latency percentiles of the {@link LoadBalancingVaultUrlResolver} against plain round robin over
+ * local stub servers, one of which answers much slower than the others.  Run with
+ * './gradlew benchmark -PbenchmarkIncludes=LoadBalancing' and compare the p0.99 lines of both resolvers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LoadBalancingBenchmark {
+
+    private static final long[] SERVER_DELAYS_MILLIS = {1, 1, 25};
+
+    private static final String SECRET_JSON = "{\"lease_id\":\"\",\"renewable\":false,\"lease_duration\":2592000," +
+            "\"data\":{\"value\":\"world\"},\"auth\":null}";
+
+    @Param({"round-robin", "load-balancing"})
+    private String resolver;
+
+    private final List<MockWebServer> servers = new ArrayList<>();
+
+    private VaultClient vaultClient;
+
+    @Setup
+    public void setup() throws IOException {
+        final List<String> urls = new ArrayList<>();
+        for (final long delayMillis : SERVER_DELAYS_MILLIS) {
+            final MockWebServer server = new MockWebServer();
+            server.setDispatcher(new DelayingDispatcher(delayMillis));
+            server.start();
+            servers.add(server);
+            urls.add("http://localhost:" + server.getPort());
+        }
+
+        final UrlResolver urlResolver = "load-balancing".equals(resolver)
+                ? new LoadBalancingVaultUrlResolver(urls)
+                : new RoundRobinUrlResolver(urls);
+        final TokenVaultCredentials credentials = new TokenVaultCredentials("token");
+        vaultClient = new VaultClient(urlResolver, () -> credentials, new OkHttpClient());
+    }
+
+    @TearDown
+    public void teardown() throws IOException {
+        for (final MockWebServer server : servers) {
+            server.shutdown();
+        }
+    }
+
+    @Benchmark
+    public VaultResponse read() {
+        return vaultClient.read("app/my-app/config");
+    }
+
+    /**
+     * Sends every request to the next URL in turn, regardless of how the endpoints perform.
+     */
+    private static final class RoundRobinUrlResolver implements UrlResolver {
+
+        private final List<String> urls;
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private RoundRobinUrlResolver(final List<String> urls) {
+            this.urls = urls;
+        }
+
+        @Override
+        public String resolve() {
+            return urls.get(Math.floorMod(counter.getAndIncrement(), urls.size()));
+        }
+
+        @Override
+        public boolean isCacheable() {
+            return false;
+        }
+    }
+
+    /**
+     * Answers every request with a secret after a fixed delay.
+     */
+    private static final class DelayingDispatcher extends Dispatcher {
+
+        private final long delayMillis;
+
+        private DelayingDispatcher(final long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public MockResponse dispatch(final RecordedRequest request) throws InterruptedException {
+            Thread.sleep(delayMillis);
+            return new MockResponse().setResponseCode(200).setBody(SECRET_JSON);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.auth;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading credentials from a shared provider chain on many threads at once.  The first provider in the
+ * chain never has a token, so reusing the last provider skips it.  Run with
+ * './gradlew benchmark -PbenchmarkIncludes=CredentialsProviderChain'.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(32)
+@Fork(1)
+public class CredentialsProviderChainBenchmark {
+
+    private static final VaultCredentials CREDENTIALS = new TokenVaultCredentials("TOKEN");
+
+    private VaultCredentialsProviderChain reusingChain;
+
+    private VaultCredentialsProviderChain walkingChain;
+
+    private CachingVaultCredentialsProvider cachingProvider;
+
+    @Setup
+    public void setup() {
+        reusingChain = buildChain();
+        walkingChain = buildChain();
+        walkingChain.setReuseLastProvider(false);
+        cachingProvider = new CachingVaultCredentialsProvider(buildChain());
+    }
+
+    @TearDown
+    public void teardown() {
+        cachingProvider.close();
+    }
+
+    @Benchmark
+    public VaultCredentials reuseLastProvider() {
+        return reusingChain.getCredentials();
+    }
+
+    @Benchmark
+    public VaultCredentials walkChain() {
+        return walkingChain.getCredentials();
+    }
+
+    @Benchmark
+    public VaultCredentials cachingProvider() {
+        return cachingProvider.getCredentials();
+    }
+
+    private static VaultCredentialsProviderChain buildChain() {
+        return new VaultCredentialsProviderChain(() -> new TokenVaultCredentials(""), () -> CREDENTIALS);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.nike.vault.client.model.VaultClientTokenResponse;
+import com.nike.vault.client.model.VaultEnvelope;
+import com.nike.vault.client.model.VaultResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares binding the model classes with the {@link VaultTypeAdapterFactory} adapters against Gson's reflective
+ * binding.  Run with './gradlew benchmark -PbenchmarkIncludes=ModelBinding'.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBindingBenchmark {
+
+    private static final Type TOKEN_ENVELOPE_TYPE = new TypeToken<VaultEnvelope<VaultClientTokenResponse>>() {
+    }.getType();
+
+    private static final String TOKEN_JSON = "{\"request_id\":\"4ab1c9a8\",\"lease_id\":\"\",\"renewable\":false," +
+            "\"lease_duration\":0,\"data\":{\"id\":\"ABCD\",\"policies\":[\"web\",\"stage\"]," +
+            "\"path\":\"auth/token/create\",\"meta\":{\"user\":\"armon\"},\"display_name\":\"token\"," +
+            "\"num_uses\":0},\"auth\":null,\"warnings\":null}";
+
+    @Param({"reflective", "adapters"})
+    private String binding;
+
+    @Param({"1", "20"})
+    private int secretCount;
+
+    private Gson gson;
+
+    private String secretJson;
+
+    private VaultResponse secret;
+
+    @Setup
+    public void setup() {
+        final GsonBuilder builder = new GsonBuilder()
+                .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+                .disableHtmlEscaping();
+        if ("adapters".equals(binding)) {
+            builder.registerTypeAdapterFactory(new VaultTypeAdapterFactory());
+        }
+        gson = builder.create();
+
+        final StringBuilder json = new StringBuilder("{\"lease_id\":\"\",\"renewable\":false," +
+                "\"lease_duration\":2592000,\"data\":{");
+        for (int i = 0; i < secretCount; i++) {
+            json.append(i == 0 ? "" : ",").append("\"key").append(i).append("\":\"value-").append(i).append("\"");
+        }
+        secretJson = json.append("},\"auth\":null}").toString();
+        secret = gson.fromJson(secretJson, VaultResponse.class);
+    }
+
+    @Benchmark
+    public VaultResponse readSecret() {
+        return gson.fromJson(secretJson, VaultResponse.class);
+    }
+
+    @Benchmark
+    public VaultEnvelope<VaultClientTokenResponse> readTokenEnvelope() {
+        return gson.fromJson(TOKEN_JSON, TOKEN_ENVELOPE_TYPE);
+    }
+
+    @Benchmark
+    public String writeSecret() {
+        return gson.toJson(secret);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs asynchronous tasks with at most a fixed number in flight at a time.  Further tasks wait in an unbounded
+ * queue and are started as running tasks complete.  Tasks may submit more tasks, e.g. from their completion
+ * callbacks, which makes the queue suitable for walking trees as well as plain fan-out.
+ * <p>
+ * Draining is trampolined, so tasks that complete synchronously, e.g. cache hits, do not grow the stack.
+ * </p>
+ * <p>
+ * The queue only becomes idle after {@link #closeSubmissions()} was called, so tasks completing while the initial
+ * tasks are still being submitted can not complete {@link #whenIdle()} early.
+ * </p>
+ */
+class AsyncTaskQueue {
+
+    private final int maxConcurrency;
+
+    private final Queue<Supplier<? extends CompletableFuture<?>>> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    // queued and running tasks, plus one for the open submission phase
+    private final AtomicInteger outstanding = new AtomicInteger(1);
+
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    private final CompletableFuture<Void> idle = new CompletableFuture<>();
+
+    AsyncTaskQueue(final int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1.");
+        }
+
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Queues the task.  The supplier is invoked once a slot is free and must return the future of the started work.
+     */
+    void submit(final Supplier<? extends CompletableFuture<?>> task) {
+        outstanding.incrementAndGet();
+        queue.add(task);
+        drain();
+    }
+
+    /**
+     * Marks the end of the initial submissions.  Tasks may still submit further tasks afterwards.
+     */
+    void closeSubmissions() {
+        complete();
+    }
+
+    /**
+     * Returns a future that completes once submissions are closed and every submitted task, including tasks
+     * submitted by other tasks, has completed.
+     */
+    CompletableFuture<Void> whenIdle() {
+        return idle;
+    }
+
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        while (true) {
+            while (running.get() < maxConcurrency) {
+                final Supplier<? extends CompletableFuture<?>> task = queue.poll();
+                if (task == null) {
+                    break;
+                }
+                running.incrementAndGet();
+                start(task);
+            }
+
+            missed = drainRequests.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    private void start(final Supplier<? extends CompletableFuture<?>> task) {
+        CompletableFuture<?> future;
+        try {
+            future = task.get();
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            ((CompletableFuture<?>) future).completeExceptionally(e);
+        }
+
+        future.whenComplete((result, throwable) -> {
+            running.decrementAndGet();
+            complete();
+            drain();
+        });
+    }
+
+    private void complete() {
+        if (outstanding.decrementAndGet() == 0) {
+            idle.complete(null);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import okhttp3.HttpUrl;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the parsed base URL of Vault, so the URL resolver is only consulted once per refresh interval instead of on
+ * every request.  Concurrent callers may resolve the URL more than once when it expires, which is harmless.
+ * <p>
+ * The cached URL is dropped right away when the resolver reports a URL change, or when a request to it fails.
+ * Resolvers that are not {@link UrlResolver#isCacheable() cacheable} are asked on every call, and each distinct
+ * URL they return is only parsed once.  The cache also relays the outcome of requests back to the resolver.
+ * </p>
+ */
+class BaseUrlCache {
+
+    private static final int MAX_PARSED_URLS = 32;
+
+    private static final ReferenceQueue<BaseUrlCache> COLLECTED_CACHES = new ReferenceQueue<>();
+
+    private final UrlResolver urlResolver;
+
+    private final ConcurrentMap<String, HttpUrl> parsedUrls = new ConcurrentHashMap<>();
+
+    private volatile long refreshIntervalNanos;
+
+    private volatile ResolvedUrl resolvedUrl;
+
+    BaseUrlCache(final UrlResolver urlResolver, final long refreshInterval, final TimeUnit unit) {
+        this.urlResolver = urlResolver;
+        setRefreshInterval(refreshInterval, unit);
+    }
+
+    /**
+     * Creates the cache and subscribes it to URL changes of the resolver.  The subscription does not keep the cache
+     * reachable, and the subscriptions of caches that were garbage collected are removed from their resolvers.
+     */
+    static BaseUrlCache create(final UrlResolver urlResolver, final long refreshInterval, final TimeUnit unit) {
+        removeCollectedListeners();
+        final BaseUrlCache cache = new BaseUrlCache(urlResolver, refreshInterval, unit);
+        urlResolver.addUrlChangeListener(new RefreshListener(cache, urlResolver));
+        return cache;
+    }
+
+    private static void removeCollectedListeners() {
+        Reference<? extends BaseUrlCache> collected;
+        while ((collected = COLLECTED_CACHES.poll()) != null) {
+            ((RefreshListener) collected).unsubscribe();
+        }
+    }
+
+    /**
+     * Returns the cached base URL, resolving it again if it is older than the refresh interval.
+     *
+     * @throws VaultClientException if the resolved URL is not a valid HTTP URL
+     */
+    HttpUrl get() {
+        if (!urlResolver.isCacheable()) {
+            return parseOnce(urlResolver.resolve());
+        }
+
+        final ResolvedUrl current = resolvedUrl;
+        final long now = System.nanoTime();
+        if (current != null && now - current.resolvedAtNanos < refreshIntervalNanos) {
+            return current.url;
+        }
+
+        final HttpUrl parsedUrl = parse(urlResolver.resolve());
+        resolvedUrl = new ResolvedUrl(parsedUrl, now);
+        return parsedUrl;
+    }
+
+    /**
+     * Returns the base URL to send a read to.  The resolver is asked on every call, as it may spread reads over
+     * several nodes, but each distinct URL is only parsed once.
+     *
+     * @throws VaultClientException if the resolved URL is not a valid HTTP URL
+     */
+    HttpUrl getForRead() {
+        return parseOnce(urlResolver.resolveForRead());
+    }
+
+    /**
+     * Drops the cached URL, so the next call resolves it again.
+     */
+    void refresh() {
+        resolvedUrl = null;
+    }
+
+    /**
+     * Tells the resolver about the failed request and drops the cached URL, so the next request picks up a
+     * different URL if the resolver fails over.
+     */
+    void onRequestFailed(final HttpUrl url, final IOException cause) {
+        urlResolver.onRequestFailed(url.toString(), cause);
+        refresh();
+    }
+
+    void onEndpointUnavailable(final HttpUrl url) {
+        urlResolver.onEndpointUnavailable(url.toString());
+        refresh();
+    }
+
+    void onRequestStarted(final HttpUrl url) {
+        urlResolver.onRequestStarted(url.toString());
+    }
+
+    void onRequestCompleted(final HttpUrl url, final long latencyNanos) {
+        urlResolver.onRequestCompleted(url.toString(), latencyNanos);
+    }
+
+    void onRequestCancelled(final HttpUrl url) {
+        urlResolver.onRequestCancelled(url.toString());
+    }
+
+    void setRefreshInterval(final long refreshInterval, final TimeUnit unit) {
+        if (refreshInterval < 0) {
+            throw new IllegalArgumentException("URL refresh interval cannot be negative.");
+        }
+
+        this.refreshIntervalNanos = unit.toNanos(refreshInterval);
+    }
+
+    long getRefreshIntervalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(refreshIntervalNanos);
+    }
+
+    private HttpUrl parseOnce(final String url) {
+        HttpUrl parsedUrl = url == null ? null : parsedUrls.get(url);
+        if (parsedUrl == null) {
+            parsedUrl = parse(url);
+            if (parsedUrls.size() >= MAX_PARSED_URLS) {
+                parsedUrls.clear();
+            }
+            parsedUrls.put(url, parsedUrl);
+        }
+        return parsedUrl;
+    }
+
+    private static HttpUrl parse(final String url) {
+        final HttpUrl parsedUrl = url == null ? null : HttpUrl.parse(url);
+        if (parsedUrl == null) {
+            throw new VaultClientException("Resolved Vault URL is not a valid HTTP URL: " + url);
+        }
+        return parsedUrl;
+    }
+
+    /**
+     * Refreshes a cache when its resolver reports a URL change.  Resolvers outlive the clients that use them, so the
+     * cache is only weakly referenced.
+     */
+    private static final class RefreshListener extends WeakReference<BaseUrlCache> implements Runnable {
+
+        private final UrlResolver urlResolver;
+
+        private RefreshListener(final BaseUrlCache cache, final UrlResolver urlResolver) {
+            super(cache, COLLECTED_CACHES);
+            this.urlResolver = urlResolver;
+        }
+
+        @Override
+        public void run() {
+            final BaseUrlCache cache = get();
+            if (cache == null) {
+                unsubscribe();
+            } else {
+                cache.refresh();
+            }
+        }
+
+        private void unsubscribe() {
+            urlResolver.removeUrlChangeListener(this);
+        }
+    }
+
+    private static final class ResolvedUrl {
+
+        private final HttpUrl url;
+
+        private final long resolvedAtNanos;
+
+        private ResolvedUrl(final HttpUrl url, final long resolvedAtNanos) {
+            this.url = url;
+            this.resolvedAtNanos = resolvedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Passes characters through from the wrapped reader and keeps a copy of the first few, so a response body that
+ * fails to parse can still be logged without buffering the whole body up front.
+ */
+class BoundedCaptureReader extends FilterReader {
+
+    private final int maxCapturedChars;
+
+    private final StringBuilder captured = new StringBuilder();
+
+    private boolean truncated = false;
+
+    BoundedCaptureReader(final Reader reader, final int maxCapturedChars) {
+        super(reader);
+
+        if (maxCapturedChars < 0) {
+            throw new IllegalArgumentException("Max captured chars cannot be negative.");
+        }
+
+        this.maxCapturedChars = maxCapturedChars;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int c = super.read();
+        if (c != -1) {
+            capture(new char[]{(char) c}, 0, 1);
+        }
+        return c;
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+        final int count = super.read(cbuf, off, len);
+        if (count > 0) {
+            capture(cbuf, off, count);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the captured characters, followed by '...' if the body read so far was longer.
+     *
+     * @return Start of the body
+     */
+    String getCaptured() {
+        return truncated ? captured + "..." : captured.toString();
+    }
+
+    private void capture(final char[] cbuf, final int off, final int len) {
+        final int count = Math.min(len, maxCapturedChars - captured.length());
+        if (count > 0) {
+            captured.append(cbuf, off, count);
+        }
+        if (count < len) {
+            truncated = true;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.model.VaultResponse;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Result of reading many paths at once.  Every requested path ends up either in the responses or in the failures,
+ * so one failing path never hides the data of the others.
+ */
+public class BulkReadResult {
+
+    private final Map<String, VaultResponse> responses = new ConcurrentHashMap<>();
+
+    private final Map<String, VaultClientException> failures = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the data of every path that was read successfully, keyed by path.
+     *
+     * @return Map of path to response
+     */
+    public Map<String, VaultResponse> getResponses() {
+        return responses;
+    }
+
+    /**
+     * Returns the error of every path that could not be read, keyed by path.  Server errors, e.g. a 404 for a
+     * missing path, are reported as {@link VaultServerException}.
+     *
+     * @return Map of path to error
+     */
+    public Map<String, VaultClientException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns true if every path was read successfully.
+     *
+     * @return Success flag
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    void addResponse(final String path, final VaultResponse response) {
+        responses.put(path, response);
+    }
+
+    void addFailure(final String path, final Throwable throwable) {
+        failures.put(path, Futures.toClientException(throwable));
+    }
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.auth.VaultCredentialsProvider;
+import com.nike.vault.client.http.HttpStatus;
+import com.nike.vault.client.model.VaultListResponse;
+import com.nike.vault.client.model.VaultResponse;
+import okhttp3.Headers;
+import okhttp3.OkHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vault client that keeps the responses of {@link #read(String)} in a bounded, in-memory cache.  Entries expire
+ * after the TTL configured in {@link VaultCacheConfig}.  A {@link #write(String, Map)} or {@link #delete(String)}
+ * through this client invalidates the cached entry for the path, so callers never read back their own stale writes.
+ * <p>
+ * When a refresh-ahead window or stale grace period is configured, entries close to or just past their expiry are
+ * refreshed in the background while the cached value keeps being served.  See {@link VaultCacheConfig}.
+ * </p>
+ * <p>
+ * When a not found TTL is configured, reads that fail with a 404 and lists that come back empty are cached as
+ * well, so repeated probes of missing paths do not reach Vault.  A write to a path drops the not found results
+ * for the path and all of its parent paths.
+ * </p>
+ * <p>
+ * Cached {@link VaultResponse} objects are shared between callers and should be treated as read only.
+ * </p>
+ */
+public class CachingVaultClient extends VaultClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingVaultClient.class);
+
+    private static final int DEFAULT_REFRESH_THREADS = 4;
+
+    private static final Executor DEFAULT_REFRESH_EXECUTOR = Executors.newFixedThreadPool(DEFAULT_REFRESH_THREADS,
+            new NamedDaemonThreadFactory("vault-cache-refresh"));
+
+    private final VaultCacheConfig cacheConfig;
+
+    private final TtlCache<VaultResponse> secretCache;
+
+    private final TtlCache<List<String>> readNotFoundCache;
+
+    private final TtlCache<Boolean> listNotFoundCache;
+
+    private final ConcurrentMap<String, Boolean> refreshesInFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Explicit constructor that allows for full control over construction of the caching Vault client.
+     *
+     * @param vaultUrlResolver    URL resolver for Vault
+     * @param credentialsProvider Credential provider for acquiring a token for interacting with Vault
+     * @param httpClient          HTTP client for calling Vault
+     * @param defaultHeaders      Default HTTP headers to be included in each request
+     * @param cacheConfig         Configuration of the secret cache
+     */
+    public CachingVaultClient(final UrlResolver vaultUrlResolver,
+                              final VaultCredentialsProvider credentialsProvider,
+                              final OkHttpClient httpClient,
+                              final Headers defaultHeaders,
+                              final VaultCacheConfig cacheConfig) {
+        super(vaultUrlResolver, credentialsProvider, httpClient, defaultHeaders);
+
+        if (cacheConfig == null) {
+            throw new IllegalArgumentException("Cache config cannot be null.");
+        }
+
+        this.cacheConfig = cacheConfig;
+        this.secretCache = new TtlCache<>(cacheConfig.getMaxSize());
+        this.readNotFoundCache = new TtlCache<>(cacheConfig.getMaxNotFoundSize());
+        this.listNotFoundCache = new TtlCache<>(cacheConfig.getMaxNotFoundSize());
+    }
+
+    /**
+     * Explicit constructor that allows for full control over construction of the caching Vault client.
+     *
+     * @param vaultUrlResolver    URL resolver for Vault
+     * @param credentialsProvider Credential provider for acquiring a token for interacting with Vault
+     * @param httpClient          HTTP client for calling Vault
+     * @param cacheConfig         Configuration of the secret cache
+     */
+    public CachingVaultClient(final UrlResolver vaultUrlResolver,
+                              final VaultCredentialsProvider credentialsProvider,
+                              final OkHttpClient httpClient,
+                              final VaultCacheConfig cacheConfig) {
+        this(vaultUrlResolver, credentialsProvider, httpClient, new Headers.Builder().build(), cacheConfig);
+    }
+
+    /**
+     * Read operation for a specified path.  Returns the cached response if one exists and has not expired,
+     * otherwise reads the data from Vault and caches it.  If the entry is within the refresh-ahead window, or
+     * expired but within the stale grace period, the cached response is returned and a background refresh is
+     * started.  A cached not found result is rethrown as a {@link VaultServerException} with a 404 code.
+     *
+     * @param path Path to the data
+     * @return Map of the data
+     */
+    @Override
+    public VaultResponse read(final String path) {
+        final String key = VaultCacheConfig.normalizePath(path);
+        final VaultResponse cached = getCached(key, path);
+        if (cached != null) {
+            return cached;
+        }
+
+        return fetch(key, path);
+    }
+
+    /**
+     * Non-blocking variant of {@link #read(String)} with the same caching behavior.  Cache hits complete
+     * immediately on the calling thread.
+     *
+     * @param path Path to the data
+     * @return Future of the data
+     */
+    @Override
+    public CompletableFuture<VaultResponse> readAsync(final String path) {
+        final String key = VaultCacheConfig.normalizePath(path);
+        final VaultResponse cached;
+        try {
+            cached = getCached(key, path);
+        } catch (VaultServerException vse) {
+            return Futures.failed(vse);
+        }
+
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        final long generation = secretCache.generation();
+        final long notFoundGeneration = readNotFoundCache.generation();
+        final CompletableFuture<VaultResponse> source = super.readAsync(path);
+        return propagateCancellation(source, source.whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                cacheResponse(key, response, generation);
+            } else {
+                cacheNotFound(key, Futures.unwrap(throwable), notFoundGeneration);
+            }
+        }));
+    }
+
+    /**
+     * List operation for the specified path.  An empty result is returned without calling Vault while a not found
+     * result for the path is cached.
+     *
+     * @param path Path to the data
+     * @return Map containing the keys at that path
+     */
+    @Override
+    public VaultListResponse list(final String path) {
+        final String key = VaultCacheConfig.normalizePath(path);
+        if (listNotFoundCache.get(key) != null) {
+            return new VaultListResponse();
+        }
+
+        final long generation = listNotFoundCache.generation();
+        final VaultListResponse response = super.list(path);
+        cacheListResponse(key, response, generation);
+        return response;
+    }
+
+    /**
+     * Non-blocking variant of {@link #list(String)} with the same not found caching behavior.
+     *
+     * @param path Path to the data
+     * @return Future of the keys at that path
+     */
+    @Override
+    public CompletableFuture<VaultListResponse> listAsync(final String path) {
+        final String key = VaultCacheConfig.normalizePath(path);
+        if (listNotFoundCache.get(key) != null) {
+            return CompletableFuture.completedFuture(new VaultListResponse());
+        }
+
+        final long generation = listNotFoundCache.generation();
+        final CompletableFuture<VaultListResponse> source = super.listAsync(path);
+        return propagateCancellation(source, source.whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                cacheListResponse(key, response, generation);
+            }
+        }));
+    }
+
+    /**
+     * Write operation for a specified path and data set.  Invalidates any cached response for the path,
+     * and any cached not found result for the path or its parent paths, even if the write fails.
+     *
+     * @param path Path for where to store the data
+     * @param data Data to be stored
+     */
+    @Override
+    public void write(final String path, final Map<String, String> data) {
+        try {
+            super.write(path, data);
+        } finally {
+            invalidate(path);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #write(String, Map)}.  The cache is invalidated before the returned future
+     * completes.
+     *
+     * @param path Path for where to store the data
+     * @param data Data to be stored
+     * @return Future that completes once the data is stored
+     */
+    @Override
+    public CompletableFuture<Void> writeAsync(final String path, final Map<String, String> data) {
+        final CompletableFuture<Void> source = super.writeAsync(path, data);
+        return propagateCancellation(source, source.whenComplete((result, throwable) -> invalidate(path)));
+    }
+
+    /**
+     * Delete operation for a specified path.  Invalidates any cached response for the path, even if the
+     * delete fails.
+     *
+     * @param path Path to data to be deleted
+     */
+    @Override
+    public void delete(final String path) {
+        try {
+            super.delete(path);
+        } finally {
+            invalidate(path);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #delete(String)}.  The cache is invalidated before the returned future
+     * completes.
+     *
+     * @param path Path to data to be deleted
+     * @return Future that completes once the data is deleted
+     */
+    @Override
+    public CompletableFuture<Void> deleteAsync(final String path) {
+        final CompletableFuture<Void> source = super.deleteAsync(path);
+        return propagateCancellation(source, source.whenComplete((result, throwable) -> invalidate(path)));
+    }
+
+    /**
+     * Removes the cached response for the specified path, and any cached not found result for the path or its
+     * parent paths.
+     *
+     * @param path Path to the data
+     */
+    public void invalidate(final String path) {
+        final String key = VaultCacheConfig.normalizePath(path);
+        secretCache.invalidate(key);
+        invalidateNotFound(key);
+    }
+
+    /**
+     * Removes all cached responses.
+     */
+    public void invalidateAll() {
+        secretCache.invalidateAll();
+        readNotFoundCache.invalidateAll();
+        listNotFoundCache.invalidateAll();
+    }
+
+    /**
+     * Returns the cached response for the path, starting a background refresh if it is due, or null on a cache
+     * miss.  Throws a {@link VaultServerException} if a not found result for the path is cached.
+     */
+    private VaultResponse getCached(final String key, final String path) {
+        final TtlCache.CacheEntry<VaultResponse> entry = secretCache.getEntry(key);
+        if (entry == null) {
+            final List<String> notFoundErrors = readNotFoundCache.get(key);
+            if (notFoundErrors != null) {
+                throw new VaultServerException(HttpStatus.NOT_FOUND, notFoundErrors);
+            }
+            return null;
+        }
+
+        final long now = System.nanoTime();
+        final long refreshAheadNanos = TimeUnit.MILLISECONDS.toNanos(cacheConfig.getRefreshAheadMillis());
+        if (entry.isExpired(now) || (refreshAheadNanos > 0 && entry.expiresWithin(now, refreshAheadNanos))) {
+            refreshInBackground(key, path);
+        }
+
+        return entry.getValue();
+    }
+
+    /**
+     * Reads the data from Vault and caches it, unless the path was invalidated while the read was in flight.
+     * A 404 is cached as a not found result when negative caching is enabled.
+     */
+    private VaultResponse fetch(final String key, final String path) {
+        final long generation = secretCache.generation();
+        final long notFoundGeneration = readNotFoundCache.generation();
+        final VaultResponse response;
+        try {
+            response = super.read(path);
+        } catch (VaultServerException vse) {
+            cacheNotFound(key, vse, notFoundGeneration);
+            throw vse;
+        }
+
+        cacheResponse(key, response, generation);
+        return response;
+    }
+
+    private void cacheResponse(final String key, final VaultResponse response, final long generation) {
+        final long ttlMillis = cacheConfig.getTtlMillis(key);
+        if (ttlMillis > 0) {
+            secretCache.put(key, response, ttlMillis, cacheConfig.getStaleGraceMillis(), generation);
+        }
+    }
+
+    private void cacheNotFound(final String key, final Throwable throwable, final long generation) {
+        final long notFoundTtlMillis = cacheConfig.getNotFoundTtlMillis();
+        if (notFoundTtlMillis > 0
+                && throwable instanceof VaultServerException
+                && ((VaultServerException) throwable).getCode() == HttpStatus.NOT_FOUND) {
+            final List<String> errors = ((VaultServerException) throwable).getErrors();
+            readNotFoundCache.put(key,
+                    errors != null ? errors : new LinkedList<String>(),
+                    notFoundTtlMillis,
+                    0,
+                    generation);
+        }
+    }
+
+    private void cacheListResponse(final String key, final VaultListResponse response, final long generation) {
+        final long notFoundTtlMillis = cacheConfig.getNotFoundTtlMillis();
+        if (notFoundTtlMillis > 0 && (response.getKeys() == null || response.getKeys().isEmpty())) {
+            listNotFoundCache.put(key, Boolean.TRUE, notFoundTtlMillis, 0, generation);
+        }
+    }
+
+    /**
+     * Cancels the source future when the future derived from it is cancelled, so cancelling a dependent stage
+     * still stops the call behind it.
+     */
+    private static <S, T> CompletableFuture<T> propagateCancellation(final CompletableFuture<S> source,
+                                                                     final CompletableFuture<T> derived) {
+        derived.whenComplete((result, throwable) -> {
+            if (derived.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return derived;
+    }
+
+    /**
+     * Drops the not found results for the path and each of its parents, since a write below a path makes
+     * a list of that path non-empty.
+     */
+    private void invalidateNotFound(final String key) {
+        String candidate = key;
+        while (true) {
+            readNotFoundCache.invalidate(candidate);
+            listNotFoundCache.invalidate(candidate);
+
+            if (candidate.isEmpty()) {
+                return;
+            }
+
+            final int separator = candidate.lastIndexOf('/');
+            candidate = separator < 0 ? "" : candidate.substring(0, separator);
+        }
+    }
+
+    /**
+     * Refreshes the path on the refresh executor, unless a refresh for it is already in flight.  If Vault answers
+     * with a 5xx or can not be reached, the current entry is kept and may be served until its grace period ends.
+     * Any other error response means the cached data is no longer valid, so the entry is dropped.
+     */
+    private void refreshInBackground(final String key, final String path) {
+        if (refreshesInFlight.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+
+        final Executor executor = cacheConfig.getRefreshExecutor() != null
+                ? cacheConfig.getRefreshExecutor()
+                : DEFAULT_REFRESH_EXECUTOR;
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        fetch(key, path);
+                    } catch (VaultServerException vse) {
+                        if (vse.isServerError()) {
+                            LOGGER.warn("Background refresh of path: {} failed, serving cached data. {}", key, vse.getMessage());
+                        } else {
+                            LOGGER.info("Background refresh of path: {} was rejected, dropping cached data. {}", key, vse.getMessage());
+                            secretCache.invalidate(key);
+                        }
+                    } catch (RuntimeException e) {
+                        LOGGER.warn("Background refresh of path: {} failed, serving cached data.", key, e);
+                    } finally {
+                        refreshesInFlight.remove(key);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            refreshesInFlight.remove(key);
+            LOGGER.warn("Background refresh of path: {} was rejected by the executor.", key);
+        }
+    }
+
+    /**
+     * Returns the cache configuration.
+     *
+     * @return Cache configuration
+     */
+    public VaultCacheConfig getCacheConfig() {
+        return cacheConfig;
+    }
+}
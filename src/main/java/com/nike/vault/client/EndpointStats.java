@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load of a single Vault endpoint as seen by this client: a moving average of its response latency and the number
+ * of requests to it that are still in flight.
+ */
+class EndpointStats {
+
+    /**
+     * Latency assumed for endpoints without any measured latency yet, so they are tried without being preferred
+     * over endpoints that are known to be fast.
+     */
+    static final long UNKNOWN_LATENCY_NANOS = 10_000_000;
+
+    private static final double LATENCY_EWMA_WEIGHT = 0.2;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // updates racing each other may drop a sample, which does not matter for an average
+    private volatile double latencyEwmaNanos;
+
+    void onStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Counts a request as finished.  Never drops the count below zero, so stray reports cannot make the endpoint
+     * look less loaded than idle.
+     */
+    void onFinished() {
+        inFlight.getAndUpdate(current -> current > 0 ? current - 1 : 0);
+    }
+
+    void recordLatency(final long latencyNanos) {
+        final double current = latencyEwmaNanos;
+        latencyEwmaNanos = current == 0
+                ? latencyNanos
+                : current + LATENCY_EWMA_WEIGHT * (latencyNanos - current);
+    }
+
+    /**
+     * Returns the moving average of the latency in nanoseconds, or 0 if none was measured yet.
+     */
+    double getLatencyEwmaNanos() {
+        return latencyEwmaNanos;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the expected time a new request waits for this endpoint: its average latency times the number of
+     * requests it would then be serving.
+     */
+    double getCost() {
+        final double latency = latencyEwmaNanos;
+        return (latency > 0 ? latency : UNKNOWN_LATENCY_NANOS) * (inFlight.get() + 1);
+    }
+}
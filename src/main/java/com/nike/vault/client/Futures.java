@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Helpers for working with {@link CompletableFuture}s.
+ */
+final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Returns a future that is already completed with the exception.
+     */
+    static <T> CompletableFuture<T> failed(final Throwable throwable) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
+
+    /**
+     * Strips the {@link CompletionException} that dependent stages wrap around the original exception.
+     */
+    static Throwable unwrap(final Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
+    }
+
+    /**
+     * Waits for the future and rethrows a failure as the exception the blocking client API would have thrown.
+     */
+    static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw toClientException(e);
+        }
+    }
+
+    /**
+     * Unwraps the throwable and converts it into the exception the blocking client API would have thrown.
+     */
+    static VaultClientException toClientException(final Throwable throwable) {
+        final Throwable cause = unwrap(throwable);
+        return cause instanceof VaultClientException
+                ? (VaultClientException) cause
+                : new VaultClientException("Unexpected error while communicating with vault.", cause);
+    }
+}
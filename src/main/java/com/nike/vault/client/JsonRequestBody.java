@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.json.JsonCodec;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Request body that serializes an object with the JSON codec straight into the sink of the connection, so no
+ * intermediate String or byte array of the JSON is built.  The object is serialized again if OkHttp has to resend
+ * the body.
+ */
+class JsonRequestBody extends RequestBody {
+
+    private final JsonCodec jsonCodec;
+
+    private final MediaType mediaType;
+
+    private final Object body;
+
+    JsonRequestBody(final JsonCodec jsonCodec, final MediaType mediaType, final Object body) {
+        this.jsonCodec = jsonCodec;
+        this.mediaType = mediaType;
+        this.body = body;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return mediaType;
+    }
+
+    @Override
+    public void writeTo(final BufferedSink sink) throws IOException {
+        // the codec flushes the writer without closing the sink, which is owned by OkHttp
+        jsonCodec.write(body, new OutputStreamWriter(sink.outputStream(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import okhttp3.HttpUrl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * URL resolver that spreads requests over several equivalent Vault endpoints, e.g. the nodes behind a set of
+ * performance standbys or several load balancers, and steers them away from slow or overloaded endpoints.
+ * <p>
+ * Every endpoint keeps a moving average of its response latency and the number of requests in flight to it, as
+ * reported by the client.  For each request two endpoints are picked at random and the one with the lower expected
+ * wait, the average latency times the requests it would be serving, wins.  Comparing two random endpoints instead
+ * of always taking the best one keeps all clients from piling onto the same endpoint between updates, while a slow
+ * endpoint still receives fewer and fewer requests as its average and queue grow.
+ * </p>
+ * <p>
+ * An endpoint that failed a request with an I/O error loses every comparison against healthy endpoints until its
+ * failure cooldown passes or it completes a request again.  The resolver picks a URL per request, so clients do not
+ * cache it, see {@link #isCacheable()}.
+ * </p>
+ */
+public class LoadBalancingVaultUrlResolver implements UrlResolver {
+
+    public static final long DEFAULT_FAILURE_COOLDOWN_MILLIS = 5_000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadBalancingVaultUrlResolver.class);
+
+    private final Endpoint[] endpoints;
+
+    private volatile long failureCooldownNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_FAILURE_COOLDOWN_MILLIS);
+
+    /**
+     * @param urls URLs of the Vault endpoints to balance requests over
+     */
+    public LoadBalancingVaultUrlResolver(final List<String> urls) {
+        if (urls == null || urls.isEmpty()) {
+            throw new IllegalArgumentException("No Vault URLs specified.");
+        }
+
+        final Endpoint[] endpoints = new Endpoint[urls.size()];
+        for (int i = 0; i < endpoints.length; i++) {
+            final String url = urls.get(i);
+            final HttpUrl parsedUrl = url == null ? null : HttpUrl.parse(url);
+            if (parsedUrl == null) {
+                throw new IllegalArgumentException("Vault URL is not a valid HTTP URL: " + url);
+            }
+            endpoints[i] = new Endpoint(url, parsedUrl);
+        }
+        this.endpoints = endpoints;
+    }
+
+    /**
+     * Returns the better of two randomly picked endpoints.  Does not block.
+     *
+     * @return Vault URL
+     */
+    @Override
+    public String resolve() {
+        if (endpoints.length == 1) {
+            return endpoints[0].url;
+        }
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int first = random.nextInt(endpoints.length);
+        int second = random.nextInt(endpoints.length - 1);
+        if (second >= first) {
+            second++;
+        }
+        return choose(endpoints[first], endpoints[second], System.nanoTime()).url;
+    }
+
+    /**
+     * Returns false, as the resolver picks an endpoint per request.
+     */
+    @Override
+    public boolean isCacheable() {
+        return false;
+    }
+
+    @Override
+    public void onRequestStarted(final String url) {
+        final Endpoint endpoint = findEndpoint(url);
+        if (endpoint != null) {
+            endpoint.stats.onStarted();
+        }
+    }
+
+    /**
+     * Adds the latency of the request to the moving average of its endpoint and ends any failure cooldown.
+     *
+     * @param url          URL of the request
+     * @param latencyNanos Time until the response arrived, in nanoseconds
+     */
+    @Override
+    public void onRequestCompleted(final String url, final long latencyNanos) {
+        final Endpoint endpoint = findEndpoint(url);
+        if (endpoint != null) {
+            endpoint.stats.recordLatency(latencyNanos);
+            endpoint.stats.onFinished();
+            endpoint.failed = false;
+        }
+    }
+
+    /**
+     * Puts the endpoint of the failed request into its failure cooldown.
+     *
+     * @param url   URL of the failed request
+     * @param cause The I/O error
+     */
+    @Override
+    public void onRequestFailed(final String url, final IOException cause) {
+        final Endpoint endpoint = findEndpoint(url);
+        if (endpoint != null) {
+            endpoint.stats.onFinished();
+            if (!endpoint.failed) {
+                LOGGER.warn("Request to Vault endpoint {} failed, avoiding it: {}", endpoint.url, cause.toString());
+            }
+            endpoint.failedAtNanos = System.nanoTime();
+            endpoint.failed = true;
+        }
+    }
+
+    /**
+     * Puts the endpoint into its failure cooldown, as its circuit breaker is open.
+     *
+     * @param url URL of the request that was not sent
+     */
+    @Override
+    public void onEndpointUnavailable(final String url) {
+        final Endpoint endpoint = findEndpoint(url);
+        if (endpoint != null) {
+            if (!endpoint.failed) {
+                LOGGER.warn("Vault endpoint {} is unavailable, avoiding it", endpoint.url);
+            }
+            endpoint.failedAtNanos = System.nanoTime();
+            endpoint.failed = true;
+        }
+    }
+
+    @Override
+    public void onRequestCancelled(final String url) {
+        final Endpoint endpoint = findEndpoint(url);
+        if (endpoint != null) {
+            endpoint.stats.onFinished();
+        }
+    }
+
+    /**
+     * Sets how long an endpoint is avoided after it failed a request, unless it completes another request sooner.
+     *
+     * @param failureCooldown Cooldown, 0 to not avoid failed endpoints
+     * @param unit            Unit of the cooldown
+     * @return The resolver
+     */
+    public LoadBalancingVaultUrlResolver setFailureCooldown(final long failureCooldown, final TimeUnit unit) {
+        if (failureCooldown < 0) {
+            throw new IllegalArgumentException("Failure cooldown cannot be negative.");
+        }
+
+        this.failureCooldownNanos = unit.toNanos(failureCooldown);
+        return this;
+    }
+
+    public long getFailureCooldownMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(failureCooldownNanos);
+    }
+
+    /**
+     * Returns the moving average of the latency of every endpoint in milliseconds, in the order the endpoints were
+     * specified.  Endpoints without any latency measured yet are left out.
+     *
+     * @return Average latency keyed by endpoint URL
+     */
+    public Map<String, Double> getEndpointLatencies() {
+        final Map<String, Double> latencies = new LinkedHashMap<>();
+        for (final Endpoint endpoint : endpoints) {
+            final double latency = endpoint.stats.getLatencyEwmaNanos();
+            if (latency > 0) {
+                latencies.put(endpoint.url, latency / TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+        return latencies;
+    }
+
+    /**
+     * Returns the number of requests in flight to every endpoint, in the order the endpoints were specified.
+     *
+     * @return Requests in flight keyed by endpoint URL
+     */
+    public Map<String, Integer> getEndpointInFlight() {
+        final Map<String, Integer> inFlight = new LinkedHashMap<>();
+        for (final Endpoint endpoint : endpoints) {
+            inFlight.put(endpoint.url, endpoint.stats.getInFlight());
+        }
+        return inFlight;
+    }
+
+    private Endpoint choose(final Endpoint first, final Endpoint second, final long nowNanos) {
+        final boolean firstCoolingDown = isCoolingDown(first, nowNanos);
+        if (firstCoolingDown != isCoolingDown(second, nowNanos)) {
+            return firstCoolingDown ? second : first;
+        }
+        return first.stats.getCost() <= second.stats.getCost() ? first : second;
+    }
+
+    private boolean isCoolingDown(final Endpoint endpoint, final long nowNanos) {
+        return endpoint.failed && nowNanos - endpoint.failedAtNanos < failureCooldownNanos;
+    }
+
+    /**
+     * Finds the endpoint a request URL belongs to by a prefix match against the normalized endpoint URL, as request
+     * URLs are built from it.
+     */
+    private Endpoint findEndpoint(final String url) {
+        if (url == null) {
+            return null;
+        }
+
+        for (final Endpoint endpoint : endpoints) {
+            if (url.startsWith(endpoint.urlPrefix)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    private static final class Endpoint {
+
+        private final String url;
+
+        private final String urlPrefix;
+
+        private final EndpointStats stats = new EndpointStats();
+
+        private volatile boolean failed;
+
+        private volatile long failedAtNanos;
+
+        private Endpoint(final String url, final HttpUrl parsedUrl) {
+            this.url = url;
+            final String normalizedUrl = parsedUrl.toString();
+            this.urlPrefix = normalizedUrl.endsWith("/") ? normalizedUrl : normalizedUrl + "/";
+        }
+    }
+}
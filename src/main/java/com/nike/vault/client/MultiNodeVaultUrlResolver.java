@@ -0,0 +1,511 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.auth.TokenVaultCredentials;
+import com.nike.vault.client.auth.VaultCredentials;
+import com.nike.vault.client.model.VaultHealthResponse;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * URL resolver for a Vault cluster of several nodes.  The nodes are probed in the background with
+ * <code>sys/health</code> and {@link #resolve()} returns the active node, falling back to a standby node and then
+ * to nodes of unknown state.  Ties go to the node listed first.
+ * <p>
+ * For clients with {@link VaultClient#setStandbyReadsEnabled(boolean)}, {@link #resolveForRead()} spreads reads
+ * over the healthy performance standby nodes and falls back to the active node.  Plain standby nodes only forward
+ * requests to the active node, so they are used for reads only after {@link #setPlainStandbyReadsEnabled(boolean)}.
+ * The latency of probes and requests is tracked per node as a moving average, and nodes slower than the
+ * fastest node by the configured factor are skipped for reads.
+ * </p>
+ * <p>
+ * When a request fails with an I/O error, the client reports it through {@link #onRequestFailed(String, IOException)}.
+ * The node is then marked unavailable and the next request already goes to the next best node, while all nodes are
+ * probed again right away.  Clients are told about the switch through {@link #addUrlChangeListener(Runnable)}, so
+ * they do not hold on to the failed node until their URL refresh interval passes.
+ * </p>
+ */
+public class MultiNodeVaultUrlResolver implements UrlResolver, AutoCloseable {
+
+    public static final long DEFAULT_PROBE_INTERVAL_MILLIS = 5_000;
+
+    public static final int DEFAULT_PROBE_TIMEOUT_MILLIS = 1_000;
+
+    public static final double DEFAULT_SLOW_NODE_FACTOR = 3.0;
+
+    private static final ScheduledExecutorService DEFAULT_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new NamedDaemonThreadFactory("vault-health-probe"));
+
+    private static final VaultCredentials NO_CREDENTIALS = new TokenVaultCredentials("");
+
+    private static final NodeStatus[] READ_TIERS = {NodeStatus.PERFORMANCE_STANDBY, NodeStatus.STANDBY};
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiNodeVaultUrlResolver.class);
+
+    /**
+     * State of a Vault node, in order of preference.
+     */
+    public enum NodeStatus {
+        /** Unsealed and serving requests. */
+        ACTIVE,
+        /** Unsealed standby that serves reads itself and forwards writes to the active node. */
+        PERFORMANCE_STANDBY,
+        /** Unsealed standby that forwards requests to the active node. */
+        STANDBY,
+        /** Not probed yet. */
+        UNKNOWN,
+        /** Sealed, not initialized, failing its health check or failing requests. */
+        UNAVAILABLE
+    }
+
+    private final List<Node> nodes;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ScheduledFuture<?> scheduledProbe;
+
+    private final AtomicBoolean probeInFlight = new AtomicBoolean(false);
+
+    private final List<Runnable> urlChangeListeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger readCounter = new AtomicInteger();
+
+    private volatile Node currentNode;
+
+    private volatile double slowNodeFactor = DEFAULT_SLOW_NODE_FACTOR;
+
+    private volatile boolean plainStandbyReadsEnabled;
+
+    /**
+     * Probes the nodes every {@value #DEFAULT_PROBE_INTERVAL_MILLIS} milliseconds.
+     *
+     * @param nodeUrls URLs of the Vault nodes, in order of preference
+     */
+    public MultiNodeVaultUrlResolver(final List<String> nodeUrls) {
+        this(nodeUrls, DEFAULT_PROBE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Probes the nodes on the specified interval.
+     *
+     * @param nodeUrls      URLs of the Vault nodes, in order of preference
+     * @param probeInterval Interval between health probes
+     * @param unit          Unit of the interval
+     */
+    public MultiNodeVaultUrlResolver(final List<String> nodeUrls, final long probeInterval, final TimeUnit unit) {
+        this(nodeUrls, probeInterval, unit, buildProbeHttpClient(), DEFAULT_SCHEDULER);
+    }
+
+    /**
+     * Probes the nodes on the specified interval, with the specified HTTP client and scheduler.  The HTTP client
+     * should have short timeouts, as a hanging probe delays detecting a failed node.
+     *
+     * @param nodeUrls        URLs of the Vault nodes, in order of preference
+     * @param probeInterval   Interval between health probes
+     * @param unit            Unit of the interval
+     * @param probeHttpClient HTTP client for the health probes
+     * @param scheduler       Scheduler that starts the probes
+     */
+    public MultiNodeVaultUrlResolver(final List<String> nodeUrls,
+                                     final long probeInterval,
+                                     final TimeUnit unit,
+                                     final OkHttpClient probeHttpClient,
+                                     final ScheduledExecutorService scheduler) {
+        if (nodeUrls == null || nodeUrls.isEmpty()) {
+            throw new IllegalArgumentException("No Vault node URLs specified.");
+        }
+
+        if (probeInterval <= 0) {
+            throw new IllegalArgumentException("Probe interval must be positive.");
+        }
+
+        if (probeHttpClient == null) {
+            throw new IllegalArgumentException("Probe HTTP client cannot be null.");
+        }
+
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Scheduler cannot be null.");
+        }
+
+        final List<Node> nodes = new ArrayList<>(nodeUrls.size());
+        for (final String nodeUrl : nodeUrls) {
+            final HttpUrl parsedUrl = nodeUrl == null ? null : HttpUrl.parse(nodeUrl);
+            if (parsedUrl == null) {
+                throw new IllegalArgumentException("Vault node URL is not a valid HTTP URL: " + nodeUrl);
+            }
+
+            final VaultAdminClient healthClient = new VaultAdminClient(
+                    new StaticVaultUrlResolver(nodeUrl), () -> NO_CREDENTIALS, probeHttpClient);
+            // a node that fails its probe is marked unavailable until the next probe rather than retried
+            healthClient.setRetryPolicy(VaultRetryPolicy.none());
+            nodes.add(new Node(nodeUrl, parsedUrl, healthClient));
+        }
+
+        this.nodes = Collections.unmodifiableList(nodes);
+        this.currentNode = this.nodes.get(0);
+        this.scheduler = scheduler;
+        this.scheduledProbe = scheduler.scheduleWithFixedDelay(this::probe, 0, probeInterval, unit);
+    }
+
+    /**
+     * Returns the URL of the best available node.  Does not block.
+     *
+     * @return Vault URL
+     */
+    @Override
+    public String resolve() {
+        return currentNode.url;
+    }
+
+    /**
+     * Returns the URL of a node to send a read to, taking turns between the fastest nodes of the best read tier:
+     * performance standbys, then standbys if enabled, then the node {@link #resolve()} returns.  Does not block.
+     *
+     * @return Vault URL for reads
+     */
+    @Override
+    public String resolveForRead() {
+        final double fastestLatency = getFastestLatencyNanos();
+        for (final NodeStatus tier : READ_TIERS) {
+            if (tier == NodeStatus.STANDBY && !plainStandbyReadsEnabled) {
+                continue;
+            }
+
+            int candidates = 0;
+            for (final Node node : nodes) {
+                if (isReadCandidate(node, tier, fastestLatency)) {
+                    candidates++;
+                }
+            }
+
+            if (candidates > 0) {
+                int pick = Math.floorMod(readCounter.getAndIncrement(), candidates);
+                for (final Node node : nodes) {
+                    if (isReadCandidate(node, tier, fastestLatency) && pick-- == 0) {
+                        return node.url;
+                    }
+                }
+            }
+        }
+        return currentNode.url;
+    }
+
+    /**
+     * Adds the latency of the request to the moving average of its node.
+     *
+     * @param url          URL of the request
+     * @param latencyNanos Time until the response arrived, in nanoseconds
+     */
+    @Override
+    public void onRequestCompleted(final String url, final long latencyNanos) {
+        final Node node = findNode(url);
+        if (node != null) {
+            node.stats.recordLatency(latencyNanos);
+        }
+    }
+
+    /**
+     * Sets how much slower than the fastest node a node may be before it is skipped for reads, e.g. 3 skips nodes
+     * whose average latency is more than three times that of the fastest node.
+     *
+     * @param slowNodeFactor Factor of at least 1
+     * @return The resolver
+     */
+    public MultiNodeVaultUrlResolver setSlowNodeFactor(final double slowNodeFactor) {
+        if (!(slowNodeFactor >= 1)) {
+            throw new IllegalArgumentException("Slow node factor must be at least 1.");
+        }
+
+        this.slowNodeFactor = slowNodeFactor;
+        return this;
+    }
+
+    public double getSlowNodeFactor() {
+        return slowNodeFactor;
+    }
+
+    /**
+     * Sets whether reads may go to plain standby nodes when no performance standby is available.  A plain standby
+     * forwards every request to the active node, so reading from it adds a hop without taking load off the active
+     * node.  Disabled by default.
+     *
+     * @param plainStandbyReadsEnabled Whether plain standby nodes serve reads
+     * @return The resolver
+     */
+    public MultiNodeVaultUrlResolver setPlainStandbyReadsEnabled(final boolean plainStandbyReadsEnabled) {
+        this.plainStandbyReadsEnabled = plainStandbyReadsEnabled;
+        return this;
+    }
+
+    public boolean isPlainStandbyReadsEnabled() {
+        return plainStandbyReadsEnabled;
+    }
+
+    /**
+     * Marks the node of the failed request unavailable, fails over to the next best node and probes all nodes
+     * again.
+     *
+     * @param url   URL of the failed request
+     * @param cause The I/O error
+     */
+    @Override
+    public void onRequestFailed(final String url, final IOException cause) {
+        final Node node = findNode(url);
+        if (node == null || node.status == NodeStatus.UNAVAILABLE) {
+            return;
+        }
+
+        LOGGER.warn("Request to Vault node {} failed, failing over: {}", node.url, cause.toString());
+        node.status = NodeStatus.UNAVAILABLE;
+        selectNode();
+        probeNow();
+    }
+
+    /**
+     * Marks the node unavailable and fails over to the next best node.  Unlike after a failed request, the nodes
+     * are not probed right away, as the health endpoint of a node whose circuit breaker is open may well answer.
+     * The next regular probe makes the node available again.
+     *
+     * @param url URL of the request that was not sent
+     */
+    @Override
+    public void onEndpointUnavailable(final String url) {
+        final Node node = findNode(url);
+        if (node == null || node.status == NodeStatus.UNAVAILABLE) {
+            return;
+        }
+
+        LOGGER.warn("Vault node {} is unavailable, failing over", node.url);
+        node.status = NodeStatus.UNAVAILABLE;
+        selectNode();
+    }
+
+    @Override
+    public void addUrlChangeListener(final Runnable listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null.");
+        }
+
+        urlChangeListeners.add(listener);
+    }
+
+    @Override
+    public void removeUrlChangeListener(final Runnable listener) {
+        urlChangeListeners.remove(listener);
+    }
+
+    /**
+     * Returns the moving average of the latency of every node in milliseconds, in the order the nodes were
+     * specified.  Nodes without any latency measured yet are left out.
+     *
+     * @return Average latency keyed by node URL
+     */
+    public Map<String, Double> getNodeLatencies() {
+        final Map<String, Double> latencies = new LinkedHashMap<>();
+        for (final Node node : nodes) {
+            final double latency = node.stats.getLatencyEwmaNanos();
+            if (latency > 0) {
+                latencies.put(node.url, latency / TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+        return latencies;
+    }
+
+    /**
+     * Returns the last known status of every node, in the order the nodes were specified.
+     *
+     * @return Status keyed by node URL
+     */
+    public Map<String, NodeStatus> getNodeStatuses() {
+        final Map<String, NodeStatus> statuses = new LinkedHashMap<>();
+        for (final Node node : nodes) {
+            statuses.put(node.url, node.status);
+        }
+        return statuses;
+    }
+
+    /**
+     * Probes all nodes in the background, unless a probe is already running.  Does not block.
+     */
+    public void probeNow() {
+        try {
+            scheduler.execute(this::probe);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Failed to schedule probing the Vault nodes.", e);
+        }
+    }
+
+    /**
+     * Stops the background probes.
+     */
+    @Override
+    public void close() {
+        scheduledProbe.cancel(false);
+    }
+
+    private void probe() {
+        if (!probeInFlight.compareAndSet(false, true)) {
+            return;
+        }
+
+        final CompletableFuture<?>[] probes = new CompletableFuture<?>[nodes.size()];
+        for (int i = 0; i < probes.length; i++) {
+            final Node node = nodes.get(i);
+            final long startNanos = System.nanoTime();
+            CompletableFuture<VaultHealthResponse> health;
+            try {
+                health = node.healthClient.healthAsync();
+            } catch (RuntimeException e) {
+                health = Futures.failed(e);
+            }
+            probes[i] = health.handle((response, throwable) -> {
+                if (throwable == null) {
+                    node.stats.recordLatency(System.nanoTime() - startNanos);
+                }
+                node.status = toStatus(response, throwable);
+                return null;
+            });
+        }
+
+        CompletableFuture.allOf(probes).whenComplete((ignored, throwable) -> {
+            probeInFlight.set(false);
+            selectNode();
+        });
+    }
+
+    private static NodeStatus toStatus(final VaultHealthResponse health, final Throwable throwable) {
+        if (throwable != null || health == null || !health.isInitialized() || health.isSealed()) {
+            return NodeStatus.UNAVAILABLE;
+        }
+        if (health.isPerformanceStandby()) {
+            return NodeStatus.PERFORMANCE_STANDBY;
+        }
+        return health.isStandby() ? NodeStatus.STANDBY : NodeStatus.ACTIVE;
+    }
+
+    private boolean isReadCandidate(final Node node, final NodeStatus tier, final double fastestLatencyNanos) {
+        return node.status == tier
+                && (fastestLatencyNanos == 0 || node.stats.getLatencyEwmaNanos() <= fastestLatencyNanos * slowNodeFactor);
+    }
+
+    /**
+     * Returns the lowest average latency of the available nodes, or 0 if none was measured yet.
+     */
+    private double getFastestLatencyNanos() {
+        double fastest = 0;
+        for (final Node node : nodes) {
+            final double latency = node.stats.getLatencyEwmaNanos();
+            if (node.status != NodeStatus.UNAVAILABLE && latency > 0 && (fastest == 0 || latency < fastest)) {
+                fastest = latency;
+            }
+        }
+        return fastest;
+    }
+
+    private void selectNode() {
+        final boolean changed;
+        synchronized (this) {
+            Node best = nodes.get(0);
+            for (final Node node : nodes) {
+                if (node.status.ordinal() < best.status.ordinal()) {
+                    best = node;
+                }
+            }
+
+            changed = best != currentNode;
+            if (changed) {
+                LOGGER.info("Switching Vault node from {} to {} ({}).", currentNode.url, best.url, best.status);
+                currentNode = best;
+            }
+        }
+
+        if (changed) {
+            for (final Runnable listener : urlChangeListeners) {
+                try {
+                    listener.run();
+                } catch (RuntimeException e) {
+                    LOGGER.warn("URL change listener failed.", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the node a request URL belongs to.  Request URLs are built from the parsed node URL, so a prefix match
+     * against its normalized form is enough and avoids parsing the URL of every request.
+     */
+    private Node findNode(final String url) {
+        if (url == null) {
+            return null;
+        }
+
+        for (final Node node : nodes) {
+            if (url.startsWith(node.urlPrefix)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private static OkHttpClient buildProbeHttpClient() {
+        return new OkHttpClient.Builder()
+                .connectTimeout(DEFAULT_PROBE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .writeTimeout(DEFAULT_PROBE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .readTimeout(DEFAULT_PROBE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    private static final class Node {
+
+        private final String url;
+
+        private final String urlPrefix;
+
+        private final VaultAdminClient healthClient;
+
+        private volatile NodeStatus status = NodeStatus.UNKNOWN;
+
+        private final EndpointStats stats = new EndpointStats();
+
+        private Node(final String url, final HttpUrl parsedUrl, final VaultAdminClient healthClient) {
+            this.url = url;
+            final String normalizedUrl = parsedUrl.toString();
+            this.urlPrefix = normalizedUrl.endsWith("/") ? normalizedUrl : normalizedUrl + "/";
+            this.healthClient = healthClient;
+        }
+    }
+}
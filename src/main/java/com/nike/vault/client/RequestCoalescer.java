@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Coalesces concurrent identical requests into a single call.  The first caller for a key runs the call on its own
+ * thread, any caller arriving with the same key while it is in flight waits for and shares its result or exception.
+ * Once the call completes the key is released, so results are never cached beyond the lifetime of the call.
+ */
+class RequestCoalescer {
+
+    private final ConcurrentMap<String, FutureTask<?>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the call, or joins an identical call that is already in flight.
+     *
+     * @param key  Identity of the request, e.g. HTTP method and URL
+     * @param call The call to run
+     * @param <T>  Type of the result
+     * @return Result of the call
+     */
+    @SuppressWarnings("unchecked")
+    <T> T execute(final String key, final Callable<T> call) {
+        final FutureTask<T> task = new FutureTask<>(call);
+        final FutureTask<?> existing = inFlight.putIfAbsent(key, task);
+
+        if (existing != null) {
+            return await((FutureTask<T>) existing);
+        }
+
+        try {
+            task.run();
+        } finally {
+            inFlight.remove(key, task);
+        }
+        return await(task);
+    }
+
+    /**
+     * Returns the number of distinct calls currently in flight.
+     */
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private <T> T await(final FutureTask<T> task) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                } catch (InterruptedException ie) {
+                    // the call is owned by another thread, so keep waiting rather than abandoning its result
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException ee) {
+            final Throwable cause = ee.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new VaultClientException("Unexpected error while communicating with vault.", cause);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import java.util.Arrays;
+
+/**
+ * Runtime state of a {@link VaultHedgingPolicy}: the recent read latencies the hedge delay is derived from and the
+ * budget hedges are paid from.  The delay is recomputed every {@value #RECOMPUTE_INTERVAL} samples rather than on
+ * every read, so reads only pay for a field update under the lock.
+ */
+class RequestHedger {
+
+    static final int SAMPLE_SIZE = 256;
+
+    static final int MIN_SAMPLES = 20;
+
+    static final int RECOMPUTE_INTERVAL = 32;
+
+    private final VaultHedgingPolicy policy;
+
+    private final long[] samples = new long[SAMPLE_SIZE];
+
+    private int sampleCount;
+
+    private int nextSample;
+
+    private int samplesSinceRecompute;
+
+    private double budget;
+
+    private volatile long percentileNanos = -1;
+
+    RequestHedger(final VaultHedgingPolicy policy) {
+        this.policy = policy;
+    }
+
+    VaultHedgingPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns how long to wait for the first request before hedging it.
+     */
+    long getDelayNanos() {
+        final long percentile = percentileNanos;
+        return percentile < 0
+                ? policy.getInitialDelayNanos()
+                : Math.max(percentile, policy.getMinDelayNanos());
+    }
+
+    /**
+     * Adds the share of a hedge that every read earns to the budget.
+     */
+    synchronized void onRequest() {
+        budget = Math.min(VaultHedgingPolicy.MAX_HEDGE_BURST, budget + policy.getMaxHedgeRatio());
+    }
+
+    /**
+     * Pays for a hedge from the budget.
+     *
+     * @return True if the budget allows the hedge
+     */
+    synchronized boolean tryAcquireHedge() {
+        if (budget < 1) {
+            return false;
+        }
+
+        budget -= 1;
+        return true;
+    }
+
+    synchronized void recordLatency(final long latencyNanos) {
+        samples[nextSample] = latencyNanos;
+        nextSample = (nextSample + 1) % SAMPLE_SIZE;
+        if (sampleCount < SAMPLE_SIZE) {
+            sampleCount++;
+        }
+
+        samplesSinceRecompute++;
+        if (sampleCount == MIN_SAMPLES || (sampleCount > MIN_SAMPLES && samplesSinceRecompute >= RECOMPUTE_INTERVAL)) {
+            final long[] sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            final int index = (int) Math.ceil(policy.getPercentile() * sampleCount) - 1;
+            percentileNanos = sorted[Math.max(0, index)];
+            samplesSinceRecompute = 0;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, thread-safe cache where each entry expires after its own TTL.  The least recently used entry is evicted
+ * once the max size is reached.  An entry can outlive its TTL by a grace period, during which {@link #get(String)}
+ * no longer returns it but {@link #getEntry(String)} does, so callers can decide to serve it stale.
+ * <p>
+ * Lookups do not lock, a hit only records its access time on the entry.  Inserts and invalidations lock, and an
+ * insert into a full cache scans it for the least recently used entry, which is cheap next to the Vault call that
+ * produced the value.
+ * </p>
+ * <p>
+ * Callers capture {@link #generation()} before fetching a value and hand it back to
+ * {@link #put(String, Object, long, long, long)}.  Invalidating a key leaves a tombstone stamped with a new
+ * generation, so a fetch of that key that raced with the invalidation does not re-populate the cache with a stale
+ * value, while fetches of other keys are not affected.
+ * </p>
+ *
+ * @param <V> Type of the cached values
+ */
+class TtlCache<V> {
+
+    private final ConcurrentMap<String, CacheEntry<V>> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final int maxSize;
+
+    /**
+     * Newest generation of the tombstones evicted so far.  Guarded by this cache.
+     */
+    private long evictedGeneration;
+
+    TtlCache(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the value for the key, or null if it is absent or expired.
+     */
+    V get(final String key) {
+        final CacheEntry<V> entry = getEntry(key);
+        return entry != null && !entry.isExpired(System.nanoTime()) ? entry.value : null;
+    }
+
+    /**
+     * Returns the entry for the key, including expired entries still within their grace period.
+     */
+    CacheEntry<V> getEntry(final String key) {
+        final CacheEntry<V> entry = entries.get(key);
+        if (entry == null || entry.isTombstone()) {
+            return null;
+        }
+
+        final long now = System.nanoTime();
+        if (entry.isEvictable(now)) {
+            entries.remove(key, entry);
+            return null;
+        }
+
+        entry.accessedAtNanos = now;
+        return entry;
+    }
+
+    /**
+     * Stores the value unless the key was invalidated after the caller captured the expected generation.
+     *
+     * @return true if the value was stored
+     */
+    synchronized boolean put(final String key,
+                             final V value,
+                             final long ttlMillis,
+                             final long graceMillis,
+                             final long expectedGeneration) {
+        final CacheEntry<V> current = entries.get(key);
+        final long currentGeneration = current != null ? current.generation : evictedGeneration;
+        if (currentGeneration > expectedGeneration) {
+            return false;
+        }
+
+        final long now = System.nanoTime();
+        final long expiresAtNanos = now + TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        insert(key, new CacheEntry<>(value,
+                expectedGeneration,
+                expiresAtNanos,
+                expiresAtNanos + TimeUnit.MILLISECONDS.toNanos(graceMillis),
+                now));
+        return true;
+    }
+
+    long generation() {
+        return generation.get();
+    }
+
+    synchronized void invalidate(final String key) {
+        final long now = System.nanoTime();
+        insert(key, new CacheEntry<>(null, generation.incrementAndGet(), now, now, now));
+    }
+
+    synchronized void invalidateAll() {
+        evictedGeneration = generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Stores the entry, making room for it first if the key is new and the cache is full.  Must hold the lock.
+     */
+    private void insert(final String key, final CacheEntry<V> entry) {
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            evictEldest(entry.accessedAtNanos);
+        }
+        entries.put(key, entry);
+    }
+
+    /**
+     * Evicts an entry past its grace period, or else the least recently used entry.  Fetches that started before an
+     * evicted tombstone was written can no longer be told apart, so their values are no longer stored.
+     */
+    private void evictEldest(final long nowNanos) {
+        Map.Entry<String, CacheEntry<V>> eldest = null;
+        for (final Map.Entry<String, CacheEntry<V>> candidate : entries.entrySet()) {
+            final CacheEntry<V> entry = candidate.getValue();
+            if (!entry.isTombstone() && entry.isEvictable(nowNanos)) {
+                eldest = candidate;
+                break;
+            }
+            if (eldest == null || entry.accessedAtNanos - eldest.getValue().accessedAtNanos < 0) {
+                eldest = candidate;
+            }
+        }
+
+        if (eldest != null && entries.remove(eldest.getKey(), eldest.getValue()) && eldest.getValue().isTombstone()) {
+            evictedGeneration = Math.max(evictedGeneration, eldest.getValue().generation);
+        }
+    }
+
+    /**
+     * Cache entry, or the tombstone of an invalidated key if it has no value.  Only the access time changes after
+     * the entry is created.
+     *
+     * @param <V> Type of the cached value
+     */
+    static final class CacheEntry<V> {
+
+        private final V value;
+
+        private final long generation;
+
+        private final long expiresAtNanos;
+
+        private final long evictAtNanos;
+
+        private volatile long accessedAtNanos;
+
+        private CacheEntry(final V value,
+                           final long generation,
+                           final long expiresAtNanos,
+                           final long evictAtNanos,
+                           final long accessedAtNanos) {
+            this.value = value;
+            this.generation = generation;
+            this.expiresAtNanos = expiresAtNanos;
+            this.evictAtNanos = evictAtNanos;
+            this.accessedAtNanos = accessedAtNanos;
+        }
+
+        V getValue() {
+            return value;
+        }
+
+        boolean isExpired(final long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+
+        boolean expiresWithin(final long nowNanos, final long windowNanos) {
+            return nowNanos + windowNanos - expiresAtNanos >= 0;
+        }
+
+        private boolean isEvictable(final long nowNanos) {
+            return nowNanos - evictAtNanos >= 0;
+        }
+
+        private boolean isTombstone() {
+            return value == null;
+        }
+    }
+}
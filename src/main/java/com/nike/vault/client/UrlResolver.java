@@ -16,6 +16,8 @@
 
 package com.nike.vault.client;
 
+import java.io.IOException;
+
 /**
  * Interface for resolving the URL for Vault.
  */
@@ -27,4 +29,92 @@ public interface UrlResolver {
      * @return Vault URL
      */
     String resolve();
+
+    /**
+     * Resolves the URL to send a read to when the client routes reads to standby nodes, see
+     * {@link VaultClient#setStandbyReadsEnabled(boolean)}.  Defaults to {@link #resolve()}.
+     *
+     * @return Vault URL for reads
+     */
+    default String resolveForRead() {
+        return resolve();
+    }
+
+    /**
+     * Returns whether the client may hold on to the resolved URL for its URL refresh interval, see
+     * {@link VaultClient#setUrlRefreshInterval(long, java.util.concurrent.TimeUnit)}.  Resolvers that pick a URL
+     * per request, e.g. to balance load, return false and are asked on every request.  Defaults to true.
+     *
+     * @return Whether the resolved URL can be cached
+     */
+    default boolean isCacheable() {
+        return true;
+    }
+
+    /**
+     * Called by the client right before it sends a request.  Every started request is followed by exactly one
+     * call to {@link #onRequestCompleted(String, long)}, {@link #onRequestFailed(String, IOException)} or
+     * {@link #onRequestCancelled(String)}.  Does nothing by default.
+     *
+     * @param url URL of the request
+     */
+    default void onRequestStarted(final String url) {
+    }
+
+    /**
+     * Called by the client when a request to Vault got a response, with the time it took.  Resolvers that know
+     * several Vault nodes can use this to avoid slow nodes.  Does nothing by default.
+     *
+     * @param url          URL of the request
+     * @param latencyNanos Time from sending the request until the response headers arrived, in nanoseconds
+     */
+    default void onRequestCompleted(final String url, final long latencyNanos) {
+    }
+
+    /**
+     * Called by the client when a request was cancelled, or aborted without a response or I/O error.  Does
+     * nothing by default.
+     *
+     * @param url URL of the request
+     */
+    default void onRequestCancelled(final String url) {
+    }
+
+    /**
+     * Called by the client when a request to the resolved URL failed with an I/O error, e.g. a refused connection
+     * or a timeout.  Resolvers that know several Vault nodes can use this to fail over.  Does nothing by default.
+     *
+     * @param url   URL of the failed request
+     * @param cause The I/O error
+     */
+    default void onRequestFailed(final String url, final IOException cause) {
+    }
+
+    /**
+     * Called by the client instead of sending a request, when the endpoint of the URL is known to be failing, e.g.
+     * its circuit breaker is open.  Resolvers that know several Vault nodes can use this to route around the
+     * endpoint.  It is not preceded by {@link #onRequestStarted(String)}.  Does nothing by default.
+     *
+     * @param url URL of the request that was not sent
+     */
+    default void onEndpointUnavailable(final String url) {
+    }
+
+    /**
+     * Registers a callback for when {@link #resolve()} starts returning a different URL, so clients holding on to
+     * the resolved URL resolve it again.  Resolvers whose URL does not change on its own can ignore the listener,
+     * which is the default.
+     *
+     * @param listener Callback to run when the URL changes
+     */
+    default void addUrlChangeListener(final Runnable listener) {
+    }
+
+    /**
+     * Unregisters a callback added with {@link #addUrlChangeListener(Runnable)}.  Does nothing by default.
+     *
+     * @param listener Callback to stop running when the URL changes
+     */
+    default void removeUrlChangeListener(final Runnable listener) {
+    }
 }
@@ -20,6 +20,7 @@ import com.google.gson.reflect.TypeToken;
 import com.nike.vault.client.auth.VaultCredentialsProvider;
 import com.nike.vault.client.http.HttpMethod;
 import com.nike.vault.client.http.HttpStatus;
+import com.nike.vault.client.json.JsonCodec;
 import com.nike.vault.client.model.VaultAuthResponse;
 import com.nike.vault.client.model.VaultClientTokenResponse;
 import com.nike.vault.client.model.VaultEnableAuditBackendRequest;
@@ -40,19 +41,20 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Admin client for interacting with Vault's sys endpoints.
  */
 public class VaultAdminClient extends VaultClient {
 
-    private static final String SYS_PATH_PREFIX = "v1/sys/";
-
     private static final Set<Integer> HEALTH_RESPONSE_CODES = new HashSet<>();
 
     static {
         HEALTH_RESPONSE_CODES.add(HttpStatus.OK);
         HEALTH_RESPONSE_CODES.add(HttpStatus.TOO_MANY_REQUESTS);
+        HEALTH_RESPONSE_CODES.add(HttpStatus.PERFORMANCE_STANDBY);
         HEALTH_RESPONSE_CODES.add(HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
@@ -84,6 +86,24 @@ public class VaultAdminClient extends VaultClient {
         super(vaultUrlResolver, credentialsProvider, httpClient, defaultHeaders);
     }
 
+    /**
+     * Explicit constructor that allows for full control over construction of the Vault client, including the codec
+     * used for the JSON request and response bodies.
+     *
+     * @param vaultUrlResolver    URL resolver for Vault
+     * @param credentialsProvider Credential provider for acquiring a token for interacting with Vault
+     * @param httpClient          HTTP client for calling Vault
+     * @param defaultHeaders      Default HTTP headers to be included in each request made by the returned VaultClient
+     * @param jsonCodec           Codec for reading and writing JSON bodies
+     */
+    public VaultAdminClient(final UrlResolver vaultUrlResolver,
+                            final VaultCredentialsProvider credentialsProvider,
+                            final OkHttpClient httpClient,
+                            final Headers defaultHeaders,
+                            final JsonCodec jsonCodec) {
+        super(vaultUrlResolver, credentialsProvider, httpClient, defaultHeaders, jsonCodec);
+    }
+
     /**
      * Initializes a new Vault. The Vault must've not been previously initialized.
      *
@@ -93,19 +113,25 @@ public class VaultAdminClient extends VaultClient {
      * @return Object including the master keys and initial root token
      */
     public VaultInitResponse init(final int secretShares, final int secretThreshold) {
-        final HttpUrl url = buildUrl(SYS_PATH_PREFIX, "init");
-
-        final Map<String, Integer> requestBody = new HashMap<>();
-        requestBody.put("secret_shares", secretShares);
-        requestBody.put("secret_threshold", secretThreshold);
-
-        final Response response = execute(url, HttpMethod.PUT, requestBody);
-
-        if (response.code() != HttpStatus.OK) {
-            parseAndThrowErrorResponse(response);
-        }
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, "init");
+        final HttpUrl url = urlBuilder.get();
+        return parseInitResponse(execute(url, urlBuilder, HttpMethod.PUT,
+                buildInitRequest(secretShares, secretThreshold)));
+    }
 
-        return parseResponseBody(response, VaultInitResponse.class);
+    /**
+     * Non-blocking variant of {@link #init(int, int)}.
+     *
+     * @param secretShares    The number of shares to split the master key into
+     * @param secretThreshold The number of shares required to reconstruct the master key.
+     *                        This must be less than or equal to secret_shares
+     * @return Future of the master keys and initial root token
+     */
+    public CompletableFuture<VaultInitResponse> initAsync(final int secretShares, final int secretThreshold) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, "init");
+        final HttpUrl url = urlBuilder.get();
+        return executeAsync(url, urlBuilder, HttpMethod.PUT, buildInitRequest(secretShares, secretThreshold),
+                this::parseInitResponse);
     }
 
     /**
@@ -115,14 +141,20 @@ public class VaultAdminClient extends VaultClient {
      * @return Object including status flags for initialized, sealed and standby
      */
     public VaultHealthResponse health() {
-        final HttpUrl url = buildUrl(SYS_PATH_PREFIX, "health");
-        final Response response = execute(url, HttpMethod.GET, null);
-
-        if (!HEALTH_RESPONSE_CODES.contains(response.code())) {
-            parseAndThrowErrorResponse(response);
-        }
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, "health");
+        final HttpUrl url = urlBuilder.get();
+        return parseHealthResponse(execute(url, urlBuilder, HttpMethod.GET, null));
+    }
 
-        return parseResponseBody(response, VaultHealthResponse.class);
+    /**
+     * Non-blocking variant of {@link #health()}.
+     *
+     * @return Future of the status flags for initialized, sealed and standby
+     */
+    public CompletableFuture<VaultHealthResponse> healthAsync() {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, "health");
+        final HttpUrl url = urlBuilder.get();
+        return executeAsync(url, urlBuilder, HttpMethod.GET, null, this::parseHealthResponse);
     }
 
     /**
@@ -139,16 +171,24 @@ public class VaultAdminClient extends VaultClient {
      * @return Seal status
      */
     public VaultSealStatusResponse unseal(final String key, final boolean reset) {
-        final HttpUrl url = buildUrl(SYS_PATH_PREFIX, "unseal");
-        final VaultUnsealRequest request = new VaultUnsealRequest(key, reset);
-
-        final Response response = execute(url, HttpMethod.PUT, request);
-
-        if (response.code() != HttpStatus.OK) {
-            parseAndThrowErrorResponse(response);
-        }
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, "unseal");
+        final HttpUrl url = urlBuilder.get();
+        return parseSealStatusResponse(execute(url, urlBuilder, HttpMethod.PUT, new VaultUnsealRequest(key, reset)));
+    }
 
-        return parseResponseBody(response, VaultSealStatusResponse.class);
+    /**
+     * Non-blocking variant of {@link #unseal(String, boolean)}.
+     *
+     * @param key   A single master share key
+     * @param reset If true, the previously-provided unseal keys are discarded from memory and the unseal process
+     *              is reset.
+     * @return Future of the seal status
+     */
+    public CompletableFuture<VaultSealStatusResponse> unsealAsync(final String key, final boolean reset) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, "unseal");
+        final HttpUrl url = urlBuilder.get();
+        return executeAsync(url, urlBuilder, HttpMethod.PUT, new VaultUnsealRequest(key, reset),
+                this::parseSealStatusResponse);
     }
 
     /**
@@ -157,18 +197,20 @@ public class VaultAdminClient extends VaultClient {
      * @return Set of policy names
      */
     public Set<String> policies() {
-        final HttpUrl url = buildUrl(SYS_PATH_PREFIX, "policy");
-        final Response response = execute(url, HttpMethod.GET, null);
-
-        if (response.code() != HttpStatus.OK) {
-            parseAndThrowErrorResponse(response);
-        }
-
-        final Type mapType = new TypeToken<Map<String, Set<String>>>() {
-        }.getType();
-        final Map<String, Set<String>> policyMap = parseResponseBody(response, mapType);
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, "policy");
+        final HttpUrl url = urlBuilder.get();
+        return parsePoliciesResponse(execute(url, urlBuilder, HttpMethod.GET, null));
+    }
 
-        return policyMap.get("policies");
+    /**
+     * Non-blocking variant of {@link #policies()}.
+     *
+     * @return Future of the set of policy names
+     */
+    public CompletableFuture<Set<String>> policiesAsync() {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, "policy");
+        final HttpUrl url = urlBuilder.get();
+        return executeAsync(url, urlBuilder, HttpMethod.GET, null, this::parsePoliciesResponse);
     }
 
     /**
@@ -178,14 +220,23 @@ public class VaultAdminClient extends VaultClient {
      * @return Policy rules
      */
     public VaultPolicy policy(final String name) {
-        final HttpUrl url = buildUrl(SYS_PATH_PREFIX, String.format("policy/%s", name));
-        final Response response = execute(url, HttpMethod.GET, null);
-
-        if (response.code() != HttpStatus.OK) {
-            parseAndThrowErrorResponse(response);
-        }
+        final String path = String.format("policy/%s", name);
+        return coalesce(HttpMethod.GET, SYS_PATH_PREFIX, path, () -> {
+            final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, path);
+            return parsePolicyResponse(execute(urlBuilder.get(), urlBuilder, HttpMethod.GET, null));
+        });
+    }
 
-        return parseResponseBody(response, VaultPolicy.class);
+    /**
+     * Non-blocking variant of {@link #policy(String)}.
+     *
+     * @param name Policy name
+     * @return Future of the policy rules
+     */
+    public CompletableFuture<VaultPolicy> policyAsync(final String name) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, String.format("policy/%s", name));
+        final HttpUrl url = urlBuilder.get();
+        return executeAsync(url, urlBuilder, HttpMethod.GET, null, this::parsePolicyResponse);
     }
 
     /**
@@ -195,12 +246,22 @@ public class VaultAdminClient extends VaultClient {
      * @param policy Policy document
      */
     public void putPolicy(final String name, final VaultPolicy policy) {
-        final HttpUrl url = buildUrl(SYS_PATH_PREFIX, String.format("policy/%s", name));
-        final Response response = execute(url, HttpMethod.PUT, policy);
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, String.format("policy/%s", name));
+        final HttpUrl url = urlBuilder.get();
+        parseNoContentResponse(execute(url, urlBuilder, HttpMethod.PUT, policy));
+    }
 
-        if (response.code() != HttpStatus.NO_CONTENT) {
-            parseAndThrowErrorResponse(response);
-        }
+    /**
+     * Non-blocking variant of {@link #putPolicy(String, VaultPolicy)}.
+     *
+     * @param name   Policy name
+     * @param policy Policy document
+     * @return Future that completes once the policy is stored
+     */
+    public CompletableFuture<Void> putPolicyAsync(final String name, final VaultPolicy policy) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, String.format("policy/%s", name));
+        final HttpUrl url = urlBuilder.get();
+        return executeAsync(url, urlBuilder, HttpMethod.PUT, policy, this::parseNoContentResponse);
     }
 
     /**
@@ -209,12 +270,21 @@ public class VaultAdminClient extends VaultClient {
      * @param name Policy name
      */
     public void deletePolicy(final String name) {
-        final HttpUrl url = buildUrl(SYS_PATH_PREFIX, String.format("policy/%s", name));
-        final Response response = execute(url, HttpMethod.DELETE, null);
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, String.format("policy/%s", name));
+        final HttpUrl url = urlBuilder.get();
+        parseNoContentResponse(execute(url, urlBuilder, HttpMethod.DELETE, null));
+    }
 
-        if (response.code() != HttpStatus.NO_CONTENT) {
-            parseAndThrowErrorResponse(response);
-        }
+    /**
+     * Non-blocking variant of {@link #deletePolicy(String)}.
+     *
+     * @param name Policy name
+     * @return Future that completes once the policy is deleted
+     */
+    public CompletableFuture<Void> deletePolicyAsync(final String name) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, String.format("policy/%s", name));
+        final HttpUrl url = urlBuilder.get();
+        return executeAsync(url, urlBuilder, HttpMethod.DELETE, null, this::parseNoContentResponse);
     }
 
     /**
@@ -224,17 +294,21 @@ public class VaultAdminClient extends VaultClient {
      * @return Auth response with the token and details
      */
     public VaultAuthResponse createToken(final VaultTokenAuthRequest vaultTokenAuthRequest) {
-        final HttpUrl url = buildUrl(AUTH_PATH_PREFIX, "token/create");
-        final Response response = execute(url, HttpMethod.POST, vaultTokenAuthRequest);
-
-        if (response.code() != HttpStatus.OK) {
-            parseAndThrowErrorResponse(response);
-        }
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(AUTH_PATH_PREFIX, "token/create");
+        final HttpUrl url = urlBuilder.get();
+        return parseAuthResponse(execute(url, urlBuilder, HttpMethod.POST, vaultTokenAuthRequest));
+    }
 
-        final Type mapType = new TypeToken<Map<String, Object>>() {
-        }.getType();
-        final Map<String, Object> authData = parseResponseBody(response, mapType);
-        return getGson().fromJson(getGson().toJson(authData.get("auth")), VaultAuthResponse.class);
+    /**
+     * Non-blocking variant of {@link #createToken(VaultTokenAuthRequest)}.
+     *
+     * @param vaultTokenAuthRequest Request object with optional parameters
+     * @return Future of the auth response with the token and details
+     */
+    public CompletableFuture<VaultAuthResponse> createTokenAsync(final VaultTokenAuthRequest vaultTokenAuthRequest) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(AUTH_PATH_PREFIX, "token/create");
+        final HttpUrl url = urlBuilder.get();
+        return executeAsync(url, urlBuilder, HttpMethod.POST, vaultTokenAuthRequest, this::parseAuthResponse);
     }
 
     /**
@@ -245,17 +319,21 @@ public class VaultAdminClient extends VaultClient {
      * @return Auth response with the token and details
      */
     public VaultAuthResponse createOrphanToken(final VaultTokenAuthRequest vaultTokenAuthRequest) {
-        final HttpUrl url = buildUrl(AUTH_PATH_PREFIX, "token/create-orphan");
-        final Response response = execute(url, HttpMethod.POST, vaultTokenAuthRequest);
-
-        if (response.code() != HttpStatus.OK) {
-            parseAndThrowErrorResponse(response);
-        }
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(AUTH_PATH_PREFIX, "token/create-orphan");
+        final HttpUrl url = urlBuilder.get();
+        return parseAuthResponse(execute(url, urlBuilder, HttpMethod.POST, vaultTokenAuthRequest));
+    }
 
-        final Type mapType = new TypeToken<Map<String, Object>>() {
-        }.getType();
-        final Map<String, Object> authData = parseResponseBody(response, mapType);
-        return getGson().fromJson(getGson().toJson(authData.get("auth")), VaultAuthResponse.class);
+    /**
+     * Non-blocking variant of {@link #createOrphanToken(VaultTokenAuthRequest)}.
+     *
+     * @param vaultTokenAuthRequest Request object with optional parameters
+     * @return Future of the auth response with the token and details
+     */
+    public CompletableFuture<VaultAuthResponse> createOrphanTokenAsync(final VaultTokenAuthRequest vaultTokenAuthRequest) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(AUTH_PATH_PREFIX, "token/create-orphan");
+        final HttpUrl url = urlBuilder.get();
+        return executeAsync(url, urlBuilder, HttpMethod.POST, vaultTokenAuthRequest, this::parseAuthResponse);
     }
 
     /**
@@ -264,12 +342,22 @@ public class VaultAdminClient extends VaultClient {
      * @param token Token to revoke
      */
     public void revokeToken(final String token) {
-        final HttpUrl url = buildUrl(AUTH_PATH_PREFIX, String.format("token/revoke/%s", token));
-        final Response response = execute(url, HttpMethod.POST, new VaultRevokeTokenRequest(token));
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(AUTH_PATH_PREFIX, String.format("token/revoke/%s", token));
+        final HttpUrl url = urlBuilder.get();
+        parseNoContentResponse(execute(url, urlBuilder, HttpMethod.POST, new VaultRevokeTokenRequest(token)));
+    }
 
-        if (response.code() != HttpStatus.NO_CONTENT) {
-            parseAndThrowErrorResponse(response);
-        }
+    /**
+     * Non-blocking variant of {@link #revokeToken(String)}.
+     *
+     * @param token Token to revoke
+     * @return Future that completes once the token is revoked
+     */
+    public CompletableFuture<Void> revokeTokenAsync(final String token) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(AUTH_PATH_PREFIX, String.format("token/revoke/%s", token));
+        final HttpUrl url = urlBuilder.get();
+        return executeAsync(url, urlBuilder, HttpMethod.POST, new VaultRevokeTokenRequest(token),
+                this::parseNoContentResponse);
     }
 
     /**
@@ -280,12 +368,24 @@ public class VaultAdminClient extends VaultClient {
      * @param token Token to revoke
      */
     public void revokeOrphanToken(final String token) {
-        final HttpUrl url = buildUrl(AUTH_PATH_PREFIX, String.format("token/revoke-orphan/%s", token));
-        final Response response = execute(url, HttpMethod.POST, new VaultRevokeTokenRequest(token));
+        final Supplier<HttpUrl> urlBuilder = () ->
+                buildUrl(AUTH_PATH_PREFIX, String.format("token/revoke-orphan/%s", token));
+        final HttpUrl url = urlBuilder.get();
+        parseNoContentResponse(execute(url, urlBuilder, HttpMethod.POST, new VaultRevokeTokenRequest(token)));
+    }
 
-        if (response.code() != HttpStatus.NO_CONTENT) {
-            parseAndThrowErrorResponse(response);
-        }
+    /**
+     * Non-blocking variant of {@link #revokeOrphanToken(String)}.
+     *
+     * @param token Token to revoke
+     * @return Future that completes once the token is revoked
+     */
+    public CompletableFuture<Void> revokeOrphanTokenAsync(final String token) {
+        final Supplier<HttpUrl> urlBuilder = () ->
+                buildUrl(AUTH_PATH_PREFIX, String.format("token/revoke-orphan/%s", token));
+        final HttpUrl url = urlBuilder.get();
+        return executeAsync(url, urlBuilder, HttpMethod.POST, new VaultRevokeTokenRequest(token),
+                this::parseNoContentResponse);
     }
 
     /**
@@ -295,17 +395,23 @@ public class VaultAdminClient extends VaultClient {
      * @return Token details
      */
     public VaultClientTokenResponse lookupToken(final String token) {
-        final HttpUrl url = buildUrl(AUTH_PATH_PREFIX, String.format("token/lookup/%s", token));
-        final Response response = execute(url, HttpMethod.GET, null);
-
-        if (response.code() != HttpStatus.OK) {
-            parseAndThrowErrorResponse(response);
-        }
+        final String path = String.format("token/lookup/%s", token);
+        return coalesce(HttpMethod.GET, AUTH_PATH_PREFIX, path, () -> {
+            final Supplier<HttpUrl> urlBuilder = () -> buildUrl(AUTH_PATH_PREFIX, path);
+            return parseTokenLookupResponse(execute(urlBuilder.get(), urlBuilder, HttpMethod.GET, null));
+        });
+    }
 
-        final Type mapType = new TypeToken<Map<String, Object>>() {
-        }.getType();
-        final Map<String, Object> rootData = parseResponseBody(response, mapType);
-        return getGson().fromJson(getGson().toJson(rootData.get("data")), VaultClientTokenResponse.class);
+    /**
+     * Non-blocking variant of {@link #lookupToken(String)}.
+     *
+     * @param token Token to lookup
+     * @return Future of the token details
+     */
+    public CompletableFuture<VaultClientTokenResponse> lookupTokenAsync(final String token) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(AUTH_PATH_PREFIX, String.format("token/lookup/%s", token));
+        final HttpUrl url = urlBuilder.get();
+        return executeAsync(url, urlBuilder, HttpMethod.GET, null, this::parseTokenLookupResponse);
     }
 
     /**
@@ -316,12 +422,23 @@ public class VaultAdminClient extends VaultClient {
      */
     public void enableAuditBackend(final String path,
                                    final VaultEnableAuditBackendRequest request) {
-        final HttpUrl url = buildUrl(SYS_PATH_PREFIX, String.format("audit/%s", path));
-        final Response response = execute(url, HttpMethod.PUT, request);
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, String.format("audit/%s", path));
+        final HttpUrl url = urlBuilder.get();
+        parseNoContentResponse(execute(url, urlBuilder, HttpMethod.PUT, request));
+    }
 
-        if (response.code() != HttpStatus.NO_CONTENT) {
-            parseAndThrowErrorResponse(response);
-        }
+    /**
+     * Non-blocking variant of {@link #enableAuditBackend(String, VaultEnableAuditBackendRequest)}.
+     *
+     * @param path    Audit backend path
+     * @param request Audit backend details
+     * @return Future that completes once the audit backend is enabled
+     */
+    public CompletableFuture<Void> enableAuditBackendAsync(final String path,
+                                                           final VaultEnableAuditBackendRequest request) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, String.format("audit/%s", path));
+        final HttpUrl url = urlBuilder.get();
+        return executeAsync(url, urlBuilder, HttpMethod.PUT, request, this::parseNoContentResponse);
     }
 
     /**
@@ -330,17 +447,26 @@ public class VaultAdminClient extends VaultClient {
      * @param path Audit backend path
      */
     public void disableAuditBackend(final String path) {
-        final HttpUrl url = buildUrl(SYS_PATH_PREFIX, String.format("audit/%s", path));
-        final Response response = execute(url, HttpMethod.DELETE, null);
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, String.format("audit/%s", path));
+        final HttpUrl url = urlBuilder.get();
+        parseNoContentResponse(execute(url, urlBuilder, HttpMethod.DELETE, null));
+    }
 
-        if (response.code() != HttpStatus.NO_CONTENT) {
-            parseAndThrowErrorResponse(response);
-        }
+    /**
+     * Non-blocking variant of {@link #disableAuditBackend(String)}.
+     *
+     * @param path Audit backend path
+     * @return Future that completes once the audit backend is disabled
+     */
+    public CompletableFuture<Void> disableAuditBackendAsync(final String path) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, String.format("audit/%s", path));
+        final HttpUrl url = urlBuilder.get();
+        return executeAsync(url, urlBuilder, HttpMethod.DELETE, null, this::parseNoContentResponse);
     }
 
     /**
      * Barebones method that can be used to make any call to Vault.  The caller is responsible for interpreting
-     * and de-serializing the response.  The Gson instance used by the client is accessible via {@link #getGson()}
+     * and de-serializing the response.  The JSON codec used by the client is accessible via {@link #getJsonCodec()}
      *
      * @param path        Path to the resource
      * @param method      HTTP method
@@ -348,7 +474,88 @@ public class VaultAdminClient extends VaultClient {
      * @return HTTP response object
      */
     public Response execute(final String path, final String method, final Object requestBody) {
-        final HttpUrl url = buildUrl("", path);
-        return execute(url, method, requestBody);
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl("", path);
+        final HttpUrl url = urlBuilder.get();
+        return execute(url, urlBuilder, method, requestBody);
+    }
+
+    /**
+     * Never retries health responses, their status code describes the node rather than a failed request, e.g. 429
+     * for a standby or 503 for a sealed node.
+     */
+    @Override
+    protected boolean isRetryableResponse(final Response response) {
+        return !isHealthResponse(response) && super.isRetryableResponse(response);
+    }
+
+    /**
+     * Never counts health responses as failures, for the same reason they are not retried.
+     */
+    @Override
+    protected boolean isFailedResponse(final Response response) {
+        return !isHealthResponse(response) && super.isFailedResponse(response);
+    }
+
+    /**
+     * Never takes health responses as a sign of overload, a 429 or 503 there is a standby or sealed node.
+     */
+    @Override
+    protected boolean isOverloadResponse(final Response response) {
+        return !isHealthResponse(response) && super.isOverloadResponse(response);
+    }
+
+    private static boolean isHealthResponse(final Response response) {
+        return response.request().url().encodedPath().endsWith("/" + SYS_PATH_PREFIX + "health");
+    }
+
+    private Map<String, Integer> buildInitRequest(final int secretShares, final int secretThreshold) {
+        final Map<String, Integer> requestBody = new HashMap<>();
+        requestBody.put("secret_shares", secretShares);
+        requestBody.put("secret_threshold", secretThreshold);
+        return requestBody;
+    }
+
+    private VaultInitResponse parseInitResponse(final Response response) {
+        if (response.code() != HttpStatus.OK) {
+            parseAndThrowErrorResponse(response);
+        }
+
+        return parseResponseBody(response, VaultInitResponse.class);
+    }
+
+    private VaultHealthResponse parseHealthResponse(final Response response) {
+        if (!HEALTH_RESPONSE_CODES.contains(response.code())) {
+            parseAndThrowErrorResponse(response);
+        }
+
+        return parseResponseBody(response, VaultHealthResponse.class);
+    }
+
+    private VaultSealStatusResponse parseSealStatusResponse(final Response response) {
+        if (response.code() != HttpStatus.OK) {
+            parseAndThrowErrorResponse(response);
+        }
+
+        return parseResponseBody(response, VaultSealStatusResponse.class);
+    }
+
+    private Set<String> parsePoliciesResponse(final Response response) {
+        if (response.code() != HttpStatus.OK) {
+            parseAndThrowErrorResponse(response);
+        }
+
+        final Type mapType = new TypeToken<Map<String, Set<String>>>() {
+        }.getType();
+        final Map<String, Set<String>> policyMap = parseResponseBody(response, mapType);
+
+        return policyMap.get("policies");
+    }
+
+    private VaultPolicy parsePolicyResponse(final Response response) {
+        if (response.code() != HttpStatus.OK) {
+            parseAndThrowErrorResponse(response);
+        }
+
+        return parseResponseBody(response, VaultPolicy.class);
     }
 }
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for the secret cache used by the {@link CachingVaultClient}.
+ * <p>
+ * A global TTL applies to every cached path unless a more specific TTL has been set for the path, or one of its
+ * parent paths, via {@link #setPathTtl(String, long, TimeUnit)}.  A TTL of zero disables caching for that path.
+ * </p>
+ * <p>
+ * With a refresh-ahead window, an entry read during the last part of its TTL is refreshed in the background while
+ * the current value keeps being served.  With a stale grace period, an expired entry keeps being served for that
+ * long while a background refresh is in flight, or while Vault answers the refresh with a 5xx or is unreachable.
+ * Together these keep readers from blocking on Vault each time an entry expires.
+ * </p>
+ * <p>
+ * Paths that Vault reports as not found can be cached as well, with a separate, usually short, TTL and size bound.
+ * This is disabled by default, see {@link #setNotFoundTtl(long, TimeUnit)}.
+ * </p>
+ */
+public class VaultCacheConfig {
+
+    public static final long DEFAULT_TTL_MILLIS = 60_000;
+
+    public static final int DEFAULT_MAX_SIZE = 1_000;
+
+    public static final int DEFAULT_MAX_NOT_FOUND_SIZE = 1_000;
+
+    private long ttlMillis = DEFAULT_TTL_MILLIS;
+
+    private int maxSize = DEFAULT_MAX_SIZE;
+
+    private final Map<String, Long> pathTtlMillis = new HashMap<>();
+
+    private long refreshAheadMillis;
+
+    private long staleGraceMillis;
+
+    private Executor refreshExecutor;
+
+    private long notFoundTtlMillis;
+
+    private int maxNotFoundSize = DEFAULT_MAX_NOT_FOUND_SIZE;
+
+    /**
+     * Returns the global TTL for cached secrets.
+     *
+     * @return TTL in milliseconds
+     */
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * Sets the global TTL for cached secrets.
+     *
+     * @param duration Duration a secret is kept in the cache
+     * @param unit     Unit of the duration
+     * @return This config
+     */
+    public VaultCacheConfig setTtl(final long duration, final TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("TTL can not be negative.");
+        }
+
+        this.ttlMillis = unit.toMillis(duration);
+        return this;
+    }
+
+    /**
+     * Sets the TTL for secrets stored at the specified path and any path below it.
+     *
+     * @param path     Path the TTL applies to
+     * @param duration Duration a secret is kept in the cache
+     * @param unit     Unit of the duration
+     * @return This config
+     */
+    public VaultCacheConfig setPathTtl(final String path, final long duration, final TimeUnit unit) {
+        if (StringUtils.isBlank(path)) {
+            throw new IllegalArgumentException("Path can not be blank.");
+        }
+
+        if (duration < 0) {
+            throw new IllegalArgumentException("TTL can not be negative.");
+        }
+
+        this.pathTtlMillis.put(normalizePath(path), unit.toMillis(duration));
+        return this;
+    }
+
+    /**
+     * Resolves the TTL for a path.  The most specific path TTL wins, falling back to the global TTL.
+     *
+     * @param path Path of the secret
+     * @return TTL in milliseconds
+     */
+    public long getTtlMillis(final String path) {
+        if (pathTtlMillis.isEmpty()) {
+            return ttlMillis;
+        }
+
+        String candidate = normalizePath(path);
+        while (true) {
+            final Long pathTtl = pathTtlMillis.get(candidate);
+            if (pathTtl != null) {
+                return pathTtl;
+            }
+
+            final int separator = candidate.lastIndexOf('/');
+            if (separator < 0) {
+                return ttlMillis;
+            }
+            candidate = candidate.substring(0, separator);
+        }
+    }
+
+    /**
+     * Returns the max number of secrets held by the cache.
+     *
+     * @return Max size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the max number of secrets held by the cache.  Once full, the least recently used entry is evicted.
+     *
+     * @param maxSize Max size
+     * @return This config
+     */
+    public VaultCacheConfig setMaxSize(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be at least 1.");
+        }
+
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Returns how long before expiry a read triggers a background refresh of the entry.
+     *
+     * @return Refresh-ahead window in milliseconds, zero if disabled
+     */
+    public long getRefreshAheadMillis() {
+        return refreshAheadMillis;
+    }
+
+    /**
+     * Sets how long before expiry a read triggers a background refresh of the entry.  Zero disables refresh-ahead.
+     *
+     * @param duration Refresh-ahead window
+     * @param unit     Unit of the duration
+     * @return This config
+     */
+    public VaultCacheConfig setRefreshAhead(final long duration, final TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Refresh-ahead window can not be negative.");
+        }
+
+        this.refreshAheadMillis = unit.toMillis(duration);
+        return this;
+    }
+
+    /**
+     * Returns how long an expired entry may still be served while it is being refreshed.
+     *
+     * @return Stale grace period in milliseconds, zero if disabled
+     */
+    public long getStaleGraceMillis() {
+        return staleGraceMillis;
+    }
+
+    /**
+     * Sets how long an expired entry may still be served while a background refresh is in flight or while Vault
+     * is failing with a 5xx or I/O error.  Zero disables serving stale entries.
+     *
+     * @param duration Stale grace period
+     * @param unit     Unit of the duration
+     * @return This config
+     */
+    public VaultCacheConfig setStaleGracePeriod(final long duration, final TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Stale grace period can not be negative.");
+        }
+
+        this.staleGraceMillis = unit.toMillis(duration);
+        return this;
+    }
+
+    /**
+     * Returns the executor used for background refreshes, null if the client's default executor is used.
+     *
+     * @return Refresh executor
+     */
+    public Executor getRefreshExecutor() {
+        return refreshExecutor;
+    }
+
+    /**
+     * Sets the executor used for background refreshes.  By default a small shared pool of daemon threads is used.
+     *
+     * @param refreshExecutor Refresh executor
+     * @return This config
+     */
+    public VaultCacheConfig setRefreshExecutor(final Executor refreshExecutor) {
+        this.refreshExecutor = refreshExecutor;
+        return this;
+    }
+
+    /**
+     * Returns how long a not found result for a path is cached.
+     *
+     * @return Not found TTL in milliseconds, zero if disabled
+     */
+    public long getNotFoundTtlMillis() {
+        return notFoundTtlMillis;
+    }
+
+    /**
+     * Sets how long a 404 from a read, or an empty result from a list, is cached.  A write to the path, or to any
+     * path below it, through the caching client drops the cached result.  Zero, the default, disables negative
+     * caching.
+     *
+     * @param duration Duration a not found result is kept in the cache
+     * @param unit     Unit of the duration
+     * @return This config
+     */
+    public VaultCacheConfig setNotFoundTtl(final long duration, final TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Not found TTL can not be negative.");
+        }
+
+        this.notFoundTtlMillis = unit.toMillis(duration);
+        return this;
+    }
+
+    /**
+     * Returns the max number of not found results held by the cache.
+     *
+     * @return Max not found size
+     */
+    public int getMaxNotFoundSize() {
+        return maxNotFoundSize;
+    }
+
+    /**
+     * Sets the max number of not found results held by the cache, for reads and lists each.  Once full, the least
+     * recently used entry is evicted.
+     *
+     * @param maxNotFoundSize Max not found size
+     * @return This config
+     */
+    public VaultCacheConfig setMaxNotFoundSize(final int maxNotFoundSize) {
+        if (maxNotFoundSize < 1) {
+            throw new IllegalArgumentException("Max not found size must be at least 1.");
+        }
+
+        this.maxNotFoundSize = maxNotFoundSize;
+        return this;
+    }
+
+    static String normalizePath(final String path) {
+        return StringUtils.strip(path, "/");
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker of a single Vault endpoint, see {@link VaultCircuitBreakerConfig} for how it opens and closes.
+ * <p>
+ * Every request takes a permit before it is sent and reports its outcome with that permit.  Permits are tied to the
+ * state they were taken in, so a slow request that was sent before the breaker opened does not count as one of the
+ * trial calls afterwards.  The state is guarded by the breaker itself, each request only holds the lock for a few
+ * field updates.
+ * </p>
+ */
+public class VaultCircuitBreaker {
+
+    /**
+     * Permit returned when a request may not be sent.
+     */
+    static final long REJECTED = -1;
+
+    private static final byte FAILED = 1;
+
+    private static final byte SLOW = 2;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VaultCircuitBreaker.class);
+
+    /**
+     * State of a circuit breaker.
+     */
+    public enum State {
+        /** Requests are sent and their outcome is recorded. */
+        CLOSED,
+        /** Requests fail fast. */
+        OPEN,
+        /** A few trial requests are sent to decide whether to close or open again. */
+        HALF_OPEN
+    }
+
+    private final String endpoint;
+
+    private final double failureRateThreshold;
+
+    private final double slowCallRateThreshold;
+
+    private final long slowCallNanos;
+
+    private final int minimumCalls;
+
+    private final long openNanos;
+
+    private final int halfOpenCalls;
+
+    private final byte[] outcomes;
+
+    private int nextOutcome;
+
+    private int recordedCalls;
+
+    private int failedCalls;
+
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+
+    private long generation;
+
+    private long openedAtNanos;
+
+    private int halfOpenPermits;
+
+    VaultCircuitBreaker(final String endpoint, final VaultCircuitBreakerConfig config) {
+        this.endpoint = endpoint;
+        this.failureRateThreshold = config.getFailureRateThreshold();
+        this.slowCallRateThreshold = config.getSlowCallRateThreshold();
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDurationMillis());
+        this.minimumCalls = Math.min(config.getMinimumCalls(), config.getWindowSize());
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(config.getOpenDurationMillis());
+        this.halfOpenCalls = config.getHalfOpenCalls();
+        this.outcomes = new byte[config.getWindowSize()];
+    }
+
+    /**
+     * Returns the endpoint the breaker guards.
+     *
+     * @return Endpoint, e.g. <code>https://vault.example.com:8200</code>
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Returns the current state.  An open breaker reports open until the first request after the open duration
+     * moves it to half-open.
+     *
+     * @return State
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Returns the share of failed calls in the window.
+     *
+     * @return Failure rate between 0 and 1, 0 if no call was recorded
+     */
+    public synchronized double getFailureRate() {
+        return recordedCalls == 0 ? 0 : (double) failedCalls / recordedCalls;
+    }
+
+    /**
+     * Returns the share of slow calls in the window.
+     *
+     * @return Slow call rate between 0 and 1, 0 if no call was recorded
+     */
+    public synchronized double getSlowCallRate() {
+        return recordedCalls == 0 ? 0 : (double) slowCalls / recordedCalls;
+    }
+
+    /**
+     * Takes a permit to send a request.
+     *
+     * @return Permit to report the outcome with, or {@link #REJECTED} if the request must fail fast
+     */
+    synchronized long tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return generation;
+            case OPEN:
+                if (System.nanoTime() - openedAtNanos < openNanos) {
+                    return REJECTED;
+                }
+                transitionTo(State.HALF_OPEN);
+                halfOpenPermits = 1;
+                return generation;
+            default:
+                if (halfOpenPermits >= halfOpenCalls) {
+                    return REJECTED;
+                }
+                halfOpenPermits++;
+                return generation;
+        }
+    }
+
+    /**
+     * Records the outcome of a request.
+     *
+     * @param permit        Permit the request was sent with
+     * @param failed        Whether the request failed
+     * @param durationNanos How long the request took
+     */
+    synchronized void onCompleted(final long permit, final boolean failed, final long durationNanos) {
+        if (permit != generation || state == State.OPEN) {
+            return;
+        }
+
+        record((byte) ((failed ? FAILED : 0) | (durationNanos >= slowCallNanos ? SLOW : 0)));
+
+        if (state == State.HALF_OPEN) {
+            if (recordedCalls >= halfOpenCalls) {
+                transitionTo(exceedsThresholds() ? State.OPEN : State.CLOSED);
+            }
+        } else if (recordedCalls >= minimumCalls && exceedsThresholds()) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * Hands back the permit of a request that was cancelled before it had an outcome.
+     *
+     * @param permit Permit the request was sent with
+     */
+    synchronized void onCancelled(final long permit) {
+        if (permit == generation && state == State.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+        }
+    }
+
+    private void record(final byte outcome) {
+        if (recordedCalls == outcomes.length) {
+            forget(outcomes[nextOutcome]);
+        } else {
+            recordedCalls++;
+        }
+
+        outcomes[nextOutcome] = outcome;
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+        if ((outcome & FAILED) != 0) {
+            failedCalls++;
+        }
+        if ((outcome & SLOW) != 0) {
+            slowCalls++;
+        }
+    }
+
+    private void forget(final byte outcome) {
+        if ((outcome & FAILED) != 0) {
+            failedCalls--;
+        }
+        if ((outcome & SLOW) != 0) {
+            slowCalls--;
+        }
+    }
+
+    private boolean exceedsThresholds() {
+        return failedCalls >= failureRateThreshold * recordedCalls
+                || slowCalls >= slowCallRateThreshold * recordedCalls;
+    }
+
+    private void transitionTo(final State newState) {
+        if (newState == State.OPEN) {
+            LOGGER.warn("Opening circuit breaker for vault endpoint {}, failure rate: {}, slow call rate: {}",
+                    endpoint, getFailureRate(), getSlowCallRate());
+            openedAtNanos = System.nanoTime();
+        } else if (newState == State.CLOSED) {
+            LOGGER.info("Closing circuit breaker for vault endpoint {}.", endpoint);
+        }
+
+        state = newState;
+        generation++;
+        nextOutcome = 0;
+        recordedCalls = 0;
+        failedCalls = 0;
+        slowCalls = 0;
+        halfOpenPermits = 0;
+    }
+}
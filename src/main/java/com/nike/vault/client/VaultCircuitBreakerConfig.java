@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for the circuit breakers of a {@link VaultClient}, see
+ * {@link VaultClient#setCircuitBreakerConfig(VaultCircuitBreakerConfig)}.
+ * <p>
+ * The breaker of an endpoint keeps the outcome of its last requests in a sliding window.  Once the window holds the
+ * minimum number of calls and the share of failed calls, i.e. I/O errors and 5xx responses, or the share of calls
+ * slower than the slow call duration reaches its threshold, the breaker opens.  While open, requests to the endpoint
+ * fail right away with a {@link VaultCircuitOpenException} instead of tying up a thread until they time out.  After
+ * the open duration the breaker lets a few trial calls through, and closes again if they pass the same thresholds.
+ * </p>
+ */
+public class VaultCircuitBreakerConfig {
+
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+
+    public static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 0.8;
+
+    public static final long DEFAULT_SLOW_CALL_DURATION_MILLIS = 5_000;
+
+    public static final int DEFAULT_WINDOW_SIZE = 20;
+
+    public static final int DEFAULT_MINIMUM_CALLS = 10;
+
+    public static final long DEFAULT_OPEN_DURATION_MILLIS = 10_000;
+
+    public static final int DEFAULT_HALF_OPEN_CALLS = 3;
+
+    private double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+
+    private double slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+
+    private long slowCallDurationMillis = DEFAULT_SLOW_CALL_DURATION_MILLIS;
+
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+
+    private int minimumCalls = DEFAULT_MINIMUM_CALLS;
+
+    private long openDurationMillis = DEFAULT_OPEN_DURATION_MILLIS;
+
+    private int halfOpenCalls = DEFAULT_HALF_OPEN_CALLS;
+
+    /**
+     * Returns the share of failed calls in the window that opens the breaker.
+     *
+     * @return Failure rate threshold between 0 and 1
+     */
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    /**
+     * Sets the share of failed calls in the window that opens the breaker, e.g. 0.5 for half of the calls.
+     *
+     * @param failureRateThreshold Threshold above 0 and up to 1
+     * @return This config
+     */
+    public VaultCircuitBreakerConfig setFailureRateThreshold(final double failureRateThreshold) {
+        if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+            throw new IllegalArgumentException("Failure rate threshold must be above 0 and up to 1.");
+        }
+
+        this.failureRateThreshold = failureRateThreshold;
+        return this;
+    }
+
+    /**
+     * Returns the share of slow calls in the window that opens the breaker.
+     *
+     * @return Slow call rate threshold between 0 and 1
+     */
+    public double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    /**
+     * Sets the share of slow calls in the window that opens the breaker.
+     *
+     * @param slowCallRateThreshold Threshold above 0 and up to 1
+     * @return This config
+     */
+    public VaultCircuitBreakerConfig setSlowCallRateThreshold(final double slowCallRateThreshold) {
+        if (!(slowCallRateThreshold > 0 && slowCallRateThreshold <= 1)) {
+            throw new IllegalArgumentException("Slow call rate threshold must be above 0 and up to 1.");
+        }
+
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        return this;
+    }
+
+    /**
+     * Returns how long a call may take before it counts as slow.
+     *
+     * @return Slow call duration in milliseconds
+     */
+    public long getSlowCallDurationMillis() {
+        return slowCallDurationMillis;
+    }
+
+    /**
+     * Sets how long a call may take before it counts as slow.  Should be well below the read timeout of the HTTP
+     * client, so a degrading endpoint is noticed before calls start to time out.
+     *
+     * @param duration Slow call duration
+     * @param unit     Unit of the duration
+     * @return This config
+     */
+    public VaultCircuitBreakerConfig setSlowCallDuration(final long duration, final TimeUnit unit) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Slow call duration must be positive.");
+        }
+
+        this.slowCallDurationMillis = unit.toMillis(duration);
+        return this;
+    }
+
+    /**
+     * Returns the number of most recent calls the rates are computed over.
+     *
+     * @return Window size
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Sets the number of most recent calls the rates are computed over.
+     *
+     * @param windowSize Window size
+     * @return This config
+     */
+    public VaultCircuitBreakerConfig setWindowSize(final int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be at least 1.");
+        }
+
+        this.windowSize = windowSize;
+        return this;
+    }
+
+    /**
+     * Returns the number of calls the window must hold before the breaker may open.
+     *
+     * @return Minimum calls
+     */
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    /**
+     * Sets the number of calls the window must hold before the breaker may open, so a couple of failures right
+     * after start do not open it.  Capped at the window size.
+     *
+     * @param minimumCalls Minimum calls
+     * @return This config
+     */
+    public VaultCircuitBreakerConfig setMinimumCalls(final int minimumCalls) {
+        if (minimumCalls < 1) {
+            throw new IllegalArgumentException("Minimum calls must be at least 1.");
+        }
+
+        this.minimumCalls = minimumCalls;
+        return this;
+    }
+
+    /**
+     * Returns how long the breaker stays open before it lets trial calls through.
+     *
+     * @return Open duration in milliseconds
+     */
+    public long getOpenDurationMillis() {
+        return openDurationMillis;
+    }
+
+    /**
+     * Sets how long the breaker stays open before it lets trial calls through.
+     *
+     * @param duration Open duration
+     * @param unit     Unit of the duration
+     * @return This config
+     */
+    public VaultCircuitBreakerConfig setOpenDuration(final long duration, final TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Open duration can not be negative.");
+        }
+
+        this.openDurationMillis = unit.toMillis(duration);
+        return this;
+    }
+
+    /**
+     * Returns the number of trial calls let through once the open duration passed.
+     *
+     * @return Half-open calls
+     */
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    /**
+     * Sets the number of trial calls let through once the open duration passed.  The breaker closes or opens again
+     * once all of them completed.
+     *
+     * @param halfOpenCalls Half-open calls
+     * @return This config
+     */
+    public VaultCircuitBreakerConfig setHalfOpenCalls(final int halfOpenCalls) {
+        if (halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Half-open calls must be at least 1.");
+        }
+
+        this.halfOpenCalls = halfOpenCalls;
+        return this;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+/**
+ * Thrown instead of sending a request while the circuit breaker of its endpoint is open.
+ */
+public class VaultCircuitOpenException extends VaultClientException {
+
+    private final String endpoint;
+
+    /**
+     * Constructs the exception for the endpoint whose breaker is open.
+     *
+     * @param endpoint Endpoint, e.g. <code>https://vault.example.com:8200</code>
+     */
+    public VaultCircuitOpenException(final String endpoint) {
+        super("Circuit breaker for vault endpoint " + endpoint + " is open, failing fast.");
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Returns the endpoint whose breaker is open.
+     *
+     * @return Endpoint
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
@@ -16,24 +16,27 @@
 
 package com.nike.vault.client;
 
-import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
 import com.nike.vault.client.auth.VaultCredentialsProvider;
 import com.nike.vault.client.http.HttpHeader;
 import com.nike.vault.client.http.HttpMethod;
 import com.nike.vault.client.http.HttpStatus;
+import com.nike.vault.client.json.GsonJsonCodec;
+import com.nike.vault.client.json.JsonCodec;
+import com.nike.vault.client.json.JsonCodecException;
+import com.nike.vault.client.model.VaultAuthResponse;
 import com.nike.vault.client.model.VaultClientTokenResponse;
+import com.nike.vault.client.model.VaultEnvelope;
 import com.nike.vault.client.model.VaultListResponse;
 import com.nike.vault.client.model.VaultResponse;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.Headers;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.RequestBody;
 import okhttp3.Response;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -41,10 +44,39 @@ import org.slf4j.LoggerFactory;
 
 import javax.net.ssl.SSLException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Client for interacting with a Vault.
@@ -55,27 +87,85 @@ public class VaultClient {
 
     public static final String AUTH_PATH_PREFIX = "v1/auth/";
 
+    public static final String SYS_PATH_PREFIX = "v1/sys/";
+
+    public static final String API_PATH_PREFIX = "v1/";
+
+    public static final int DEFAULT_TREE_PREFETCH_SIZE = 4;
+
+    public static final long DEFAULT_URL_REFRESH_INTERVAL_MILLIS = 60_000;
+
     public static final MediaType DEFAULT_MEDIA_TYPE = MediaType.parse("application/json; charset=utf-8");
 
+    private static final int MAX_CAPTURED_BODY_CHARS = 2048;
+
+    private static final Type LIST_ENVELOPE_TYPE = new TypeToken<VaultEnvelope<VaultListResponse>>() {
+    }.getType();
+
+    private static final Type TOKEN_ENVELOPE_TYPE = new TypeToken<VaultEnvelope<VaultClientTokenResponse>>() {
+    }.getType();
+
+    private static final Type AUTH_ENVELOPE_TYPE = new TypeToken<VaultEnvelope<Map<String, Object>>>() {
+    }.getType();
+
+    private static final ScheduledExecutorService RETRY_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new NamedDaemonThreadFactory("vault-retry"));
+
+    private static final ScheduledExecutorService HEDGE_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new NamedDaemonThreadFactory("vault-hedge"));
+
     private final VaultCredentialsProvider credentialsProvider;
 
     private final OkHttpClient httpClient;
 
-    private final UrlResolver urlResolver;
+    private final BaseUrlCache baseUrlCache;
 
     private final Headers defaultHeaders;
 
-    private final Gson gson = new GsonBuilder()
-            .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
-            .disableHtmlEscaping()
-            .create();
+    private final JsonCodec jsonCodec;
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
+
+    private final VaultRetryMetrics retryMetrics = new VaultRetryMetrics();
+
+    private volatile VaultRetryPolicy retryPolicy = new VaultRetryPolicy();
+
+    private final ConcurrentMap<String, VaultCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    private volatile VaultCircuitBreakerConfig circuitBreakerConfig;
+
+    private volatile RequestHedger requestHedger;
+
+    private volatile VaultConcurrencyLimiter concurrencyLimiter;
+
+    private volatile boolean requestCoalescingEnabled = true;
+
+    private volatile boolean standbyReadsEnabled;
+
     public VaultClient(final UrlResolver vaultUrlResolver,
                        final VaultCredentialsProvider credentialsProvider,
                        final OkHttpClient httpClient,
                        final Headers defaultHeaders) {
+        this(vaultUrlResolver, credentialsProvider, httpClient, defaultHeaders, new GsonJsonCodec());
+    }
+
+    /**
+     * Explicit constructor that allows for full control over construction of the Vault client, including the codec
+     * used for the JSON request and response bodies.
+     *
+     * @param vaultUrlResolver    URL resolver for Vault
+     * @param credentialsProvider Credential provider for acquiring a token for interacting with Vault
+     * @param httpClient          HTTP client for calling Vault
+     * @param defaultHeaders      Default HTTP headers to be included in each request
+     * @param jsonCodec           Codec for reading and writing JSON bodies
+     */
+    public VaultClient(final UrlResolver vaultUrlResolver,
+                       final VaultCredentialsProvider credentialsProvider,
+                       final OkHttpClient httpClient,
+                       final Headers defaultHeaders,
+                       final JsonCodec jsonCodec) {
         if (vaultUrlResolver == null) {
             throw new IllegalArgumentException("Vault URL resolver cannot be null.");
         }
@@ -92,10 +182,15 @@ public class VaultClient {
             throw new IllegalArgumentException("Default headers cannot be null.");
         }
 
-        this.urlResolver = vaultUrlResolver;
+        if (jsonCodec == null) {
+            throw new IllegalArgumentException("JSON codec cannot be null.");
+        }
+
+        this.baseUrlCache = BaseUrlCache.create(vaultUrlResolver, DEFAULT_URL_REFRESH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
         this.credentialsProvider = credentialsProvider;
         this.httpClient = httpClient;
         this.defaultHeaders = defaultHeaders;
+        this.jsonCodec = jsonCodec;
     }
 
     /**
@@ -120,10 +215,11 @@ public class VaultClient {
             throw new IllegalArgumentException("Http client can not be null.");
         }
 
-        this.urlResolver = vaultUrlResolver;
+        this.baseUrlCache = BaseUrlCache.create(vaultUrlResolver, DEFAULT_URL_REFRESH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
         this.credentialsProvider = credentialsProvider;
         this.httpClient = httpClient;
         this.defaultHeaders = new Headers.Builder().build();
+        this.jsonCodec = new GsonJsonCodec();
     }
 
 
@@ -135,27 +231,36 @@ public class VaultClient {
      * <p>
      * See https://www.vaultproject.io/docs/secrets/generic/index.html for details on what the list operation returns.
      * </p>
+     * <p>
+     * Concurrent identical list calls are coalesced into a single request, see
+     * {@link #setRequestCoalescingEnabled(boolean)}.  Slow list calls may be hedged, see
+     * {@link #setHedgingPolicy(VaultHedgingPolicy)}.
+     * </p>
      *
      * @param path Path to the data
      * @return Map containing the keys at that path
      */
     public VaultListResponse list(final String path) {
-        final HttpUrl url = buildUrl(SECRET_PATH_PREFIX, path + "?list=true");
-        logger.debug("list: requestUrl={}", url);
+        return coalesce(HttpMethod.GET, SECRET_PATH_PREFIX, path + "?list=true", () -> {
+            final HttpUrl url = buildReadUrl(SECRET_PATH_PREFIX, path + "?list=true");
+            logger.debug("list: requestUrl={}", url);
 
-        final Response response = execute(url, HttpMethod.GET, null);
+            return executeRead(url, SECRET_PATH_PREFIX, path + "?list=true", this::parseListResponse);
+        });
+    }
 
-        if (response.code() == HttpStatus.NOT_FOUND) {
-            response.close();
-            return new VaultListResponse();
-        } else if (response.code() != HttpStatus.OK) {
-            parseAndThrowErrorResponse(response);
-        }
+    /**
+     * Non-blocking variant of {@link #list(String)}.  The returned future completes exceptionally with the same
+     * exceptions the blocking variant throws.
+     *
+     * @param path Path to the data
+     * @return Future of the keys at that path
+     */
+    public CompletableFuture<VaultListResponse> listAsync(final String path) {
+        final HttpUrl url = buildReadUrl(SECRET_PATH_PREFIX, path + "?list=true");
+        logger.debug("listAsync: requestUrl={}", url);
 
-        final Type mapType = new TypeToken<Map<String, Object>>() {
-        }.getType();
-        final Map<String, Object> rootData = parseResponseBody(response, mapType);
-        return gson.fromJson(gson.toJson(rootData.get("data")), VaultListResponse.class);
+        return executeReadAsync(url, SECRET_PATH_PREFIX, path + "?list=true", this::parseListResponse);
     }
 
     /**
@@ -163,21 +268,197 @@ public class VaultClient {
      * If Vault returns an unexpected response code, a {@link VaultServerException} will be thrown with the code
      * and error details.  If an unexpected I/O error is encountered, a {@link VaultClientException} will be thrown
      * wrapping the underlying exception.
+     * <p>
+     * Concurrent identical read calls are coalesced into a single request, see
+     * {@link #setRequestCoalescingEnabled(boolean)}.  Slow read calls may be hedged, see
+     * {@link #setHedgingPolicy(VaultHedgingPolicy)}.
+     * </p>
      *
      * @param path Path to the data
      * @return Map of the data
      */
     public VaultResponse read(final String path) {
-        final HttpUrl url = buildUrl(SECRET_PATH_PREFIX, path);
-        logger.debug("read: requestUrl={}", url);
+        return coalesce(HttpMethod.GET, SECRET_PATH_PREFIX, path, () -> {
+            final HttpUrl url = buildReadUrl(SECRET_PATH_PREFIX, path);
+            logger.debug("read: requestUrl={}", url);
+
+            return executeRead(url, SECRET_PATH_PREFIX, path, this::parseReadResponse);
+        });
+    }
 
-        final Response response = execute(url, HttpMethod.GET, null);
+    /**
+     * Non-blocking variant of {@link #read(String)}.  The returned future completes exceptionally with the same
+     * exceptions the blocking variant throws.
+     *
+     * @param path Path to the data
+     * @return Future of the data
+     */
+    public CompletableFuture<VaultResponse> readAsync(final String path) {
+        final HttpUrl url = buildReadUrl(SECRET_PATH_PREFIX, path);
+        logger.debug("readAsync: requestUrl={}", url);
 
-        if (response.code() != HttpStatus.OK) {
-            parseAndThrowErrorResponse(response);
+        return executeReadAsync(url, SECRET_PATH_PREFIX, path, this::parseReadResponse);
+    }
+
+    /**
+     * Reads many paths concurrently.  At most as many reads are in flight as the dispatcher of the HTTP client
+     * allows per host.  See {@link #readAll(Collection, int)}.
+     *
+     * @param paths Paths to the data
+     * @return Responses and failures keyed by path
+     */
+    public BulkReadResult readAll(final Collection<String> paths) {
+        return readAll(paths, getDefaultMaxConcurrency());
+    }
+
+    /**
+     * Reads many paths concurrently, with at most the specified number of reads in flight.  Duplicate paths are
+     * read once.  A path that fails to read is reported in {@link BulkReadResult#getFailures()} and does not abort
+     * the reads of the other paths.
+     *
+     * @param paths          Paths to the data
+     * @param maxConcurrency Max number of reads in flight
+     * @return Responses and failures keyed by path
+     */
+    public BulkReadResult readAll(final Collection<String> paths, final int maxConcurrency) {
+        return readAllAsync(paths, maxConcurrency).join();
+    }
+
+    /**
+     * Non-blocking variant of {@link #readAll(Collection, int)}.  The returned future completes once every path has
+     * either been read or failed.
+     *
+     * @param paths          Paths to the data
+     * @param maxConcurrency Max number of reads in flight
+     * @return Future of the responses and failures keyed by path
+     */
+    public CompletableFuture<BulkReadResult> readAllAsync(final Collection<String> paths, final int maxConcurrency) {
+        if (paths == null) {
+            throw new IllegalArgumentException("Paths cannot be null.");
         }
 
-        return parseResponseBody(response, VaultResponse.class);
+        final BulkReadResult result = new BulkReadResult();
+        final AsyncTaskQueue taskQueue = new AsyncTaskQueue(maxConcurrency);
+        for (final String path : new LinkedHashSet<>(paths)) {
+            submitRead(taskQueue, path, result);
+        }
+        taskQueue.closeSubmissions();
+
+        return taskQueue.whenIdle().thenApply(ignored -> result);
+    }
+
+    /**
+     * Lists the leaf paths below the specified path, expanding folders recursively.  See
+     * {@link #listRecursive(String, int)}.
+     *
+     * @param path Path to the folder
+     * @return Sorted list of leaf paths
+     */
+    public List<String> listRecursive(final String path) {
+        return listRecursive(path, getDefaultMaxConcurrency());
+    }
+
+    /**
+     * Lists the leaf paths below the specified path.  Keys ending in '/' are folders and are listed in parallel, with
+     * at most the specified number of list calls in flight.  The returned paths are full paths, e.g. 'app/db/password'
+     * for the key 'password' in the folder 'app/db/'.
+     *
+     * @param path           Path to the folder
+     * @param maxConcurrency Max number of list calls in flight
+     * @return Sorted list of leaf paths
+     */
+    public List<String> listRecursive(final String path, final int maxConcurrency) {
+        return Futures.join(listRecursiveAsync(path, maxConcurrency));
+    }
+
+    /**
+     * Non-blocking variant of {@link #listRecursive(String, int)}.  The future fails if any folder can not be listed.
+     *
+     * @param path           Path to the folder
+     * @param maxConcurrency Max number of list calls in flight
+     * @return Future of the sorted list of leaf paths
+     */
+    public CompletableFuture<List<String>> listRecursiveAsync(final String path, final int maxConcurrency) {
+        final Queue<String> leafPaths = new ConcurrentLinkedQueue<>();
+        return walkTree(path, maxConcurrency, (taskQueue, leafPath) -> leafPaths.add(leafPath))
+                .thenApply(ignored -> {
+                    final List<String> sortedPaths = new ArrayList<>(leafPaths);
+                    Collections.sort(sortedPaths);
+                    return sortedPaths;
+                });
+    }
+
+    /**
+     * Reads every leaf below the specified path.  See {@link #readTree(String, int)}.
+     *
+     * @param path Path to the folder
+     * @return Responses and failures keyed by leaf path
+     */
+    public BulkReadResult readTree(final String path) {
+        return readTree(path, getDefaultMaxConcurrency());
+    }
+
+    /**
+     * Reads every leaf below the specified path.  Folders are listed and leaves are read in parallel, with at most
+     * the specified number of calls in flight in total.  A leaf that fails to read is reported in
+     * {@link BulkReadResult#getFailures()}, while a folder that fails to list fails the whole call, as the tree would
+     * be incomplete otherwise.
+     *
+     * @param path           Path to the folder
+     * @param maxConcurrency Max number of list and read calls in flight
+     * @return Responses and failures keyed by leaf path
+     */
+    public BulkReadResult readTree(final String path, final int maxConcurrency) {
+        return Futures.join(readTreeAsync(path, maxConcurrency));
+    }
+
+    /**
+     * Non-blocking variant of {@link #readTree(String, int)}.
+     *
+     * @param path           Path to the folder
+     * @param maxConcurrency Max number of list and read calls in flight
+     * @return Future of the responses and failures keyed by leaf path
+     */
+    public CompletableFuture<BulkReadResult> readTreeAsync(final String path, final int maxConcurrency) {
+        final BulkReadResult result = new BulkReadResult();
+        return walkTree(path, maxConcurrency, (taskQueue, leafPath) -> submitRead(taskQueue, leafPath, result))
+                .thenApply(ignored -> result);
+    }
+
+    /**
+     * Lazily iterates over the leaf paths below the specified path.  See {@link #iterateTree(String, int)}.
+     *
+     * @param path Path to the folder
+     * @return Iterator of leaf paths
+     */
+    public Iterator<String> iterateTree(final String path) {
+        return iterateTree(path, DEFAULT_TREE_PREFETCH_SIZE);
+    }
+
+    /**
+     * Lazily iterates over the leaf paths below the specified path.  Unlike {@link #listRecursive(String)}, the
+     * tree is never held in memory as a whole: folders are listed as the iteration reaches them, while up to the
+     * specified number of pending folders are listed ahead in the background.  The leaves of a folder are returned
+     * before the leaves of its sub folders.  A folder that fails to list is thrown from {@link Iterator#hasNext()}.
+     *
+     * @param path         Path to the folder
+     * @param prefetchSize Max number of pending folders to list ahead
+     * @return Iterator of leaf paths, not thread safe
+     */
+    public Iterator<String> iterateTree(final String path, final int prefetchSize) {
+        return new VaultTreeIterator(this, path, prefetchSize);
+    }
+
+    /**
+     * Stream variant of {@link #iterateTree(String)}.
+     *
+     * @param path Path to the folder
+     * @return Sequential stream of leaf paths
+     */
+    public Stream<String> streamTree(final String path) {
+        final Spliterator<String> spliterator = Spliterators.spliteratorUnknownSize(iterateTree(path),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
     }
 
     /**
@@ -189,14 +470,27 @@ public class VaultClient {
      * @param data Data to be stored
      */
     public void write(final String path, final Map<String, String> data) {
-        final HttpUrl url = buildUrl(SECRET_PATH_PREFIX, path);
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SECRET_PATH_PREFIX, path);
+        final HttpUrl url = urlBuilder.get();
         logger.debug("write: requestUrl={}", url);
 
-        final Response response = execute(url, HttpMethod.POST, data);
+        parseNoContentResponse(execute(url, urlBuilder, HttpMethod.POST, data));
+    }
 
-        if (response.code() != HttpStatus.NO_CONTENT) {
-            parseAndThrowErrorResponse(response);
-        }
+    /**
+     * Non-blocking variant of {@link #write(String, Map)}.  The returned future completes exceptionally with the
+     * same exceptions the blocking variant throws.
+     *
+     * @param path Path for where to store the data
+     * @param data Data to be stored
+     * @return Future that completes once the data is stored
+     */
+    public CompletableFuture<Void> writeAsync(final String path, final Map<String, String> data) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SECRET_PATH_PREFIX, path);
+        final HttpUrl url = urlBuilder.get();
+        logger.debug("writeAsync: requestUrl={}", url);
+
+        return executeAsync(url, urlBuilder, HttpMethod.POST, data, this::parseNoContentResponse);
     }
 
     /**
@@ -207,201 +501,1487 @@ public class VaultClient {
      * @param path Path to data to be deleted
      */
     public void delete(final String path) {
-        final HttpUrl url = buildUrl(SECRET_PATH_PREFIX, path);
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SECRET_PATH_PREFIX, path);
+        final HttpUrl url = urlBuilder.get();
         logger.debug("delete: requestUrl={}", url);
 
-        final Response response = execute(url, HttpMethod.DELETE, null);
+        parseNoContentResponse(execute(url, urlBuilder, HttpMethod.DELETE, null));
+    }
 
-        if (response.code() != HttpStatus.NO_CONTENT) {
-            parseAndThrowErrorResponse(response);
-        }
+    /**
+     * Non-blocking variant of {@link #delete(String)}.  The returned future completes exceptionally with the
+     * same exceptions the blocking variant throws.
+     *
+     * @param path Path to data to be deleted
+     * @return Future that completes once the data is deleted
+     */
+    public CompletableFuture<Void> deleteAsync(final String path) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SECRET_PATH_PREFIX, path);
+        final HttpUrl url = urlBuilder.get();
+        logger.debug("deleteAsync: requestUrl={}", url);
+
+        return executeAsync(url, urlBuilder, HttpMethod.DELETE, null, this::parseNoContentResponse);
     }
 
     /**
-     * Gets all the details about the client token being used by the requester.  Also serves as a simple way
-     * to test that a token is still active.  If an unexpected response is recieved, a {@link VaultServerException}
-     * will be thrown with details.
+     * Reads a secret from any secrets engine, e.g. 'database/creds/readonly', rather than the generic secret backend
+     * {@link #read(String)} is bound to.  Dynamic secrets come with a lease, see {@link VaultResponse#getLeaseId()},
+     * that must be renewed before it expires, e.g. by a {@link VaultLeaseManager}.
+     * <p>
+     * Every read of a dynamic secret creates new credentials, so these reads are never coalesced.
+     * </p>
      *
-     * @return Client token details
+     * @param path Path to the secret, including the mount of the secrets engine
+     * @return Secret data and lease details
      */
-    public VaultClientTokenResponse lookupSelf() {
-        final HttpUrl url = buildUrl(AUTH_PATH_PREFIX, "token/lookup-self");
-        logger.debug("lookupSelf: requestUrl={}", url);
+    public VaultResponse readDynamic(final String path) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(API_PATH_PREFIX, path);
+        final HttpUrl url = urlBuilder.get();
+        logger.debug("readDynamic: requestUrl={}", url);
 
-        final Response response = execute(url, HttpMethod.GET, null);
+        // every attempt creates new credentials, so only retry if writes are
+        return parseReadResponse(execute(url, urlBuilder, HttpMethod.GET, null, false));
+    }
 
-        if (response.code() != HttpStatus.OK) {
-            parseAndThrowErrorResponse(response);
-        }
+    /**
+     * Non-blocking variant of {@link #readDynamic(String)}.
+     *
+     * @param path Path to the secret, including the mount of the secrets engine
+     * @return Future of the secret data and lease details
+     */
+    public CompletableFuture<VaultResponse> readDynamicAsync(final String path) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(API_PATH_PREFIX, path);
+        final HttpUrl url = urlBuilder.get();
+        logger.debug("readDynamicAsync: requestUrl={}", url);
 
-        final Type mapType = new TypeToken<Map<String, Object>>() {
-        }.getType();
-        final Map<String, Object> rootData = parseResponseBody(response, mapType);
-        return gson.fromJson(gson.toJson(rootData.get("data")), VaultClientTokenResponse.class);
+        return executeAsync(url, urlBuilder, HttpMethod.GET, null, false, this::parseReadResponse);
     }
 
     /**
-     * Returns a copy of the URL being used for communicating with Vault
+     * Renews a lease, asking Vault to extend it by the specified number of seconds.  Vault may grant a shorter
+     * lease than requested.  The returned response has no data, only the lease details.
      *
-     * @return Copy of the HttpUrl object
+     * @param leaseId          ID of the lease
+     * @param incrementSeconds Requested lease duration in seconds, or 0 for the default of the secrets engine
+     * @return Lease details
      */
-    public HttpUrl getVaultUrl() {
-        return HttpUrl.parse(urlResolver.resolve());
+    public VaultResponse renewLease(final String leaseId, final int incrementSeconds) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, "leases/renew");
+        final HttpUrl url = urlBuilder.get();
+        logger.debug("renewLease: requestUrl={}", url);
+
+        return parseReadResponse(execute(url, urlBuilder, HttpMethod.PUT,
+                buildLeaseRequest(leaseId, incrementSeconds)));
     }
 
     /**
-     * Returns the configured credentials provider.
+     * Non-blocking variant of {@link #renewLease(String, int)}.
      *
-     * @return The configured credentials provider
+     * @param leaseId          ID of the lease
+     * @param incrementSeconds Requested lease duration in seconds, or 0 for the default of the secrets engine
+     * @return Future of the lease details
      */
-    public VaultCredentialsProvider getCredentialsProvider() {
-        return credentialsProvider;
+    public CompletableFuture<VaultResponse> renewLeaseAsync(final String leaseId, final int incrementSeconds) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, "leases/renew");
+        final HttpUrl url = urlBuilder.get();
+        logger.debug("renewLeaseAsync: requestUrl={}", url);
+
+        return executeAsync(url, urlBuilder, HttpMethod.PUT, buildLeaseRequest(leaseId, incrementSeconds),
+                this::parseReadResponse);
     }
 
     /**
-     * Gets the Gson object used for serializing and de-serializing requests.
+     * Revokes a lease, invalidating the secret it belongs to.
      *
-     * @return Gson object
+     * @param leaseId ID of the lease
      */
-    public Gson getGson() {
-        return gson;
+    public void revokeLease(final String leaseId) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(SYS_PATH_PREFIX, "leases/revoke");
+        final HttpUrl url = urlBuilder.get();
+        logger.debug("revokeLease: requestUrl={}", url);
+
+        parseNoContentResponse(execute(url, urlBuilder, HttpMethod.PUT, buildLeaseRequest(leaseId, 0)));
     }
 
     /**
-     * Returns the configured default HTTP headers.
+     * Gets all the details about the client token being used by the requester.  Also serves as a simple way
+     * to test that a token is still active.  If an unexpected response is recieved, a {@link VaultServerException}
+     * will be thrown with details.
      *
-     * @return The configured default HTTP headers
+     * @return Client token details
      */
-    public Headers getDefaultHeaders() {
-        return defaultHeaders;
+    public VaultClientTokenResponse lookupSelf() {
+        return coalesce(HttpMethod.GET, AUTH_PATH_PREFIX, "token/lookup-self", () -> {
+            final Supplier<HttpUrl> urlBuilder = () -> buildReadUrl(AUTH_PATH_PREFIX, "token/lookup-self");
+            final HttpUrl url = urlBuilder.get();
+            logger.debug("lookupSelf: requestUrl={}", url);
+
+            return parseTokenLookupResponse(execute(url, urlBuilder, HttpMethod.GET, null));
+        });
     }
 
     /**
-     * Builds the full URL for preforming an operation against Vault.
+     * Non-blocking variant of {@link #lookupSelf()}.  The returned future completes exceptionally with the same
+     * exceptions the blocking variant throws.
      *
-     * @param prefix Prefix between the environment URL and specified path
-     * @param path   Path for the requested operation
-     * @return Full URL to execute a request against
+     * @return Future of the client token details
      */
-    protected HttpUrl buildUrl(final String prefix, final String path) {
-        String baseUrl = urlResolver.resolve();
+    public CompletableFuture<VaultClientTokenResponse> lookupSelfAsync() {
+        final Supplier<HttpUrl> urlBuilder = () -> buildReadUrl(AUTH_PATH_PREFIX, "token/lookup-self");
+        final HttpUrl url = urlBuilder.get();
+        logger.debug("lookupSelfAsync: requestUrl={}", url);
 
-        if (!StringUtils.endsWith(baseUrl, "/")) {
-            baseUrl += "/";
-        }
+        return executeAsync(url, urlBuilder, HttpMethod.GET, null, this::parseTokenLookupResponse);
+    }
 
-        return HttpUrl.parse(baseUrl + prefix + path);
+    /**
+     * Renews the client token being used by the requester, extending its TTL by the increment configured on the
+     * token.  If an unexpected response is recieved, a {@link VaultServerException} will be thrown with details.
+     *
+     * @return Auth response with the new lease duration of the token
+     */
+    public VaultAuthResponse renewSelf() {
+        return renewSelf(0);
     }
 
     /**
-     * Executes the HTTP request based on the input parameters.
+     * Renews the client token being used by the requester, asking Vault to extend its TTL by the specified number of
+     * seconds.  Vault may grant a shorter TTL than requested.
      *
-     * @param url         The URL to execute the request against
-     * @param method      The HTTP method for the request
-     * @param requestBody The request body of the HTTP request
-     * @return Response from the server
+     * @param incrementSeconds Requested TTL in seconds, or 0 to use the increment configured on the token
+     * @return Auth response with the new lease duration of the token
      */
-    protected Response execute(final HttpUrl url, final String method, final Object requestBody) {
-        try {
-            Request request = buildRequest(url, method, requestBody);
+    public VaultAuthResponse renewSelf(final int incrementSeconds) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(AUTH_PATH_PREFIX, "token/renew-self");
+        final HttpUrl url = urlBuilder.get();
+        logger.debug("renewSelf: requestUrl={}", url);
 
-            return httpClient.newCall(request).execute();
-        } catch (IOException e) {
-            if (e instanceof SSLException
-                    && e.getMessage() != null
-                    && e.getMessage().contains("Unrecognized SSL message, plaintext connection?")) {
-                // AnyConnect web security proxy can be disabled with:
-                //  `sudo /opt/cisco/anyconnect/bin/acwebsecagent -disablesvc -websecurity`
-                throw new VaultClientException("I/O error while communicating with vault. Unrecognized SSL message may be due to a web proxy e.g. AnyConnect", e);
-            } else {
-                throw new VaultClientException("I/O error while communicating with vault.", e);
-            }
-        }
+        return parseAuthResponse(execute(url, urlBuilder, HttpMethod.POST, buildRenewRequest(incrementSeconds)));
     }
 
     /**
-     * Build the HTTP request to execute for the Vault Client
-     * @param url         The URL to execute the request against
-     * @param method      The HTTP method for the request
-     * @param requestBody The request body of the HTTP request
-     * @return - The HTTP request
+     * Non-blocking variant of {@link #renewSelf(int)}.
+     *
+     * @param incrementSeconds Requested TTL in seconds, or 0 to use the increment configured on the token
+     * @return Future of the auth response with the new lease duration of the token
      */
-    protected Request buildRequest(final HttpUrl url, final String method, final Object requestBody) {
-        Request.Builder requestBuilder = new Request.Builder()
-                .url(url)
-                .headers(defaultHeaders)  // call headers method first because it overwrites all existing headers
-                .addHeader(HttpHeader.VAULT_TOKEN, credentialsProvider.getCredentials().getToken())
-                .addHeader(HttpHeader.ACCEPT, DEFAULT_MEDIA_TYPE.toString());
+    public CompletableFuture<VaultAuthResponse> renewSelfAsync(final int incrementSeconds) {
+        final Supplier<HttpUrl> urlBuilder = () -> buildUrl(AUTH_PATH_PREFIX, "token/renew-self");
+        final HttpUrl url = urlBuilder.get();
+        logger.debug("renewSelfAsync: requestUrl={}", url);
 
-        if (requestBody != null) {
-            requestBuilder.addHeader(HttpHeader.CONTENT_TYPE, DEFAULT_MEDIA_TYPE.toString())
-                    .method(method, RequestBody.create(DEFAULT_MEDIA_TYPE, gson.toJson(requestBody)));
-        } else {
-            requestBuilder.method(method, null);
-        }
+        return executeAsync(url, urlBuilder, HttpMethod.POST, buildRenewRequest(incrementSeconds),
+                this::parseAuthResponse);
+    }
 
-        return requestBuilder.build();
+    /**
+     * Returns a copy of the URL being used for communicating with Vault
+     *
+     * @return Copy of the HttpUrl object
+     */
+    public HttpUrl getVaultUrl() {
+        return baseUrlCache.get();
     }
 
     /**
-     * Convenience method for parsing the HTTP response and mapping it to a class.
+     * Sets how long the resolved Vault URL is reused before the URL resolver is consulted again.  Defaults to
+     * {@value #DEFAULT_URL_REFRESH_INTERVAL_MILLIS} milliseconds, zero resolves the URL for every request.
      *
-     * @param response      The HTTP response object
-     * @param responseClass The class to map the response body to
-     * @param <M>           Represents the type to map to
-     * @return Deserialized object from the response body
+     * @param refreshInterval URL refresh interval
+     * @param unit            Unit of the interval
      */
-    protected <M> M parseResponseBody(final Response response, final Class<M> responseClass) {
-        final String responseBodyStr = responseBodyAsString(response);
-        try {
-            return gson.fromJson(responseBodyStr, responseClass);
-        } catch (JsonSyntaxException e) {
-            logger.error("parseResponseBody: responseCode={}, requestUrl={}, response={}",
-                    response.code(), response.request().url(), responseBodyStr);
-            throw new VaultClientException("Error parsing the response body from vault, response code: " + response.code(), e);
-        }
+    public void setUrlRefreshInterval(final long refreshInterval, final TimeUnit unit) {
+        baseUrlCache.setRefreshInterval(refreshInterval, unit);
     }
 
     /**
-     * Convenience method for parsing the HTTP response and mapping it to a type.
+     * Returns how long the resolved Vault URL is reused.
      *
-     * @param response The HTTP response object
-     * @param typeOf   The type to map the response body to
-     * @param <M>      Represents the type to map to
-     * @return Deserialized object from the response body
+     * @return URL refresh interval in milliseconds
      */
-    protected <M> M parseResponseBody(final Response response, final Type typeOf) {
-        final String responseBodyStr = responseBodyAsString(response);
-        try {
-            return gson.fromJson(responseBodyStr, typeOf);
-        } catch (JsonSyntaxException e) {
-            logger.error("parseResponseBody: responseCode={}, requestUrl={}, response={}",
-                    response.code(), response.request().url(), responseBodyStr);
-            throw new VaultClientException("Error parsing the response body from vault, response code: " + response.code(), e);
-        }
+    public long getUrlRefreshIntervalMillis() {
+        return baseUrlCache.getRefreshIntervalMillis();
     }
 
     /**
-     * Convenience method for parsing the errors from the HTTP response and throwing a {@link VaultServerException}.
+     * Drops the resolved Vault URL, so the URL resolver is consulted again for the next request.
+     */
+    public void refreshVaultUrl() {
+        baseUrlCache.refresh();
+    }
+
+    /**
+     * Returns the configured credentials provider.
      *
-     * @param response Response to parses the error details from
+     * @return The configured credentials provider
      */
-    protected void parseAndThrowErrorResponse(final Response response) {
-        final String responseBodyStr = responseBodyAsString(response);
-        logger.debug("parseAndThrowErrorResponse: responseCode={}, requestUrl={}, response={}",
-                response.code(), response.request().url(), responseBodyStr);
+    public VaultCredentialsProvider getCredentialsProvider() {
+        return credentialsProvider;
+    }
 
-        try {
-            ErrorResponse errorResponse = gson.fromJson(responseBodyStr, ErrorResponse.class);
+    /**
+     * Gets the codec used for serializing requests and de-serializing responses.
+     *
+     * @return JSON codec
+     */
+    public JsonCodec getJsonCodec() {
+        return jsonCodec;
+    }
 
-            if (errorResponse != null) {
-                throw new VaultServerException(response.code(), errorResponse.getErrors());
+    /**
+     * Gets the Gson object used for serializing and de-serializing requests.
+     *
+     * @return Gson object
+     * @throws IllegalStateException if the client was constructed with a codec other than {@link GsonJsonCodec}
+     * @deprecated Use {@link #getJsonCodec()}, the client no longer has to be backed by Gson
+     */
+    @Deprecated
+    public Gson getGson() {
+        if (!(jsonCodec instanceof GsonJsonCodec)) {
+            throw new IllegalStateException("Vault client is not using the Gson codec.");
+        }
+        return ((GsonJsonCodec) jsonCodec).getGson();
+    }
+
+    /**
+     * Returns whether concurrent identical GET requests are coalesced.
+     *
+     * @return Request coalescing flag
+     */
+    public boolean isRequestCoalescingEnabled() {
+        return requestCoalescingEnabled;
+    }
+
+    /**
+     * Enables or disables request coalescing.  When enabled, which is the default, concurrent identical GET requests
+     * (same method and path) share a single in-flight HTTP call and its parsed result.  Shared results are
+     * handed to every waiting caller and should be treated as read only.
+     *
+     * @param requestCoalescingEnabled Flag for coalescing concurrent identical GET requests
+     */
+    public void setRequestCoalescingEnabled(final boolean requestCoalescingEnabled) {
+        this.requestCoalescingEnabled = requestCoalescingEnabled;
+    }
+
+    /**
+     * Returns whether reads are routed to standby nodes.
+     *
+     * @return Standby reads flag
+     */
+    public boolean isStandbyReadsEnabled() {
+        return standbyReadsEnabled;
+    }
+
+    /**
+     * Enables or disables routing reads to standby nodes.  When enabled, {@link #read(String)},
+     * {@link #list(String)}, {@link #lookupSelf()} and their variants are sent to the node picked by
+     * {@link UrlResolver#resolveForRead()}, e.g. a healthy performance standby of a
+     * {@link MultiNodeVaultUrlResolver}.  Writes, deletes and sys calls always go to the node picked by
+     * {@link UrlResolver#resolve()}.  Disabled by default.
+     *
+     * @param standbyReadsEnabled Flag for routing reads to standby nodes
+     */
+    public void setStandbyReadsEnabled(final boolean standbyReadsEnabled) {
+        this.standbyReadsEnabled = standbyReadsEnabled;
+    }
+
+    /**
+     * Returns the policy for retrying failed requests.
+     *
+     * @return Retry policy
+     */
+    public VaultRetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the policy for retrying failed requests.  By default, GET requests are retried up to
+     * {@value VaultRetryPolicy#DEFAULT_MAX_ATTEMPTS} times on I/O errors and 429 or 5xx responses, and other
+     * requests are not retried.  Use {@link VaultRetryPolicy#none()} to disable retries.
+     *
+     * @param retryPolicy Retry policy
+     */
+    public void setRetryPolicy(final VaultRetryPolicy retryPolicy) {
+        if (retryPolicy == null) {
+            throw new IllegalArgumentException("Retry policy cannot be null.");
+        }
+
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Returns the counters of requests, attempts and retries made by this client.
+     *
+     * @return Retry metrics
+     */
+    public VaultRetryMetrics getRetryMetrics() {
+        return retryMetrics;
+    }
+
+    /**
+     * Returns the configuration of the circuit breakers.
+     *
+     * @return Circuit breaker config, null if circuit breakers are disabled
+     */
+    public VaultCircuitBreakerConfig getCircuitBreakerConfig() {
+        return circuitBreakerConfig;
+    }
+
+    /**
+     * Enables circuit breakers with the specified configuration, or disables them with null.  Every endpoint, i.e.
+     * scheme, host and port, gets a breaker of its own, so a failing node of a cluster does not stop requests to the
+     * other nodes.  While the breaker of an endpoint is open, requests to it fail with a
+     * {@link VaultCircuitOpenException} without being sent.  A {@link CachingVaultClient} with a stale grace period
+     * keeps serving cached secrets meanwhile.  Disabled by default.
+     * <p>
+     * Setting a config resets all breakers.  Changes to the config only apply once it is set again.
+     * </p>
+     *
+     * @param circuitBreakerConfig Circuit breaker config, or null
+     */
+    public void setCircuitBreakerConfig(final VaultCircuitBreakerConfig circuitBreakerConfig) {
+        this.circuitBreakerConfig = circuitBreakerConfig;
+        circuitBreakers.clear();
+    }
+
+    /**
+     * Returns the configuration of the adaptive concurrency limit.
+     *
+     * @return Concurrency limit config, null if the limit is disabled
+     */
+    public VaultConcurrencyLimitConfig getConcurrencyLimitConfig() {
+        final VaultConcurrencyLimiter limiter = concurrencyLimiter;
+        return limiter == null ? null : limiter.getConfig();
+    }
+
+    /**
+     * Enables an adaptive limit on the requests in flight with the specified configuration, or disables it with
+     * null.  Rather than a fixed max requests of the dispatcher that is too low for bulk jobs or high enough to
+     * overload Vault, the limit grows while calls complete in time and shrinks when Vault answers with 429 or 503,
+     * times out or slows down.  Requests over the limit wait in a bounded queue and fail with a
+     * {@link VaultConcurrencyLimitException} if it is full or they wait too long.  Disabled by default.
+     * <p>
+     * Setting a config starts over from its initial limit.  Changes to the config only apply once it is set again.
+     * </p>
+     *
+     * @param concurrencyLimitConfig Concurrency limit config, or null
+     */
+    public void setConcurrencyLimitConfig(final VaultConcurrencyLimitConfig concurrencyLimitConfig) {
+        this.concurrencyLimiter = concurrencyLimitConfig == null
+                ? null
+                : new VaultConcurrencyLimiter(concurrencyLimitConfig);
+    }
+
+    /**
+     * Returns the adaptive concurrency limiter, e.g. to monitor its limit and queue.
+     *
+     * @return Concurrency limiter, null if the limit is disabled
+     */
+    public VaultConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Returns the policy for hedging slow reads.
+     *
+     * @return Hedging policy, null if hedging is disabled
+     */
+    public VaultHedgingPolicy getHedgingPolicy() {
+        final RequestHedger hedger = requestHedger;
+        return hedger == null ? null : hedger.getPolicy();
+    }
+
+    /**
+     * Enables hedging of {@link #read(String)}, {@link #list(String)} and their variants with the specified policy,
+     * or disables it with null.  When a read has not answered within the hedge delay, a second request is sent to
+     * the node the URL resolver picks next, which may be the same node.  The first successful answer wins and the
+     * other call is cancelled.  Hedged reads go to Vault twice, so only enable this for latency-critical paths.
+     * Disabled by default.
+     * <p>
+     * Setting a policy resets the measured latencies and the hedge budget.
+     * </p>
+     *
+     * @param hedgingPolicy Hedging policy, or null
+     */
+    public void setHedgingPolicy(final VaultHedgingPolicy hedgingPolicy) {
+        this.requestHedger = hedgingPolicy == null ? null : new RequestHedger(hedgingPolicy);
+    }
+
+    /**
+     * Returns the circuit breakers of the endpoints requests were sent to, keyed by endpoint.
+     *
+     * @return Circuit breakers
+     */
+    public Map<String, VaultCircuitBreaker> getCircuitBreakers() {
+        return Collections.unmodifiableMap(new TreeMap<>(circuitBreakers));
+    }
+
+    /**
+     * Returns the configured default HTTP headers.
+     *
+     * @return The configured default HTTP headers
+     */
+    public Headers getDefaultHeaders() {
+        return defaultHeaders;
+    }
+
+    private int getDefaultMaxConcurrency() {
+        return httpClient.dispatcher().getMaxRequestsPerHost();
+    }
+
+    private void submitRead(final AsyncTaskQueue taskQueue, final String path, final BulkReadResult result) {
+        taskQueue.submit(() -> readAsync(path).whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                result.addResponse(path, response);
             } else {
-                throw new VaultServerException(response.code(), new LinkedList<String>());
+                result.addFailure(path, throwable);
+            }
+        }));
+    }
+
+    /**
+     * Lists the folder and its sub folders on a shared task queue and hands every leaf path to the visitor, which
+     * may submit further work to the queue.  The returned future completes once all submitted work is done, or
+     * fails with the first list error.
+     */
+    private CompletableFuture<Void> walkTree(final String path,
+                                             final int maxConcurrency,
+                                             final BiConsumer<AsyncTaskQueue, String> leafVisitor) {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null.");
+        }
+
+        final AsyncTaskQueue taskQueue = new AsyncTaskQueue(maxConcurrency);
+        final AtomicReference<Throwable> listFailure = new AtomicReference<>();
+        submitList(taskQueue, StringUtils.strip(path, "/"), leafVisitor, listFailure);
+        taskQueue.closeSubmissions();
+
+        return taskQueue.whenIdle().thenCompose(ignored -> listFailure.get() == null
+                ? CompletableFuture.<Void>completedFuture(null)
+                : Futures.<Void>failed(listFailure.get()));
+    }
+
+    private void submitList(final AsyncTaskQueue taskQueue,
+                            final String folder,
+                            final BiConsumer<AsyncTaskQueue, String> leafVisitor,
+                            final AtomicReference<Throwable> listFailure) {
+        taskQueue.submit(() -> {
+            if (listFailure.get() != null) {
+                // the walk already failed, don't expand further
+                return CompletableFuture.completedFuture(null);
+            }
+
+            return listAsync(folder).whenComplete((response, throwable) -> {
+                if (throwable != null) {
+                    listFailure.compareAndSet(null, throwable);
+                    return;
+                }
+
+                if (response.getKeys() == null) {
+                    return;
+                }
+
+                for (final String key : response.getKeys()) {
+                    final String childPath = folder.isEmpty() ? key : folder + "/" + key;
+                    if (key.endsWith("/")) {
+                        submitList(taskQueue, StringUtils.removeEnd(childPath, "/"), leafVisitor, listFailure);
+                    } else {
+                        leafVisitor.accept(taskQueue, childPath);
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Builds the full URL for preforming an operation against Vault.
+     *
+     * @param prefix Prefix between the environment URL and specified path
+     * @param path   Path for the requested operation
+     * @return Full URL to execute a request against
+     */
+    protected HttpUrl buildUrl(final String prefix, final String path) {
+        return buildUrl(baseUrlCache.get(), prefix, path);
+    }
+
+    /**
+     * Builds the full URL for a read.  When standby reads are enabled, the URL points at the node the URL resolver
+     * picks for reads, see {@link UrlResolver#resolveForRead()}.  Otherwise it is the same as
+     * {@link #buildUrl(String, String)}.
+     *
+     * @param prefix Prefix between the environment URL and specified path
+     * @param path   Path for the requested operation
+     * @return Full URL to execute a read against
+     */
+    protected HttpUrl buildReadUrl(final String prefix, final String path) {
+        return standbyReadsEnabled ? buildUrl(baseUrlCache.getForRead(), prefix, path) : buildUrl(prefix, path);
+    }
+
+    private static HttpUrl buildUrl(final HttpUrl baseUrl, final String prefix, final String path) {
+        final String pathAndQuery = prefix + path;
+        final int queryStart = pathAndQuery.indexOf('?');
+
+        final HttpUrl.Builder urlBuilder = baseUrl.newBuilder();
+        if (queryStart < 0) {
+            urlBuilder.addEncodedPathSegments(pathAndQuery);
+        } else {
+            urlBuilder.addEncodedPathSegments(pathAndQuery.substring(0, queryStart))
+                    .encodedQuery(pathAndQuery.substring(queryStart + 1));
+        }
+
+        return urlBuilder.build();
+    }
+
+    /**
+     * Runs the call, sharing it with any identical call already in flight when request coalescing is enabled.
+     * Calls are keyed on the method and the path below the base URL, not on the node the URL resolver picks, so the
+     * call resolves the URL itself and the whole group goes to one node.  Only use this for idempotent requests
+     * whose parsed result is safe to share between callers.
+     *
+     * @param method HTTP method of the request
+     * @param prefix Prefix between the environment URL and specified path
+     * @param path   Path of the request, including any query
+     * @param call   Builds the URL, executes the request and parses the response
+     * @param <M>    Type of the parsed result
+     * @return Parsed result of the call
+     */
+    protected <M> M coalesce(final String method, final String prefix, final String path, final Callable<M> call) {
+        if (requestCoalescingEnabled) {
+            return requestCoalescer.execute(method + " " + prefix + path, call);
+        }
+
+        try {
+            return call.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new VaultClientException("Unexpected error while communicating with vault.", e);
+        }
+    }
+
+    /**
+     * Executes the HTTP request based on the input parameters.  I/O errors and retryable responses are retried as
+     * the retry policy allows, see {@link #setRetryPolicy(VaultRetryPolicy)}, blocking the calling thread during the
+     * backoff.  Retries go to the same URL, see {@link #execute(HttpUrl, Supplier, String, Object)} to fail over.
+     *
+     * @param url         The URL to execute the request against
+     * @param method      The HTTP method for the request
+     * @param requestBody The request body of the HTTP request
+     * @return Response from the server
+     */
+    protected Response execute(final HttpUrl url, final String method, final Object requestBody) {
+        return execute(url, () -> url, method, requestBody, true);
+    }
+
+    /**
+     * Executes the HTTP request like {@link #execute(HttpUrl, String, Object)}, building the URL of every retry
+     * again.  After a failed attempt the URL resolver may have failed over, so the retry goes to another node.
+     *
+     * @param url         The URL to execute the first attempt against
+     * @param urlBuilder  Builds the URL of a retry, e.g. with {@link #buildUrl(String, String)}
+     * @param method      The HTTP method for the request
+     * @param requestBody The request body of the HTTP request
+     * @return Response from the server
+     */
+    protected Response execute(final HttpUrl url,
+                               final Supplier<HttpUrl> urlBuilder,
+                               final String method,
+                               final Object requestBody) {
+        return execute(url, urlBuilder, method, requestBody, true);
+    }
+
+    /**
+     * Executes the HTTP request like {@link #execute(HttpUrl, Supplier, String, Object)}, for a request that may
+     * not be idempotent although its method is.
+     *
+     * @param url         The URL to execute the first attempt against
+     * @param urlBuilder  Builds the URL of a retry, e.g. with {@link #buildUrl(String, String)}
+     * @param method      The HTTP method for the request
+     * @param requestBody The request body of the HTTP request
+     * @param idempotent  False if sending the request twice has a different effect than sending it once, e.g. a read
+     *                    that creates new credentials.  Such requests are only retried if writes are retried.
+     * @return Response from the server
+     */
+    protected Response execute(final HttpUrl url,
+                               final Supplier<HttpUrl> urlBuilder,
+                               final String method,
+                               final Object requestBody,
+                               final boolean idempotent) {
+        final VaultRetryPolicy policy = retryPolicy;
+        final long startNanos = System.nanoTime();
+        retryMetrics.onRequest();
+
+        for (int attempt = 1; ; attempt++) {
+            final HttpUrl attemptUrl = attempt == 1 ? url : urlBuilder.get();
+            Response response = null;
+            IOException failure = null;
+            try {
+                response = executeAttempt(attemptUrl, urlBuilder, method, requestBody);
+            } catch (IOException e) {
+                failure = e;
+            }
+
+            if (response != null && !isRetryableResponse(response)) {
+                return response;
+            }
+
+            final long backoffNanos = getRetryBackoffNanos(policy, method, idempotent, attempt, startNanos);
+            if (backoffNanos < 0) {
+                if (response != null) {
+                    return response;
+                }
+                throw toClientException(failure);
+            }
+
+            if (response != null) {
+                logger.debug("execute: retrying, requestUrl={}, responseCode={}, attempt={}",
+                        attemptUrl, response.code(), attempt);
+                response.close();
+            } else {
+                logger.debug("execute: retrying, requestUrl={}, error={}, attempt={}", attemptUrl, failure, attempt);
+            }
+
+            try {
+                TimeUnit.NANOSECONDS.sleep(backoffNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new VaultClientException("Interrupted while waiting to retry a request to vault.", e);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the response is worth retrying, if the retry policy allows another attempt.  Defaults to the
+     * status codes of {@link VaultRetryPolicy#isRetryableStatus(int)}.
+     *
+     * @param response Response of the attempt
+     * @return True if the request should be sent again
+     */
+    protected boolean isRetryableResponse(final Response response) {
+        return retryPolicy.isRetryableStatus(response.code());
+    }
+
+    /**
+     * Sends a single attempt of the request and reports its outcome to the URL resolver.
+     */
+    private Response executeAttempt(final HttpUrl attemptUrl,
+                                    final Supplier<HttpUrl> urlBuilder,
+                                    final String method,
+                                    final Object requestBody) throws IOException {
+        final Request attemptRequest = buildRequest(attemptUrl, method, requestBody);
+
+        final VaultConcurrencyLimiter limiter = concurrencyLimiter;
+        if (limiter != null) {
+            limiter.acquireBlocking();
+        }
+
+        final CircuitPermit circuitPermit;
+        try {
+            circuitPermit = acquireCircuitPermit(attemptUrl, urlBuilder);
+        } catch (RuntimeException e) {
+            if (limiter != null) {
+                limiter.release();
+            }
+            throw e;
+        }
+        final HttpUrl url = circuitPermit.url;
+        final VaultCircuitBreaker circuitBreaker = circuitPermit.circuitBreaker;
+        final long permit = circuitPermit.permit;
+        final Request request = url == attemptUrl ? attemptRequest : attemptRequest.newBuilder().url(url).build();
+
+        retryMetrics.onAttempt();
+        final long startNanos = System.nanoTime();
+        baseUrlCache.onRequestStarted(url);
+        final Response response;
+        try {
+            response = httpClient.newCall(request).execute();
+        } catch (IOException e) {
+            baseUrlCache.onRequestFailed(url, e);
+            if (circuitBreaker != null) {
+                circuitBreaker.onCompleted(permit, true, System.nanoTime() - startNanos);
+            }
+            onLimitedCallFailed(limiter, startNanos, e);
+            throw e;
+        } catch (RuntimeException e) {
+            baseUrlCache.onRequestCancelled(url);
+            if (circuitBreaker != null) {
+                circuitBreaker.onCancelled(permit);
+            }
+            if (limiter != null) {
+                limiter.release();
+            }
+            throw e;
+        }
+
+        final long latencyNanos = System.nanoTime() - startNanos;
+        baseUrlCache.onRequestCompleted(url, latencyNanos);
+        if (circuitBreaker != null) {
+            circuitBreaker.onCompleted(permit, isFailedResponse(response), latencyNanos);
+        }
+        if (limiter != null) {
+            limiter.onCompleted(startNanos, isOverloadResponse(response));
+        }
+        notifyIfTokenRejected(response);
+        return response;
+    }
+
+    /**
+     * Returns whether the response counts as a failure of the endpoint for its circuit breaker.  Defaults to 5xx
+     * responses, while 4xx responses are problems of the request rather than the endpoint.
+     *
+     * @param response Response of the attempt
+     * @return True if the response counts as a failure
+     */
+    protected boolean isFailedResponse(final Response response) {
+        return response.code() >= HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    /**
+     * Returns whether the response shows that Vault is overloaded, shrinking the adaptive concurrency limit.
+     * Defaults to 429 and 503 responses.
+     *
+     * @param response Response of the attempt
+     * @return True if the response is a sign of overload
+     */
+    protected boolean isOverloadResponse(final Response response) {
+        return response.code() == HttpStatus.TOO_MANY_REQUESTS || response.code() == HttpStatus.SERVICE_UNAVAILABLE;
+    }
+
+    /**
+     * Gives back the concurrency limit permit of a call that failed with an I/O error.  Timeouts are a sign of
+     * overload, while other errors, e.g. a refused connection, say nothing about the load of Vault.
+     */
+    private static void onLimitedCallFailed(final VaultConcurrencyLimiter limiter,
+                                            final long startNanos,
+                                            final IOException e) {
+        if (limiter == null) {
+            return;
+        }
+
+        if (e instanceof InterruptedIOException) {
+            limiter.onCompleted(startNanos, true);
+        } else {
+            limiter.release();
+        }
+    }
+
+    /**
+     * Takes a permit from the circuit breaker of the endpoint of the URL.  If the breaker is open, the endpoint is
+     * reported to the URL resolver and the URL is built once more, as the resolver may route around the endpoint.
+     *
+     * @throws VaultCircuitOpenException if no endpoint with a closed or half-open breaker was found
+     */
+    private CircuitPermit acquireCircuitPermit(final HttpUrl url, final Supplier<HttpUrl> urlBuilder) {
+        final VaultCircuitBreaker circuitBreaker = getCircuitBreaker(url);
+        final long permit = circuitBreaker == null ? 0 : circuitBreaker.tryAcquire();
+        if (permit != VaultCircuitBreaker.REJECTED) {
+            return new CircuitPermit(url, circuitBreaker, permit);
+        }
+
+        baseUrlCache.onEndpointUnavailable(url);
+        final HttpUrl fallbackUrl = urlBuilder.get();
+        final VaultCircuitBreaker fallbackBreaker = getCircuitBreaker(fallbackUrl);
+        if (fallbackBreaker != circuitBreaker) {
+            final long fallbackPermit = fallbackBreaker == null ? 0 : fallbackBreaker.tryAcquire();
+            if (fallbackPermit != VaultCircuitBreaker.REJECTED) {
+                logger.debug("Circuit breaker for {} is open, sending to {}",
+                        circuitBreaker.getEndpoint(), fallbackUrl);
+                return new CircuitPermit(fallbackUrl, fallbackBreaker, fallbackPermit);
+            }
+            baseUrlCache.onEndpointUnavailable(fallbackUrl);
+        }
+
+        throw new VaultCircuitOpenException(circuitBreaker.getEndpoint());
+    }
+
+    /**
+     * Returns the circuit breaker of the endpoint of the URL, or null if circuit breakers are disabled.
+     */
+    private VaultCircuitBreaker getCircuitBreaker(final HttpUrl url) {
+        final VaultCircuitBreakerConfig config = circuitBreakerConfig;
+        if (config == null) {
+            return null;
+        }
+
+        final String endpoint = url.scheme() + "://" + url.host() + ":" + url.port();
+        final VaultCircuitBreaker circuitBreaker = circuitBreakers.get(endpoint);
+        return circuitBreaker != null
+                ? circuitBreaker
+                : circuitBreakers.computeIfAbsent(endpoint, key -> new VaultCircuitBreaker(key, config));
+    }
+
+    /**
+     * Returns how long to wait before retrying after the failed attempt, or -1 if the policy allows no further
+     * attempt.  Counts the retry or the exhausted request.
+     */
+    private long getRetryBackoffNanos(final VaultRetryPolicy policy,
+                                      final String method,
+                                      final boolean idempotent,
+                                      final int failedAttempt,
+                                      final long startNanos) {
+        if (!policy.isRetryableRequest(method, idempotent) || policy.getMaxAttempts() == 1) {
+            return -1;
+        }
+
+        final long backoffNanos = policy.getBackoffNanos(failedAttempt);
+        if (!policy.allowsAnotherAttempt(failedAttempt, System.nanoTime() - startNanos + backoffNanos)) {
+            retryMetrics.onExhausted();
+            return -1;
+        }
+
+        retryMetrics.onRetry();
+        return backoffNanos;
+    }
+
+    /**
+     * Executes the HTTP request without blocking the calling thread, using {@link Call#enqueue(Callback)}.  The
+     * response handler runs on an OkHttp dispatcher thread and its result, or any exception it throws, completes
+     * the returned future.  The response is closed once the handler returns.  Cancelling the returned future
+     * cancels the underlying call.  Failed attempts are retried as the retry policy allows, with the backoff
+     * scheduled in the background.  Retries go to the same URL, see
+     * {@link #executeAsync(HttpUrl, Supplier, String, Object, Function)} to fail over.
+     *
+     * @param url             The URL to execute the request against
+     * @param method          The HTTP method for the request
+     * @param requestBody     The request body of the HTTP request
+     * @param responseHandler Interprets the response, e.g. {@link #parseNoContentResponse(Response)}
+     * @param <M>             Type of the handled result
+     * @return Future of the handled result
+     */
+    protected <M> CompletableFuture<M> executeAsync(final HttpUrl url,
+                                                    final String method,
+                                                    final Object requestBody,
+                                                    final Function<Response, M> responseHandler) {
+        return executeAsync(url, () -> url, method, requestBody, true, responseHandler);
+    }
+
+    /**
+     * Executes the HTTP request like {@link #executeAsync(HttpUrl, String, Object, Function)}, building the URL of
+     * every retry again.  After a failed attempt the URL resolver may have failed over, so the retry goes to another
+     * node.
+     *
+     * @param url             The URL to execute the first attempt against
+     * @param urlBuilder      Builds the URL of a retry, e.g. with {@link #buildUrl(String, String)}
+     * @param method          The HTTP method for the request
+     * @param requestBody     The request body of the HTTP request
+     * @param responseHandler Interprets the response, e.g. {@link #parseNoContentResponse(Response)}
+     * @param <M>             Type of the handled result
+     * @return Future of the handled result
+     */
+    protected <M> CompletableFuture<M> executeAsync(final HttpUrl url,
+                                                    final Supplier<HttpUrl> urlBuilder,
+                                                    final String method,
+                                                    final Object requestBody,
+                                                    final Function<Response, M> responseHandler) {
+        return executeAsync(url, urlBuilder, method, requestBody, true, responseHandler);
+    }
+
+    /**
+     * Executes the HTTP request like {@link #executeAsync(HttpUrl, Supplier, String, Object, Function)}, for a
+     * request that may not be idempotent although its method is.
+     *
+     * @param url             The URL to execute the first attempt against
+     * @param urlBuilder      Builds the URL of a retry, e.g. with {@link #buildUrl(String, String)}
+     * @param method          The HTTP method for the request
+     * @param requestBody     The request body of the HTTP request
+     * @param idempotent      False if sending the request twice has a different effect than sending it once, e.g. a
+     *                        read that creates new credentials.  Such requests are only retried if writes are retried.
+     * @param responseHandler Interprets the response, e.g. {@link #parseNoContentResponse(Response)}
+     * @param <M>             Type of the handled result
+     * @return Future of the handled result
+     */
+    protected <M> CompletableFuture<M> executeAsync(final HttpUrl url,
+                                                    final Supplier<HttpUrl> urlBuilder,
+                                                    final String method,
+                                                    final Object requestBody,
+                                                    final boolean idempotent,
+                                                    final Function<Response, M> responseHandler) {
+        final AsyncRequest<M> request = new AsyncRequest<>(url, urlBuilder, method, requestBody, idempotent,
+                responseHandler);
+        retryMetrics.onRequest();
+        request.future.whenComplete((result, throwable) -> {
+            if (request.future.isCancelled()) {
+                final CompletableFuture<Void> limiterPermit = request.limiterPermit;
+                if (limiterPermit != null) {
+                    // leaves the queue of the concurrency limit, a granted permit ignores this
+                    limiterPermit.cancel(false);
+                }
+                final Call call = request.currentCall;
+                if (call != null) {
+                    call.cancel();
+                }
             }
-        } catch (JsonSyntaxException e) {
-            logger.error("ERROR Failed to parse error message, response body received: {}", responseBodyStr);
+        });
+
+        request.startAttempt();
+        return request.future;
+    }
+
+    /**
+     * Executes a GET of a read, hedged if a hedging policy is set.
+     *
+     * @param url             The URL of the first request
+     * @param prefix          Prefix of the read, to build the URL of a hedge from
+     * @param path            Path of the read, to build the URL of a hedge from
+     * @param responseHandler Interprets the response, e.g. {@link #parseReadResponse(Response)}
+     * @param <M>             Type of the handled result
+     * @return The handled result
+     */
+    private <M> M executeRead(final HttpUrl url,
+                              final String prefix,
+                              final String path,
+                              final Function<Response, M> responseHandler) {
+        final RequestHedger hedger = requestHedger;
+        if (hedger == null) {
+            return responseHandler.apply(execute(url, () -> buildReadUrl(prefix, path), HttpMethod.GET, null));
+        }
+
+        return Futures.join(new HedgedRead<>(hedger, prefix, path, responseHandler).start(url));
+    }
+
+    /**
+     * Non-blocking variant of {@link #executeRead(HttpUrl, String, String, Function)}.
+     */
+    private <M> CompletableFuture<M> executeReadAsync(final HttpUrl url,
+                                                      final String prefix,
+                                                      final String path,
+                                                      final Function<Response, M> responseHandler) {
+        final RequestHedger hedger = requestHedger;
+        if (hedger == null) {
+            return executeAsync(url, () -> buildReadUrl(prefix, path), HttpMethod.GET, null, responseHandler);
+        }
+
+        return new HedgedRead<>(hedger, prefix, path, responseHandler).start(url);
+    }
+
+    /**
+     * Wraps an I/O error from the HTTP client into a {@link VaultClientException}.
+     *
+     * @param e The I/O error
+     * @return Client exception to throw
+     */
+    protected VaultClientException toClientException(final IOException e) {
+        if (e instanceof SSLException
+                && e.getMessage() != null
+                && e.getMessage().contains("Unrecognized SSL message, plaintext connection?")) {
+            // AnyConnect web security proxy can be disabled with:
+            //  `sudo /opt/cisco/anyconnect/bin/acwebsecagent -disablesvc -websecurity`
+            return new VaultClientException("I/O error while communicating with vault. Unrecognized SSL message may be due to a web proxy e.g. AnyConnect", e);
+        } else {
+            return new VaultClientException("I/O error while communicating with vault.", e);
+        }
+    }
+
+    /**
+     * Build the HTTP request to execute for the Vault Client
+     * @param url         The URL to execute the request against
+     * @param method      The HTTP method for the request
+     * @param requestBody The request body of the HTTP request
+     * @return - The HTTP request
+     */
+    protected Request buildRequest(final HttpUrl url, final String method, final Object requestBody) {
+        Request.Builder requestBuilder = new Request.Builder()
+                .url(url)
+                .headers(defaultHeaders)  // call headers method first because it overwrites all existing headers
+                .addHeader(HttpHeader.VAULT_TOKEN, credentialsProvider.getCredentials().getToken())
+                .addHeader(HttpHeader.ACCEPT, DEFAULT_MEDIA_TYPE.toString());
+
+        if (requestBody != null) {
+            requestBuilder.addHeader(HttpHeader.CONTENT_TYPE, DEFAULT_MEDIA_TYPE.toString())
+                    .method(method, new JsonRequestBody(jsonCodec, DEFAULT_MEDIA_TYPE, requestBody));
+        } else {
+            requestBuilder.method(method, null);
+        }
+
+        return requestBuilder.build();
+    }
+
+    /**
+     * Convenience method for handling a response that is expected to have no content.  Throws a
+     * {@link VaultServerException} if the response code is not 204.
+     *
+     * @param response The HTTP response object
+     * @return Always null, so the method can be used as a response handler for {@link #executeAsync}
+     */
+    protected Void parseNoContentResponse(final Response response) {
+        if (response.code() != HttpStatus.NO_CONTENT) {
+            parseAndThrowErrorResponse(response);
+        }
+
+        response.close();
+        return null;
+    }
+
+    private VaultListResponse parseListResponse(final Response response) {
+        if (response.code() == HttpStatus.NOT_FOUND) {
+            response.close();
+            return new VaultListResponse();
+        } else if (response.code() != HttpStatus.OK) {
+            parseAndThrowErrorResponse(response);
+        }
+
+        final VaultEnvelope<VaultListResponse> envelope = parseResponseBody(response, LIST_ENVELOPE_TYPE);
+        return envelope == null ? null : envelope.getData();
+    }
+
+    private VaultResponse parseReadResponse(final Response response) {
+        if (response.code() != HttpStatus.OK) {
+            parseAndThrowErrorResponse(response);
+        }
+
+        return parseResponseBody(response, VaultResponse.class);
+    }
+
+    /**
+     * Convenience method for parsing a token lookup response into the token details.
+     *
+     * @param response The HTTP response object
+     * @return Token details
+     */
+    protected VaultClientTokenResponse parseTokenLookupResponse(final Response response) {
+        if (response.code() != HttpStatus.OK) {
+            parseAndThrowErrorResponse(response);
+        }
+
+        final VaultEnvelope<VaultClientTokenResponse> envelope = parseResponseBody(response, TOKEN_ENVELOPE_TYPE);
+        return envelope == null ? null : envelope.getData();
+    }
+
+    /**
+     * Convenience method for parsing an auth response, e.g. from creating or renewing a token.
+     *
+     * @param response The HTTP response object
+     * @return Auth details
+     */
+    protected VaultAuthResponse parseAuthResponse(final Response response) {
+        if (response.code() != HttpStatus.OK) {
+            parseAndThrowErrorResponse(response);
+        }
+
+        final VaultEnvelope<Map<String, Object>> envelope = parseResponseBody(response, AUTH_ENVELOPE_TYPE);
+        return envelope == null ? null : envelope.getAuth();
+    }
+
+    private Map<String, Object> buildLeaseRequest(final String leaseId, final int incrementSeconds) {
+        if (StringUtils.isBlank(leaseId)) {
+            throw new IllegalArgumentException("Lease ID cannot be blank.");
+        }
+
+        if (incrementSeconds < 0) {
+            throw new IllegalArgumentException("Increment cannot be negative.");
+        }
+
+        final Map<String, Object> request = new HashMap<>();
+        request.put("lease_id", leaseId);
+        if (incrementSeconds > 0) {
+            request.put("increment", incrementSeconds);
+        }
+        return request;
+    }
+
+    private Map<String, Object> buildRenewRequest(final int incrementSeconds) {
+        if (incrementSeconds < 0) {
+            throw new IllegalArgumentException("Increment cannot be negative.");
+        }
+
+        final Map<String, Object> request = new HashMap<>();
+        if (incrementSeconds > 0) {
+            request.put("increment", incrementSeconds + "s");
+        }
+        return request;
+    }
+
+    /**
+     * Lets the credentials provider know when Vault rejected the token of a request, so it can load new credentials.
+     */
+    private void notifyIfTokenRejected(final Response response) {
+        if (response.code() == HttpStatus.FORBIDDEN) {
+            credentialsProvider.onTokenRejected(response.request().header(HttpHeader.VAULT_TOKEN));
+        }
+    }
+
+    /**
+     * Convenience method for parsing the HTTP response and mapping it to a class.
+     *
+     * @param response      The HTTP response object
+     * @param responseClass The class to map the response body to
+     * @param <M>           Represents the type to map to
+     * @return Deserialized object from the response body
+     */
+    protected <M> M parseResponseBody(final Response response, final Class<M> responseClass) {
+        return parseResponseBody(response, (Type) responseClass);
+    }
+
+    /**
+     * Convenience method for parsing the HTTP response and mapping it to a type.  The body is parsed straight from
+     * its character stream, only the start of it is kept for logging parse errors.
+     *
+     * @param response The HTTP response object
+     * @param typeOf   The type to map the response body to
+     * @param <M>      Represents the type to map to
+     * @return Deserialized object from the response body
+     */
+    protected <M> M parseResponseBody(final Response response, final Type typeOf) {
+        final BoundedCaptureReader bodyReader = captureBody(response);
+        try {
+            return jsonCodec.read(bodyReader, typeOf);
+        } catch (JsonCodecException e) {
+            logger.error("parseResponseBody: responseCode={}, requestUrl={}, response={}",
+                    response.code(), response.request().url(), bodyReader.getCaptured());
+            throw new VaultClientException("Error parsing the response body from vault, response code: " + response.code(), e);
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Convenience method for parsing the errors from the HTTP response and throwing a {@link VaultServerException}.
+     *
+     * @param response Response to parses the error details from
+     */
+    protected void parseAndThrowErrorResponse(final Response response) {
+        final BoundedCaptureReader bodyReader = captureBody(response);
+        final ErrorResponse errorResponse;
+        try {
+            errorResponse = jsonCodec.read(bodyReader, ErrorResponse.class);
+        } catch (JsonCodecException e) {
+            logger.error("ERROR Failed to parse error message, response body received: {}", bodyReader.getCaptured());
             throw new VaultClientException("Error parsing the error response body from vault, response code: " + response.code(), e);
+        } finally {
+            response.close();
+        }
+
+        logger.debug("parseAndThrowErrorResponse: responseCode={}, requestUrl={}, response={}",
+                response.code(), response.request().url(), bodyReader.getCaptured());
+
+        if (errorResponse != null) {
+            throw new VaultServerException(response.code(), errorResponse.getErrors());
+        } else {
+            throw new VaultServerException(response.code(), new LinkedList<String>());
+        }
+    }
+
+    private BoundedCaptureReader captureBody(final Response response) {
+        return new BoundedCaptureReader(response.body().charStream(), MAX_CAPTURED_BODY_CHARS);
+    }
+
+    /**
+     * A read of {@link #executeReadAsync}, sending a hedge if the first request has not answered within the hedge
+     * delay.  The first successful answer completes the read and cancels the other request, and the read only fails
+     * once every request sent failed.
+     */
+    private final class HedgedRead<M> {
+
+        private final RequestHedger hedger;
+
+        private final String prefix;
+
+        private final String path;
+
+        private final Function<Response, M> responseHandler;
+
+        private final CompletableFuture<M> future = new CompletableFuture<>();
+
+        private final List<CompletableFuture<M>> requests = new CopyOnWriteArrayList<>();
+
+        private final AtomicInteger pendingRequests = new AtomicInteger();
+
+        private volatile ScheduledFuture<?> scheduledHedge;
+
+        private HedgedRead(final RequestHedger hedger,
+                           final String prefix,
+                           final String path,
+                           final Function<Response, M> responseHandler) {
+            this.hedger = hedger;
+            this.prefix = prefix;
+            this.path = path;
+            this.responseHandler = responseHandler;
+        }
+
+        private CompletableFuture<M> start(final HttpUrl url) {
+            hedger.onRequest();
+            send(url);
+
+            try {
+                scheduledHedge = HEDGE_SCHEDULER.schedule(this::hedge, hedger.getDelayNanos(), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Failed to schedule hedge of read, requestUrl={}", url, e);
+            }
+
+            future.whenComplete((result, throwable) -> {
+                final ScheduledFuture<?> hedge = scheduledHedge;
+                if (hedge != null) {
+                    hedge.cancel(false);
+                }
+
+                // cancels the losing call, completed requests ignore this
+                requests.forEach(request -> request.cancel(true));
+            });
+
+            return future;
+        }
+
+        private void hedge() {
+            if (future.isDone() || !hedger.tryAcquireHedge()) {
+                return;
+            }
+
+            final HttpUrl url;
+            try {
+                url = buildReadUrl(prefix, path);
+            } catch (RuntimeException e) {
+                logger.debug("Failed to build URL of hedge, first request keeps going", e);
+                return;
+            }
+
+            logger.debug("hedge: requestUrl={}", url);
+            send(url);
+        }
+
+        private void send(final HttpUrl url) {
+            pendingRequests.incrementAndGet();
+            final long startNanos = System.nanoTime();
+            final CompletableFuture<M> request = executeAsync(url, () -> buildReadUrl(prefix, path), HttpMethod.GET,
+                    null, responseHandler);
+            requests.add(request);
+            if (future.isDone()) {
+                // the read completed while this request was being sent
+                request.cancel(true);
+            }
+
+            request.whenComplete((result, throwable) -> {
+                if (throwable == null) {
+                    hedger.recordLatency(System.nanoTime() - startNanos);
+                    future.complete(result);
+                } else if (pendingRequests.decrementAndGet() == 0) {
+                    future.completeExceptionally(Futures.unwrap(throwable));
+                }
+            });
+        }
+    }
+
+    /**
+     * A request of {@link #executeAsync}, moving from attempt to attempt until it succeeds or the retry policy gives
+     * up.  Attempts never overlap, the next one is only scheduled once the previous one finished.
+     */
+    private final class AsyncRequest<M> implements Callback {
+
+        private final Supplier<HttpUrl> urlBuilder;
+
+        private final String method;
+
+        private final Object requestBody;
+
+        private final boolean idempotent;
+
+        private final Function<Response, M> responseHandler;
+
+        private final VaultRetryPolicy policy = retryPolicy;
+
+        private final long startNanos = System.nanoTime();
+
+        private final CompletableFuture<M> future = new CompletableFuture<>();
+
+        private volatile HttpUrl url;
+
+        private volatile Call currentCall;
+
+        private volatile int attempt;
+
+        private volatile long attemptStartNanos;
+
+        private volatile VaultCircuitBreaker circuitBreaker;
+
+        private volatile long permit;
+
+        private volatile VaultConcurrencyLimiter limiter;
+
+        private volatile CompletableFuture<Void> limiterPermit;
+
+        private AsyncRequest(final HttpUrl url,
+                             final Supplier<HttpUrl> urlBuilder,
+                             final String method,
+                             final Object requestBody,
+                             final boolean idempotent,
+                             final Function<Response, M> responseHandler) {
+            this.url = url;
+            this.urlBuilder = urlBuilder;
+            this.method = method;
+            this.requestBody = requestBody;
+            this.idempotent = idempotent;
+            this.responseHandler = responseHandler;
+        }
+
+        private void startAttempt() {
+            if (future.isDone()) {
+                return;
+            }
+
+            if (attempt > 0) {
+                // the resolver may have failed over since the last attempt
+                try {
+                    url = urlBuilder.get();
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                    return;
+                }
+            }
+
+            final VaultConcurrencyLimiter limiter = concurrencyLimiter;
+            this.limiter = limiter;
+            if (limiter == null) {
+                sendAttempt();
+                return;
+            }
+
+            final CompletableFuture<Void> limiterPermit = limiter.acquire();
+            this.limiterPermit = limiterPermit;
+            limiterPermit.whenComplete((ignored, throwable) -> {
+                if (throwable == null) {
+                    sendAttempt();
+                } else if (!limiterPermit.isCancelled()) {
+                    future.completeExceptionally(Futures.unwrap(throwable));
+                }
+            });
+        }
+
+        private void sendAttempt() {
+            final Request request;
+            try {
+                request = buildRequest(url, method, requestBody);
+            } catch (RuntimeException e) {
+                releaseLimiter();
+                future.completeExceptionally(e);
+                return;
+            }
+
+            final CircuitPermit circuitPermit;
+            try {
+                circuitPermit = acquireCircuitPermit(url, urlBuilder);
+            } catch (RuntimeException e) {
+                releaseLimiter();
+                future.completeExceptionally(e);
+                return;
+            }
+            final VaultCircuitBreaker circuitBreaker = circuitPermit.circuitBreaker;
+            final long permit = circuitPermit.permit;
+            this.circuitBreaker = circuitBreaker;
+            this.permit = permit;
+
+            final Call call = httpClient.newCall(circuitPermit.url == url
+                    ? request
+                    : request.newBuilder().url(circuitPermit.url).build());
+            url = circuitPermit.url;
+
+            currentCall = call;
+            if (future.isCancelled()) {
+                if (circuitBreaker != null) {
+                    circuitBreaker.onCancelled(permit);
+                }
+                releaseLimiter();
+                return;
+            }
+
+            attempt++;
+            retryMetrics.onAttempt();
+            attemptStartNanos = System.nanoTime();
+            baseUrlCache.onRequestStarted(url);
+            call.enqueue(this);
+        }
+
+        @Override
+        public void onFailure(final Call call, final IOException e) {
+            if (call.isCanceled()) {
+                baseUrlCache.onRequestCancelled(url);
+                if (circuitBreaker != null) {
+                    circuitBreaker.onCancelled(permit);
+                }
+                releaseLimiter();
+                future.completeExceptionally(toClientException(e));
+                return;
+            }
+
+            baseUrlCache.onRequestFailed(url, e);
+            if (circuitBreaker != null) {
+                circuitBreaker.onCompleted(permit, true, System.nanoTime() - attemptStartNanos);
+            }
+            onLimitedCallFailed(limiter, attemptStartNanos, e);
+            if (!scheduleRetry()) {
+                future.completeExceptionally(toClientException(e));
+            } else {
+                logger.debug("executeAsync: retrying, requestUrl={}, error={}, attempt={}", url, e, attempt);
+            }
+        }
+
+        @Override
+        public void onResponse(final Call call, final Response response) {
+            try {
+                final long latencyNanos = System.nanoTime() - attemptStartNanos;
+                baseUrlCache.onRequestCompleted(url, latencyNanos);
+                if (circuitBreaker != null) {
+                    circuitBreaker.onCompleted(permit, isFailedResponse(response), latencyNanos);
+                }
+                if (limiter != null) {
+                    limiter.onCompleted(attemptStartNanos, isOverloadResponse(response));
+                }
+                notifyIfTokenRejected(response);
+                if (isRetryableResponse(response) && scheduleRetry()) {
+                    logger.debug("executeAsync: retrying, requestUrl={}, responseCode={}, attempt={}",
+                            url, response.code(), attempt);
+                    return;
+                }
+                future.complete(responseHandler.apply(response));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            } finally {
+                response.close();
+            }
+        }
+
+        private void releaseLimiter() {
+            if (limiter != null) {
+                limiter.release();
+            }
+        }
+
+        /**
+         * Schedules the next attempt if the retry policy allows one.
+         */
+        private boolean scheduleRetry() {
+            if (future.isDone()) {
+                return false;
+            }
+
+            final long backoffNanos = getRetryBackoffNanos(policy, method, idempotent, attempt, startNanos);
+            if (backoffNanos < 0) {
+                return false;
+            }
+
+            try {
+                RETRY_SCHEDULER.schedule(this::startAttempt, backoffNanos, TimeUnit.NANOSECONDS);
+                return true;
+            } catch (RejectedExecutionException e) {
+                logger.warn("Failed to schedule retrying a request to vault.", e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Permit of a circuit breaker, with the URL of the endpoint it was taken for.
+     */
+    private static final class CircuitPermit {
+
+        private final HttpUrl url;
+
+        private final VaultCircuitBreaker circuitBreaker;
+
+        private final long permit;
+
+        private CircuitPermit(final HttpUrl url, final VaultCircuitBreaker circuitBreaker, final long permit) {
+            this.url = url;
+            this.circuitBreaker = circuitBreaker;
+            this.permit = permit;
         }
     }
 
@@ -420,7 +2000,7 @@ public class VaultClient {
         try {
             return response.body().string();
         } catch (IOException ioe) {
-            logger.debug("responseBodyAsString: response={}", gson.toJson(response));
+            logger.debug("responseBodyAsString: response={}", response);
             return "ERROR failed to print response body as str: " + ioe.getMessage();
         }
     }
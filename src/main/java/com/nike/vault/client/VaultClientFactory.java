@@ -52,6 +52,9 @@ public class VaultClientFactory {
      * A VaultAdminClient may need to make many requests to Vault simultaneously.
      * <p>
      * (Default value in OkHttpClient for maxRequests was 64 and maxRequestsPerHost was 5).
+     * <p>
+     * This is only a ceiling, to keep bulk jobs from overloading Vault enable an adaptive limit below it, see
+     * {@link VaultClient#setConcurrencyLimitConfig(VaultConcurrencyLimitConfig)}.
      */
     private static final int DEFAULT_MAX_REQUESTS = 200;
     private static final Map<String, String> DEFAULT_HEADERS = new HashMap<>();
@@ -106,22 +109,11 @@ public class VaultClientFactory {
     public static VaultClient getClient(final UrlResolver vaultUrlResolver,
                                         final VaultCredentialsProvider vaultCredentialsProvider,
                                         final Map<String, String> defaultHeaders) {
-
-        List<ConnectionSpec> connectionSpecs = new ArrayList<>();
-        connectionSpecs.add(TLS_1_2_OR_NEWER);
-        // for unit tests
-        connectionSpecs.add(CLEARTEXT);
-
         return getClient(
                 vaultUrlResolver,
                 vaultCredentialsProvider,
                 defaultHeaders,
-                new OkHttpClient.Builder()
-                        .connectTimeout(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT_UNIT)
-                        .writeTimeout(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT_UNIT)
-                        .readTimeout(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT_UNIT)
-                        .connectionSpecs(connectionSpecs)
-                        .build()
+                buildDefaultHttpClient()
         );
     }
 
@@ -153,6 +145,40 @@ public class VaultClientFactory {
                 headers.build());
     }
 
+    /**
+     * Factory method that will build a caching Vault client that looks up the Vault URL from one of the following
+     * places:
+     * <ul>
+     * <li>Environment Variable - <code>VAULT_ADDR</code></li>
+     * <li>Java System Property - <code>vault.addr</code></li>
+     * </ul>
+     * Default recommended credential provider and http client are used.
+     *
+     * @param cacheConfig Configuration of the secret cache
+     * @return Caching Vault client
+     */
+    public static CachingVaultClient getCachingClient(final VaultCacheConfig cacheConfig) {
+        return getCachingClient(new DefaultVaultUrlResolver(), new DefaultVaultCredentialsProviderChain(), cacheConfig);
+    }
+
+    /**
+     * Factory method that builds a caching Vault client with a user defined Vault URL resolver and credentials
+     * provider.
+     *
+     * @param vaultUrlResolver         URL resolver for Vault
+     * @param vaultCredentialsProvider Credential provider for acquiring a token for interacting with Vault
+     * @param cacheConfig              Configuration of the secret cache
+     * @return Caching Vault client
+     */
+    public static CachingVaultClient getCachingClient(final UrlResolver vaultUrlResolver,
+                                                      final VaultCredentialsProvider vaultCredentialsProvider,
+                                                      final VaultCacheConfig cacheConfig) {
+        return new CachingVaultClient(vaultUrlResolver,
+                vaultCredentialsProvider,
+                buildDefaultHttpClient(),
+                cacheConfig);
+    }
+
     /**
      * Basic factory method that will build a Vault admin client that
      * looks up the Vault URL from one of the following places:
@@ -332,4 +358,18 @@ public class VaultClientFactory {
                         .build(),
                 headers.build());
     }
+
+    private static OkHttpClient buildDefaultHttpClient() {
+        List<ConnectionSpec> connectionSpecs = new ArrayList<>();
+        connectionSpecs.add(TLS_1_2_OR_NEWER);
+        // for unit tests
+        connectionSpecs.add(CLEARTEXT);
+
+        return new OkHttpClient.Builder()
+                .connectTimeout(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT_UNIT)
+                .writeTimeout(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT_UNIT)
+                .readTimeout(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT_UNIT)
+                .connectionSpecs(connectionSpecs)
+                .build();
+    }
 }
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for the adaptive concurrency limit of a {@link VaultClient}, see
+ * {@link VaultClient#setConcurrencyLimitConfig(VaultConcurrencyLimitConfig)}.
+ * <p>
+ * The limit follows additive increase, multiplicative decrease: every call that completes in time while the limit is
+ * in use raises it by a fraction, so it grows by about one per limit's worth of calls.  A call answered with 429 or
+ * 503, timing out or slower than the slow call duration shrinks it by the backoff ratio, at most once per round of
+ * calls.  Requests over the limit wait in a bounded queue, and are rejected with a
+ * {@link VaultConcurrencyLimitException} once the queue is full or they waited for the max queue wait.
+ * </p>
+ */
+public class VaultConcurrencyLimitConfig {
+
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+
+    public static final int DEFAULT_MIN_LIMIT = 1;
+
+    public static final int DEFAULT_MAX_LIMIT = 200;
+
+    public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
+    public static final long DEFAULT_SLOW_CALL_DURATION_MILLIS = 2_000;
+
+    public static final int DEFAULT_MAX_QUEUE_SIZE = 100;
+
+    public static final long DEFAULT_MAX_QUEUE_WAIT_MILLIS = 5_000;
+
+    private int initialLimit = DEFAULT_INITIAL_LIMIT;
+
+    private int minLimit = DEFAULT_MIN_LIMIT;
+
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+
+    private double backoffRatio = DEFAULT_BACKOFF_RATIO;
+
+    private long slowCallDurationMillis = DEFAULT_SLOW_CALL_DURATION_MILLIS;
+
+    private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+
+    private long maxQueueWaitMillis = DEFAULT_MAX_QUEUE_WAIT_MILLIS;
+
+    /**
+     * Returns the limit to start from.
+     *
+     * @return Initial limit
+     */
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    /**
+     * Sets the limit to start from.  It is kept between the min and max limit.
+     *
+     * @param initialLimit Initial limit of at least 1
+     * @return This config
+     */
+    public VaultConcurrencyLimitConfig setInitialLimit(final int initialLimit) {
+        if (initialLimit < 1) {
+            throw new IllegalArgumentException("Initial limit must be at least 1.");
+        }
+
+        this.initialLimit = initialLimit;
+        return this;
+    }
+
+    /**
+     * Returns the limit that decreases never go below.
+     *
+     * @return Min limit
+     */
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    /**
+     * Sets the limit that decreases never go below.
+     *
+     * @param minLimit Min limit of at least 1
+     * @return This config
+     */
+    public VaultConcurrencyLimitConfig setMinLimit(final int minLimit) {
+        if (minLimit < 1) {
+            throw new IllegalArgumentException("Min limit must be at least 1.");
+        }
+
+        this.minLimit = minLimit;
+        return this;
+    }
+
+    /**
+     * Returns the limit that increases never go above.
+     *
+     * @return Max limit
+     */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * Sets the limit that increases never go above.  Requests beyond the max requests of the dispatcher of the
+     * HTTP client still wait in the dispatcher, so there is no point in a higher max limit.
+     *
+     * @param maxLimit Max limit of at least 1
+     * @return This config
+     */
+    public VaultConcurrencyLimitConfig setMaxLimit(final int maxLimit) {
+        if (maxLimit < 1) {
+            throw new IllegalArgumentException("Max limit must be at least 1.");
+        }
+
+        this.maxLimit = maxLimit;
+        return this;
+    }
+
+    /**
+     * Returns the factor the limit is multiplied with when Vault shows overload.
+     *
+     * @return Backoff ratio between 0 and 1
+     */
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    /**
+     * Sets the factor the limit is multiplied with when Vault shows overload, e.g. 0.9 shrinks it by a tenth.
+     *
+     * @param backoffRatio Ratio above 0 and below 1
+     * @return This config
+     */
+    public VaultConcurrencyLimitConfig setBackoffRatio(final double backoffRatio) {
+        if (!(backoffRatio > 0 && backoffRatio < 1)) {
+            throw new IllegalArgumentException("Backoff ratio must be above 0 and below 1.");
+        }
+
+        this.backoffRatio = backoffRatio;
+        return this;
+    }
+
+    /**
+     * Returns how long a call may take before it counts as a sign of overload.
+     *
+     * @return Slow call duration in milliseconds
+     */
+    public long getSlowCallDurationMillis() {
+        return slowCallDurationMillis;
+    }
+
+    /**
+     * Sets how long a call may take before it counts as a sign of overload.
+     *
+     * @param slowCallDuration Slow call duration
+     * @param unit             Unit of the duration
+     * @return This config
+     */
+    public VaultConcurrencyLimitConfig setSlowCallDuration(final long slowCallDuration, final TimeUnit unit) {
+        if (slowCallDuration <= 0) {
+            throw new IllegalArgumentException("Slow call duration must be positive.");
+        }
+
+        this.slowCallDurationMillis = unit.toMillis(slowCallDuration);
+        return this;
+    }
+
+    /**
+     * Returns how many requests may wait for the limit.
+     *
+     * @return Max queue size
+     */
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    /**
+     * Sets how many requests may wait for the limit.  Further requests are rejected right away, with 0 every request
+     * over the limit is.
+     *
+     * @param maxQueueSize Max queue size
+     * @return This config
+     */
+    public VaultConcurrencyLimitConfig setMaxQueueSize(final int maxQueueSize) {
+        if (maxQueueSize < 0) {
+            throw new IllegalArgumentException("Max queue size can not be negative.");
+        }
+
+        this.maxQueueSize = maxQueueSize;
+        return this;
+    }
+
+    /**
+     * Returns how long a request may wait for the limit before it is rejected.
+     *
+     * @return Max queue wait in milliseconds
+     */
+    public long getMaxQueueWaitMillis() {
+        return maxQueueWaitMillis;
+    }
+
+    /**
+     * Sets how long a request may wait for the limit before it is rejected.
+     *
+     * @param maxQueueWait Max queue wait
+     * @param unit         Unit of the wait
+     * @return This config
+     */
+    public VaultConcurrencyLimitConfig setMaxQueueWait(final long maxQueueWait, final TimeUnit unit) {
+        if (maxQueueWait <= 0) {
+            throw new IllegalArgumentException("Max queue wait must be positive.");
+        }
+
+        this.maxQueueWaitMillis = unit.toMillis(maxQueueWait);
+        return this;
+    }
+}
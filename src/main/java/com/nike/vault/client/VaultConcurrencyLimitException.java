@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+/**
+ * Thrown instead of sending a request when the adaptive concurrency limit of the client is reached and the request
+ * could not wait for it, see {@link VaultConcurrencyLimiter}.
+ */
+public class VaultConcurrencyLimitException extends VaultClientException {
+
+    /**
+     * Constructs the exception with the reason the request was rejected.
+     *
+     * @param msg Reason the request was rejected
+     */
+    public VaultConcurrencyLimitException(final String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive limit on the requests a {@link VaultClient} has in flight, in front of the dispatcher of its HTTP client.
+ * See {@link VaultConcurrencyLimitConfig} for how the limit adapts.  A permit is taken per attempt, before the
+ * request is sent, and given back once its response headers arrived or it failed.
+ * <p>
+ * Waiting requests are granted permits in arrival order.  Blocking calls wait on the calling thread, while the
+ * non-blocking API queues a future, so no thread is tied up waiting for the limit.
+ * </p>
+ */
+public class VaultConcurrencyLimiter {
+
+    private static final ScheduledExecutorService DEFAULT_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new NamedDaemonThreadFactory("vault-concurrency-limit"));
+
+    private final VaultConcurrencyLimitConfig config;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Deque<CompletableFuture<Void>> queue = new ArrayDeque<>();
+
+    private final long slowCallDurationNanos;
+
+    private double limit;
+
+    private int inFlight;
+
+    private long lastDecreaseNanos = System.nanoTime();
+
+    private long rejectedCount;
+
+    /**
+     * Constructs a limiter with the specified configuration.
+     *
+     * @param config Concurrency limit config
+     */
+    public VaultConcurrencyLimiter(final VaultConcurrencyLimitConfig config) {
+        this(config, DEFAULT_SCHEDULER);
+    }
+
+    VaultConcurrencyLimiter(final VaultConcurrencyLimitConfig config, final ScheduledExecutorService scheduler) {
+        if (config == null) {
+            throw new IllegalArgumentException("Concurrency limit config cannot be null.");
+        }
+        if (config.getMinLimit() > config.getMaxLimit()) {
+            throw new IllegalArgumentException("Min limit cannot be above max limit.");
+        }
+
+        this.config = config;
+        this.scheduler = scheduler;
+        this.slowCallDurationNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDurationMillis());
+        this.limit = Math.min(config.getMaxLimit(), Math.max(config.getMinLimit(), config.getInitialLimit()));
+    }
+
+    /**
+     * Returns the configuration of the limiter.
+     *
+     * @return Concurrency limit config
+     */
+    public VaultConcurrencyLimitConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Returns the current limit on requests in flight.
+     *
+     * @return Limit
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Returns the number of requests in flight.
+     *
+     * @return Requests in flight
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Returns the number of requests waiting for the limit.
+     *
+     * @return Queue size
+     */
+    public synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of requests rejected because the queue was full or they waited too long.
+     *
+     * @return Rejected requests
+     */
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Takes a permit, waiting in the queue if the limit is reached.  The returned future completes once the permit
+     * is granted, or fails with a {@link VaultConcurrencyLimitException} if the request is rejected.  Cancelling the
+     * future leaves the queue.
+     */
+    CompletableFuture<Void> acquire() {
+        final CompletableFuture<Void> waiter;
+        synchronized (this) {
+            if (queue.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+
+            if (queue.size() >= config.getMaxQueueSize()) {
+                rejectedCount++;
+                return Futures.failed(new VaultConcurrencyLimitException(
+                        "Concurrency limit of " + (int) limit + " requests to vault reached and queue is full."));
+            }
+
+            waiter = new CompletableFuture<>();
+            queue.addLast(waiter);
+        }
+
+        ScheduledFuture<?> timeout = null;
+        try {
+            timeout = scheduler.schedule(() -> expire(waiter), config.getMaxQueueWaitMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // without a timeout, the request simply waits until a permit is free
+        }
+
+        final ScheduledFuture<?> scheduledTimeout = timeout;
+        waiter.whenComplete((ignored, throwable) -> {
+            if (scheduledTimeout != null) {
+                scheduledTimeout.cancel(false);
+            }
+            if (waiter.isCancelled()) {
+                synchronized (this) {
+                    queue.remove(waiter);
+                }
+            }
+        });
+
+        return waiter;
+    }
+
+    /**
+     * Blocking variant of {@link #acquire()}.
+     */
+    void acquireBlocking() {
+        final CompletableFuture<Void> waiter = acquire();
+        try {
+            waiter.get();
+        } catch (ExecutionException e) {
+            throw Futures.toClientException(e.getCause());
+        } catch (InterruptedException e) {
+            if (!waiter.cancel(false) && !waiter.isCompletedExceptionally()) {
+                // granted meanwhile
+                release();
+            }
+            Thread.currentThread().interrupt();
+            throw new VaultClientException("Interrupted while waiting for the concurrency limit.", e);
+        }
+    }
+
+    /**
+     * Gives back the permit of a call and adapts the limit to its outcome.
+     *
+     * @param startNanos When the call was sent
+     * @param overloaded Whether Vault answered with a sign of overload, e.g. 429 or 503 or a timeout
+     */
+    void onCompleted(final long startNanos, final boolean overloaded) {
+        final long nowNanos = System.nanoTime();
+        synchronized (this) {
+            inFlight = Math.max(0, inFlight - 1);
+            if (overloaded || nowNanos - startNanos > slowCallDurationNanos) {
+                // calls sent before the last decrease already saw the lower limit
+                if (startNanos - lastDecreaseNanos > 0) {
+                    limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+                    lastDecreaseNanos = nowNanos;
+                }
+            } else if ((inFlight + 1) * 2 >= limit) {
+                // only grow while the limit is in use, idle clients would otherwise drift to the max
+                limit = Math.min(config.getMaxLimit(), limit + 1 / limit);
+            }
+        }
+
+        dispatch();
+    }
+
+    /**
+     * Gives back the permit of a call that says nothing about the load of Vault, e.g. a cancelled call.
+     */
+    void release() {
+        synchronized (this) {
+            inFlight = Math.max(0, inFlight - 1);
+        }
+
+        dispatch();
+    }
+
+    /**
+     * Grants free permits to waiting requests.  Completing the futures happens outside the lock, since it runs the
+     * waiting request on this thread.
+     */
+    private void dispatch() {
+        while (true) {
+            final CompletableFuture<Void> waiter;
+            synchronized (this) {
+                if (queue.isEmpty() || inFlight >= (int) limit) {
+                    return;
+                }
+                waiter = queue.pollFirst();
+                inFlight++;
+            }
+
+            if (!waiter.complete(null)) {
+                // cancelled meanwhile
+                synchronized (this) {
+                    inFlight--;
+                }
+            }
+        }
+    }
+
+    private void expire(final CompletableFuture<Void> waiter) {
+        synchronized (this) {
+            if (!queue.remove(waiter)) {
+                return;
+            }
+            rejectedCount++;
+        }
+
+        waiter.completeExceptionally(new VaultConcurrencyLimitException(
+                "Timed out waiting for the concurrency limit of requests to vault."));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for hedging the reads of a {@link VaultClient}, see
+ * {@link VaultClient#setHedgingPolicy(VaultHedgingPolicy)}.
+ * <p>
+ * A hedged read sends a second request if the first one has not answered within the hedge delay.  Whichever request
+ * answers first wins and the other one is cancelled.  The delay follows a percentile of the recent read latencies,
+ * 95 by default, so only the slowest reads are hedged.  Until enough reads were measured, the initial delay is used.
+ * </p>
+ * <p>
+ * To keep a degraded Vault from getting twice the load, hedges are paid from a budget that every read adds the max
+ * hedge ratio to, e.g. with the default of 0.05 at most one read in twenty is hedged over time, with short bursts of
+ * up to {@value #MAX_HEDGE_BURST} hedges.
+ * </p>
+ */
+public class VaultHedgingPolicy {
+
+    public static final double DEFAULT_PERCENTILE = 0.95;
+
+    public static final long DEFAULT_INITIAL_DELAY_MILLIS = 50;
+
+    public static final long DEFAULT_MIN_DELAY_MILLIS = 5;
+
+    public static final double DEFAULT_MAX_HEDGE_RATIO = 0.05;
+
+    public static final int MAX_HEDGE_BURST = 10;
+
+    private volatile double percentile = DEFAULT_PERCENTILE;
+
+    private volatile long initialDelayNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_INITIAL_DELAY_MILLIS);
+
+    private volatile long minDelayNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_MIN_DELAY_MILLIS);
+
+    private volatile double maxHedgeRatio = DEFAULT_MAX_HEDGE_RATIO;
+
+    /**
+     * Returns the percentile of recent read latencies used as the hedge delay.
+     *
+     * @return Percentile between 0 and 1
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * Sets the percentile of recent read latencies used as the hedge delay, e.g. 0.95 hedges the slowest five
+     * percent of the reads.
+     *
+     * @param percentile Percentile above 0 and up to 1
+     * @return This policy
+     */
+    public VaultHedgingPolicy setPercentile(final double percentile) {
+        if (!(percentile > 0 && percentile <= 1)) {
+            throw new IllegalArgumentException("Percentile must be above 0 and up to 1.");
+        }
+
+        this.percentile = percentile;
+        return this;
+    }
+
+    /**
+     * Returns the hedge delay used until enough read latencies were measured.
+     *
+     * @return Initial delay in milliseconds
+     */
+    public long getInitialDelayMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(initialDelayNanos);
+    }
+
+    long getInitialDelayNanos() {
+        return initialDelayNanos;
+    }
+
+    /**
+     * Sets the hedge delay used until enough read latencies were measured.
+     *
+     * @param initialDelay Initial delay
+     * @param unit         Unit of the delay
+     * @return This policy
+     */
+    public VaultHedgingPolicy setInitialDelay(final long initialDelay, final TimeUnit unit) {
+        if (initialDelay < 0) {
+            throw new IllegalArgumentException("Initial delay can not be negative.");
+        }
+
+        this.initialDelayNanos = unit.toNanos(initialDelay);
+        return this;
+    }
+
+    /**
+     * Returns the shortest hedge delay, however fast recent reads were.
+     *
+     * @return Min delay in milliseconds
+     */
+    public long getMinDelayMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(minDelayNanos);
+    }
+
+    long getMinDelayNanos() {
+        return minDelayNanos;
+    }
+
+    /**
+     * Sets the shortest hedge delay, however fast recent reads were.
+     *
+     * @param minDelay Min delay
+     * @param unit     Unit of the delay
+     * @return This policy
+     */
+    public VaultHedgingPolicy setMinDelay(final long minDelay, final TimeUnit unit) {
+        if (minDelay < 0) {
+            throw new IllegalArgumentException("Min delay can not be negative.");
+        }
+
+        this.minDelayNanos = unit.toNanos(minDelay);
+        return this;
+    }
+
+    /**
+     * Returns the largest share of reads that may be hedged over time.
+     *
+     * @return Max hedge ratio between 0 and 1
+     */
+    public double getMaxHedgeRatio() {
+        return maxHedgeRatio;
+    }
+
+    /**
+     * Sets the largest share of reads that may be hedged over time, i.e. the extra load hedging may put on Vault.
+     *
+     * @param maxHedgeRatio Ratio above 0 and up to 1
+     * @return This policy
+     */
+    public VaultHedgingPolicy setMaxHedgeRatio(final double maxHedgeRatio) {
+        if (!(maxHedgeRatio > 0 && maxHedgeRatio <= 1)) {
+            throw new IllegalArgumentException("Max hedge ratio must be above 0 and up to 1.");
+        }
+
+        this.maxHedgeRatio = maxHedgeRatio;
+        return this;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.model.VaultResponse;
+
+/**
+ * Receives the outcome of the lease renewals made by a {@link VaultLeaseManager}.  Listeners are called on the
+ * threads completing the renewals and should not block.
+ */
+public interface VaultLeaseListener {
+
+    /**
+     * Called after a lease was renewed.
+     *
+     * @param leaseId ID of the lease
+     * @param renewal Lease details returned by Vault
+     */
+    default void onRenewed(final String leaseId, final VaultResponse renewal) {
+    }
+
+    /**
+     * Called when renewing a lease failed.  If the manager gives up, the lease stops being tracked and the secret
+     * will be revoked by Vault once the lease expires.
+     *
+     * @param leaseId   ID of the lease
+     * @param cause     The failure
+     * @param willRetry Whether the manager will try again before the lease expires
+     */
+    void onRenewalFailed(String leaseId, VaultClientException cause, boolean willRetry);
+}
@@ -0,0 +1,466 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.http.HttpStatus;
+import com.nike.vault.client.model.VaultResponse;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the leases of dynamic secrets alive, see {@link VaultClient#readDynamic(String)}.  Leases are kept in a set
+ * ordered by the time they are due for renewal.  A single scheduled tick takes every due lease off the front of
+ * the set and renews the batch through the asynchronous client API, with a bounded number of renewals in flight.
+ * Thousands of leases therefore cost one timer and a few HTTP calls at a time, not a timer per lease.
+ * <p>
+ * A lease is renewed once the configured fraction of its duration has passed.  Failed renewals are retried until
+ * the lease expires.  A 400, 403 or 404 from Vault means the lease is gone, and the lease stops being tracked.
+ * Leases that are not renewable, or that Vault stops extending, are dropped as well.  Renewal outcomes are reported
+ * to the registered {@link VaultLeaseListener}s.
+ * </p>
+ */
+public class VaultLeaseManager implements AutoCloseable {
+
+    public static final double DEFAULT_RENEW_FRACTION = 0.5;
+
+    public static final long DEFAULT_TICK_INTERVAL_MILLIS = 1_000;
+
+    public static final long DEFAULT_RETRY_INTERVAL_MILLIS = 10_000;
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+    private static final ScheduledExecutorService DEFAULT_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new NamedDaemonThreadFactory("vault-lease-renewer"));
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VaultLeaseManager.class);
+
+    private final VaultClient vaultClient;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ConcurrentMap<String, LeaseEntry> leases = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListSet<LeaseEntry> renewalSchedule = new ConcurrentSkipListSet<>(
+            Comparator.comparingLong((LeaseEntry entry) -> entry.renewAtNanos).thenComparingLong(entry -> entry.sequence));
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final List<VaultLeaseListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    private volatile double renewFraction = DEFAULT_RENEW_FRACTION;
+
+    private volatile long tickIntervalMillis = DEFAULT_TICK_INTERVAL_MILLIS;
+
+    private volatile long retryIntervalMillis = DEFAULT_RETRY_INTERVAL_MILLIS;
+
+    private volatile int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+    private volatile int incrementSeconds;
+
+    private volatile ScheduledFuture<?> scheduledTick;
+
+    /**
+     * Renews the leases on a shared background thread.
+     *
+     * @param vaultClient Client used to read secrets and renew leases
+     */
+    public VaultLeaseManager(final VaultClient vaultClient) {
+        this(vaultClient, DEFAULT_SCHEDULER);
+    }
+
+    /**
+     * Renews the leases using the specified scheduler.
+     *
+     * @param vaultClient Client used to read secrets and renew leases
+     * @param scheduler   Scheduler that runs the renewal ticks
+     */
+    public VaultLeaseManager(final VaultClient vaultClient, final ScheduledExecutorService scheduler) {
+        if (vaultClient == null) {
+            throw new IllegalArgumentException("Vault client cannot be null.");
+        }
+
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Scheduler cannot be null.");
+        }
+
+        this.vaultClient = vaultClient;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Sets the fraction of the lease duration after which a lease is renewed.
+     *
+     * @param renewFraction Fraction between 0 and 1, exclusive
+     * @return The lease manager
+     */
+    public VaultLeaseManager setRenewFraction(final double renewFraction) {
+        if (!(renewFraction > 0 && renewFraction < 1)) {
+            throw new IllegalArgumentException("Renew fraction must be between 0 and 1.");
+        }
+
+        this.renewFraction = renewFraction;
+        return this;
+    }
+
+    public double getRenewFraction() {
+        return renewFraction;
+    }
+
+    /**
+     * Sets how often the manager checks for leases due for renewal.  Must be set before {@link #start()}.
+     *
+     * @param tickInterval Interval between checks
+     * @param unit         Unit of the interval
+     * @return The lease manager
+     */
+    public VaultLeaseManager setTickInterval(final long tickInterval, final TimeUnit unit) {
+        if (tickInterval <= 0) {
+            throw new IllegalArgumentException("Tick interval must be positive.");
+        }
+
+        this.tickIntervalMillis = unit.toMillis(tickInterval);
+        return this;
+    }
+
+    public long getTickIntervalMillis() {
+        return tickIntervalMillis;
+    }
+
+    /**
+     * Sets the delay before retrying a failed renewal.
+     *
+     * @param retryInterval Delay before retrying
+     * @param unit          Unit of the delay
+     * @return The lease manager
+     */
+    public VaultLeaseManager setRetryInterval(final long retryInterval, final TimeUnit unit) {
+        if (retryInterval <= 0) {
+            throw new IllegalArgumentException("Retry interval must be positive.");
+        }
+
+        this.retryIntervalMillis = unit.toMillis(retryInterval);
+        return this;
+    }
+
+    public long getRetryIntervalMillis() {
+        return retryIntervalMillis;
+    }
+
+    /**
+     * Sets the max number of renewals in flight per tick.
+     *
+     * @param maxConcurrency Max number of renewals in flight
+     * @return The lease manager
+     */
+    public VaultLeaseManager setMaxConcurrency(final int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1.");
+        }
+
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Sets the lease duration to request on each renewal.  By default the secrets engine decides.
+     *
+     * @param incrementSeconds Requested lease duration in seconds, or 0 for the default of the secrets engine
+     * @return The lease manager
+     */
+    public VaultLeaseManager setIncrementSeconds(final int incrementSeconds) {
+        if (incrementSeconds < 0) {
+            throw new IllegalArgumentException("Increment cannot be negative.");
+        }
+
+        this.incrementSeconds = incrementSeconds;
+        return this;
+    }
+
+    public int getIncrementSeconds() {
+        return incrementSeconds;
+    }
+
+    /**
+     * Registers a listener for the outcome of renewals.
+     *
+     * @param listener Listener to add
+     * @return The lease manager
+     */
+    public VaultLeaseManager addListener(final VaultLeaseListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null.");
+        }
+
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener Listener to remove
+     */
+    public void removeListener(final VaultLeaseListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts checking for leases due for renewal in the background.
+     */
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("The lease manager has already been started.");
+        }
+
+        scheduledTick = scheduler.scheduleWithFixedDelay(this::renewDueLeases,
+                tickIntervalMillis, tickIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops renewing leases.  Renewals already in flight complete, but are not rescheduled.  The leases are not
+     * revoked.
+     */
+    @Override
+    public void close() {
+        final ScheduledFuture<?> tick = scheduledTick;
+        if (tick != null) {
+            tick.cancel(false);
+        }
+    }
+
+    /**
+     * Reads a dynamic secret and tracks its lease.  See {@link VaultClient#readDynamic(String)}.
+     *
+     * @param path Path to the secret, including the mount of the secrets engine
+     * @return Secret data and lease details
+     */
+    public VaultResponse read(final String path) {
+        final VaultResponse response = vaultClient.readDynamic(path);
+        manage(response);
+        return response;
+    }
+
+    /**
+     * Tracks the lease of a response, so it is renewed before it expires.  Responses without a renewable lease are
+     * ignored.
+     *
+     * @param response Response with lease details
+     * @return Whether the lease is tracked
+     */
+    public boolean manage(final VaultResponse response) {
+        if (response == null || StringUtils.isBlank(response.getLeaseId())) {
+            return false;
+        }
+
+        if (!response.isRenewable() || response.getLeaseDuration() <= 0) {
+            LOGGER.debug("Lease {} is not renewable, not tracking it.", response.getLeaseId());
+            return false;
+        }
+
+        final long now = System.nanoTime();
+        final LeaseEntry entry = newEntry(response.getLeaseId(), now, response.getLeaseDuration());
+        final LeaseEntry previous = leases.put(entry.leaseId, entry);
+        if (previous != null) {
+            renewalSchedule.remove(previous);
+        }
+        renewalSchedule.add(entry);
+        return true;
+    }
+
+    /**
+     * Stops tracking a lease without revoking it.
+     *
+     * @param leaseId ID of the lease
+     */
+    public void release(final String leaseId) {
+        final LeaseEntry entry = leases.remove(leaseId);
+        if (entry != null) {
+            renewalSchedule.remove(entry);
+        }
+    }
+
+    /**
+     * Stops tracking a lease and revokes it.
+     *
+     * @param leaseId ID of the lease
+     */
+    public void revoke(final String leaseId) {
+        release(leaseId);
+        vaultClient.revokeLease(leaseId);
+    }
+
+    /**
+     * Returns the number of leases being tracked.
+     *
+     * @return Number of leases
+     */
+    public int getLeaseCount() {
+        return leases.size();
+    }
+
+    private void renewDueLeases() {
+        try {
+            renewDueLeases(System.nanoTime());
+        } catch (RuntimeException e) {
+            // keep the tick scheduled
+            LOGGER.error("Unexpected error while renewing Vault leases.", e);
+        }
+    }
+
+    /**
+     * Takes every lease due at the specified time off the schedule and renews the batch.
+     */
+    void renewDueLeases(final long nowNanos) {
+        final List<LeaseEntry> due = new ArrayList<>();
+        LeaseEntry entry;
+        while ((entry = renewalSchedule.pollFirst()) != null) {
+            if (entry.renewAtNanos - nowNanos > 0) {
+                renewalSchedule.add(entry);
+                break;
+            }
+            if (leases.get(entry.leaseId) == entry) {
+                due.add(entry);
+            }
+        }
+
+        if (due.isEmpty()) {
+            return;
+        }
+
+        LOGGER.debug("Renewing {} Vault leases.", due.size());
+        final AsyncTaskQueue taskQueue = new AsyncTaskQueue(maxConcurrency);
+        for (final LeaseEntry dueEntry : due) {
+            taskQueue.submit(() -> vaultClient.renewLeaseAsync(dueEntry.leaseId, incrementSeconds)
+                    .whenComplete((renewal, throwable) -> {
+                        if (throwable == null) {
+                            handleRenewal(dueEntry, renewal);
+                        } else {
+                            handleFailure(dueEntry, Futures.toClientException(throwable));
+                        }
+                    }));
+        }
+        taskQueue.closeSubmissions();
+    }
+
+    private void handleRenewal(final LeaseEntry entry, final VaultResponse renewal) {
+        for (final VaultLeaseListener listener : listeners) {
+            try {
+                listener.onRenewed(entry.leaseId, renewal);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Lease listener failed.", e);
+            }
+        }
+
+        if (renewal == null || !renewal.isRenewable() || renewal.getLeaseDuration() <= 0) {
+            LOGGER.info("Lease {} can no longer be renewed, no longer tracking it.", entry.leaseId);
+            leases.remove(entry.leaseId, entry);
+            return;
+        }
+
+        reschedule(entry, newEntry(entry.leaseId, System.nanoTime(), renewal.getLeaseDuration()));
+    }
+
+    private void handleFailure(final LeaseEntry entry, final VaultClientException cause) {
+        final long now = System.nanoTime();
+        final long retryAt = now + TimeUnit.MILLISECONDS.toNanos(retryIntervalMillis);
+        final boolean leaseGone = cause instanceof VaultServerException
+                && isLeaseGone(((VaultServerException) cause).getCode());
+        final boolean willRetry = !leaseGone && entry.expiresAtNanos - retryAt > 0;
+
+        LOGGER.warn("Failed to renew lease {}, will retry: {}.", entry.leaseId, willRetry, cause);
+        for (final VaultLeaseListener listener : listeners) {
+            try {
+                listener.onRenewalFailed(entry.leaseId, cause, willRetry);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Lease listener failed.", e);
+            }
+        }
+
+        if (willRetry) {
+            reschedule(entry, new LeaseEntry(entry.leaseId, retryAt, entry.expiresAtNanos, sequence.incrementAndGet()));
+        } else {
+            leases.remove(entry.leaseId, entry);
+        }
+    }
+
+    /**
+     * Vault answers 400 for an unknown or expired lease, and 403 or 404 once the lease or the token that owns it was
+     * revoked.  Other codes, like 429 or 412 from a node that is behind, may succeed on a later attempt.
+     */
+    private static boolean isLeaseGone(final int code) {
+        return code == HttpStatus.BAD_REQUEST || code == HttpStatus.FORBIDDEN || code == HttpStatus.NOT_FOUND;
+    }
+
+    private void reschedule(final LeaseEntry current, final LeaseEntry next) {
+        // a lease released or replaced while its renewal was in flight is not rescheduled
+        if (leases.replace(current.leaseId, current, next)) {
+            renewalSchedule.add(next);
+        }
+    }
+
+    private LeaseEntry newEntry(final String leaseId, final long nowNanos, final int leaseDurationSeconds) {
+        final long durationNanos = TimeUnit.SECONDS.toNanos(leaseDurationSeconds);
+        return new LeaseEntry(leaseId,
+                nowNanos + (long) (durationNanos * renewFraction),
+                nowNanos + durationNanos,
+                sequence.incrementAndGet());
+    }
+
+    /**
+     * A tracked lease.  Entries are immutable, a renewal replaces the entry of the lease.
+     */
+    private static final class LeaseEntry {
+
+        private final String leaseId;
+
+        private final long renewAtNanos;
+
+        private final long expiresAtNanos;
+
+        private final long sequence;
+
+        private LeaseEntry(final String leaseId, final long renewAtNanos, final long expiresAtNanos,
+                           final long sequence) {
+            this.leaseId = leaseId;
+            this.renewAtNanos = renewAtNanos;
+            this.expiresAtNanos = expiresAtNanos;
+            this.sequence = sequence;
+        }
+    }
+}
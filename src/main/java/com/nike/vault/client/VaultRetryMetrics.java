@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the requests and attempts of a {@link VaultClient}, for exporting to a metrics system.  Every request
+ * counts once, however often it is attempted.  The counters only ever grow, so rates are best derived from the
+ * difference between two reads.
+ */
+public class VaultRetryMetrics {
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder attempts = new LongAdder();
+
+    private final LongAdder retries = new LongAdder();
+
+    private final LongAdder exhausted = new LongAdder();
+
+    /**
+     * Returns the number of requests sent.
+     *
+     * @return Request count
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Returns the number of attempts made, including retries.
+     *
+     * @return Attempt count
+     */
+    public long getAttemptCount() {
+        return attempts.sum();
+    }
+
+    /**
+     * Returns the number of retries, i.e. attempts after the first one of a request.
+     *
+     * @return Retry count
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Returns the number of retryable requests that still failed because they ran out of attempts or hit the
+     * deadline.
+     *
+     * @return Exhausted request count
+     */
+    public long getExhaustedCount() {
+        return exhausted.sum();
+    }
+
+    void onRequest() {
+        requests.increment();
+    }
+
+    void onAttempt() {
+        attempts.increment();
+    }
+
+    void onRetry() {
+        retries.increment();
+    }
+
+    void onExhausted() {
+        exhausted.increment();
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.http.HttpMethod;
+import com.nike.vault.client.http.HttpStatus;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for retrying failed requests of the {@link VaultClient}.
+ * <p>
+ * A request is retried when it fails with an I/O error, e.g. a reset connection or a timeout, or when Vault answers
+ * with a 429, 500, 502, 503 or 504.  Reads (GET requests, e.g. read, list, lookupSelf, health and policy lookups)
+ * are safe to send again and are retried by default.  Writes, deletes and other requests that change state are only
+ * retried once opted in with {@link #setRetryWrites(boolean)}, as a request that failed on its way back may still
+ * have been applied.
+ * </p>
+ * <p>
+ * The wait between attempts grows exponentially from the initial backoff up to the max backoff.  Each wait is
+ * shortened by a random share of up to the jitter factor, so clients that failed together do not retry in lockstep.
+ * No further attempt is made once the next one would start after the deadline, counted from the first attempt.  The
+ * deadline does not cut an attempt short, that is up to the timeouts of the HTTP client.
+ * </p>
+ */
+public class VaultRetryPolicy {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    public static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 100;
+
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 2_000;
+
+    public static final double DEFAULT_BACKOFF_MULTIPLIER = 2.0;
+
+    public static final double DEFAULT_JITTER = 0.5;
+
+    public static final long DEFAULT_DEADLINE_MILLIS = 30_000;
+
+    private volatile int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    private volatile long initialBackoffNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_INITIAL_BACKOFF_MILLIS);
+
+    private volatile long maxBackoffNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_MAX_BACKOFF_MILLIS);
+
+    private volatile double backoffMultiplier = DEFAULT_BACKOFF_MULTIPLIER;
+
+    private volatile double jitter = DEFAULT_JITTER;
+
+    private volatile long deadlineNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_DEADLINE_MILLIS);
+
+    private volatile boolean retryWrites;
+
+    /**
+     * Returns a policy that sends every request only once.
+     *
+     * @return Policy without retries
+     */
+    public static VaultRetryPolicy none() {
+        return new VaultRetryPolicy().setMaxAttempts(1);
+    }
+
+    /**
+     * Returns the max number of attempts per request, including the first one.
+     *
+     * @return Max attempts
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Sets the max number of attempts per request, including the first one.  One disables retries.
+     *
+     * @param maxAttempts Max attempts
+     * @return This policy
+     */
+    public VaultRetryPolicy setMaxAttempts(final int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1.");
+        }
+
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Returns the wait before the first retry, before jitter.
+     *
+     * @return Initial backoff in milliseconds
+     */
+    public long getInitialBackoffMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(initialBackoffNanos);
+    }
+
+    /**
+     * Sets the wait before the first retry, before jitter.
+     *
+     * @param initialBackoff Initial backoff
+     * @param unit           Unit of the backoff
+     * @return This policy
+     */
+    public VaultRetryPolicy setInitialBackoff(final long initialBackoff, final TimeUnit unit) {
+        if (initialBackoff < 0) {
+            throw new IllegalArgumentException("Initial backoff can not be negative.");
+        }
+
+        this.initialBackoffNanos = unit.toNanos(initialBackoff);
+        return this;
+    }
+
+    /**
+     * Returns the longest wait between two attempts, before jitter.
+     *
+     * @return Max backoff in milliseconds
+     */
+    public long getMaxBackoffMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxBackoffNanos);
+    }
+
+    /**
+     * Sets the longest wait between two attempts, before jitter.
+     *
+     * @param maxBackoff Max backoff
+     * @param unit       Unit of the backoff
+     * @return This policy
+     */
+    public VaultRetryPolicy setMaxBackoff(final long maxBackoff, final TimeUnit unit) {
+        if (maxBackoff < 0) {
+            throw new IllegalArgumentException("Max backoff can not be negative.");
+        }
+
+        this.maxBackoffNanos = unit.toNanos(maxBackoff);
+        return this;
+    }
+
+    /**
+     * Returns the factor the wait grows by after every retry.
+     *
+     * @return Backoff multiplier
+     */
+    public double getBackoffMultiplier() {
+        return backoffMultiplier;
+    }
+
+    /**
+     * Sets the factor the wait grows by after every retry, e.g. 2 doubles it.
+     *
+     * @param backoffMultiplier Multiplier of at least 1
+     * @return This policy
+     */
+    public VaultRetryPolicy setBackoffMultiplier(final double backoffMultiplier) {
+        if (!(backoffMultiplier >= 1)) {
+            throw new IllegalArgumentException("Backoff multiplier must be at least 1.");
+        }
+
+        this.backoffMultiplier = backoffMultiplier;
+        return this;
+    }
+
+    /**
+     * Returns the largest share of a wait that is randomly cut from it.
+     *
+     * @return Jitter factor between 0 and 1
+     */
+    public double getJitter() {
+        return jitter;
+    }
+
+    /**
+     * Sets the largest share of a wait that is randomly cut from it.  Zero waits exactly the backoff, one waits
+     * anywhere between zero and the backoff.
+     *
+     * @param jitter Jitter factor between 0 and 1
+     * @return This policy
+     */
+    public VaultRetryPolicy setJitter(final double jitter) {
+        if (!(jitter >= 0 && jitter <= 1)) {
+            throw new IllegalArgumentException("Jitter must be between 0 and 1.");
+        }
+
+        this.jitter = jitter;
+        return this;
+    }
+
+    /**
+     * Returns how long after the first attempt a retry may still be started.
+     *
+     * @return Deadline in milliseconds, zero if there is none
+     */
+    public long getDeadlineMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(deadlineNanos);
+    }
+
+    /**
+     * Sets how long after the first attempt a retry may still be started.  Zero removes the deadline, leaving only
+     * the max attempts.
+     *
+     * @param deadline Deadline
+     * @param unit     Unit of the deadline
+     * @return This policy
+     */
+    public VaultRetryPolicy setDeadline(final long deadline, final TimeUnit unit) {
+        if (deadline < 0) {
+            throw new IllegalArgumentException("Deadline can not be negative.");
+        }
+
+        this.deadlineNanos = unit.toNanos(deadline);
+        return this;
+    }
+
+    /**
+     * Returns whether requests other than GET requests are retried.
+     *
+     * @return Retry writes flag
+     */
+    public boolean isRetryWrites() {
+        return retryWrites;
+    }
+
+    /**
+     * Enables or disables retrying requests other than GET requests, e.g. write, delete, renewals and token
+     * creation.  Only enable this if sending such a request twice is harmless.  Disabled by default.
+     *
+     * @param retryWrites Flag for retrying requests that change state
+     * @return This policy
+     */
+    public VaultRetryPolicy setRetryWrites(final boolean retryWrites) {
+        this.retryWrites = retryWrites;
+        return this;
+    }
+
+    /**
+     * Returns whether requests with the specified HTTP method may be retried.
+     *
+     * @param method HTTP method of the request
+     * @return True for GET and HEAD requests, and for all other requests if writes are retried
+     */
+    public boolean isRetryableMethod(final String method) {
+        return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method) || retryWrites;
+    }
+
+    /**
+     * Returns whether a request may be retried.  A request that is not idempotent, e.g. a GET that creates new
+     * credentials, is only retried if writes are retried.
+     *
+     * @param method     HTTP method of the request
+     * @param idempotent Whether sending the request twice has the same effect as sending it once
+     * @return True if the request may be retried
+     */
+    public boolean isRetryableRequest(final String method, final boolean idempotent) {
+        return isRetryableMethod(method) && (idempotent || retryWrites);
+    }
+
+    /**
+     * Returns whether a response with the specified status code is worth retrying.
+     *
+     * @param code HTTP status code
+     * @return True for 429, 500, 502, 503 and 504
+     */
+    public boolean isRetryableStatus(final int code) {
+        return code == HttpStatus.TOO_MANY_REQUESTS
+                || code == HttpStatus.INTERNAL_SERVER_ERROR
+                || code == HttpStatus.BAD_GATEWAY
+                || code == HttpStatus.SERVICE_UNAVAILABLE
+                || code == HttpStatus.GATEWAY_TIMEOUT;
+    }
+
+    /**
+     * Returns how long to wait after the specified failed attempt, with jitter applied.
+     *
+     * @param failedAttempt Number of the attempt that failed, starting at 1
+     * @return Backoff in nanoseconds
+     */
+    public long getBackoffNanos(final int failedAttempt) {
+        final double backoff = Math.min(
+                initialBackoffNanos * Math.pow(backoffMultiplier, failedAttempt - 1),
+                maxBackoffNanos);
+        return (long) (backoff * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+
+    /**
+     * Returns whether another attempt may start after the specified one failed.
+     *
+     * @param failedAttempt Number of the attempt that failed, starting at 1
+     * @param elapsedNanos  Time since the first attempt started, including the upcoming backoff
+     * @return True if the max attempts and the deadline allow another attempt
+     */
+    boolean allowsAnotherAttempt(final int failedAttempt, final long elapsedNanos) {
+        final long deadline = deadlineNanos;
+        return failedAttempt < maxAttempts && (deadline == 0 || elapsedNanos <= deadline);
+    }
+}
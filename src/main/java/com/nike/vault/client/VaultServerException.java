@@ -52,6 +52,16 @@ public class VaultServerException extends VaultClientException {
         return code;
     }
 
+    /**
+     * Returns true if Vault answered with a 5xx response code, meaning the failure is on the server side and
+     * the same request may succeed later.
+     *
+     * @return true for 5xx response codes
+     */
+    public boolean isServerError() {
+        return code >= 500 && code < 600;
+    }
+
     /**
      * Returns the list of error messages.
      *
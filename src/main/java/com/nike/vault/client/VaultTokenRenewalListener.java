@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.model.VaultAuthResponse;
+
+/**
+ * Receives the outcome of the renewals made by a {@link VaultTokenRenewer}.  Listeners are called on the thread of
+ * the renewer and should not block.
+ */
+public interface VaultTokenRenewalListener {
+
+    /**
+     * Called after the token was renewed.
+     *
+     * @param auth Auth response with the new lease duration of the token
+     */
+    default void onRenewed(final VaultAuthResponse auth) {
+    }
+
+    /**
+     * Called when looking up or renewing the token failed.  If the renewer gives up, the token will expire unless it
+     * is replaced.
+     *
+     * @param cause     The failure
+     * @param willRetry Whether the renewer will try again before the token expires
+     */
+    void onRenewalFailed(VaultClientException cause, boolean willRetry);
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.http.HttpStatus;
+import com.nike.vault.client.model.VaultAuthResponse;
+import com.nike.vault.client.model.VaultClientTokenResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the client token of a {@link VaultClient} alive by renewing it in the background.  On {@link #start()} the
+ * renewer looks up the TTL of the token and renews it once the configured fraction of the TTL has passed, then does
+ * the same with the lease duration of every renewal.  Tokens that are not renewable or have no TTL, e.g. root
+ * tokens, are left alone.
+ * <p>
+ * Failed renewals are retried until the token expires, and reported to the registered
+ * {@link VaultTokenRenewalListener}s.  A 403 from Vault means the token is no longer valid and stops the renewer.
+ * </p>
+ */
+public class VaultTokenRenewer implements AutoCloseable {
+
+    public static final double DEFAULT_RENEW_FRACTION = 0.5;
+
+    public static final long DEFAULT_RETRY_INTERVAL_MILLIS = 10_000;
+
+    private static final long MIN_RENEW_DELAY_MILLIS = 1_000;
+
+    private static final ScheduledExecutorService DEFAULT_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new NamedDaemonThreadFactory("vault-token-renewer"));
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VaultTokenRenewer.class);
+
+    private final VaultClient vaultClient;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final List<VaultTokenRenewalListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    private volatile double renewFraction = DEFAULT_RENEW_FRACTION;
+
+    private volatile long retryIntervalMillis = DEFAULT_RETRY_INTERVAL_MILLIS;
+
+    private volatile int incrementSeconds;
+
+    private volatile long expiresAtNanos;
+
+    private ScheduledFuture<?> scheduledTask;
+
+    private boolean closed;
+
+    /**
+     * Renews the token of the client on a shared background thread.
+     *
+     * @param vaultClient Client whose token to renew
+     */
+    public VaultTokenRenewer(final VaultClient vaultClient) {
+        this(vaultClient, DEFAULT_SCHEDULER);
+    }
+
+    /**
+     * Renews the token of the client using the specified scheduler.
+     *
+     * @param vaultClient Client whose token to renew
+     * @param scheduler   Scheduler that runs the lookups and renewals
+     */
+    public VaultTokenRenewer(final VaultClient vaultClient, final ScheduledExecutorService scheduler) {
+        if (vaultClient == null) {
+            throw new IllegalArgumentException("Vault client cannot be null.");
+        }
+
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Scheduler cannot be null.");
+        }
+
+        this.vaultClient = vaultClient;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Sets the fraction of the TTL after which the token is renewed, e.g. 0.5 renews a token with a one hour TTL
+     * after 30 minutes.
+     *
+     * @param renewFraction Fraction between 0 and 1, exclusive
+     * @return The renewer
+     */
+    public VaultTokenRenewer setRenewFraction(final double renewFraction) {
+        if (!(renewFraction > 0 && renewFraction < 1)) {
+            throw new IllegalArgumentException("Renew fraction must be between 0 and 1.");
+        }
+
+        this.renewFraction = renewFraction;
+        return this;
+    }
+
+    public double getRenewFraction() {
+        return renewFraction;
+    }
+
+    /**
+     * Sets the delay before retrying a failed lookup or renewal.
+     *
+     * @param retryInterval Delay before retrying
+     * @param unit          Unit of the delay
+     * @return The renewer
+     */
+    public VaultTokenRenewer setRetryInterval(final long retryInterval, final TimeUnit unit) {
+        if (retryInterval <= 0) {
+            throw new IllegalArgumentException("Retry interval must be positive.");
+        }
+
+        this.retryIntervalMillis = unit.toMillis(retryInterval);
+        return this;
+    }
+
+    public long getRetryIntervalMillis() {
+        return retryIntervalMillis;
+    }
+
+    /**
+     * Sets the TTL to request on each renewal.  By default the increment configured on the token is used.
+     *
+     * @param incrementSeconds Requested TTL in seconds, or 0 for the increment configured on the token
+     * @return The renewer
+     */
+    public VaultTokenRenewer setIncrementSeconds(final int incrementSeconds) {
+        if (incrementSeconds < 0) {
+            throw new IllegalArgumentException("Increment cannot be negative.");
+        }
+
+        this.incrementSeconds = incrementSeconds;
+        return this;
+    }
+
+    public int getIncrementSeconds() {
+        return incrementSeconds;
+    }
+
+    /**
+     * Registers a listener for the outcome of renewals.
+     *
+     * @param listener Listener to add
+     * @return The renewer
+     */
+    public VaultTokenRenewer addListener(final VaultTokenRenewalListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null.");
+        }
+
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener Listener to remove
+     */
+    public void removeListener(final VaultTokenRenewalListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts renewing the token in the background.  The first lookup of the token is made right away.
+     */
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("The token renewer has already been started.");
+        }
+
+        schedule(this::lookup, 0);
+    }
+
+    /**
+     * Stops renewing the token.  A lookup or renewal already running is not interrupted.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (scheduledTask != null) {
+            scheduledTask.cancel(false);
+        }
+    }
+
+    /**
+     * Returns the number of milliseconds until the token expires, based on the last lookup or renewal, or 0 if
+     * the TTL is not known yet.
+     *
+     * @return Milliseconds until expiry
+     */
+    public long getRemainingTtlMillis() {
+        final long expiresAt = expiresAtNanos;
+        if (expiresAt == 0) {
+            return 0;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(expiresAt - System.nanoTime()));
+    }
+
+    private void lookup() {
+        final VaultClientTokenResponse token;
+        try {
+            token = vaultClient.lookupSelf();
+        } catch (VaultClientException e) {
+            handleFailure(e, this::lookup);
+            return;
+        }
+
+        if (token == null || !token.isRenewable() || token.getTtl() <= 0) {
+            LOGGER.info("The Vault token is not renewable or does not expire, it will not be renewed.");
+            return;
+        }
+
+        scheduleRenewal(token.getTtl());
+    }
+
+    private void renew() {
+        final VaultAuthResponse auth;
+        try {
+            auth = vaultClient.renewSelf(incrementSeconds);
+        } catch (VaultClientException e) {
+            handleFailure(e, this::renew);
+            return;
+        }
+
+        for (final VaultTokenRenewalListener listener : listeners) {
+            try {
+                listener.onRenewed(auth);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Token renewal listener failed.", e);
+            }
+        }
+
+        if (auth == null || !auth.isRenewable() || auth.getLeaseDuration() <= 0) {
+            LOGGER.info("The renewed Vault token can no longer be renewed.");
+            return;
+        }
+
+        scheduleRenewal(auth.getLeaseDuration());
+    }
+
+    private void scheduleRenewal(final int ttlSeconds) {
+        final long ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        expiresAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+
+        final long delayMillis = Math.max(MIN_RENEW_DELAY_MILLIS, (long) (ttlMillis * renewFraction));
+        LOGGER.debug("Renewing the Vault token in {} ms, TTL is {} s.", delayMillis, ttlSeconds);
+        schedule(this::renew, delayMillis);
+    }
+
+    private void handleFailure(final VaultClientException cause, final Runnable retry) {
+        final boolean rejected = cause instanceof VaultServerException
+                && ((VaultServerException) cause).getCode() == HttpStatus.FORBIDDEN;
+        final boolean expiresBeforeRetry = expiresAtNanos != 0 && getRemainingTtlMillis() <= retryIntervalMillis;
+        final boolean willRetry = !rejected && !expiresBeforeRetry;
+
+        LOGGER.warn("Failed to renew the Vault token, will retry: {}.", willRetry, cause);
+        for (final VaultTokenRenewalListener listener : listeners) {
+            try {
+                listener.onRenewalFailed(cause, willRetry);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Token renewal listener failed.", e);
+            }
+        }
+
+        if (willRetry) {
+            schedule(retry, retryIntervalMillis);
+        }
+    }
+
+    private synchronized void schedule(final Runnable task, final long delayMillis) {
+        if (closed) {
+            return;
+        }
+
+        try {
+            scheduledTask = scheduler.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Failed to schedule renewing the Vault token.", e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.model.VaultListResponse;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Lazily walks a folder depth first and yields its leaf paths.  Folders are only listed once the iteration gets
+ * close to them, and the next few pending folders are listed in the background while the current leaves are
+ * consumed.  Memory is bounded by the leaves of one folder plus the pending folders along the current branch,
+ * regardless of the size of the tree.
+ * <p>
+ * The leaves of a folder are returned before the leaves of its sub folders.  Instances are not thread safe.
+ * </p>
+ */
+class VaultTreeIterator implements Iterator<String> {
+
+    private final VaultClient vaultClient;
+
+    private final int prefetchSize;
+
+    private final Deque<PendingFolder> folders = new ArrayDeque<>();
+
+    private final Deque<String> leaves = new ArrayDeque<>();
+
+    VaultTreeIterator(final VaultClient vaultClient, final String path, final int prefetchSize) {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null.");
+        }
+
+        if (prefetchSize < 0) {
+            throw new IllegalArgumentException("Prefetch size cannot be negative.");
+        }
+
+        this.vaultClient = vaultClient;
+        this.prefetchSize = prefetchSize;
+        folders.push(new PendingFolder(StringUtils.strip(path, "/")));
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (leaves.isEmpty() && !folders.isEmpty()) {
+            expand(folders.pop());
+        }
+        return !leaves.isEmpty();
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return leaves.poll();
+    }
+
+    /**
+     * Waits for the listing of the folder, queues its leaves and pushes its sub folders in front of the pending
+     * folders, so they are expanded next.
+     */
+    private void expand(final PendingFolder folder) {
+        folder.startListing();
+        prefetch();
+
+        final List<String> keys = Futures.join(folder.listing).getKeys();
+        if (keys != null) {
+            final ListIterator<String> keyIterator = keys.listIterator(keys.size());
+            while (keyIterator.hasPrevious()) {
+                final String key = keyIterator.previous();
+                final String childPath = folder.path.isEmpty() ? key : folder.path + "/" + key;
+                if (key.endsWith("/")) {
+                    folders.push(new PendingFolder(StringUtils.removeEnd(childPath, "/")));
+                } else {
+                    leaves.push(childPath);
+                }
+            }
+        }
+
+        prefetch();
+    }
+
+    private void prefetch() {
+        int started = 0;
+        for (final PendingFolder folder : folders) {
+            if (started++ >= prefetchSize) {
+                return;
+            }
+            folder.startListing();
+        }
+    }
+
+    private class PendingFolder {
+
+        private final String path;
+
+        private CompletableFuture<VaultListResponse> listing;
+
+        PendingFolder(final String path) {
+            this.path = path;
+        }
+
+        void startListing() {
+            if (listing == null) {
+                listing = vaultClient.listAsync(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.auth;
+
+import com.nike.vault.client.NamedDaemonThreadFactory;
+import com.nike.vault.client.VaultClientException;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link VaultCredentialsProvider} decorator that holds on to the credentials of another provider, e.g. a
+ * {@link DefaultVaultCredentialsProviderChain}, so the client does not walk the providers on every request.
+ * <p>
+ * Only the first call blocks while the credentials are loaded.  Afterwards the credentials are reloaded in the
+ * background on a fixed interval and when Vault rejects the current token with a 403.  If a reload fails, the
+ * current credentials are kept and the failure is logged.
+ * </p>
+ */
+public class CachingVaultCredentialsProvider implements VaultCredentialsProvider, AutoCloseable {
+
+    public static final long DEFAULT_REFRESH_INTERVAL_MILLIS = 300_000;
+
+    private static final long REJECTED_TOKEN_REFRESH_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private static final ScheduledExecutorService DEFAULT_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new NamedDaemonThreadFactory("vault-credentials-refresh"));
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingVaultCredentialsProvider.class);
+
+    private final VaultCredentialsProvider credentialsProvider;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ScheduledFuture<?> scheduledRefresh;
+
+    private final AtomicBoolean refreshInFlight = new AtomicBoolean(false);
+
+    private final Object loadLock = new Object();
+
+    private volatile VaultCredentials credentials;
+
+    private volatile long lastRejectedRefreshNanos;
+
+    /**
+     * Caches the credentials of the provider and reloads them every
+     * {@value #DEFAULT_REFRESH_INTERVAL_MILLIS} milliseconds.
+     *
+     * @param credentialsProvider Provider to cache the credentials of
+     */
+    public CachingVaultCredentialsProvider(final VaultCredentialsProvider credentialsProvider) {
+        this(credentialsProvider, DEFAULT_REFRESH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Caches the credentials of the provider and reloads them on the specified interval.
+     *
+     * @param credentialsProvider Provider to cache the credentials of
+     * @param refreshInterval     Interval between background reloads
+     * @param unit                Unit of the interval
+     */
+    public CachingVaultCredentialsProvider(final VaultCredentialsProvider credentialsProvider,
+                                           final long refreshInterval,
+                                           final TimeUnit unit) {
+        this(credentialsProvider, refreshInterval, unit, DEFAULT_SCHEDULER);
+    }
+
+    /**
+     * Caches the credentials of the provider and reloads them on the specified interval, using the specified
+     * scheduler for reloading.
+     *
+     * @param credentialsProvider Provider to cache the credentials of
+     * @param refreshInterval     Interval between background reloads
+     * @param unit                Unit of the interval
+     * @param scheduler           Scheduler that runs the reloads
+     */
+    public CachingVaultCredentialsProvider(final VaultCredentialsProvider credentialsProvider,
+                                           final long refreshInterval,
+                                           final TimeUnit unit,
+                                           final ScheduledExecutorService scheduler) {
+        if (credentialsProvider == null) {
+            throw new IllegalArgumentException("Credentials provider cannot be null.");
+        }
+
+        if (refreshInterval <= 0) {
+            throw new IllegalArgumentException("Refresh interval must be positive.");
+        }
+
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Scheduler cannot be null.");
+        }
+
+        this.credentialsProvider = credentialsProvider;
+        this.scheduler = scheduler;
+        this.lastRejectedRefreshNanos = System.nanoTime() - REJECTED_TOKEN_REFRESH_BACKOFF_NANOS;
+        this.scheduledRefresh = scheduler.scheduleWithFixedDelay(
+                this::runRefresh, refreshInterval, refreshInterval, unit);
+    }
+
+    /**
+     * Returns the cached credentials.  Only the first call loads the credentials from the wrapped provider and
+     * throws its exception if that fails.
+     *
+     * @return Credentials
+     */
+    @Override
+    public VaultCredentials getCredentials() {
+        final VaultCredentials current = credentials;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (loadLock) {
+            if (credentials == null) {
+                credentials = load();
+            }
+            return credentials;
+        }
+    }
+
+    /**
+     * Reloads the credentials in the background if the rejected token is the current one.  Rejections trigger at
+     * most one reload every few seconds, as a token lacking access to a path is rejected the same way.
+     *
+     * @param token The token of the rejected request
+     */
+    @Override
+    public void onTokenRejected(final String token) {
+        final VaultCredentials current = credentials;
+        if (current == null || !StringUtils.equals(token, current.getToken())) {
+            return;
+        }
+
+        final long now = System.nanoTime();
+        if (now - lastRejectedRefreshNanos < REJECTED_TOKEN_REFRESH_BACKOFF_NANOS) {
+            return;
+        }
+        lastRejectedRefreshNanos = now;
+
+        LOGGER.debug("Vault rejected the current token, reloading credentials.");
+        refresh();
+    }
+
+    /**
+     * Reloads the credentials in the background, unless a reload is already running.  Does not block.
+     */
+    public void refresh() {
+        try {
+            scheduler.execute(this::runRefresh);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Failed to schedule reloading the Vault credentials.", e);
+        }
+    }
+
+    /**
+     * Stops the background reloads.  The cached credentials can still be used.
+     */
+    @Override
+    public void close() {
+        scheduledRefresh.cancel(false);
+    }
+
+    private void runRefresh() {
+        if (!refreshInFlight.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            credentials = load();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to reload the Vault credentials, keeping the current credentials.", e);
+        } finally {
+            refreshInFlight.set(false);
+        }
+    }
+
+    private VaultCredentials load() {
+        final VaultCredentials loaded = credentialsProvider.getCredentials();
+        if (loaded == null || StringUtils.isBlank(loaded.getToken())) {
+            throw new VaultClientException("Credentials provider returned no token.");
+        }
+        return loaded;
+    }
+}
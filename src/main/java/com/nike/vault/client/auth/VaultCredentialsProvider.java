@@ -22,4 +22,14 @@ package com.nike.vault.client.auth;
 public interface VaultCredentialsProvider {
 
     VaultCredentials getCredentials();
+
+    /**
+     * Called by the client when Vault responded with a 403 to a request made with the token, which happens when the
+     * token expired or was revoked, but also when its policies don't grant access to a path.  Providers that cache
+     * credentials can use this to load new ones.  Does nothing by default.
+     *
+     * @param token The token of the rejected request
+     */
+    default void onTokenRejected(final String token) {
+    }
 }
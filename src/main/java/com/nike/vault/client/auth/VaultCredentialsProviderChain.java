@@ -21,15 +21,18 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * {@link VaultCredentialsProvider} implementation that chains together multiple credentials providers.
  * The order of providers provided during construction is kept.  The first provider to return credentials
  * will be used on subsequent calls.  This behavior can be disabled via the {@link #setReuseLastProvider(boolean)}
- * method.
+ * method.  If the reused provider stops returning credentials, the chain is walked again to find a new one.
+ * <p>
+ * The chain is safe to share between threads.  The reused provider is published through an atomic reference, so
+ * reading credentials from it does not take a lock.
+ * </p>
  * <p>
  * This pattern and a majority of the implementation are based on the Java AWS SDK AWSCredentialsProviderChain.
  * </p>
@@ -38,10 +41,11 @@ public class VaultCredentialsProviderChain implements VaultCredentialsProvider {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(VaultCredentialsProviderChain.class);
 
-    private final List<VaultCredentialsProvider> credentialsProviderList = new LinkedList<>();
+    private final VaultCredentialsProvider[] credentialsProviders;
 
-    private boolean reuseLastProvider = true;
-    private VaultCredentialsProvider lastUsedProvider;
+    private final AtomicReference<VaultCredentialsProvider> lastUsedProvider = new AtomicReference<>();
+
+    private volatile boolean reuseLastProvider = true;
 
     /**
      * Explicit constructor that takes a list of providers to use.
@@ -53,7 +57,8 @@ public class VaultCredentialsProviderChain implements VaultCredentialsProvider {
             throw new IllegalArgumentException("No credentials providers specified");
         }
 
-        this.credentialsProviderList.addAll(credentialsProviderList);
+        this.credentialsProviders = credentialsProviderList.toArray(
+                new VaultCredentialsProvider[credentialsProviderList.size()]);
     }
 
     /**
@@ -66,51 +71,71 @@ public class VaultCredentialsProviderChain implements VaultCredentialsProvider {
             throw new IllegalArgumentException("No credentials providers specified");
         }
 
-        Collections.addAll(this.credentialsProviderList, credentialsProviders);
+        this.credentialsProviders = credentialsProviders.clone();
     }
 
     /**
      * Iterates over the chain of providers looking for one that returns credentials.  If this is a subsequent call
      * to the method and a successful provider has already be identified, that identified provider will be used instead
      * of iterating over the full chain.  This is the default behavior and can be disabled via
-     * {@link #setReuseLastProvider(boolean)}.  If no provider is able to acquire credentials a client exception is
-     * thrown.
+     * {@link #setReuseLastProvider(boolean)}.  Should the identified provider fail, the rest of the chain is tried
+     * and a new provider identified.  If no provider is able to acquire credentials a client exception is thrown.
      *
      * @return Credentials
      */
     @Override
     public VaultCredentials getCredentials() {
-        if (reuseLastProvider && lastUsedProvider != null) {
-            return lastUsedProvider.getCredentials();
-        }
+        VaultCredentialsProvider failedProvider = null;
 
-        for (final VaultCredentialsProvider credentialsProvider : credentialsProviderList) {
-            try {
-                final VaultCredentials credentials = credentialsProvider.getCredentials();
-
-                if (StringUtils.isNotBlank(credentials.getToken())) {
-                    lastUsedProvider = credentialsProvider;
+        if (reuseLastProvider) {
+            final VaultCredentialsProvider provider = lastUsedProvider.get();
+            if (provider != null) {
+                final VaultCredentials credentials = tryProvider(provider);
+                if (credentials != null) {
                     return credentials;
                 }
-            } catch (VaultClientException sce) {
-                if(LOGGER.isDebugEnabled()) {
-                    LOGGER.debug("Failed to resolve Vault credentials with credential provider: {}. Moving " +
-                            "on to next provider", credentialsProvider.getClass().toString(), sce);
-                } else {
-                    LOGGER.info("Failed to resolve Vault credentials with credential provider: {} for reason: {} moving " +
-                            "on to next provider", credentialsProvider.getClass().toString(), sce.getMessage());
-                }
-            } catch (Exception e) {
-                // The catch all is so that we don't break the chain of providers.
-                // If we do get an unexpected exception, we should at least log it for review.
-                LOGGER.warn("Unexpected error attempting to get credentials with provider: "
-                        + credentialsProvider.getClass().getName(), e);
+
+                LOGGER.info("Last used credentials provider: {} failed, re-evaluating the chain of providers",
+                        provider.getClass().getName());
+                lastUsedProvider.compareAndSet(provider, null);
+                failedProvider = provider;
+            }
+        }
+
+        for (final VaultCredentialsProvider credentialsProvider : credentialsProviders) {
+            if (credentialsProvider == failedProvider) {
+                continue;
+            }
+
+            final VaultCredentials credentials = tryProvider(credentialsProvider);
+            if (credentials != null) {
+                lastUsedProvider.set(credentialsProvider);
+                return credentials;
             }
         }
 
         throw new VaultClientException("Unable to find credentials from any provider in the specified chain!");
     }
 
+    /**
+     * Passes the rejected token on to the last used provider, so it can reload its credentials.
+     *
+     * @param token The token of the rejected request
+     */
+    @Override
+    public void onTokenRejected(final String token) {
+        final VaultCredentialsProvider provider = lastUsedProvider.get();
+        if (provider != null) {
+            provider.onTokenRejected(token);
+        }
+    }
+
+    /**
+     * Forgets the last used provider, so the next call to {@link #getCredentials()} walks the full chain again.
+     */
+    public void reset() {
+        lastUsedProvider.set(null);
+    }
 
     /**
      * Returns the reuse last provider flag.
@@ -129,4 +154,32 @@ public class VaultCredentialsProviderChain implements VaultCredentialsProvider {
     public void setReuseLastProvider(final boolean reuseLastProvider) {
         this.reuseLastProvider = reuseLastProvider;
     }
+
+    /**
+     * Returns the credentials of the provider, or null if it fails to provide a token.
+     */
+    private VaultCredentials tryProvider(final VaultCredentialsProvider credentialsProvider) {
+        try {
+            final VaultCredentials credentials = credentialsProvider.getCredentials();
+
+            if (credentials != null && StringUtils.isNotBlank(credentials.getToken())) {
+                return credentials;
+            }
+        } catch (VaultClientException sce) {
+            if(LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Failed to resolve Vault credentials with credential provider: {}. Moving " +
+                        "on to next provider", credentialsProvider.getClass().toString(), sce);
+            } else {
+                LOGGER.info("Failed to resolve Vault credentials with credential provider: {} for reason: {} moving " +
+                        "on to next provider", credentialsProvider.getClass().toString(), sce.getMessage());
+            }
+        } catch (Exception e) {
+            // The catch all is so that we don't break the chain of providers.
+            // If we do get an unexpected exception, we should at least log it for review.
+            LOGGER.warn("Unexpected error attempting to get credentials with provider: "
+                    + credentialsProvider.getClass().getName(), e);
+        }
+
+        return null;
+    }
 }
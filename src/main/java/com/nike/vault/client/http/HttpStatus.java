@@ -41,6 +41,11 @@ public final class HttpStatus {
 
     public static final int TOO_MANY_REQUESTS = 429;
 
+    /**
+     * Returned by the Vault health endpoint for performance standby nodes.
+     */
+    public static final int PERFORMANCE_STANDBY = 473;
+
     public static final int INTERNAL_SERVER_ERROR = 500;
 
     public static final int BAD_GATEWAY = 502;
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+
+/**
+ * Default codec, streaming documents through Gson with the adapters of {@link VaultTypeAdapterFactory}.
+ */
+public class GsonJsonCodec implements JsonCodec {
+
+    private final Gson gson;
+
+    /**
+     * Creates the codec with the Gson configuration the client has always used.
+     */
+    public GsonJsonCodec() {
+        this(new GsonBuilder()
+                .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+                .registerTypeAdapterFactory(new VaultTypeAdapterFactory())
+                .disableHtmlEscaping()
+                .create());
+    }
+
+    /**
+     * Creates the codec with a custom Gson instance, which has to use the snake case field naming policy.
+     *
+     * @param gson Gson instance
+     */
+    public GsonJsonCodec(final Gson gson) {
+        if (gson == null) {
+            throw new IllegalArgumentException("Gson cannot be null.");
+        }
+
+        this.gson = gson;
+    }
+
+    @Override
+    public <T> T read(final Reader reader, final Type type) {
+        final JsonReader jsonReader = new JsonReader(reader);
+        try {
+            final T result = gson.fromJson(jsonReader, type);
+            // fail like Gson#fromJson(Reader, Type) if anything but whitespace follows the document
+            if (result != null && jsonReader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonCodecException("JSON document was not fully consumed.");
+            }
+            return result;
+        } catch (JsonParseException | IOException e) {
+            throw new JsonCodecException("Failed to read JSON document: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void write(final Object value, final Writer writer) throws IOException {
+        final JsonWriter jsonWriter = new JsonWriter(writer);
+        try {
+            gson.toJson(value, value.getClass(), jsonWriter);
+        } catch (JsonIOException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e);
+        }
+        jsonWriter.flush();
+    }
+
+    /**
+     * Returns the Gson instance used by the codec.
+     *
+     * @return Gson instance
+     */
+    public Gson getGson() {
+        return gson;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+
+/**
+ * Serializes request bodies to JSON and binds response bodies from JSON.  The client uses {@link GsonJsonCodec} by
+ * default, an alternative codec can be passed when constructing the client.
+ * <p>
+ * Codecs have to map the model classes using the snake case names Vault uses on the wire, e.g. 'lease_duration' for
+ * the field 'leaseDuration', and must be thread safe.
+ * </p>
+ */
+public interface JsonCodec {
+
+    /**
+     * Reads a single JSON document from the reader.  The reader is owned by the caller and must not be closed.
+     *
+     * @param reader Reader positioned at the start of the document
+     * @param type   Type to bind the document to, may be a parameterized type
+     * @param <T>    Represents the type to bind to
+     * @return Bound object, null for an empty document
+     * @throws JsonCodecException if the document can not be read or bound to the type
+     */
+    <T> T read(Reader reader, Type type);
+
+    /**
+     * Writes the value as a JSON document.  The writer is owned by the caller and must not be closed, but has to be
+     * flushed.
+     *
+     * @param value  Value to write, not null
+     * @param writer Writer to write the document to
+     * @throws IOException if writing fails
+     */
+    void write(Object value, Writer writer) throws IOException;
+}
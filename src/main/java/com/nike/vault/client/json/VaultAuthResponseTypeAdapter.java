@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.nike.vault.client.model.VaultAuthResponse;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reflection free adapter for {@link VaultAuthResponse}.
+ */
+class VaultAuthResponseTypeAdapter extends TypeAdapter<VaultAuthResponse> {
+
+    @Override
+    public void write(final JsonWriter out, final VaultAuthResponse value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("client_token");
+        out.value(value.getClientToken());
+        out.name("policies");
+        JsonValues.writeStrings(out, value.getPolicies());
+        out.name("metadata");
+        JsonValues.writeStringMap(out, value.getMetadata());
+        out.name("lease_duration");
+        out.value(value.getLeaseDuration());
+        out.name("renewable");
+        out.value(value.isRenewable());
+        out.endObject();
+    }
+
+    @Override
+    public VaultAuthResponse read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        final VaultAuthResponse value = new VaultAuthResponse();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "client_token":
+                    value.setClientToken(JsonValues.readString(in));
+                    break;
+                case "policies":
+                    value.setPolicies(JsonValues.readStringSet(in));
+                    break;
+                case "metadata":
+                    value.setMetadata(JsonValues.readStringMap(in));
+                    break;
+                case "lease_duration":
+                    value.setLeaseDuration(JsonValues.readInt(in, value.getLeaseDuration()));
+                    break;
+                case "renewable":
+                    value.setRenewable(JsonValues.readBoolean(in, value.isRenewable()));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return value;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.nike.vault.client.model.VaultClientTokenResponse;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reflection free adapter for {@link VaultClientTokenResponse}.
+ */
+class VaultClientTokenResponseTypeAdapter extends TypeAdapter<VaultClientTokenResponse> {
+
+    @Override
+    public void write(final JsonWriter out, final VaultClientTokenResponse value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("id");
+        out.value(value.getId());
+        out.name("policies");
+        JsonValues.writeStrings(out, value.getPolicies());
+        out.name("path");
+        out.value(value.getPath());
+        out.name("meta");
+        JsonValues.writeStringMap(out, value.getMeta());
+        out.name("display_name");
+        out.value(value.getDisplayName());
+        out.name("num_uses");
+        out.value(value.getNumUses());
+        out.name("creation_ttl");
+        out.value(value.getCreationTtl());
+        out.name("ttl");
+        out.value(value.getTtl());
+        out.name("explicit_max_ttl");
+        out.value(value.getExplicitMaxTtl());
+        out.name("renewable");
+        out.value(value.isRenewable());
+        out.endObject();
+    }
+
+    @Override
+    public VaultClientTokenResponse read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        final VaultClientTokenResponse value = new VaultClientTokenResponse();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    value.setId(JsonValues.readString(in));
+                    break;
+                case "policies":
+                    value.setPolicies(JsonValues.readStringSet(in));
+                    break;
+                case "path":
+                    value.setPath(JsonValues.readString(in));
+                    break;
+                case "meta":
+                    value.setMeta(JsonValues.readStringMap(in));
+                    break;
+                case "display_name":
+                    value.setDisplayName(JsonValues.readString(in));
+                    break;
+                case "num_uses":
+                    value.setNumUses(JsonValues.readInt(in, value.getNumUses()));
+                    break;
+                case "creation_ttl":
+                    value.setCreationTtl(JsonValues.readInt(in, value.getCreationTtl()));
+                    break;
+                case "ttl":
+                    value.setTtl(JsonValues.readInt(in, value.getTtl()));
+                    break;
+                case "explicit_max_ttl":
+                    value.setExplicitMaxTtl(JsonValues.readInt(in, value.getExplicitMaxTtl()));
+                    break;
+                case "renewable":
+                    value.setRenewable(JsonValues.readBoolean(in, value.isRenewable()));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return value;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.nike.vault.client.model.VaultEnableAuditBackendRequest;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Reflection free adapter for {@link VaultEnableAuditBackendRequest}.
+ */
+class VaultEnableAuditBackendRequestTypeAdapter extends TypeAdapter<VaultEnableAuditBackendRequest> {
+
+    @Override
+    public void write(final JsonWriter out, final VaultEnableAuditBackendRequest value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("type");
+        out.value(value.getType());
+        out.name("description");
+        out.value(value.getDescription());
+        out.name("options");
+        JsonValues.writeStringMap(out, value.getOptions());
+        out.endObject();
+    }
+
+    @Override
+    public VaultEnableAuditBackendRequest read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        final VaultEnableAuditBackendRequest value = new VaultEnableAuditBackendRequest();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "type":
+                    value.setType(JsonValues.readString(in));
+                    break;
+                case "description":
+                    value.setDescription(JsonValues.readString(in));
+                    break;
+                case "options":
+                    value.setOptions(JsonValues.readStringMap(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return value;
+    }
+}
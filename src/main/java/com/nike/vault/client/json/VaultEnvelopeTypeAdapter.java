@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.nike.vault.client.model.VaultAuthResponse;
+import com.nike.vault.client.model.VaultEnvelope;
+
+import java.io.IOException;
+
+/**
+ * Reflection free adapter for {@link VaultEnvelope}, delegating the data payload to the adapter of its type.
+ */
+class VaultEnvelopeTypeAdapter<T> extends TypeAdapter<VaultEnvelope<T>> {
+
+    private final TypeAdapter<T> dataAdapter;
+
+    private final TypeAdapter<VaultAuthResponse> authAdapter;
+
+    VaultEnvelopeTypeAdapter(final TypeAdapter<T> dataAdapter, final TypeAdapter<VaultAuthResponse> authAdapter) {
+        this.dataAdapter = dataAdapter;
+        this.authAdapter = authAdapter;
+    }
+
+    @Override
+    public void write(final JsonWriter out, final VaultEnvelope<T> value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("request_id");
+        out.value(value.getRequestId());
+        out.name("lease_id");
+        out.value(value.getLeaseId());
+        out.name("renewable");
+        out.value(value.isRenewable());
+        out.name("lease_duration");
+        out.value(value.getLeaseDuration());
+        out.name("data");
+        dataAdapter.write(out, value.getData());
+        out.name("auth");
+        authAdapter.write(out, value.getAuth());
+        out.name("warnings");
+        JsonValues.writeStrings(out, value.getWarnings());
+        out.endObject();
+    }
+
+    @Override
+    public VaultEnvelope<T> read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        final VaultEnvelope<T> value = new VaultEnvelope<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "request_id":
+                    value.setRequestId(JsonValues.readString(in));
+                    break;
+                case "lease_id":
+                    value.setLeaseId(JsonValues.readString(in));
+                    break;
+                case "renewable":
+                    value.setRenewable(JsonValues.readBoolean(in, value.isRenewable()));
+                    break;
+                case "lease_duration":
+                    value.setLeaseDuration(JsonValues.readInt(in, value.getLeaseDuration()));
+                    break;
+                case "data":
+                    value.setData(dataAdapter.read(in));
+                    break;
+                case "auth":
+                    value.setAuth(authAdapter.read(in));
+                    break;
+                case "warnings":
+                    value.setWarnings(JsonValues.readStringList(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return value;
+    }
+}
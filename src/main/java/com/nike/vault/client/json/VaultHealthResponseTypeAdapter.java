@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.nike.vault.client.model.VaultHealthResponse;
+
+import java.io.IOException;
+
+/**
+ * Reflection free adapter for {@link VaultHealthResponse}.
+ */
+class VaultHealthResponseTypeAdapter extends TypeAdapter<VaultHealthResponse> {
+
+    @Override
+    public void write(final JsonWriter out, final VaultHealthResponse value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("initialized");
+        out.value(value.isInitialized());
+        out.name("sealed");
+        out.value(value.isSealed());
+        out.name("standby");
+        out.value(value.isStandby());
+        out.name("performance_standby");
+        out.value(value.isPerformanceStandby());
+        out.endObject();
+    }
+
+    @Override
+    public VaultHealthResponse read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        final VaultHealthResponse value = new VaultHealthResponse();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "initialized":
+                    value.setInitialized(JsonValues.readBoolean(in, value.isInitialized()));
+                    break;
+                case "sealed":
+                    value.setSealed(JsonValues.readBoolean(in, value.isSealed()));
+                    break;
+                case "standby":
+                    value.setStandby(JsonValues.readBoolean(in, value.isStandby()));
+                    break;
+                case "performance_standby":
+                    value.setPerformanceStandby(JsonValues.readBoolean(in, value.isPerformanceStandby()));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return value;
+    }
+}
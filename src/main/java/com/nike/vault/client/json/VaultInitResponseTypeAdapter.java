@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.nike.vault.client.model.VaultInitResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Reflection free adapter for {@link VaultInitResponse}.
+ */
+class VaultInitResponseTypeAdapter extends TypeAdapter<VaultInitResponse> {
+
+    @Override
+    public void write(final JsonWriter out, final VaultInitResponse value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("keys");
+        JsonValues.writeStrings(out, value.getKeys());
+        out.name("root_token");
+        out.value(value.getRootToken());
+        out.endObject();
+    }
+
+    @Override
+    public VaultInitResponse read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        final VaultInitResponse value = new VaultInitResponse();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "keys":
+                    value.setKeys(JsonValues.readStringList(in));
+                    break;
+                case "root_token":
+                    value.setRootToken(JsonValues.readString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return value;
+    }
+}
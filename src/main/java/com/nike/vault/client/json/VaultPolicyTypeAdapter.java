@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.nike.vault.client.model.VaultPolicy;
+
+import java.io.IOException;
+
+/**
+ * Reflection free adapter for {@link VaultPolicy}.
+ */
+class VaultPolicyTypeAdapter extends TypeAdapter<VaultPolicy> {
+
+    @Override
+    public void write(final JsonWriter out, final VaultPolicy value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("rules");
+        out.value(value.getRules());
+        out.endObject();
+    }
+
+    @Override
+    public VaultPolicy read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        final VaultPolicy value = new VaultPolicy();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "rules":
+                    value.setRules(JsonValues.readString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return value;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.nike.vault.client.model.VaultResponse;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Reflection free adapter for {@link VaultResponse}.
+ */
+class VaultResponseTypeAdapter extends TypeAdapter<VaultResponse> {
+
+    @Override
+    public void write(final JsonWriter out, final VaultResponse value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("lease_id");
+        out.value(value.getLeaseId());
+        out.name("renewable");
+        out.value(value.isRenewable());
+        out.name("lease_duration");
+        out.value(value.getLeaseDuration());
+        out.name("data");
+        JsonValues.writeStringMap(out, value.getData());
+        out.endObject();
+    }
+
+    @Override
+    public VaultResponse read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        final VaultResponse value = new VaultResponse();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "lease_id":
+                    value.setLeaseId(JsonValues.readString(in));
+                    break;
+                case "renewable":
+                    value.setRenewable(JsonValues.readBoolean(in, value.isRenewable()));
+                    break;
+                case "lease_duration":
+                    value.setLeaseDuration(JsonValues.readInt(in, value.getLeaseDuration()));
+                    break;
+                case "data":
+                    value.setData(JsonValues.readStringMap(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return value;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.nike.vault.client.model.VaultSealStatusResponse;
+
+import java.io.IOException;
+
+/**
+ * Reflection free adapter for {@link VaultSealStatusResponse}.
+ */
+class VaultSealStatusResponseTypeAdapter extends TypeAdapter<VaultSealStatusResponse> {
+
+    @Override
+    public void write(final JsonWriter out, final VaultSealStatusResponse value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("sealed");
+        out.value(value.isSealed());
+        out.name("t");
+        out.value(value.getT());
+        out.name("n");
+        out.value(value.getN());
+        out.name("progress");
+        out.value(value.getProgress());
+        out.endObject();
+    }
+
+    @Override
+    public VaultSealStatusResponse read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        final VaultSealStatusResponse value = new VaultSealStatusResponse();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "sealed":
+                    value.setSealed(JsonValues.readBoolean(in, value.isSealed()));
+                    break;
+                case "t":
+                    value.setT(JsonValues.readInt(in, value.getT()));
+                    break;
+                case "n":
+                    value.setN(JsonValues.readInt(in, value.getN()));
+                    break;
+                case "progress":
+                    value.setProgress(JsonValues.readInt(in, value.getProgress()));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return value;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.nike.vault.client.model.VaultTokenAuthRequest;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reflection free adapter for {@link VaultTokenAuthRequest}.
+ */
+class VaultTokenAuthRequestTypeAdapter extends TypeAdapter<VaultTokenAuthRequest> {
+
+    @Override
+    public void write(final JsonWriter out, final VaultTokenAuthRequest value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("id");
+        out.value(value.getId());
+        out.name("policies");
+        JsonValues.writeStrings(out, value.getPolicies());
+        out.name("meta");
+        JsonValues.writeStringMap(out, value.getMeta());
+        out.name("no_parent");
+        out.value(value.isNoParent());
+        out.name("no_default_policy");
+        out.value(value.isNoDefaultPolicy());
+        out.name("ttl");
+        out.value(value.getTtl());
+        out.name("display_name");
+        out.value(value.getDisplayName());
+        out.name("num_uses");
+        out.value(value.getNumUses());
+        out.endObject();
+    }
+
+    @Override
+    public VaultTokenAuthRequest read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        final VaultTokenAuthRequest value = new VaultTokenAuthRequest();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    value.setId(JsonValues.readString(in));
+                    break;
+                case "policies":
+                    value.setPolicies(JsonValues.readStringSet(in));
+                    break;
+                case "meta":
+                    value.setMeta(JsonValues.readStringMap(in));
+                    break;
+                case "no_parent":
+                    value.setNoParent(JsonValues.readBoolean(in, value.isNoParent()));
+                    break;
+                case "no_default_policy":
+                    value.setNoDefaultPolicy(JsonValues.readBoolean(in, value.isNoDefaultPolicy()));
+                    break;
+                case "ttl":
+                    value.setTtl(JsonValues.readString(in));
+                    break;
+                case "display_name":
+                    value.setDisplayName(JsonValues.readString(in));
+                    break;
+                case "num_uses":
+                    value.setNumUses(JsonValues.readInt(in, value.getNumUses()));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return value;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.nike.vault.client.model.VaultAuthResponse;
+import com.nike.vault.client.model.VaultClientTokenResponse;
+import com.nike.vault.client.model.VaultEnableAuditBackendRequest;
+import com.nike.vault.client.model.VaultEnvelope;
+import com.nike.vault.client.model.VaultHealthResponse;
+import com.nike.vault.client.model.VaultInitResponse;
+import com.nike.vault.client.model.VaultListResponse;
+import com.nike.vault.client.model.VaultPolicy;
+import com.nike.vault.client.model.VaultResponse;
+import com.nike.vault.client.model.VaultRevokeTokenRequest;
+import com.nike.vault.client.model.VaultSealStatusResponse;
+import com.nike.vault.client.model.VaultTokenAuthRequest;
+import com.nike.vault.client.model.VaultUnsealRequest;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Provides hand-written adapters for the classes in the model package, so Gson does not bind them with reflection.
+ * The adapters use the snake case names Vault uses on the wire and behave like Gson's reflective binding with the
+ * {@link com.google.gson.FieldNamingPolicy#LOWER_CASE_WITH_UNDERSCORES} naming policy, e.g. unknown fields are
+ * skipped and null fields are only written if the Gson instance serializes nulls.
+ * <p>
+ * The adapters have to be kept in sync with the model classes.  Subclasses of the model classes are not handled
+ * and fall back to reflection.
+ * </p>
+ */
+public class VaultTypeAdapterFactory implements TypeAdapterFactory {
+
+    private static final Map<Class<?>, TypeAdapter<?>> ADAPTERS = new HashMap<>();
+
+    static {
+        ADAPTERS.put(VaultResponse.class, new VaultResponseTypeAdapter());
+        ADAPTERS.put(VaultListResponse.class, new VaultListResponseTypeAdapter());
+        ADAPTERS.put(VaultClientTokenResponse.class, new VaultClientTokenResponseTypeAdapter());
+        ADAPTERS.put(VaultAuthResponse.class, new VaultAuthResponseTypeAdapter());
+        ADAPTERS.put(VaultHealthResponse.class, new VaultHealthResponseTypeAdapter());
+        ADAPTERS.put(VaultSealStatusResponse.class, new VaultSealStatusResponseTypeAdapter());
+        ADAPTERS.put(VaultInitResponse.class, new VaultInitResponseTypeAdapter());
+        ADAPTERS.put(VaultPolicy.class, new VaultPolicyTypeAdapter());
+        ADAPTERS.put(VaultEnableAuditBackendRequest.class, new VaultEnableAuditBackendRequestTypeAdapter());
+        ADAPTERS.put(VaultRevokeTokenRequest.class, new VaultRevokeTokenRequestTypeAdapter());
+        ADAPTERS.put(VaultTokenAuthRequest.class, new VaultTokenAuthRequestTypeAdapter());
+        ADAPTERS.put(VaultUnsealRequest.class, new VaultUnsealRequestTypeAdapter());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type) {
+        if (type.getRawType() == VaultEnvelope.class) {
+            return (TypeAdapter<T>) createEnvelopeAdapter(gson, type.getType());
+        }
+        return (TypeAdapter<T>) ADAPTERS.get(type.getRawType());
+    }
+
+    private <D> TypeAdapter<VaultEnvelope<D>> createEnvelopeAdapter(final Gson gson, final Type envelopeType) {
+        final Type dataType = envelopeType instanceof ParameterizedType
+                ? ((ParameterizedType) envelopeType).getActualTypeArguments()[0]
+                : Object.class;
+
+        @SuppressWarnings("unchecked")
+        final TypeAdapter<D> dataAdapter = (TypeAdapter<D>) gson.getAdapter(TypeToken.get(dataType));
+        return new VaultEnvelopeTypeAdapter<>(dataAdapter, gson.getAdapter(VaultAuthResponse.class));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.nike.vault.client.model.VaultUnsealRequest;
+
+import java.io.IOException;
+
+/**
+ * Reflection free adapter for {@link VaultUnsealRequest}.
+ */
+class VaultUnsealRequestTypeAdapter extends TypeAdapter<VaultUnsealRequest> {
+
+    @Override
+    public void write(final JsonWriter out, final VaultUnsealRequest value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("key");
+        out.value(value.getKey());
+        out.name("reset");
+        out.value(value.isReset());
+        out.endObject();
+    }
+
+    @Override
+    public VaultUnsealRequest read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        String key = null;
+        boolean reset = false;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "key":
+                    key = JsonValues.readString(in);
+                    break;
+                case "reset":
+                    reset = JsonValues.readBoolean(in, reset);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new VaultUnsealRequest(key, reset);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.model;
+
+import java.util.List;
+
+/**
+ * Represents the wrapper Vault puts around most responses, holding the payload in either the data or the auth
+ * field along with the lease metadata.  Deserializing into an envelope of the payload type parses a response in a
+ * single pass.
+ *
+ * @param <T> Type of the data payload
+ */
+public class VaultEnvelope<T> {
+
+    private String requestId;
+
+    private String leaseId;
+
+    private boolean renewable;
+
+    private int leaseDuration;
+
+    private T data;
+
+    private VaultAuthResponse auth;
+
+    private List<String> warnings;
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public VaultEnvelope<T> setRequestId(String requestId) {
+        this.requestId = requestId;
+        return this;
+    }
+
+    public String getLeaseId() {
+        return leaseId;
+    }
+
+    public VaultEnvelope<T> setLeaseId(String leaseId) {
+        this.leaseId = leaseId;
+        return this;
+    }
+
+    public boolean isRenewable() {
+        return renewable;
+    }
+
+    public VaultEnvelope<T> setRenewable(boolean renewable) {
+        this.renewable = renewable;
+        return this;
+    }
+
+    /**
+     * Returns the lease duration in seconds
+     *
+     * @return Lease duration
+     */
+    public int getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    public VaultEnvelope<T> setLeaseDuration(int leaseDuration) {
+        this.leaseDuration = leaseDuration;
+        return this;
+    }
+
+    public T getData() {
+        return data;
+    }
+
+    public VaultEnvelope<T> setData(T data) {
+        this.data = data;
+        return this;
+    }
+
+    public VaultAuthResponse getAuth() {
+        return auth;
+    }
+
+    public VaultEnvelope<T> setAuth(VaultAuthResponse auth) {
+        this.auth = auth;
+        return this;
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    public VaultEnvelope<T> setWarnings(List<String> warnings) {
+        this.warnings = warnings;
+        return this;
+    }
+}
@@ -27,6 +27,8 @@ public class VaultHealthResponse {
 
     private boolean standby;
 
+    private boolean performanceStandby;
+
     public boolean isInitialized() {
         return initialized;
     }
@@ -53,4 +55,13 @@ public class VaultHealthResponse {
         this.standby = standby;
         return this;
     }
+
+    public boolean isPerformanceStandby() {
+        return performanceStandby;
+    }
+
+    public VaultHealthResponse setPerformanceStandby(boolean performanceStandby) {
+        this.performanceStandby = performanceStandby;
+        return this;
+    }
 }
@@ -23,8 +23,51 @@ import java.util.Map;
  */
 public class VaultResponse {
 
+    private String leaseId;
+
+    private boolean renewable;
+
+    private int leaseDuration;
+
     private Map<String, String> data;
 
+    /**
+     * Returns the ID of the lease on the data, empty for static secrets
+     *
+     * @return Lease ID
+     */
+    public String getLeaseId() {
+        return leaseId;
+    }
+
+    public VaultResponse setLeaseId(String leaseId) {
+        this.leaseId = leaseId;
+        return this;
+    }
+
+    public boolean isRenewable() {
+        return renewable;
+    }
+
+    public VaultResponse setRenewable(boolean renewable) {
+        this.renewable = renewable;
+        return this;
+    }
+
+    /**
+     * Returns the lease duration in seconds, for static secrets the recommended refresh interval
+     *
+     * @return Lease duration
+     */
+    public int getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    public VaultResponse setLeaseDuration(int leaseDuration) {
+        this.leaseDuration = leaseDuration;
+        return this;
+    }
+
     /**
      * Returns the key/value pairs stored at a path
      *
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the AsyncTaskQueue class
+ */
+public class AsyncTaskQueueTest {
+
+    @Test
+    public void submit_limits_the_number_of_running_tasks() {
+        final AsyncTaskQueue taskQueue = new AsyncTaskQueue(2);
+        final List<CompletableFuture<Void>> started = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            taskQueue.submit(() -> {
+                final CompletableFuture<Void> future = new CompletableFuture<>();
+                started.add(future);
+                return future;
+            });
+        }
+        taskQueue.closeSubmissions();
+
+        assertThat(started).hasSize(2);
+        started.get(0).complete(null);
+        assertThat(started).hasSize(3);
+        started.get(1).completeExceptionally(new RuntimeException("failed"));
+        started.get(2).complete(null);
+        assertThat(started).hasSize(5);
+        assertThat(taskQueue.whenIdle().isDone()).isFalse();
+
+        started.get(3).complete(null);
+        started.get(4).complete(null);
+        assertThat(taskQueue.whenIdle().isDone()).isTrue();
+    }
+
+    @Test
+    public void when_idle_waits_for_tasks_submitted_by_tasks() {
+        final AsyncTaskQueue taskQueue = new AsyncTaskQueue(1);
+        final CompletableFuture<Void> child = new CompletableFuture<>();
+
+        taskQueue.submit(() -> CompletableFuture.completedFuture(null).thenRun(() -> taskQueue.submit(() -> child)));
+        taskQueue.closeSubmissions();
+
+        assertThat(taskQueue.whenIdle().isDone()).isFalse();
+        child.complete(null);
+        assertThat(taskQueue.whenIdle().isDone()).isTrue();
+    }
+
+    @Test
+    public void when_idle_is_not_completed_before_submissions_are_closed() {
+        final AsyncTaskQueue taskQueue = new AsyncTaskQueue(1);
+
+        taskQueue.submit(() -> CompletableFuture.completedFuture(null));
+
+        assertThat(taskQueue.whenIdle().isDone()).isFalse();
+        taskQueue.closeSubmissions();
+        assertThat(taskQueue.whenIdle().isDone()).isTrue();
+    }
+
+    @Test
+    public void synchronously_completing_tasks_do_not_overflow_the_stack() {
+        final AsyncTaskQueue taskQueue = new AsyncTaskQueue(1);
+        final AtomicInteger completed = new AtomicInteger();
+
+        for (int i = 0; i < 100_000; i++) {
+            taskQueue.submit(() -> CompletableFuture.completedFuture(completed.incrementAndGet()));
+        }
+        taskQueue.closeSubmissions();
+
+        assertThat(completed.get()).isEqualTo(100_000);
+        assertThat(taskQueue.whenIdle().isDone()).isTrue();
+    }
+
+    @Test
+    public void supplier_exceptions_count_as_completed_tasks() {
+        final AsyncTaskQueue taskQueue = new AsyncTaskQueue(1);
+
+        taskQueue.submit(() -> {
+            throw new IllegalStateException("failed");
+        });
+        taskQueue.closeSubmissions();
+
+        assertThat(taskQueue.whenIdle().isDone()).isTrue();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_error_if_max_concurrency_is_less_than_one() {
+        new AsyncTaskQueue(0);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import okhttp3.HttpUrl;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.net.ConnectException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the BaseUrlCache class
+ */
+public class BaseUrlCacheTest {
+
+    private final AtomicInteger resolveCount = new AtomicInteger();
+
+    private final UrlResolver countingResolver = () -> {
+        resolveCount.incrementAndGet();
+        return "https://vault.example.com:8200";
+    };
+
+    @Test
+    public void get_resolves_the_url_once_per_refresh_interval() {
+        final BaseUrlCache baseUrlCache = new BaseUrlCache(countingResolver, 1, TimeUnit.HOURS);
+
+        assertThat(baseUrlCache.get().host()).isEqualTo("vault.example.com");
+        assertThat(baseUrlCache.get().port()).isEqualTo(8200);
+        assertThat(resolveCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_resolves_the_url_again_after_refresh() {
+        final BaseUrlCache baseUrlCache = new BaseUrlCache(countingResolver, 1, TimeUnit.HOURS);
+
+        baseUrlCache.get();
+        baseUrlCache.refresh();
+        baseUrlCache.get();
+
+        assertThat(resolveCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void get_resolves_the_url_every_time_if_refresh_interval_is_zero() {
+        final BaseUrlCache baseUrlCache = new BaseUrlCache(countingResolver, 0, TimeUnit.MILLISECONDS);
+
+        baseUrlCache.get();
+        baseUrlCache.get();
+
+        assertThat(resolveCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void get_resolves_the_url_again_after_resolver_reports_change() {
+        final AtomicReference<Runnable> changeListener = new AtomicReference<>();
+        final UrlResolver changingResolver = new UrlResolver() {
+            @Override
+            public String resolve() {
+                return countingResolver.resolve();
+            }
+
+            @Override
+            public void addUrlChangeListener(final Runnable listener) {
+                changeListener.set(listener);
+            }
+        };
+        final BaseUrlCache baseUrlCache = BaseUrlCache.create(changingResolver, 1, TimeUnit.HOURS);
+
+        baseUrlCache.get();
+        changeListener.get().run();
+        baseUrlCache.get();
+
+        assertThat(resolveCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void listener_of_a_collected_cache_unsubscribes_itself() {
+        final AtomicReference<Runnable> changeListener = new AtomicReference<>();
+        final AtomicReference<Runnable> removedListener = new AtomicReference<>();
+        final UrlResolver changingResolver = new UrlResolver() {
+            @Override
+            public String resolve() {
+                return countingResolver.resolve();
+            }
+
+            @Override
+            public void addUrlChangeListener(final Runnable listener) {
+                changeListener.set(listener);
+            }
+
+            @Override
+            public void removeUrlChangeListener(final Runnable listener) {
+                removedListener.set(listener);
+            }
+        };
+        BaseUrlCache.create(changingResolver, 1, TimeUnit.HOURS);
+
+        // stands in for the garbage collector clearing the reference to the cache
+        ((Reference<?>) changeListener.get()).clear();
+        changeListener.get().run();
+
+        assertThat(removedListener.get()).isSameAs(changeListener.get());
+    }
+
+    @Test
+    public void on_request_failed_notifies_resolver_and_resolves_the_url_again() {
+        final AtomicReference<String> failedUrl = new AtomicReference<>();
+        final UrlResolver failoverResolver = new UrlResolver() {
+            @Override
+            public String resolve() {
+                return countingResolver.resolve();
+            }
+
+            @Override
+            public void onRequestFailed(final String url, final IOException cause) {
+                failedUrl.set(url);
+            }
+        };
+        final BaseUrlCache baseUrlCache = new BaseUrlCache(failoverResolver, 1, TimeUnit.HOURS);
+
+        final HttpUrl url = baseUrlCache.get().resolve("v1/secret/app");
+        baseUrlCache.onRequestFailed(url, new ConnectException("Connection refused"));
+        baseUrlCache.get();
+
+        assertThat(failedUrl.get()).isEqualTo("https://vault.example.com:8200/v1/secret/app");
+        assertThat(resolveCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void get_resolves_the_url_every_time_if_resolver_is_not_cacheable() {
+        final UrlResolver perRequestResolver = new UrlResolver() {
+            @Override
+            public String resolve() {
+                return resolveCount.incrementAndGet() % 2 == 0
+                        ? "https://vault-2.example.com:8200"
+                        : "https://vault-1.example.com:8200";
+            }
+
+            @Override
+            public boolean isCacheable() {
+                return false;
+            }
+        };
+        final BaseUrlCache baseUrlCache = new BaseUrlCache(perRequestResolver, 1, TimeUnit.HOURS);
+
+        final HttpUrl first = baseUrlCache.get();
+        assertThat(first.host()).isEqualTo("vault-1.example.com");
+        assertThat(baseUrlCache.get().host()).isEqualTo("vault-2.example.com");
+        // each URL is parsed once and then reused
+        assertThat(baseUrlCache.get()).isSameAs(first);
+    }
+
+    @Test(expected = VaultClientException.class)
+    public void get_throws_error_if_url_is_invalid() {
+        new BaseUrlCache(() -> "vault.example.com:8200", 1, TimeUnit.HOURS).get();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void set_refresh_interval_throws_error_if_interval_is_negative() {
+        new BaseUrlCache(countingResolver, 1, TimeUnit.HOURS).setRefreshInterval(-1, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the BoundedCaptureReader class
+ */
+public class BoundedCaptureReaderTest {
+
+    @Test
+    public void reader_passes_through_and_captures_short_bodies() throws Exception {
+        final BoundedCaptureReader reader = new BoundedCaptureReader(new StringReader("{\"errors\":[]}"), 100);
+
+        assertThat(IOUtils.toString(reader)).isEqualTo("{\"errors\":[]}");
+        assertThat(reader.getCaptured()).isEqualTo("{\"errors\":[]}");
+    }
+
+    @Test
+    public void reader_captures_only_the_start_of_long_bodies() throws Exception {
+        final BoundedCaptureReader reader = new BoundedCaptureReader(new StringReader("0123456789"), 4);
+
+        assertThat(IOUtils.toString(reader)).isEqualTo("0123456789");
+        assertThat(reader.getCaptured()).isEqualTo("0123...");
+    }
+
+    @Test
+    public void reader_captures_single_char_reads() throws Exception {
+        final BoundedCaptureReader reader = new BoundedCaptureReader(new StringReader("abc"), 2);
+
+        assertThat((char) reader.read()).isEqualTo('a');
+        assertThat((char) reader.read()).isEqualTo('b');
+        assertThat((char) reader.read()).isEqualTo('c');
+        assertThat(reader.read()).isEqualTo(-1);
+        assertThat(reader.getCaptured()).isEqualTo("ab...");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_error_if_max_captured_chars_is_negative() {
+        new BoundedCaptureReader(new StringReader(""), -1);
+    }
+}
@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.auth.VaultCredentials;
+import com.nike.vault.client.auth.VaultCredentialsProvider;
+import com.nike.vault.client.model.VaultListResponse;
+import com.nike.vault.client.model.VaultResponse;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the CachingVaultClient class
+ */
+public class CachingVaultClientTest {
+
+    private CachingVaultClient vaultClient;
+
+    private VaultCacheConfig cacheConfig;
+
+    private MockWebServer mockWebServer;
+
+    @Before
+    public void setup() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        final String vaultUrl = "http://localhost:" + mockWebServer.getPort();
+        final VaultCredentialsProvider vaultCredentialsProvider = mock(VaultCredentialsProvider.class);
+        cacheConfig = new VaultCacheConfig().setTtl(1, TimeUnit.MINUTES);
+        vaultClient = VaultClientFactory.getCachingClient(
+                new StaticVaultUrlResolver(vaultUrl),
+                vaultCredentialsProvider,
+                cacheConfig);
+        // every enqueued error response should reach the cache, retries are covered by VaultClientTest
+        vaultClient.setRetryPolicy(VaultRetryPolicy.none());
+
+        when(vaultCredentialsProvider.getCredentials()).thenReturn(new TestVaultCredentials());
+    }
+
+    @After
+    public void teardown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_error_if_no_cache_config() {
+        new CachingVaultClient(new DefaultVaultUrlResolver(),
+                mock(VaultCredentialsProvider.class),
+                new OkHttpClient.Builder().build(),
+                null);
+    }
+
+    @Test
+    public void read_returns_cached_response_on_subsequent_reads() {
+        enqueueSecret();
+
+        final VaultResponse first = vaultClient.read("app/api-key");
+        final VaultResponse second = vaultClient.read("/app/api-key/");
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.getData().get("value")).isEqualTo("world");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void read_async_shares_cache_with_read() throws Exception {
+        enqueueSecret();
+
+        final VaultResponse first = vaultClient.readAsync("app/api-key").get(5, TimeUnit.SECONDS);
+        final VaultResponse second = vaultClient.read("app/api-key");
+        final VaultResponse third = vaultClient.readAsync("app/api-key").get(5, TimeUnit.SECONDS);
+
+        assertThat(second).isSameAs(first);
+        assertThat(third).isSameAs(first);
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void cancelling_read_async_cancels_the_request() throws Exception {
+        final OkHttpClient httpClient = new OkHttpClient.Builder().build();
+        final VaultCredentialsProvider vaultCredentialsProvider = mock(VaultCredentialsProvider.class);
+        when(vaultCredentialsProvider.getCredentials()).thenReturn(new TestVaultCredentials());
+        final CachingVaultClient cachingClient = new CachingVaultClient(
+                new StaticVaultUrlResolver("http://localhost:" + mockWebServer.getPort()),
+                vaultCredentialsProvider,
+                httpClient,
+                cacheConfig);
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(200);
+        response.setBody(getResponseJson("secret"));
+        response.setBodyDelay(5, TimeUnit.SECONDS);
+        mockWebServer.enqueue(response);
+
+        final CompletableFuture<VaultResponse> future = cachingClient.readAsync("app/api-key");
+        mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        future.cancel(true);
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (httpClient.dispatcher().runningCallsCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(httpClient.dispatcher().runningCallsCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void read_does_not_cache_when_path_ttl_is_zero() {
+        cacheConfig.setPathTtl("app", 0, TimeUnit.SECONDS);
+        enqueueSecret();
+        enqueueSecret();
+
+        vaultClient.read("app/api-key");
+        vaultClient.read("app/api-key");
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void read_does_not_cache_errors() {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(500);
+        response.setBody(getResponseJson("error"));
+        mockWebServer.enqueue(response);
+        enqueueSecret();
+
+        try {
+            vaultClient.read("app/api-key");
+        } catch (VaultServerException se) {
+            assertThat(se.getCode()).isEqualTo(500);
+        }
+
+        final VaultResponse vaultResponse = vaultClient.read("app/api-key");
+
+        assertThat(vaultResponse.getData().get("value")).isEqualTo("world");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void write_invalidates_cached_response() {
+        enqueueSecret();
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+        enqueueSecret();
+
+        vaultClient.read("app/api-key");
+
+        final Map<String, String> data = new HashMap<>();
+        data.put("value", "world");
+        vaultClient.write("app/api-key", data);
+
+        vaultClient.read("app/api-key");
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void write_to_another_path_keeps_the_result_of_a_read_in_flight() throws Exception {
+        final MockResponse slowSecret = new MockResponse();
+        slowSecret.setResponseCode(200);
+        slowSecret.setBody(getResponseJson("secret"));
+        slowSecret.setBodyDelay(300, TimeUnit.MILLISECONDS);
+        mockWebServer.enqueue(slowSecret);
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<VaultResponse> read = executor.submit(() -> vaultClient.read("app/api-key"));
+            mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+            vaultClient.write("app/other-key", new HashMap<>());
+
+            final VaultResponse first = read.get(5, TimeUnit.SECONDS);
+
+            assertThat(vaultClient.read("app/api-key")).isSameAs(first);
+            assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void delete_invalidates_cached_response_even_if_delete_fails() {
+        enqueueSecret();
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(403);
+        response.setBody(getResponseJson("error"));
+        mockWebServer.enqueue(response);
+        enqueueSecret();
+
+        vaultClient.read("app/api-key");
+
+        try {
+            vaultClient.delete("app/api-key");
+        } catch (VaultServerException se) {
+            assertThat(se.getCode()).isEqualTo(403);
+        }
+
+        vaultClient.read("app/api-key");
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void read_serves_stale_response_while_vault_returns_5xx() throws InterruptedException {
+        cacheConfig.setTtl(10, TimeUnit.MILLISECONDS)
+                .setStaleGracePeriod(1, TimeUnit.MINUTES)
+                .setRefreshExecutor(new DirectExecutor());
+        enqueueSecret();
+        enqueueError(503);
+        enqueueError(503);
+
+        final VaultResponse first = vaultClient.read("app/api-key");
+        Thread.sleep(50);
+
+        assertThat(vaultClient.read("app/api-key")).isSameAs(first);
+        assertThat(vaultClient.read("app/api-key")).isSameAs(first);
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void read_drops_stale_response_if_refresh_returns_4xx() throws InterruptedException {
+        cacheConfig.setTtl(10, TimeUnit.MILLISECONDS)
+                .setStaleGracePeriod(1, TimeUnit.MINUTES)
+                .setRefreshExecutor(new DirectExecutor());
+        enqueueSecret();
+        enqueueError(404);
+        enqueueError(404);
+
+        final VaultResponse first = vaultClient.read("app/api-key");
+        Thread.sleep(50);
+
+        assertThat(vaultClient.read("app/api-key")).isSameAs(first);
+        try {
+            vaultClient.read("app/api-key");
+        } catch (VaultServerException se) {
+            assertThat(se.getCode()).isEqualTo(404);
+        }
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void read_refreshes_ahead_of_expiry_once_per_path() {
+        final RecordingExecutor executor = new RecordingExecutor();
+        cacheConfig.setTtl(1, TimeUnit.MINUTES)
+                .setRefreshAhead(2, TimeUnit.MINUTES)
+                .setRefreshExecutor(executor);
+        enqueueSecret();
+        enqueueSecret();
+
+        final VaultResponse first = vaultClient.read("app/api-key");
+
+        assertThat(vaultClient.read("app/api-key")).isSameAs(first);
+        assertThat(vaultClient.read("app/api-key")).isSameAs(first);
+        assertThat(executor.tasks).hasSize(1);
+
+        executor.tasks.remove(0).run();
+
+        assertThat(vaultClient.read("app/api-key")).isNotSameAs(first);
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void read_caches_not_found_until_path_is_written() {
+        cacheConfig.setNotFoundTtl(1, TimeUnit.MINUTES);
+        enqueueError(404);
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+        enqueueSecret();
+
+        assertReadNotFound("app/missing");
+        assertReadNotFound("app/missing");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+
+        final Map<String, String> data = new HashMap<>();
+        data.put("value", "world");
+        vaultClient.write("app/missing", data);
+
+        assertThat(vaultClient.read("app/missing").getData().get("value")).isEqualTo("world");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void read_does_not_cache_not_found_by_default() {
+        enqueueError(404);
+        enqueueError(404);
+
+        assertReadNotFound("app/missing");
+        assertReadNotFound("app/missing");
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void list_caches_not_found_until_child_path_is_written() {
+        cacheConfig.setNotFoundTtl(1, TimeUnit.MINUTES);
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+        final MockResponse listResponse = new MockResponse();
+        listResponse.setResponseCode(200);
+        listResponse.setBody(getResponseJson("list"));
+        mockWebServer.enqueue(listResponse);
+
+        assertThat(vaultClient.list("app/demo").getKeys()).isEmpty();
+        assertThat(vaultClient.list("app/demo").getKeys()).isEmpty();
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+
+        final Map<String, String> data = new HashMap<>();
+        data.put("value", "world");
+        vaultClient.write("app/demo/foo", data);
+
+        final VaultListResponse vaultListResponse = vaultClient.list("app/demo");
+
+        assertThat(vaultListResponse.getKeys()).contains("foo", "foo/");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void cache_config_resolves_most_specific_path_ttl() {
+        final VaultCacheConfig config = new VaultCacheConfig()
+                .setTtl(30, TimeUnit.SECONDS)
+                .setPathTtl("app", 10, TimeUnit.SECONDS)
+                .setPathTtl("/app/db/", 5, TimeUnit.SECONDS);
+
+        assertThat(config.getTtlMillis("other/key")).isEqualTo(30_000);
+        assertThat(config.getTtlMillis("app/api-key")).isEqualTo(10_000);
+        assertThat(config.getTtlMillis("app/db/password")).isEqualTo(5_000);
+        assertThat(config.getTtlMillis("app/dbx")).isEqualTo(10_000);
+    }
+
+    private void enqueueSecret() {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(200);
+        response.setBody(getResponseJson("secret"));
+        mockWebServer.enqueue(response);
+    }
+
+    private void assertReadNotFound(final String path) {
+        try {
+            vaultClient.read(path);
+            fail("Expected VaultServerException");
+        } catch (VaultServerException se) {
+            assertThat(se.getCode()).isEqualTo(404);
+            assertThat(se.getErrors()).hasSize(2);
+        }
+    }
+
+    private void enqueueError(final int code) {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(code);
+        response.setBody(getResponseJson("error"));
+        mockWebServer.enqueue(response);
+    }
+
+    private String getResponseJson(final String title) {
+        InputStream inputStream = getClass().getResourceAsStream(
+                String.format("/com/nike/vault/client/%s.json", title));
+        try {
+            return IOUtils.toString(inputStream, Charset.forName("UTF-8"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+
+    private static class DirectExecutor implements Executor {
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    }
+
+    private static class RecordingExecutor implements Executor {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(final Runnable command) {
+            tasks.add(command);
+        }
+    }
+
+    private static class TestVaultCredentials implements VaultCredentials {
+        @Override
+        public String getToken() {
+            return "TOKEN";
+        }
+    }
+}
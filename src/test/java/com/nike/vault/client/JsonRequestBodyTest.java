@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.json.GsonJsonCodec;
+import com.nike.vault.client.model.VaultPolicy;
+import okio.Buffer;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the JsonRequestBody class
+ */
+public class JsonRequestBodyTest {
+
+    private final GsonJsonCodec jsonCodec = new GsonJsonCodec();
+
+    @Test
+    public void write_to_serializes_body_into_sink() throws Exception {
+        final Map<String, String> data = new LinkedHashMap<>();
+        data.put("value", "<wörld>");
+        final JsonRequestBody requestBody = new JsonRequestBody(jsonCodec, VaultClient.DEFAULT_MEDIA_TYPE, data);
+
+        final Buffer buffer = new Buffer();
+        requestBody.writeTo(buffer);
+
+        assertThat(buffer.readUtf8()).isEqualTo("{\"value\":\"<wörld>\"}");
+        assertThat(requestBody.contentType()).isEqualTo(VaultClient.DEFAULT_MEDIA_TYPE);
+        assertThat(requestBody.contentLength()).isEqualTo(-1);
+    }
+
+    @Test
+    public void write_to_serializes_models_with_the_codec() throws Exception {
+        final VaultPolicy policy = new VaultPolicy().setRules("path \"secret/*\" {}");
+        final JsonRequestBody requestBody = new JsonRequestBody(jsonCodec, VaultClient.DEFAULT_MEDIA_TYPE, policy);
+
+        final Buffer buffer = new Buffer();
+        requestBody.writeTo(buffer);
+
+        assertThat(buffer.readUtf8()).isEqualTo("{\"rules\":\"path \\\"secret/*\\\" {}\"}");
+    }
+
+    @Test
+    public void write_to_can_be_repeated() throws Exception {
+        final Map<String, String> data = new LinkedHashMap<>();
+        data.put("value", "world");
+        final JsonRequestBody requestBody = new JsonRequestBody(jsonCodec, VaultClient.DEFAULT_MEDIA_TYPE, data);
+
+        final Buffer first = new Buffer();
+        requestBody.writeTo(first);
+        final Buffer second = new Buffer();
+        requestBody.writeTo(second);
+
+        assertThat(first.readUtf8()).isEqualTo(second.readUtf8());
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import org.junit.Test;
+
+import java.net.ConnectException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the LoadBalancingVaultUrlResolver class
+ */
+public class LoadBalancingVaultUrlResolverTest {
+
+    private static final String FIRST_URL = "https://vault-1.example.com:8200";
+
+    private static final String SECOND_URL = "https://vault-2.example.com:8200";
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LoadBalancingVaultUrlResolver resolver =
+            new LoadBalancingVaultUrlResolver(Arrays.asList(FIRST_URL, SECOND_URL));
+
+    @Test
+    public void resolve_prefers_endpoint_with_lower_latency() {
+        complete(FIRST_URL, 50 * MILLIS);
+        complete(SECOND_URL, 5 * MILLIS);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(resolver.resolve()).isEqualTo(SECOND_URL);
+        }
+        assertThat(resolver.getEndpointLatencies()).containsEntry(FIRST_URL, 50.0).containsEntry(SECOND_URL, 5.0);
+    }
+
+    @Test
+    public void resolve_prefers_endpoint_with_fewer_requests_in_flight() {
+        complete(FIRST_URL, 5 * MILLIS);
+        complete(SECOND_URL, 5 * MILLIS);
+        resolver.onRequestStarted(FIRST_URL + "/v1/secret/app");
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(resolver.resolve()).isEqualTo(SECOND_URL);
+        }
+        assertThat(resolver.getEndpointInFlight()).containsEntry(FIRST_URL, 1).containsEntry(SECOND_URL, 0);
+    }
+
+    @Test
+    public void resolve_weighs_latency_by_requests_in_flight() {
+        complete(FIRST_URL, 5 * MILLIS);
+        complete(SECOND_URL, 8 * MILLIS);
+        resolver.onRequestStarted(FIRST_URL + "/v1/secret/app");
+
+        assertThat(resolver.resolve()).isEqualTo(SECOND_URL);
+
+        resolver.onRequestCancelled(FIRST_URL + "/v1/secret/app");
+
+        assertThat(resolver.resolve()).isEqualTo(FIRST_URL);
+        assertThat(resolver.getEndpointInFlight()).containsEntry(FIRST_URL, 0);
+    }
+
+    @Test
+    public void resolve_avoids_failed_endpoint_until_it_completes_a_request() {
+        complete(FIRST_URL, 5 * MILLIS);
+        complete(SECOND_URL, 50 * MILLIS);
+        resolver.onRequestStarted(FIRST_URL + "/v1/secret/app");
+        resolver.onRequestFailed(FIRST_URL + "/v1/secret/app", new ConnectException("Connection refused"));
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(resolver.resolve()).isEqualTo(SECOND_URL);
+        }
+
+        complete(FIRST_URL, 5 * MILLIS);
+
+        assertThat(resolver.resolve()).isEqualTo(FIRST_URL);
+    }
+
+    @Test
+    public void resolve_avoids_unavailable_endpoint_without_counting_a_request() {
+        complete(FIRST_URL, 5 * MILLIS);
+        complete(SECOND_URL, 50 * MILLIS);
+        resolver.onEndpointUnavailable(FIRST_URL + "/v1/secret/app");
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(resolver.resolve()).isEqualTo(SECOND_URL);
+        }
+        assertThat(resolver.getEndpointInFlight()).containsEntry(FIRST_URL, 0);
+    }
+
+    @Test
+    public void resolve_uses_failed_endpoint_again_after_cooldown() {
+        resolver.setFailureCooldown(0, TimeUnit.MILLISECONDS);
+        complete(FIRST_URL, 5 * MILLIS);
+        complete(SECOND_URL, 50 * MILLIS);
+        resolver.onRequestStarted(FIRST_URL + "/v1/secret/app");
+        resolver.onRequestFailed(FIRST_URL + "/v1/secret/app", new ConnectException("Connection refused"));
+
+        assertThat(resolver.resolve()).isEqualTo(FIRST_URL);
+    }
+
+    @Test
+    public void resolve_returns_the_only_endpoint() {
+        final LoadBalancingVaultUrlResolver single =
+                new LoadBalancingVaultUrlResolver(Collections.singletonList(FIRST_URL));
+
+        assertThat(single.resolve()).isEqualTo(FIRST_URL);
+    }
+
+    @Test
+    public void resolve_spreads_requests_over_idle_endpoints() {
+        final List<String> urls = Arrays.asList(FIRST_URL, SECOND_URL, "https://vault-3.example.com:8200");
+        final LoadBalancingVaultUrlResolver threeEndpoints = new LoadBalancingVaultUrlResolver(urls);
+
+        final Set<String> resolved = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            resolved.add(threeEndpoints.resolve());
+        }
+
+        assertThat(resolved).containsOnlyElementsOf(urls).hasSize(3);
+    }
+
+    @Test
+    public void resolver_is_not_cacheable() {
+        assertThat(resolver.isCacheable()).isFalse();
+    }
+
+    @Test
+    public void feedback_for_unknown_urls_is_ignored() {
+        resolver.onRequestStarted("https://other.example.com/v1/secret/app");
+        resolver.onRequestCompleted(null, MILLIS);
+
+        assertThat(resolver.getEndpointLatencies()).isEmpty();
+        assertThat(resolver.getEndpointInFlight()).containsEntry(FIRST_URL, 0).containsEntry(SECOND_URL, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_error_if_no_urls_specified() {
+        new LoadBalancingVaultUrlResolver(Collections.emptyList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_error_if_url_is_invalid() {
+        new LoadBalancingVaultUrlResolver(Collections.singletonList("vault.example.com"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void set_failure_cooldown_throws_error_if_negative() {
+        resolver.setFailureCooldown(-1, TimeUnit.SECONDS);
+    }
+
+    private void complete(final String url, final long latencyNanos) {
+        resolver.onRequestStarted(url + "/v1/secret/app");
+        resolver.onRequestCompleted(url + "/v1/secret/app", latencyNanos);
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.MultiNodeVaultUrlResolver.NodeStatus;
+import com.nike.vault.client.auth.TokenVaultCredentials;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests the MultiNodeVaultUrlResolver class
+ */
+public class MultiNodeVaultUrlResolverTest {
+
+    private static final String ACTIVE = "{\"initialized\":true,\"sealed\":false,\"standby\":false}";
+
+    private static final String STANDBY = "{\"initialized\":true,\"sealed\":false,\"standby\":true}";
+
+    private static final String PERFORMANCE_STANDBY =
+            "{\"initialized\":true,\"sealed\":false,\"standby\":true,\"performance_standby\":true}";
+
+    private static final String SEALED = "{\"initialized\":true,\"sealed\":true,\"standby\":true}";
+
+    private MockWebServer nodeOne;
+
+    private MockWebServer nodeTwo;
+
+    private String nodeOneUrl;
+
+    private String nodeTwoUrl;
+
+    private ScheduledExecutorService scheduler;
+
+    private MultiNodeVaultUrlResolver resolver;
+
+    @Before
+    public void setup() throws IOException {
+        nodeOne = new MockWebServer();
+        nodeOne.start();
+        nodeTwo = new MockWebServer();
+        nodeTwo.start();
+        nodeOneUrl = "http://localhost:" + nodeOne.getPort();
+        nodeTwoUrl = "http://localhost:" + nodeTwo.getPort();
+
+        scheduler = mock(ScheduledExecutorService.class);
+        resolver = new MultiNodeVaultUrlResolver(Arrays.asList(nodeOneUrl, nodeTwoUrl), 5, TimeUnit.SECONDS,
+                new OkHttpClient.Builder().build(), scheduler);
+    }
+
+    @After
+    public void teardown() throws IOException {
+        nodeOne.shutdown();
+        nodeTwo.shutdown();
+    }
+
+    @Test
+    public void resolve_returns_first_node_before_probing() {
+        assertThat(resolver.resolve()).isEqualTo(nodeOneUrl);
+        assertThat(resolver.getNodeStatuses()).containsEntry(nodeOneUrl, NodeStatus.UNKNOWN);
+    }
+
+    @Test
+    public void resolve_returns_active_node_after_probe() throws Exception {
+        nodeOne.enqueue(new MockResponse().setResponseCode(429).setBody(STANDBY));
+        nodeTwo.enqueue(new MockResponse().setResponseCode(200).setBody(ACTIVE));
+
+        runScheduledProbe();
+
+        awaitResolved(nodeTwoUrl);
+        assertThat(resolver.getNodeStatuses()).containsEntry(nodeOneUrl, NodeStatus.STANDBY);
+        assertThat(resolver.getNodeStatuses()).containsEntry(nodeTwoUrl, NodeStatus.ACTIVE);
+        assertThat(nodeTwo.takeRequest().getPath()).isEqualTo("/v1/sys/health");
+    }
+
+    @Test
+    public void resolve_falls_back_to_standby_node_if_no_node_is_active() throws Exception {
+        nodeOne.enqueue(new MockResponse().setResponseCode(503).setBody(SEALED));
+        nodeTwo.enqueue(new MockResponse().setResponseCode(429).setBody(STANDBY));
+
+        runScheduledProbe();
+
+        awaitResolved(nodeTwoUrl);
+        assertThat(resolver.getNodeStatuses()).containsEntry(nodeOneUrl, NodeStatus.UNAVAILABLE);
+        assertThat(resolver.getNodeStatuses()).containsEntry(nodeTwoUrl, NodeStatus.STANDBY);
+    }
+
+    @Test
+    public void reads_go_to_performance_standby_while_resolve_returns_active_node() throws Exception {
+        nodeOne.enqueue(new MockResponse().setResponseCode(200).setBody(ACTIVE));
+        nodeTwo.enqueue(new MockResponse().setResponseCode(473).setBody(PERFORMANCE_STANDBY));
+
+        runScheduledProbe();
+
+        awaitStatus(nodeTwoUrl, NodeStatus.PERFORMANCE_STANDBY);
+        assertThat(resolver.resolve()).isEqualTo(nodeOneUrl);
+        assertThat(resolver.resolveForRead()).isEqualTo(nodeTwoUrl);
+        assertThat(resolver.resolveForRead()).isEqualTo(nodeTwoUrl);
+    }
+
+    @Test
+    public void reads_go_to_plain_standby_only_if_enabled() throws Exception {
+        nodeOne.enqueue(new MockResponse().setResponseCode(200).setBody(ACTIVE));
+        nodeTwo.enqueue(new MockResponse().setResponseCode(429).setBody(STANDBY));
+
+        runScheduledProbe();
+
+        awaitStatus(nodeTwoUrl, NodeStatus.STANDBY);
+        assertThat(resolver.resolveForRead()).isEqualTo(nodeOneUrl);
+
+        resolver.setPlainStandbyReadsEnabled(true);
+
+        assertThat(resolver.resolveForRead()).isEqualTo(nodeTwoUrl);
+    }
+
+    @Test
+    public void reads_prefer_performance_standby_nodes() throws Exception {
+        nodeOne.enqueue(new MockResponse().setResponseCode(429).setBody(STANDBY));
+        nodeTwo.enqueue(new MockResponse().setResponseCode(473).setBody(PERFORMANCE_STANDBY));
+
+        runScheduledProbe();
+
+        awaitStatus(nodeTwoUrl, NodeStatus.PERFORMANCE_STANDBY);
+        assertThat(resolver.resolveForRead()).isEqualTo(nodeTwoUrl);
+    }
+
+    @Test
+    public void reads_take_turns_between_standby_nodes_and_skip_slow_nodes() throws Exception {
+        final MockWebServer nodeThree = new MockWebServer();
+        nodeThree.start();
+        try {
+            final String nodeThreeUrl = "http://localhost:" + nodeThree.getPort();
+            final ScheduledExecutorService threeNodeScheduler = mock(ScheduledExecutorService.class);
+            resolver = new MultiNodeVaultUrlResolver(Arrays.asList(nodeOneUrl, nodeTwoUrl, nodeThreeUrl), 5,
+                    TimeUnit.SECONDS, new OkHttpClient.Builder().build(), threeNodeScheduler);
+            scheduler = threeNodeScheduler;
+            nodeOne.enqueue(new MockResponse().setResponseCode(200).setBody(ACTIVE));
+            nodeTwo.enqueue(new MockResponse().setResponseCode(473).setBody(PERFORMANCE_STANDBY));
+            nodeThree.enqueue(new MockResponse().setResponseCode(473).setBody(PERFORMANCE_STANDBY));
+
+            runScheduledProbe();
+
+            awaitStatus(nodeTwoUrl, NodeStatus.PERFORMANCE_STANDBY);
+            awaitStatus(nodeThreeUrl, NodeStatus.PERFORMANCE_STANDBY);
+            for (int i = 0; i < 50; i++) {
+                resolver.onRequestCompleted(nodeOneUrl + "/v1/secret/app", TimeUnit.MILLISECONDS.toNanos(1));
+                resolver.onRequestCompleted(nodeTwoUrl + "/v1/secret/app", TimeUnit.MILLISECONDS.toNanos(1));
+                resolver.onRequestCompleted(nodeThreeUrl + "/v1/secret/app", TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            assertThat(Arrays.asList(resolver.resolveForRead(), resolver.resolveForRead()))
+                    .containsOnly(nodeTwoUrl, nodeThreeUrl)
+                    .doesNotHaveDuplicates();
+
+            for (int i = 0; i < 50; i++) {
+                resolver.onRequestCompleted(nodeThreeUrl + "/v1/secret/app", TimeUnit.MILLISECONDS.toNanos(100));
+            }
+            assertThat(resolver.getNodeLatencies().get(nodeThreeUrl)).isGreaterThan(50.0);
+            assertThat(resolver.resolveForRead()).isEqualTo(nodeTwoUrl);
+            assertThat(resolver.resolveForRead()).isEqualTo(nodeTwoUrl);
+        } finally {
+            nodeThree.shutdown();
+        }
+    }
+
+    @Test
+    public void reads_go_to_resolved_node_if_no_standby_is_available() {
+        assertThat(resolver.resolveForRead()).isEqualTo(nodeOneUrl);
+    }
+
+    @Test
+    public void failed_request_fails_over_immediately_and_notifies_listeners() {
+        final AtomicInteger changes = new AtomicInteger();
+        resolver.addUrlChangeListener(changes::incrementAndGet);
+
+        resolver.onRequestFailed(nodeOneUrl + "/v1/secret/app", new ConnectException("Connection refused"));
+
+        assertThat(resolver.resolve()).isEqualTo(nodeTwoUrl);
+        assertThat(resolver.getNodeStatuses()).containsEntry(nodeOneUrl, NodeStatus.UNAVAILABLE);
+        assertThat(changes.get()).isEqualTo(1);
+        verify(scheduler).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void removed_listener_is_not_notified() {
+        final AtomicInteger changes = new AtomicInteger();
+        final Runnable listener = changes::incrementAndGet;
+        resolver.addUrlChangeListener(listener);
+        resolver.removeUrlChangeListener(listener);
+
+        resolver.onRequestFailed(nodeOneUrl + "/v1/secret/app", new ConnectException("Connection refused"));
+
+        assertThat(resolver.resolve()).isEqualTo(nodeTwoUrl);
+        assertThat(changes.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void failed_request_to_unknown_url_is_ignored() {
+        resolver.onRequestFailed("http://elsewhere:8200/v1/secret/app", new ConnectException("Connection refused"));
+
+        assertThat(resolver.resolve()).isEqualTo(nodeOneUrl);
+    }
+
+    @Test
+    public void client_uses_next_node_right_after_request_to_node_fails() throws IOException {
+        nodeOne.shutdown();
+        nodeTwo.enqueue(new MockResponse().setResponseCode(200).setBody("{\"data\":{\"value\":\"world\"}}"));
+        final VaultClient vaultClient = new VaultClient(resolver, () -> new TokenVaultCredentials("TOKEN"),
+                new OkHttpClient.Builder().build());
+        // a retry would already fail over, this covers the next request doing so
+        vaultClient.setRetryPolicy(VaultRetryPolicy.none());
+
+        try {
+            vaultClient.read("app/api-key");
+            fail("Expected a VaultClientException");
+        } catch (VaultClientException e) {
+            assertThat(e.getCause()).isInstanceOf(IOException.class);
+        }
+
+        assertThat(vaultClient.read("app/api-key").getData()).containsEntry("value", "world");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_error_if_no_nodes() {
+        new MultiNodeVaultUrlResolver(Collections.emptyList(), 5, TimeUnit.SECONDS,
+                new OkHttpClient.Builder().build(), scheduler);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_error_if_node_url_is_invalid() {
+        new MultiNodeVaultUrlResolver(Collections.singletonList("not a url"), 5, TimeUnit.SECONDS,
+                new OkHttpClient.Builder().build(), scheduler);
+    }
+
+    private void runScheduledProbe() {
+        final ArgumentCaptor<Runnable> probeCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).scheduleWithFixedDelay(probeCaptor.capture(), eq(0L), anyLong(), eq(TimeUnit.SECONDS));
+        probeCaptor.getValue().run();
+    }
+
+    private void awaitStatus(final String nodeUrl, final NodeStatus status) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (resolver.getNodeStatuses().get(nodeUrl) != status && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(resolver.getNodeStatuses()).containsEntry(nodeUrl, status);
+    }
+
+    private void awaitResolved(final String nodeUrl) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!nodeUrl.equals(resolver.resolve()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(resolver.resolve()).isEqualTo(nodeUrl);
+    }
+}
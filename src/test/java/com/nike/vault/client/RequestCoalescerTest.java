@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the RequestCoalescer class
+ */
+public class RequestCoalescerTest {
+
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
+
+    @Test
+    public void execute_shares_result_of_in_flight_call() throws Exception {
+        final CountDownLatch callStarted = new CountDownLatch(1);
+        final CountDownLatch releaseCall = new CountDownLatch(1);
+        final AtomicInteger invocations = new AtomicInteger();
+        final Callable<String> slowCall = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                invocations.incrementAndGet();
+                callStarted.countDown();
+                releaseCall.await();
+                return "result";
+            }
+        };
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            final Future<String> first = executorService.submit(execute("key", slowCall));
+            callStarted.await(5, TimeUnit.SECONDS);
+            final Future<String> second = executorService.submit(execute("key", slowCall));
+
+            Thread.sleep(100);
+            releaseCall.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+            assertThat(invocations.get()).isEqualTo(1);
+            assertThat(requestCoalescer.inFlightCount()).isEqualTo(0);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void execute_runs_again_once_previous_call_completed() {
+        final AtomicInteger invocations = new AtomicInteger();
+        final Callable<Integer> call = new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return invocations.incrementAndGet();
+            }
+        };
+
+        assertThat(requestCoalescer.execute("key", call)).isEqualTo(1);
+        assertThat(requestCoalescer.execute("key", call)).isEqualTo(2);
+    }
+
+    @Test
+    public void execute_rethrows_runtime_exceptions_of_the_call() {
+        try {
+            requestCoalescer.execute("key", new Callable<Object>() {
+                @Override
+                public Object call() {
+                    throw new VaultServerException(503, null);
+                }
+            });
+            fail("Expected VaultServerException");
+        } catch (VaultServerException vse) {
+            assertThat(vse.getCode()).isEqualTo(503);
+        }
+
+        assertThat(requestCoalescer.inFlightCount()).isEqualTo(0);
+    }
+
+    @Test(expected = VaultClientException.class)
+    public void execute_wraps_checked_exceptions_of_the_call() {
+        requestCoalescer.execute("key", new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                throw new Exception("checked");
+            }
+        });
+    }
+
+    private Callable<String> execute(final String key, final Callable<String> call) {
+        return new Callable<String>() {
+            @Override
+            public String call() {
+                return requestCoalescer.execute(key, call);
+            }
+        };
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the RequestHedger class
+ */
+public class RequestHedgerTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void initial_delay_is_used_until_enough_latencies_were_recorded() {
+        final RequestHedger hedger = new RequestHedger(new VaultHedgingPolicy()
+                .setInitialDelay(50, TimeUnit.MILLISECONDS));
+
+        for (int i = 1; i < RequestHedger.MIN_SAMPLES; i++) {
+            hedger.recordLatency(MILLIS * 10);
+        }
+
+        assertThat(hedger.getDelayNanos()).isEqualTo(50 * MILLIS);
+    }
+
+    @Test
+    public void delay_follows_the_percentile_of_recorded_latencies() {
+        final RequestHedger hedger = new RequestHedger(new VaultHedgingPolicy()
+                .setPercentile(0.9)
+                .setMinDelay(0, TimeUnit.MILLISECONDS));
+
+        for (int i = RequestHedger.MIN_SAMPLES; i > 0; i--) {
+            hedger.recordLatency(i * MILLIS);
+        }
+
+        assertThat(hedger.getDelayNanos()).isEqualTo(18 * MILLIS);
+    }
+
+    @Test
+    public void delay_is_not_shorter_than_min_delay() {
+        final RequestHedger hedger = new RequestHedger(new VaultHedgingPolicy()
+                .setMinDelay(5, TimeUnit.MILLISECONDS));
+
+        for (int i = 0; i < RequestHedger.MIN_SAMPLES; i++) {
+            hedger.recordLatency(MILLIS);
+        }
+
+        assertThat(hedger.getDelayNanos()).isEqualTo(5 * MILLIS);
+    }
+
+    @Test
+    public void hedges_are_paid_from_the_budget_reads_earn() {
+        final RequestHedger hedger = new RequestHedger(new VaultHedgingPolicy().setMaxHedgeRatio(0.25));
+
+        for (int i = 0; i < 3; i++) {
+            hedger.onRequest();
+            assertThat(hedger.tryAcquireHedge()).isFalse();
+        }
+        hedger.onRequest();
+
+        assertThat(hedger.tryAcquireHedge()).isTrue();
+        assertThat(hedger.tryAcquireHedge()).isFalse();
+    }
+
+    @Test
+    public void budget_is_capped_at_max_hedge_burst() {
+        final RequestHedger hedger = new RequestHedger(new VaultHedgingPolicy().setMaxHedgeRatio(1));
+
+        for (int i = 0; i < VaultHedgingPolicy.MAX_HEDGE_BURST * 2; i++) {
+            hedger.onRequest();
+        }
+
+        for (int i = 0; i < VaultHedgingPolicy.MAX_HEDGE_BURST; i++) {
+            assertThat(hedger.tryAcquireHedge()).isTrue();
+        }
+        assertThat(hedger.tryAcquireHedge()).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void policy_throws_error_if_max_hedge_ratio_is_zero() {
+        new VaultHedgingPolicy().setMaxHedgeRatio(0);
+    }
+}
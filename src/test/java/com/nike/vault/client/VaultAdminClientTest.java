@@ -41,8 +41,11 @@ import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -126,6 +129,19 @@ public class VaultAdminClientTest {
         assertThat(actualResponse.isStandby()).isTrue();
     }
 
+    @Test
+    public void health_returns_473_if_healthy_performance_standby() {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(HttpStatus.PERFORMANCE_STANDBY);
+        response.setBody("{\"initialized\":true,\"sealed\":false,\"standby\":true,\"performance_standby\":true}");
+        mockWebServer.enqueue(response);
+
+        final VaultHealthResponse actualResponse = vaultClient.health();
+
+        assertThat(actualResponse.isStandby()).isTrue();
+        assertThat(actualResponse.isPerformanceStandby()).isTrue();
+    }
+
     @Test
     public void health_returns_500_if_sealed() {
         final MockResponse response = new MockResponse();
@@ -150,6 +166,18 @@ public class VaultAdminClientTest {
         vaultClient.health();
     }
 
+    @Test
+    public void health_async_returns_429_if_healthy_standby() throws Exception {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.setBody(getResponseJson("health-standby"));
+        mockWebServer.enqueue(response);
+
+        final VaultHealthResponse actualResponse = vaultClient.healthAsync().get(5, TimeUnit.SECONDS);
+
+        assertThat(actualResponse.isStandby()).isTrue();
+    }
+
     @Test
     public void unseal_returns_ok_if_successful() {
         final MockResponse response = new MockResponse();
@@ -222,6 +250,21 @@ public class VaultAdminClientTest {
         vaultClient.policy("rawr");
     }
 
+    @Test
+    public void policy_async_completes_exceptionally_if_not_found() throws Exception {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(HttpStatus.NOT_FOUND);
+        response.setBody(getResponseJson("error"));
+        mockWebServer.enqueue(response);
+
+        try {
+            vaultClient.policyAsync("policy").get(5, TimeUnit.SECONDS);
+            fail("Expected ExecutionException");
+        } catch (ExecutionException ee) {
+            assertThat(ee.getCause()).isInstanceOf(VaultServerException.class);
+        }
+    }
+
     @Test
     public void put_policy_returns_204_when_successful() {
         final MockResponse response = new MockResponse();
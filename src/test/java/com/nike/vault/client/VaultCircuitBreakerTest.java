@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.VaultCircuitBreaker.State;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the VaultCircuitBreaker class
+ */
+public class VaultCircuitBreakerTest {
+
+    private static final String ENDPOINT = "https://vault.example.com:8200";
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+    private final VaultCircuitBreakerConfig config = new VaultCircuitBreakerConfig()
+            .setWindowSize(4)
+            .setMinimumCalls(4)
+            .setFailureRateThreshold(0.5)
+            .setSlowCallRateThreshold(0.5)
+            .setSlowCallDuration(100, TimeUnit.MILLISECONDS)
+            .setHalfOpenCalls(2);
+
+    @Test
+    public void stays_closed_below_minimum_calls() {
+        final VaultCircuitBreaker breaker = new VaultCircuitBreaker(ENDPOINT, config);
+
+        complete(breaker, true, FAST);
+        complete(breaker, true, FAST);
+        complete(breaker, true, FAST);
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.getFailureRate()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void opens_when_failure_rate_reaches_threshold() {
+        final VaultCircuitBreaker breaker = new VaultCircuitBreaker(ENDPOINT, config);
+
+        complete(breaker, false, FAST);
+        complete(breaker, true, FAST);
+        complete(breaker, false, FAST);
+        complete(breaker, true, FAST);
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(VaultCircuitBreaker.REJECTED);
+    }
+
+    @Test
+    public void opens_when_slow_call_rate_reaches_threshold() {
+        final VaultCircuitBreaker breaker = new VaultCircuitBreaker(ENDPOINT, config);
+
+        complete(breaker, false, SLOW);
+        complete(breaker, false, FAST);
+        complete(breaker, false, SLOW);
+        complete(breaker, false, FAST);
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    public void old_outcomes_slide_out_of_the_window() {
+        final VaultCircuitBreaker breaker = new VaultCircuitBreaker(ENDPOINT, config.setFailureRateThreshold(1));
+
+        complete(breaker, true, FAST);
+        complete(breaker, false, FAST);
+        complete(breaker, false, FAST);
+        complete(breaker, false, FAST);
+
+        assertThat(breaker.getFailureRate()).isEqualTo(0.25);
+
+        complete(breaker, false, FAST);
+
+        assertThat(breaker.getFailureRate()).isEqualTo(0.0);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    public void half_open_breaker_closes_after_successful_trial_calls() {
+        final VaultCircuitBreaker breaker = openBreaker(config.setOpenDuration(0, TimeUnit.MILLISECONDS));
+
+        final long first = breaker.tryAcquire();
+        final long second = breaker.tryAcquire();
+
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(VaultCircuitBreaker.REJECTED);
+
+        breaker.onCompleted(first, false, FAST);
+        breaker.onCompleted(second, false, FAST);
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquire()).isNotEqualTo(VaultCircuitBreaker.REJECTED);
+    }
+
+    @Test
+    public void half_open_breaker_opens_again_if_trial_calls_fail() {
+        final VaultCircuitBreaker breaker = openBreaker(config.setOpenDuration(0, TimeUnit.MILLISECONDS));
+
+        final long first = breaker.tryAcquire();
+        final long second = breaker.tryAcquire();
+        breaker.onCompleted(first, true, FAST);
+        breaker.onCompleted(second, false, FAST);
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    public void cancelled_trial_call_hands_back_its_permit() {
+        final VaultCircuitBreaker breaker = openBreaker(config
+                .setOpenDuration(0, TimeUnit.MILLISECONDS)
+                .setHalfOpenCalls(1));
+
+        breaker.onCancelled(breaker.tryAcquire());
+
+        assertThat(breaker.tryAcquire()).isNotEqualTo(VaultCircuitBreaker.REJECTED);
+    }
+
+    @Test
+    public void outcomes_of_requests_sent_before_the_breaker_opened_are_ignored() {
+        final VaultCircuitBreaker breaker = new VaultCircuitBreaker(ENDPOINT,
+                config.setOpenDuration(0, TimeUnit.MILLISECONDS));
+        final long earlyPermit = breaker.tryAcquire();
+        for (int i = 0; i < 4; i++) {
+            complete(breaker, true, FAST);
+        }
+
+        final long trialPermit = breaker.tryAcquire();
+        breaker.onCompleted(earlyPermit, true, SLOW);
+
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(trialPermit).isNotEqualTo(earlyPermit);
+    }
+
+    private VaultCircuitBreaker openBreaker(final VaultCircuitBreakerConfig config) {
+        final VaultCircuitBreaker breaker = new VaultCircuitBreaker(ENDPOINT, config);
+        for (int i = 0; i < 4; i++) {
+            complete(breaker, true, FAST);
+        }
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        return breaker;
+    }
+
+    private void complete(final VaultCircuitBreaker breaker, final boolean failed, final long durationNanos) {
+        breaker.onCompleted(breaker.tryAcquire(), failed, durationNanos);
+    }
+}
@@ -20,6 +20,9 @@ import com.nike.vault.client.auth.DefaultVaultCredentialsProviderChain;
 import com.nike.vault.client.auth.VaultCredentials;
 import com.nike.vault.client.auth.VaultCredentialsProvider;
 import com.nike.vault.client.http.HttpStatus;
+import com.nike.vault.client.json.GsonJsonCodec;
+import com.nike.vault.client.json.JsonCodec;
+import com.nike.vault.client.model.VaultAuthResponse;
 import com.nike.vault.client.model.VaultClientTokenResponse;
 import com.nike.vault.client.model.VaultListResponse;
 import com.nike.vault.client.model.VaultResponse;
@@ -27,8 +30,11 @@ import okhttp3.Headers;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
 import org.apache.commons.io.IOUtils;
 import org.junit.After;
 import org.junit.Before;
@@ -36,14 +42,32 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
 import java.net.ServerSocket;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -134,6 +158,55 @@ public class VaultClientTest {
         assertThat(vaultResponse.getData().get("value")).isEqualToIgnoringCase("world");
     }
 
+    @Test
+    public void client_uses_the_json_codec_it_was_constructed_with() {
+        final GsonJsonCodec gsonJsonCodec = new GsonJsonCodec();
+        final AtomicInteger reads = new AtomicInteger();
+        final JsonCodec countingCodec = new JsonCodec() {
+            @Override
+            public <T> T read(Reader reader, Type type) {
+                reads.incrementAndGet();
+                return gsonJsonCodec.read(reader, type);
+            }
+
+            @Override
+            public void write(Object value, Writer writer) throws IOException {
+                gsonJsonCodec.write(value, writer);
+            }
+        };
+        final String vaultUrl = "http://localhost:" + mockWebServer.getPort();
+        final VaultCredentialsProvider vaultCredentialsProvider = mock(VaultCredentialsProvider.class);
+        when(vaultCredentialsProvider.getCredentials()).thenReturn(new TestVaultCredentials());
+        vaultClient = new VaultClient(new StaticVaultUrlResolver(vaultUrl), vaultCredentialsProvider,
+                buildHttpClient(1, TimeUnit.SECONDS), new Headers.Builder().build(), countingCodec);
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(200);
+        response.setBody(getResponseJson("secret"));
+        mockWebServer.enqueue(response);
+
+        final VaultResponse vaultResponse = vaultClient.read("app/api-key");
+
+        assertThat(vaultResponse.getData().get("value")).isEqualTo("world");
+        assertThat(reads.get()).isEqualTo(1);
+        assertThat(vaultClient.getJsonCodec()).isSameAs(countingCodec);
+    }
+
+    @Test
+    public void read_keeps_the_lease_metadata_of_the_response() {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(200);
+        response.setBody("{\"lease_id\": \"database/creds/readonly/1234\", \"renewable\": true, " +
+                "\"lease_duration\": 3600, \"data\": {\"username\": \"user\"}}");
+        mockWebServer.enqueue(response);
+
+        final VaultResponse vaultResponse = vaultClient.read("app/db-creds");
+
+        assertThat(vaultResponse.getLeaseId()).isEqualTo("database/creds/readonly/1234");
+        assertThat(vaultResponse.isRenewable()).isTrue();
+        assertThat(vaultResponse.getLeaseDuration()).isEqualTo(3600);
+        assertThat(vaultResponse.getData().get("username")).isEqualTo("user");
+    }
+
     @Test
     public void read_throws_vault_server_exception_if_response_is_not_ok() {
         final MockResponse response = new MockResponse();
@@ -149,6 +222,39 @@ public class VaultClientTest {
         }
     }
 
+    @Test
+    public void read_throws_client_exception_if_response_body_is_malformed() {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(200);
+        response.setBody("{\"data\": {\"value\": ");
+        mockWebServer.enqueue(response);
+
+        try {
+            vaultClient.read("app/api-key");
+            fail("Expected VaultClientException");
+        } catch (VaultClientException e) {
+            assertThat(e).isNotInstanceOf(VaultServerException.class);
+            assertThat(e.getMessage()).contains("200");
+        }
+    }
+
+    @Test
+    public void read_throws_client_exception_if_error_body_is_malformed() {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(500);
+        response.setBody("<html>Internal Server Error</html>");
+        mockWebServer.enqueue(response);
+        vaultClient.setRetryPolicy(VaultRetryPolicy.none());
+
+        try {
+            vaultClient.read("app/api-key");
+            fail("Expected VaultClientException");
+        } catch (VaultClientException e) {
+            assertThat(e).isNotInstanceOf(VaultServerException.class);
+            assertThat(e.getMessage()).contains("500");
+        }
+    }
+
     @Test(expected = VaultClientException.class)
     public void read_throws_runtime_exception_if_unexpected_error_encountered() throws IOException {
         final ServerSocket serverSocket = new ServerSocket(0);
@@ -173,6 +279,22 @@ public class VaultClientTest {
         vaultClient.write("app/api-key", data);
     }
 
+    @Test
+    public void write_sends_data_as_json_body() throws Exception {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(204);
+        mockWebServer.enqueue(response);
+
+        Map<String, String> data = new HashMap<>();
+        data.put("key", "value");
+        vaultClient.write("app/api-key", data);
+
+        final RecordedRequest request = mockWebServer.takeRequest();
+        assertThat(request.getMethod()).isEqualTo("POST");
+        assertThat(request.getHeader("Content-Type")).startsWith("application/json");
+        assertThat(request.getBody().readUtf8()).isEqualTo("{\"key\":\"value\"}");
+    }
+
     @Test
     public void write_throws_vault_server_exception_if_response_is_not_204() {
         final MockResponse response = new MockResponse();
@@ -229,6 +351,29 @@ public class VaultClientTest {
         }
     }
 
+    @Test
+    public void forbidden_response_notifies_credentials_provider_of_rejected_token() {
+        final String vaultUrl = "http://localhost:" + mockWebServer.getPort();
+        final VaultCredentialsProvider vaultCredentialsProvider = mock(VaultCredentialsProvider.class);
+        vaultClient = new VaultClient(new StaticVaultUrlResolver(vaultUrl), vaultCredentialsProvider,
+                new OkHttpClient.Builder().build());
+        when(vaultCredentialsProvider.getCredentials()).thenReturn(new TestVaultCredentials());
+
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(403);
+        response.setBody(getResponseJson("error"));
+        mockWebServer.enqueue(response);
+
+        try {
+            vaultClient.read("app/not-allowed");
+            fail("Expected a VaultServerException");
+        } catch (VaultServerException se) {
+            assertThat(se.getCode()).isEqualTo(403);
+        }
+
+        verify(vaultCredentialsProvider).onTokenRejected("TOKEN");
+    }
+
     @Test(expected = VaultClientException.class)
     public void delete_throws_runtime_exception_if_unexpected_error_encountered() throws IOException {
         final ServerSocket serverSocket = new ServerSocket(0);
@@ -258,6 +403,8 @@ public class VaultClientTest {
         assertThat(actualResponse.getPolicies()).contains("web", "stage");
         assertThat(actualResponse.getDisplayName()).isEqualTo("token-foo");
         assertThat(actualResponse.getNumUses()).isEqualTo(0);
+        assertThat(actualResponse.getTtl()).isEqualTo(2764790);
+        assertThat(actualResponse.isRenewable()).isTrue();
     }
 
     @Test(expected = VaultServerException.class)
@@ -270,6 +417,885 @@ public class VaultClientTest {
         vaultClient.lookupSelf();
     }
 
+    @Test
+    public void renew_self_posts_increment_and_returns_auth_details() throws Exception {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(HttpStatus.OK);
+        response.setBody(getResponseJson("auth"));
+        mockWebServer.enqueue(response);
+
+        final VaultAuthResponse actualResponse = vaultClient.renewSelf(3600);
+
+        assertThat(actualResponse.getLeaseDuration()).isEqualTo(3600);
+        assertThat(actualResponse.isRenewable()).isTrue();
+
+        final RecordedRequest request = mockWebServer.takeRequest();
+        assertThat(request.getMethod()).isEqualTo("POST");
+        assertThat(request.getPath()).isEqualTo("/v1/auth/token/renew-self");
+        assertThat(request.getBody().readUtf8()).isEqualTo("{\"increment\":\"3600s\"}");
+    }
+
+    @Test
+    public void renew_self_without_increment_posts_empty_body() throws Exception {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(HttpStatus.OK);
+        response.setBody(getResponseJson("auth"));
+        mockWebServer.enqueue(response);
+
+        vaultClient.renewSelf();
+
+        assertThat(mockWebServer.takeRequest().getBody().readUtf8()).isEqualTo("{}");
+    }
+
+    @Test
+    public void read_dynamic_returns_data_and_lease_from_secrets_engine_path() throws Exception {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(HttpStatus.OK);
+        response.setBody("{\"lease_id\":\"database/creds/readonly/abc\",\"renewable\":true," +
+                "\"lease_duration\":3600,\"data\":{\"username\":\"user\",\"password\":\"pass\"}}");
+        mockWebServer.enqueue(response);
+
+        final VaultResponse vaultResponse = vaultClient.readDynamic("database/creds/readonly");
+
+        assertThat(vaultResponse.getLeaseId()).isEqualTo("database/creds/readonly/abc");
+        assertThat(vaultResponse.isRenewable()).isTrue();
+        assertThat(vaultResponse.getLeaseDuration()).isEqualTo(3600);
+        assertThat(vaultResponse.getData()).containsEntry("username", "user");
+        assertThat(mockWebServer.takeRequest().getPath()).isEqualTo("/v1/database/creds/readonly");
+    }
+
+    @Test
+    public void renew_lease_puts_lease_id_and_increment() throws Exception {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(HttpStatus.OK);
+        response.setBody("{\"lease_id\":\"lease\",\"renewable\":true,\"lease_duration\":600}");
+        mockWebServer.enqueue(response);
+
+        final VaultResponse renewal = vaultClient.renewLease("lease", 600);
+
+        assertThat(renewal.getLeaseDuration()).isEqualTo(600);
+        final RecordedRequest request = mockWebServer.takeRequest();
+        assertThat(request.getMethod()).isEqualTo("PUT");
+        assertThat(request.getPath()).isEqualTo("/v1/sys/leases/renew");
+        assertThat(request.getBody().readUtf8()).contains("\"lease_id\":\"lease\"", "\"increment\":600");
+    }
+
+    @Test
+    public void revoke_lease_puts_lease_id() throws Exception {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(HttpStatus.NO_CONTENT);
+        mockWebServer.enqueue(response);
+
+        vaultClient.revokeLease("lease");
+
+        final RecordedRequest request = mockWebServer.takeRequest();
+        assertThat(request.getPath()).isEqualTo("/v1/sys/leases/revoke");
+        assertThat(request.getBody().readUtf8()).isEqualTo("{\"lease_id\":\"lease\"}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void renew_lease_throws_error_if_lease_id_is_blank() {
+        vaultClient.renewLease(" ", 0);
+    }
+
+    @Test
+    public void standby_reads_send_reads_to_read_node_and_writes_to_active_node() throws Exception {
+        final MockWebServer standbyServer = new MockWebServer();
+        standbyServer.start();
+        try {
+            final String activeUrl = "http://localhost:" + mockWebServer.getPort();
+            final String standbyUrl = "http://localhost:" + standbyServer.getPort();
+            final UrlResolver resolver = new UrlResolver() {
+                @Override
+                public String resolve() {
+                    return activeUrl;
+                }
+
+                @Override
+                public String resolveForRead() {
+                    return standbyUrl;
+                }
+            };
+            final VaultCredentialsProvider vaultCredentialsProvider = mock(VaultCredentialsProvider.class);
+            when(vaultCredentialsProvider.getCredentials()).thenReturn(new TestVaultCredentials());
+            vaultClient = new VaultClient(resolver, vaultCredentialsProvider, new OkHttpClient.Builder().build());
+            vaultClient.setStandbyReadsEnabled(true);
+
+            standbyServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
+            standbyServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("list")));
+            mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+
+            vaultClient.read("app/api-key");
+            vaultClient.listAsync("app").get(5, TimeUnit.SECONDS);
+            vaultClient.write("app/api-key", new HashMap<>());
+
+            assertThat(standbyServer.getRequestCount()).isEqualTo(2);
+            assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+            assertThat(mockWebServer.takeRequest().getMethod()).isEqualTo("POST");
+        } finally {
+            standbyServer.shutdown();
+        }
+    }
+
+    @Test
+    public void read_retries_5xx_response() {
+        vaultClient.setRetryPolicy(new VaultRetryPolicy().setInitialBackoff(1, TimeUnit.MILLISECONDS));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503).setBody(getResponseJson("error")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
+
+        final VaultResponse vaultResponse = vaultClient.read("app/api-key");
+
+        assertThat(vaultResponse.getData().get("value")).isEqualToIgnoringCase("world");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+        assertThat(vaultClient.getRetryMetrics().getRequestCount()).isEqualTo(1);
+        assertThat(vaultClient.getRetryMetrics().getAttemptCount()).isEqualTo(2);
+        assertThat(vaultClient.getRetryMetrics().getRetryCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void read_retries_io_error() {
+        final VaultCredentialsProvider vaultCredentialsProvider = mock(VaultCredentialsProvider.class);
+        when(vaultCredentialsProvider.getCredentials()).thenReturn(new TestVaultCredentials());
+        vaultClient = new VaultClient(new StaticVaultUrlResolver("http://localhost:" + mockWebServer.getPort()),
+                vaultCredentialsProvider, new OkHttpClient.Builder().retryOnConnectionFailure(false).build());
+        vaultClient.setRetryPolicy(new VaultRetryPolicy().setInitialBackoff(1, TimeUnit.MILLISECONDS));
+        mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
+
+        final VaultResponse vaultResponse = vaultClient.read("app/api-key");
+
+        assertThat(vaultResponse.getData().get("value")).isEqualToIgnoringCase("world");
+        assertThat(vaultClient.getRetryMetrics().getRetryCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void read_retry_goes_to_the_node_the_resolver_failed_over_to() throws Exception {
+        final MockWebServer standbyServer = new MockWebServer();
+        standbyServer.start();
+        try {
+            final String activeUrl = "http://localhost:" + mockWebServer.getPort();
+            final String standbyUrl = "http://localhost:" + standbyServer.getPort();
+            final AtomicBoolean failedOver = new AtomicBoolean();
+            final UrlResolver resolver = new UrlResolver() {
+                @Override
+                public String resolve() {
+                    return failedOver.get() ? standbyUrl : activeUrl;
+                }
+
+                @Override
+                public boolean isCacheable() {
+                    return false;
+                }
+
+                @Override
+                public void onRequestFailed(final String url, final IOException cause) {
+                    failedOver.set(true);
+                }
+            };
+            final VaultCredentialsProvider vaultCredentialsProvider = mock(VaultCredentialsProvider.class);
+            when(vaultCredentialsProvider.getCredentials()).thenReturn(new TestVaultCredentials());
+            vaultClient = new VaultClient(resolver, vaultCredentialsProvider,
+                    new OkHttpClient.Builder().retryOnConnectionFailure(false).build());
+            vaultClient.setRetryPolicy(new VaultRetryPolicy().setInitialBackoff(1, TimeUnit.MILLISECONDS));
+            mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+            standbyServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
+            standbyServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
+
+            assertThat(vaultClient.read("app/api-key").getData().get("value")).isEqualTo("world");
+            failedOver.set(false);
+            mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+            assertThat(vaultClient.readAsync("app/api-key").get(5, TimeUnit.SECONDS).getData().get("value"))
+                    .isEqualTo("world");
+
+            assertThat(standbyServer.getRequestCount()).isEqualTo(2);
+        } finally {
+            standbyServer.shutdown();
+        }
+    }
+
+    @Test
+    public void read_async_retries_429_response() throws Exception {
+        vaultClient.setRetryPolicy(new VaultRetryPolicy().setInitialBackoff(1, TimeUnit.MILLISECONDS));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(429).setBody(getResponseJson("error")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
+
+        final VaultResponse vaultResponse = vaultClient.readAsync("app/api-key").get(5, TimeUnit.SECONDS);
+
+        assertThat(vaultResponse.getData().get("value")).isEqualToIgnoringCase("world");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+        assertThat(vaultClient.getRetryMetrics().getAttemptCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void read_gives_up_after_max_attempts() {
+        vaultClient.setRetryPolicy(new VaultRetryPolicy().setInitialBackoff(1, TimeUnit.MILLISECONDS));
+        for (int i = 0; i < VaultRetryPolicy.DEFAULT_MAX_ATTEMPTS; i++) {
+            mockWebServer.enqueue(new MockResponse().setResponseCode(500).setBody(getResponseJson("error")));
+        }
+
+        try {
+            vaultClient.read("app/api-key");
+            fail("Expected VaultServerException");
+        } catch (VaultServerException se) {
+            assertThat(se.getCode()).isEqualTo(500);
+        }
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(VaultRetryPolicy.DEFAULT_MAX_ATTEMPTS);
+        assertThat(vaultClient.getRetryMetrics().getExhaustedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void read_async_gives_up_after_max_attempts() throws Exception {
+        vaultClient.setRetryPolicy(new VaultRetryPolicy().setMaxAttempts(2).setInitialBackoff(1, TimeUnit.MILLISECONDS));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(502).setBody(getResponseJson("error")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(502).setBody(getResponseJson("error")));
+
+        try {
+            vaultClient.readAsync("app/api-key").get(5, TimeUnit.SECONDS);
+            fail("Expected ExecutionException");
+        } catch (ExecutionException ee) {
+            assertThat(ee.getCause()).isInstanceOf(VaultServerException.class);
+        }
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+        assertThat(vaultClient.getRetryMetrics().getExhaustedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void read_is_not_retried_after_deadline() {
+        vaultClient.setRetryPolicy(new VaultRetryPolicy()
+                .setInitialBackoff(1, TimeUnit.SECONDS)
+                .setJitter(0)
+                .setDeadline(100, TimeUnit.MILLISECONDS));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503).setBody(getResponseJson("error")));
+
+        try {
+            vaultClient.read("app/api-key");
+            fail("Expected VaultServerException");
+        } catch (VaultServerException se) {
+            assertThat(se.getCode()).isEqualTo(503);
+        }
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+        assertThat(vaultClient.getRetryMetrics().getExhaustedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void write_is_not_retried_by_default() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503).setBody(getResponseJson("error")));
+
+        try {
+            vaultClient.write("app/api-key", new HashMap<>());
+            fail("Expected VaultServerException");
+        } catch (VaultServerException se) {
+            assertThat(se.getCode()).isEqualTo(503);
+        }
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+        assertThat(vaultClient.getRetryMetrics().getRetryCount()).isEqualTo(0);
+        assertThat(vaultClient.getRetryMetrics().getExhaustedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void write_is_retried_if_opted_in() {
+        vaultClient.setRetryPolicy(new VaultRetryPolicy()
+                .setInitialBackoff(1, TimeUnit.MILLISECONDS)
+                .setRetryWrites(true));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503).setBody(getResponseJson("error")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+
+        vaultClient.write("app/api-key", new HashMap<>());
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void read_dynamic_is_not_retried_by_default() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503).setBody(getResponseJson("error")));
+
+        try {
+            vaultClient.readDynamic("database/creds/readonly");
+            fail("Expected VaultServerException");
+        } catch (VaultServerException se) {
+            assertThat(se.getCode()).isEqualTo(503);
+        }
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+        assertThat(vaultClient.getRetryMetrics().getRetryCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void read_is_not_retried_on_4xx_response() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(403).setBody(getResponseJson("error")));
+
+        try {
+            vaultClient.read("app/api-key");
+            fail("Expected VaultServerException");
+        } catch (VaultServerException se) {
+            assertThat(se.getCode()).isEqualTo(403);
+        }
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void set_retry_policy_throws_error_if_null() {
+        vaultClient.setRetryPolicy(null);
+    }
+
+    @Test
+    public void open_circuit_breaker_fails_fast_without_sending_requests() throws Exception {
+        vaultClient.setRetryPolicy(VaultRetryPolicy.none());
+        vaultClient.setCircuitBreakerConfig(new VaultCircuitBreakerConfig().setWindowSize(2).setMinimumCalls(2));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500).setBody(getResponseJson("error")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500).setBody(getResponseJson("error")));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                vaultClient.read("app/api-key");
+                fail("Expected VaultServerException");
+            } catch (VaultServerException se) {
+                assertThat(se.getCode()).isEqualTo(500);
+            }
+        }
+
+        try {
+            vaultClient.read("app/api-key");
+            fail("Expected VaultCircuitOpenException");
+        } catch (VaultCircuitOpenException e) {
+            assertThat(e.getEndpoint()).isEqualTo("http://localhost:" + mockWebServer.getPort());
+        }
+
+        try {
+            vaultClient.readAsync("app/api-key").get(5, TimeUnit.SECONDS);
+            fail("Expected ExecutionException");
+        } catch (ExecutionException ee) {
+            assertThat(ee.getCause()).isInstanceOf(VaultCircuitOpenException.class);
+        }
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+        assertThat(vaultClient.getCircuitBreakers().values())
+                .extracting("state").containsExactly(VaultCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void circuit_breakers_are_kept_per_endpoint() throws Exception {
+        final MockWebServer standbyServer = new MockWebServer();
+        standbyServer.start();
+        try {
+            final String activeUrl = "http://localhost:" + mockWebServer.getPort();
+            final String standbyUrl = "http://localhost:" + standbyServer.getPort();
+            final UrlResolver resolver = new UrlResolver() {
+                @Override
+                public String resolve() {
+                    return activeUrl;
+                }
+
+                @Override
+                public String resolveForRead() {
+                    return standbyUrl;
+                }
+            };
+            final VaultCredentialsProvider vaultCredentialsProvider = mock(VaultCredentialsProvider.class);
+            when(vaultCredentialsProvider.getCredentials()).thenReturn(new TestVaultCredentials());
+            vaultClient = new VaultClient(resolver, vaultCredentialsProvider, new OkHttpClient.Builder().build());
+            vaultClient.setStandbyReadsEnabled(true);
+            vaultClient.setRetryPolicy(VaultRetryPolicy.none());
+            vaultClient.setCircuitBreakerConfig(new VaultCircuitBreakerConfig().setWindowSize(1).setMinimumCalls(1));
+
+            standbyServer.enqueue(new MockResponse().setResponseCode(503).setBody(getResponseJson("error")));
+            mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+
+            try {
+                vaultClient.read("app/api-key");
+                fail("Expected VaultServerException");
+            } catch (VaultServerException se) {
+                assertThat(se.getCode()).isEqualTo(503);
+            }
+            vaultClient.write("app/api-key", new HashMap<>());
+
+            assertThat(vaultClient.getCircuitBreakers().get(standbyUrl).getState())
+                    .isEqualTo(VaultCircuitBreaker.State.OPEN);
+            assertThat(vaultClient.getCircuitBreakers().get(activeUrl).getState())
+                    .isEqualTo(VaultCircuitBreaker.State.CLOSED);
+        } finally {
+            standbyServer.shutdown();
+        }
+    }
+
+    @Test
+    public void reads_are_rerouted_when_the_breaker_of_the_resolved_endpoint_is_open() throws Exception {
+        final MockWebServer standbyServer = new MockWebServer();
+        standbyServer.start();
+        try {
+            final String activeUrl = "http://localhost:" + mockWebServer.getPort();
+            final String standbyUrl = "http://localhost:" + standbyServer.getPort();
+            final AtomicBoolean standbyUnavailable = new AtomicBoolean();
+            final UrlResolver resolver = new UrlResolver() {
+                @Override
+                public String resolve() {
+                    return activeUrl;
+                }
+
+                @Override
+                public String resolveForRead() {
+                    return standbyUnavailable.get() ? activeUrl : standbyUrl;
+                }
+
+                @Override
+                public boolean isCacheable() {
+                    return false;
+                }
+
+                @Override
+                public void onEndpointUnavailable(final String url) {
+                    standbyUnavailable.set(url.startsWith(standbyUrl));
+                }
+            };
+            final VaultCredentialsProvider vaultCredentialsProvider = mock(VaultCredentialsProvider.class);
+            when(vaultCredentialsProvider.getCredentials()).thenReturn(new TestVaultCredentials());
+            vaultClient = new VaultClient(resolver, vaultCredentialsProvider, new OkHttpClient.Builder().build());
+            vaultClient.setStandbyReadsEnabled(true);
+            vaultClient.setRetryPolicy(VaultRetryPolicy.none());
+            vaultClient.setCircuitBreakerConfig(new VaultCircuitBreakerConfig().setWindowSize(1).setMinimumCalls(1));
+
+            standbyServer.enqueue(new MockResponse().setResponseCode(503).setBody(getResponseJson("error")));
+            mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
+
+            try {
+                vaultClient.read("app/api-key");
+                fail("Expected VaultServerException");
+            } catch (VaultServerException se) {
+                assertThat(se.getCode()).isEqualTo(503);
+            }
+            final VaultResponse response = vaultClient.read("app/api-key");
+
+            assertThat(response.getData().get("value")).isEqualTo("world");
+            assertThat(standbyUnavailable.get()).isTrue();
+            assertThat(standbyServer.getRequestCount()).isEqualTo(1);
+            assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+        } finally {
+            standbyServer.shutdown();
+        }
+    }
+
+    @Test
+    public void throttled_responses_shrink_the_concurrency_limit() {
+        vaultClient.setRetryPolicy(VaultRetryPolicy.none());
+        assertThat(vaultClient.getConcurrencyLimiter()).isNull();
+        vaultClient.setConcurrencyLimitConfig(new VaultConcurrencyLimitConfig()
+                .setInitialLimit(8)
+                .setBackoffRatio(0.5));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(429).setBody(getResponseJson("error")));
+
+        try {
+            vaultClient.read("app/api-key");
+            fail("Expected VaultServerException");
+        } catch (VaultServerException se) {
+            assertThat(se.getCode()).isEqualTo(429);
+        }
+
+        assertThat(vaultClient.getConcurrencyLimiter().getLimit()).isEqualTo(4);
+        assertThat(vaultClient.getConcurrencyLimiter().getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void requests_over_the_concurrency_limit_are_rejected_once_the_queue_is_full() throws Exception {
+        final CountDownLatch released = new CountDownLatch(1);
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                released.await(5, TimeUnit.SECONDS);
+                return new MockResponse().setResponseCode(200).setBody(getResponseJson("secret"));
+            }
+        });
+        vaultClient.setConcurrencyLimitConfig(new VaultConcurrencyLimitConfig()
+                .setInitialLimit(1)
+                .setMaxQueueSize(1));
+
+        final CompletableFuture<VaultResponse> first = vaultClient.readAsync("app/one");
+        final CompletableFuture<VaultResponse> queued = vaultClient.readAsync("app/two");
+        final CompletableFuture<VaultResponse> rejected = vaultClient.readAsync("app/three");
+
+        try {
+            rejected.get(1, TimeUnit.SECONDS);
+            fail("Expected ExecutionException");
+        } catch (ExecutionException ee) {
+            assertThat(ee.getCause()).isInstanceOf(VaultConcurrencyLimitException.class);
+        }
+        released.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getData().get("value")).isEqualTo("world");
+        assertThat(queued.get(5, TimeUnit.SECONDS).getData().get("value")).isEqualTo("world");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void slow_read_is_hedged_and_the_first_answer_wins() throws Exception {
+        assertThat(vaultClient.getHedgingPolicy()).isNull();
+        vaultClient.setHedgingPolicy(new VaultHedgingPolicy()
+                .setInitialDelay(50, TimeUnit.MILLISECONDS)
+                .setMaxHedgeRatio(1));
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody(getResponseJson("secret"))
+                .setBodyDelay(5, TimeUnit.SECONDS));
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody(getResponseJson("secret")));
+
+        final long start = System.nanoTime();
+        final VaultResponse actualResponse = vaultClient.readAsync("app/api-key").get(2, TimeUnit.SECONDS);
+
+        assertThat(actualResponse.getData().get("value")).isEqualTo("world");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void reads_are_not_hedged_beyond_max_hedge_ratio() {
+        vaultClient.setHedgingPolicy(new VaultHedgingPolicy()
+                .setInitialDelay(10, TimeUnit.MILLISECONDS)
+                .setMaxHedgeRatio(0.5));
+        for (int i = 0; i < 2; i++) {
+            mockWebServer.enqueue(new MockResponse()
+                    .setResponseCode(200)
+                    .setBody(getResponseJson("secret"))
+                    .setBodyDelay(200, TimeUnit.MILLISECONDS));
+        }
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody(getResponseJson("secret")));
+
+        // the first read only earns half a hedge, the second one a whole
+        vaultClient.read("app/api-key");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+        vaultClient.read("app/api-key");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void requests_report_start_and_outcome_to_resolver() throws Exception {
+        final String vaultUrl = "http://localhost:" + mockWebServer.getPort();
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final UrlResolver resolver = new UrlResolver() {
+            @Override
+            public String resolve() {
+                return vaultUrl;
+            }
+
+            @Override
+            public void onRequestStarted(final String url) {
+                events.add("started");
+            }
+
+            @Override
+            public void onRequestCompleted(final String url, final long latencyNanos) {
+                events.add("completed");
+            }
+        };
+        final VaultCredentialsProvider vaultCredentialsProvider = mock(VaultCredentialsProvider.class);
+        when(vaultCredentialsProvider.getCredentials()).thenReturn(new TestVaultCredentials());
+        vaultClient = new VaultClient(resolver, vaultCredentialsProvider, new OkHttpClient.Builder().build());
+
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
+
+        vaultClient.read("app/api-key");
+        vaultClient.readAsync("app/api-key").get(5, TimeUnit.SECONDS);
+
+        assertThat(events).containsExactly("started", "completed", "started", "completed");
+    }
+
+    @Test
+    public void reads_go_to_active_node_if_standby_reads_are_disabled() {
+        assertThat(vaultClient.isStandbyReadsEnabled()).isFalse();
+        assertThat(vaultClient.buildReadUrl(VaultClient.SECRET_PATH_PREFIX, "app/api-key"))
+                .isEqualTo(vaultClient.buildUrl(VaultClient.SECRET_PATH_PREFIX, "app/api-key"));
+    }
+
+    @Test
+    public void read_async_returns_map_of_data_for_specified_path_if_exists() throws Exception {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(200);
+        response.setBody(getResponseJson("secret"));
+        mockWebServer.enqueue(response);
+
+        final VaultResponse vaultResponse = vaultClient.readAsync("app/api-key").get(5, TimeUnit.SECONDS);
+
+        assertThat(vaultResponse.getData().get("value")).isEqualToIgnoringCase("world");
+    }
+
+    @Test
+    public void read_async_completes_exceptionally_if_response_is_not_ok() throws Exception {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(404);
+        response.setBody(getResponseJson("error"));
+        mockWebServer.enqueue(response);
+
+        try {
+            vaultClient.readAsync("app/not-found-path").get(5, TimeUnit.SECONDS);
+            fail("Expected ExecutionException");
+        } catch (ExecutionException ee) {
+            assertThat(ee.getCause()).isInstanceOf(VaultServerException.class);
+            assertThat(((VaultServerException) ee.getCause()).getCode()).isEqualTo(404);
+        }
+    }
+
+    @Test
+    public void read_async_completes_exceptionally_if_unexpected_error_encountered() throws Exception {
+        final ServerSocket serverSocket = new ServerSocket(0);
+        final String vaultUrl = "http://localhost:" + serverSocket.getLocalPort();
+        final VaultCredentialsProvider vaultCredentialsProvider = mock(VaultCredentialsProvider.class);
+        final OkHttpClient httpClient = buildHttpClient(1, TimeUnit.SECONDS);
+        vaultClient = new VaultClient(new StaticVaultUrlResolver(vaultUrl), vaultCredentialsProvider, httpClient);
+
+        when(vaultCredentialsProvider.getCredentials()).thenReturn(new TestVaultCredentials());
+
+        try {
+            vaultClient.readAsync("app/api-key").get(5, TimeUnit.SECONDS);
+            fail("Expected ExecutionException");
+        } catch (ExecutionException ee) {
+            assertThat(ee.getCause()).isInstanceOf(VaultClientException.class);
+        }
+    }
+
+    @Test
+    public void build_url_appends_prefix_path_and_query_to_the_base_url() {
+        final VaultClient client = new VaultClient(new StaticVaultUrlResolver("https://vault.example.com/base/"),
+                mock(VaultCredentialsProvider.class), buildHttpClient(1, TimeUnit.SECONDS));
+
+        assertThat(client.buildUrl(VaultClient.SECRET_PATH_PREFIX, "app/api-key").toString())
+                .isEqualTo("https://vault.example.com/base/v1/secret/app/api-key");
+        assertThat(client.buildUrl(VaultClient.SECRET_PATH_PREFIX, "app/?list=true").toString())
+                .isEqualTo("https://vault.example.com/base/v1/secret/app/?list=true");
+    }
+
+    @Test
+    public void build_url_resolves_the_url_again_only_after_refresh() {
+        final AtomicInteger resolveCount = new AtomicInteger();
+        final VaultClient client = new VaultClient(() -> {
+            resolveCount.incrementAndGet();
+            return "https://vault.example.com";
+        }, mock(VaultCredentialsProvider.class), buildHttpClient(1, TimeUnit.SECONDS));
+
+        client.buildUrl(VaultClient.SECRET_PATH_PREFIX, "app/one");
+        client.buildUrl(VaultClient.SECRET_PATH_PREFIX, "app/two");
+        assertThat(resolveCount.get()).isEqualTo(1);
+
+        client.refreshVaultUrl();
+        client.buildUrl(VaultClient.SECRET_PATH_PREFIX, "app/one");
+        assertThat(resolveCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void read_all_reports_responses_and_failures_per_path() throws Exception {
+        final String secretJson = getResponseJson("secret");
+        final String errorJson = getResponseJson("error");
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().endsWith("/missing")) {
+                    return new MockResponse().setResponseCode(404).setBody(errorJson);
+                }
+                return new MockResponse().setResponseCode(200).setBody(secretJson);
+            }
+        });
+
+        final BulkReadResult result = vaultClient.readAll(Arrays.asList("app/one", "app/two", "app/missing"), 2);
+
+        assertThat(result.isSuccessful()).isFalse();
+        assertThat(result.getResponses()).containsOnlyKeys("app/one", "app/two");
+        assertThat(result.getResponses().get("app/one").getData().get("value")).isEqualTo("world");
+        assertThat(result.getFailures()).containsOnlyKeys("app/missing");
+        assertThat(result.getFailures().get("app/missing")).isInstanceOf(VaultServerException.class);
+        assertThat(((VaultServerException) result.getFailures().get("app/missing")).getCode()).isEqualTo(404);
+    }
+
+    @Test
+    public void read_all_reads_duplicate_paths_once() {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(200);
+        response.setBody(getResponseJson("secret"));
+        mockWebServer.enqueue(response);
+
+        final BulkReadResult result = vaultClient.readAll(Arrays.asList("app/api-key", "app/api-key"));
+
+        assertThat(result.isSuccessful()).isTrue();
+        assertThat(result.getResponses()).containsOnlyKeys("app/api-key");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void read_all_returns_an_empty_result_for_no_paths() {
+        final BulkReadResult result = vaultClient.readAll(new ArrayList<String>());
+
+        assertThat(result.isSuccessful()).isTrue();
+        assertThat(result.getResponses()).isEmpty();
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void read_all_throws_error_if_max_concurrency_is_less_than_one() {
+        vaultClient.readAll(Arrays.asList("app/api-key"), 0);
+    }
+
+    @Test
+    public void list_recursive_returns_leaf_paths_of_all_sub_folders() {
+        final Map<String, String> listings = new HashMap<>();
+        listings.put("/v1/secret/app?list=true", "[\"config\", \"db/\", \"web/\"]");
+        listings.put("/v1/secret/app/db?list=true", "[\"password\", \"replica/\"]");
+        listings.put("/v1/secret/app/db/replica?list=true", "[\"password\"]");
+        listings.put("/v1/secret/app/web?list=true", "[\"cert\"]");
+        mockWebServer.setDispatcher(new TreeDispatcher(listings, getResponseJson("secret")));
+
+        final List<String> paths = vaultClient.listRecursive("app/", 2);
+
+        assertThat(paths).containsExactly("app/config", "app/db/password", "app/db/replica/password", "app/web/cert");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void list_recursive_returns_an_empty_list_if_folder_does_not_exist() {
+        mockWebServer.setDispatcher(new TreeDispatcher(new HashMap<String, String>(), getResponseJson("secret")));
+
+        assertThat(vaultClient.listRecursive("app")).isEmpty();
+    }
+
+    @Test
+    public void list_recursive_throws_error_if_a_sub_folder_can_not_be_listed() {
+        final Map<String, String> listings = new HashMap<>();
+        listings.put("/v1/secret/app?list=true", "[\"config\", \"forbidden/\"]");
+        mockWebServer.setDispatcher(new TreeDispatcher(listings, getResponseJson("secret")));
+
+        try {
+            vaultClient.listRecursive("app", 2);
+            fail("Expected VaultServerException");
+        } catch (VaultServerException vse) {
+            assertThat(vse.getCode()).isEqualTo(403);
+        }
+    }
+
+    @Test
+    public void read_tree_reads_every_leaf_below_path() {
+        final Map<String, String> listings = new HashMap<>();
+        listings.put("/v1/secret/app?list=true", "[\"config\", \"db/\"]");
+        listings.put("/v1/secret/app/db?list=true", "[\"password\"]");
+        mockWebServer.setDispatcher(new TreeDispatcher(listings, getResponseJson("secret")));
+
+        final BulkReadResult result = vaultClient.readTree("app", 3);
+
+        assertThat(result.isSuccessful()).isTrue();
+        assertThat(result.getResponses()).containsOnlyKeys("app/config", "app/db/password");
+        assertThat(result.getResponses().get("app/db/password").getData().get("value")).isEqualTo("world");
+    }
+
+    @Test
+    public void list_async_returns_an_empty_response_if_vault_returns_a_404() throws Exception {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(404);
+        mockWebServer.enqueue(response);
+
+        final VaultListResponse vaultListResponse = vaultClient.listAsync("app/demo").get(5, TimeUnit.SECONDS);
+
+        assertThat(vaultListResponse.getKeys()).isEmpty();
+    }
+
+    @Test
+    public void write_and_delete_async_complete_if_204_returned() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+
+        final Map<String, String> data = new HashMap<>();
+        data.put("key", "value");
+        final CompletableFuture<Void> write = vaultClient.writeAsync("app/api-key", data);
+        final CompletableFuture<Void> delete = vaultClient.deleteAsync("app/other-key");
+
+        CompletableFuture.allOf(write, delete).get(5, TimeUnit.SECONDS);
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void lookup_self_async_returns_client_token_details() throws Exception {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(HttpStatus.OK);
+        response.setBody(getResponseJson("lookup-self"));
+        mockWebServer.enqueue(response);
+
+        final VaultClientTokenResponse actualResponse = vaultClient.lookupSelfAsync().get(5, TimeUnit.SECONDS);
+
+        assertThat(actualResponse.getId()).isEqualTo("ClientToken");
+        assertThat(actualResponse.getPolicies()).contains("web", "stage");
+    }
+
+    @Test
+    public void concurrent_identical_reads_share_a_single_request() throws Exception {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(200);
+        response.setBody(getResponseJson("secret"));
+        response.setBodyDelay(500, TimeUnit.MILLISECONDS);
+        mockWebServer.enqueue(response);
+
+        final List<VaultResponse> responses = readConcurrently(8);
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+        for (VaultResponse vaultResponse : responses) {
+            assertThat(vaultResponse).isSameAs(responses.get(0));
+        }
+    }
+
+    @Test
+    public void concurrent_identical_reads_are_not_shared_if_coalescing_disabled() throws Exception {
+        vaultClient.setRequestCoalescingEnabled(false);
+        for (int i = 0; i < 4; i++) {
+            final MockResponse response = new MockResponse();
+            response.setResponseCode(200);
+            response.setBody(getResponseJson("secret"));
+            response.setBodyDelay(100, TimeUnit.MILLISECONDS);
+            mockWebServer.enqueue(response);
+        }
+
+        readConcurrently(4);
+
+        assertThat(vaultClient.isRequestCoalescingEnabled()).isFalse();
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void concurrent_identical_reads_are_shared_when_the_resolver_picks_a_node_per_request() throws Exception {
+        final String[] urls = {
+                "http://localhost:" + mockWebServer.getPort(),
+                "http://127.0.0.1:" + mockWebServer.getPort()};
+        final AtomicInteger resolveCount = new AtomicInteger();
+        final UrlResolver resolver = new UrlResolver() {
+            @Override
+            public String resolve() {
+                return urls[resolveCount.getAndIncrement() % urls.length];
+            }
+
+            @Override
+            public boolean isCacheable() {
+                return false;
+            }
+        };
+        final VaultCredentialsProvider vaultCredentialsProvider = mock(VaultCredentialsProvider.class);
+        when(vaultCredentialsProvider.getCredentials()).thenReturn(new TestVaultCredentials());
+        vaultClient = new VaultClient(resolver, vaultCredentialsProvider, new OkHttpClient.Builder().build());
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(200);
+        response.setBody(getResponseJson("secret"));
+        response.setBodyDelay(500, TimeUnit.MILLISECONDS);
+        mockWebServer.enqueue(response);
+
+        final List<VaultResponse> responses = readConcurrently(8);
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+        for (VaultResponse vaultResponse : responses) {
+            assertThat(vaultResponse).isSameAs(responses.get(0));
+        }
+    }
+
     @Test
     public void build_request_includes_default_headers() throws IOException {
         final String headerKey = "headerKey";
@@ -287,6 +1313,32 @@ public class VaultClientTest {
         assertThat(result.headers().get(headerKey)).isEqualTo(headerValue);
     }
 
+    private List<VaultResponse> readConcurrently(final int threads) throws Exception {
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final List<Future<VaultResponse>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executorService.submit(new Callable<VaultResponse>() {
+                    @Override
+                    public VaultResponse call() throws Exception {
+                        startLatch.await();
+                        return vaultClient.read("app/api-key");
+                    }
+                }));
+            }
+            startLatch.countDown();
+
+            final List<VaultResponse> responses = new ArrayList<>();
+            for (Future<VaultResponse> future : futures) {
+                responses.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return responses;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     private OkHttpClient buildHttpClient(int timeout, TimeUnit timeoutUnit) {
         return new OkHttpClient.Builder()
                 .connectTimeout(timeout, timeoutUnit)
@@ -307,6 +1359,35 @@ public class VaultClientTest {
         }
     }
 
+    /**
+     * Serves the listed folders, 403 for folders named 'forbidden' and the secret for every other path.
+     */
+    private static class TreeDispatcher extends Dispatcher {
+
+        private final Map<String, String> listings;
+
+        private final String secretJson;
+
+        TreeDispatcher(final Map<String, String> listings, final String secretJson) {
+            this.listings = listings;
+            this.secretJson = secretJson;
+        }
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            final String path = request.getPath();
+            if (path.contains("forbidden")) {
+                return new MockResponse().setResponseCode(403).setBody("{\"errors\":[\"permission denied\"]}");
+            } else if (listings.containsKey(path)) {
+                return new MockResponse().setResponseCode(200)
+                        .setBody("{\"data\":{\"keys\":" + listings.get(path) + "}}");
+            } else if (path.endsWith("?list=true")) {
+                return new MockResponse().setResponseCode(404).setBody("{\"errors\":[]}");
+            }
+            return new MockResponse().setResponseCode(200).setBody(secretJson);
+        }
+    }
+
     private static class TestVaultCredentials implements VaultCredentials {
         @Override
         public String getToken() {
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the VaultConcurrencyLimiter class
+ */
+public class VaultConcurrencyLimiterTest {
+
+    @Test
+    public void requests_over_the_limit_wait_in_the_queue_until_a_permit_is_released() {
+        final VaultConcurrencyLimiter limiter = new VaultConcurrencyLimiter(new VaultConcurrencyLimitConfig()
+                .setInitialLimit(2)
+                .setMaxQueueSize(1));
+
+        assertThat(limiter.acquire().isDone()).isTrue();
+        assertThat(limiter.acquire().isDone()).isTrue();
+        final CompletableFuture<Void> queued = limiter.acquire();
+        final CompletableFuture<Void> rejected = limiter.acquire();
+
+        assertThat(queued.isDone()).isFalse();
+        assertThat(rejected.isCompletedExceptionally()).isTrue();
+        assertThat(limiter.getQueueSize()).isEqualTo(1);
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+
+        limiter.release();
+
+        assertThat(queued.isDone()).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        assertThat(limiter.getQueueSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void queued_request_is_rejected_after_max_queue_wait() throws Exception {
+        final VaultConcurrencyLimiter limiter = new VaultConcurrencyLimiter(new VaultConcurrencyLimitConfig()
+                .setInitialLimit(1)
+                .setMaxQueueWait(50, TimeUnit.MILLISECONDS));
+        limiter.acquire();
+
+        try {
+            limiter.acquire().get(1, TimeUnit.SECONDS);
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(VaultConcurrencyLimitException.class);
+        }
+        assertThat(limiter.getQueueSize()).isEqualTo(0);
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void cancelled_request_leaves_the_queue_without_taking_a_permit() {
+        final VaultConcurrencyLimiter limiter = new VaultConcurrencyLimiter(new VaultConcurrencyLimitConfig()
+                .setInitialLimit(1));
+        limiter.acquire();
+        final CompletableFuture<Void> cancelled = limiter.acquire();
+        final CompletableFuture<Void> queued = limiter.acquire();
+
+        cancelled.cancel(false);
+        limiter.release();
+
+        assertThat(queued.isDone()).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.getQueueSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void limit_grows_while_calls_complete_in_time() {
+        final VaultConcurrencyLimiter limiter = new VaultConcurrencyLimiter(new VaultConcurrencyLimitConfig()
+                .setInitialLimit(2)
+                .setMaxLimit(4));
+
+        for (int round = 0; round < 50; round++) {
+            final int limit = limiter.getLimit();
+            final long startNanos = System.nanoTime();
+            for (int i = 0; i < limit; i++) {
+                limiter.acquire();
+            }
+            for (int i = 0; i < limit; i++) {
+                limiter.onCompleted(startNanos, false);
+            }
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void limit_does_not_grow_while_it_is_not_in_use() {
+        final VaultConcurrencyLimiter limiter = new VaultConcurrencyLimiter(new VaultConcurrencyLimitConfig()
+                .setInitialLimit(10));
+
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire();
+            limiter.onCompleted(System.nanoTime(), false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    public void overload_shrinks_the_limit_once_per_round_of_calls() {
+        final VaultConcurrencyLimiter limiter = new VaultConcurrencyLimiter(new VaultConcurrencyLimitConfig()
+                .setInitialLimit(8)
+                .setBackoffRatio(0.5));
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire();
+        }
+
+        for (int i = 0; i < 3; i++) {
+            limiter.onCompleted(startNanos, true);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        limiter.acquire();
+        limiter.onCompleted(System.nanoTime(), true);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void slow_calls_shrink_the_limit_down_to_the_min_limit() throws Exception {
+        final VaultConcurrencyLimiter limiter = new VaultConcurrencyLimiter(new VaultConcurrencyLimitConfig()
+                .setInitialLimit(4)
+                .setMinLimit(2)
+                .setBackoffRatio(0.5)
+                .setSlowCallDuration(1, TimeUnit.MILLISECONDS));
+
+        for (int i = 0; i < 5; i++) {
+            final long startNanos = System.nanoTime();
+            limiter.acquire();
+            Thread.sleep(5);
+            limiter.onCompleted(startNanos, false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_error_if_min_limit_is_above_max_limit() {
+        new VaultConcurrencyLimiter(new VaultConcurrencyLimitConfig().setMinLimit(10).setMaxLimit(5));
+    }
+}
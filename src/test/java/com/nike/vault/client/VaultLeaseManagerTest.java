@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.model.VaultResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the VaultLeaseManager class
+ */
+public class VaultLeaseManagerTest {
+
+    private VaultClient vaultClient;
+
+    private VaultLeaseListener listener;
+
+    private VaultLeaseManager leaseManager;
+
+    @Before
+    public void setup() {
+        vaultClient = mock(VaultClient.class);
+        listener = mock(VaultLeaseListener.class);
+        leaseManager = new VaultLeaseManager(vaultClient, mock(ScheduledExecutorService.class)).addListener(listener);
+    }
+
+    @Test
+    public void read_returns_dynamic_secret_and_tracks_its_lease() {
+        final VaultResponse response = lease("database/creds/readonly/abc", 3600);
+        when(vaultClient.readDynamic("database/creds/readonly")).thenReturn(response);
+
+        assertThat(leaseManager.read("database/creds/readonly")).isSameAs(response);
+        assertThat(leaseManager.getLeaseCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void manage_ignores_responses_without_renewable_lease() {
+        assertThat(leaseManager.manage(new VaultResponse())).isFalse();
+        assertThat(leaseManager.manage(lease("lease", 3600).setRenewable(false))).isFalse();
+        assertThat(leaseManager.getLeaseCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void due_leases_are_renewed_in_one_batch() {
+        final VaultResponse renewal = lease("ignored", 3600);
+        when(vaultClient.renewLeaseAsync(anyString(), eq(0))).thenReturn(CompletableFuture.completedFuture(renewal));
+        leaseManager.manage(lease("short", 10));
+        leaseManager.manage(lease("medium", 20));
+        leaseManager.manage(lease("long", 3600));
+
+        leaseManager.renewDueLeases(System.nanoTime() + TimeUnit.SECONDS.toNanos(15));
+
+        verify(vaultClient).renewLeaseAsync("short", 0);
+        verify(vaultClient).renewLeaseAsync("medium", 0);
+        verify(vaultClient, never()).renewLeaseAsync("long", 0);
+        verify(listener).onRenewed("short", renewal);
+        assertThat(leaseManager.getLeaseCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void renewed_lease_is_rescheduled_from_new_lease_duration() {
+        when(vaultClient.renewLeaseAsync("lease", 0))
+                .thenReturn(CompletableFuture.completedFuture(lease("lease", 3600)));
+        leaseManager.manage(lease("lease", 10));
+
+        final long now = System.nanoTime();
+        leaseManager.renewDueLeases(now + TimeUnit.SECONDS.toNanos(6));
+        leaseManager.renewDueLeases(now + TimeUnit.SECONDS.toNanos(60));
+
+        verify(vaultClient, times(1)).renewLeaseAsync("lease", 0);
+    }
+
+    @Test
+    public void failed_renewal_is_retried_before_expiry() {
+        final VaultClientException cause = new VaultClientException("Connection refused");
+        when(vaultClient.renewLeaseAsync("lease", 0)).thenReturn(Futures.failed(cause));
+        leaseManager.setRetryInterval(1, TimeUnit.SECONDS);
+        leaseManager.manage(lease("lease", 3600));
+
+        final long now = System.nanoTime();
+        leaseManager.renewDueLeases(now + TimeUnit.SECONDS.toNanos(1800));
+        leaseManager.renewDueLeases(now + TimeUnit.SECONDS.toNanos(1802));
+
+        verify(listener, times(2)).onRenewalFailed("lease", cause, true);
+        assertThat(leaseManager.getLeaseCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void throttled_renewal_is_retried_before_expiry() {
+        final VaultServerException cause = new VaultServerException(429, Collections.singletonList("rate limited"));
+        when(vaultClient.renewLeaseAsync("lease", 0)).thenReturn(Futures.failed(cause));
+        leaseManager.setRetryInterval(1, TimeUnit.SECONDS);
+        leaseManager.manage(lease("lease", 3600));
+
+        leaseManager.renewDueLeases(System.nanoTime() + TimeUnit.SECONDS.toNanos(1800));
+
+        verify(listener).onRenewalFailed("lease", cause, true);
+        assertThat(leaseManager.getLeaseCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void lease_rejected_by_vault_is_no_longer_tracked() {
+        final VaultServerException cause = new VaultServerException(400, Collections.singletonList("invalid lease"));
+        when(vaultClient.renewLeaseAsync("lease", 0)).thenReturn(Futures.failed(cause));
+        leaseManager.manage(lease("lease", 10));
+
+        leaseManager.renewDueLeases(System.nanoTime() + TimeUnit.SECONDS.toNanos(6));
+
+        verify(listener).onRenewalFailed("lease", cause, false);
+        assertThat(leaseManager.getLeaseCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void released_lease_is_not_renewed() {
+        leaseManager.manage(lease("lease", 10));
+
+        leaseManager.release("lease");
+        leaseManager.renewDueLeases(System.nanoTime() + TimeUnit.SECONDS.toNanos(60));
+
+        verify(vaultClient, never()).renewLeaseAsync(anyString(), anyInt());
+        assertThat(leaseManager.getLeaseCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void revoke_releases_and_revokes_lease() {
+        leaseManager.manage(lease("lease", 10));
+
+        leaseManager.revoke("lease");
+
+        verify(vaultClient).revokeLease("lease");
+        assertThat(leaseManager.getLeaseCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void start_schedules_tick() {
+        final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        new VaultLeaseManager(vaultClient, scheduler).setTickInterval(5, TimeUnit.SECONDS).start();
+
+        verify(scheduler).scheduleWithFixedDelay(any(Runnable.class), eq(5000L), eq(5000L),
+                eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setMaxConcurrency_throws_error_if_less_than_one() {
+        leaseManager.setMaxConcurrency(0);
+    }
+
+    private static VaultResponse lease(final String leaseId, final int leaseDuration) {
+        return new VaultResponse().setLeaseId(leaseId).setRenewable(true).setLeaseDuration(leaseDuration);
+    }
+}
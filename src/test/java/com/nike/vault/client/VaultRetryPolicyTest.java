@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.http.HttpMethod;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the VaultRetryPolicy class
+ */
+public class VaultRetryPolicyTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void backoff_grows_exponentially_up_to_max_backoff() {
+        final VaultRetryPolicy policy = new VaultRetryPolicy()
+                .setInitialBackoff(100, TimeUnit.MILLISECONDS)
+                .setMaxBackoff(300, TimeUnit.MILLISECONDS)
+                .setJitter(0);
+
+        assertThat(policy.getBackoffNanos(1)).isEqualTo(100 * MILLIS);
+        assertThat(policy.getBackoffNanos(2)).isEqualTo(200 * MILLIS);
+        assertThat(policy.getBackoffNanos(3)).isEqualTo(300 * MILLIS);
+        assertThat(policy.getBackoffNanos(30)).isEqualTo(300 * MILLIS);
+    }
+
+    @Test
+    public void jitter_shortens_backoff_by_up_to_the_jitter_factor() {
+        final VaultRetryPolicy policy = new VaultRetryPolicy()
+                .setInitialBackoff(100, TimeUnit.MILLISECONDS)
+                .setJitter(0.5);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.getBackoffNanos(1)).isBetween(50 * MILLIS, 100 * MILLIS);
+        }
+    }
+
+    @Test
+    public void only_get_requests_are_retried_by_default() {
+        final VaultRetryPolicy policy = new VaultRetryPolicy();
+
+        assertThat(policy.isRetryableMethod(HttpMethod.GET)).isTrue();
+        assertThat(policy.isRetryableMethod(HttpMethod.HEAD)).isTrue();
+        assertThat(policy.isRetryableMethod(HttpMethod.POST)).isFalse();
+        assertThat(policy.isRetryableMethod(HttpMethod.PUT)).isFalse();
+        assertThat(policy.isRetryableMethod(HttpMethod.DELETE)).isFalse();
+    }
+
+    @Test
+    public void writes_are_retried_if_opted_in() {
+        final VaultRetryPolicy policy = new VaultRetryPolicy().setRetryWrites(true);
+
+        assertThat(policy.isRetryableMethod(HttpMethod.POST)).isTrue();
+        assertThat(policy.isRetryableMethod(HttpMethod.DELETE)).isTrue();
+    }
+
+    @Test
+    public void requests_that_are_not_idempotent_are_only_retried_if_writes_are() {
+        assertThat(new VaultRetryPolicy().isRetryableRequest(HttpMethod.GET, true)).isTrue();
+        assertThat(new VaultRetryPolicy().isRetryableRequest(HttpMethod.GET, false)).isFalse();
+        assertThat(new VaultRetryPolicy().setRetryWrites(true).isRetryableRequest(HttpMethod.GET, false)).isTrue();
+    }
+
+    @Test
+    public void throttling_and_server_errors_are_retryable() {
+        final VaultRetryPolicy policy = new VaultRetryPolicy();
+
+        assertThat(policy.isRetryableStatus(429)).isTrue();
+        assertThat(policy.isRetryableStatus(500)).isTrue();
+        assertThat(policy.isRetryableStatus(502)).isTrue();
+        assertThat(policy.isRetryableStatus(503)).isTrue();
+        assertThat(policy.isRetryableStatus(504)).isTrue();
+        assertThat(policy.isRetryableStatus(200)).isFalse();
+        assertThat(policy.isRetryableStatus(403)).isFalse();
+        assertThat(policy.isRetryableStatus(404)).isFalse();
+        assertThat(policy.isRetryableStatus(501)).isFalse();
+    }
+
+    @Test
+    public void another_attempt_is_allowed_within_max_attempts_and_deadline() {
+        final VaultRetryPolicy policy = new VaultRetryPolicy()
+                .setMaxAttempts(3)
+                .setDeadline(1, TimeUnit.SECONDS);
+
+        assertThat(policy.allowsAnotherAttempt(1, 500 * MILLIS)).isTrue();
+        assertThat(policy.allowsAnotherAttempt(2, 500 * MILLIS)).isTrue();
+        assertThat(policy.allowsAnotherAttempt(3, 500 * MILLIS)).isFalse();
+        assertThat(policy.allowsAnotherAttempt(1, 1500 * MILLIS)).isFalse();
+    }
+
+    @Test
+    public void zero_deadline_only_limits_attempts() {
+        final VaultRetryPolicy policy = new VaultRetryPolicy().setDeadline(0, TimeUnit.SECONDS);
+
+        assertThat(policy.allowsAnotherAttempt(1, TimeUnit.HOURS.toNanos(1))).isTrue();
+    }
+
+    @Test
+    public void none_allows_a_single_attempt() {
+        assertThat(VaultRetryPolicy.none().getMaxAttempts()).isEqualTo(1);
+        assertThat(VaultRetryPolicy.none().allowsAnotherAttempt(1, 0)).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void set_max_attempts_throws_error_if_less_than_one() {
+        new VaultRetryPolicy().setMaxAttempts(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void set_jitter_throws_error_if_above_one() {
+        new VaultRetryPolicy().setJitter(1.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void set_backoff_multiplier_throws_error_if_below_one() {
+        new VaultRetryPolicy().setBackoffMultiplier(0.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void set_deadline_throws_error_if_negative() {
+        new VaultRetryPolicy().setDeadline(-1, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.model.VaultAuthResponse;
+import com.nike.vault.client.model.VaultClientTokenResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the VaultTokenRenewer class
+ */
+public class VaultTokenRenewerTest {
+
+    private VaultClient vaultClient;
+
+    private VaultTokenRenewalListener listener;
+
+    private ScheduledFuture<?> scheduledFuture;
+
+    private List<Runnable> scheduledTasks;
+
+    private List<Long> scheduledDelays;
+
+    private VaultTokenRenewer renewer;
+
+    @Before
+    public void setup() {
+        vaultClient = mock(VaultClient.class);
+        listener = mock(VaultTokenRenewalListener.class);
+        scheduledFuture = mock(ScheduledFuture.class);
+        scheduledTasks = new ArrayList<>();
+        scheduledDelays = new ArrayList<>();
+
+        final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        doAnswer(invocation -> {
+            scheduledTasks.add((Runnable) invocation.getArguments()[0]);
+            scheduledDelays.add((Long) invocation.getArguments()[1]);
+            return scheduledFuture;
+        }).when(scheduler).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+
+        renewer = new VaultTokenRenewer(vaultClient, scheduler).addListener(listener);
+    }
+
+    @Test
+    public void start_looks_up_token_and_schedules_renewal_at_fraction_of_ttl() {
+        when(vaultClient.lookupSelf()).thenReturn(new VaultClientTokenResponse().setRenewable(true).setTtl(3600));
+
+        renewer.start();
+        runLastTask();
+
+        assertThat(scheduledDelays).containsExactly(0L, 1_800_000L);
+        assertThat(renewer.getRemainingTtlMillis()).isGreaterThan(3_500_000L);
+    }
+
+    @Test
+    public void renewal_notifies_listeners_and_schedules_next_renewal_from_lease_duration() {
+        final VaultAuthResponse auth = new VaultAuthResponse().setRenewable(true).setLeaseDuration(600);
+        when(vaultClient.lookupSelf()).thenReturn(new VaultClientTokenResponse().setRenewable(true).setTtl(3600));
+        when(vaultClient.renewSelf(0)).thenReturn(auth);
+        renewer.setRenewFraction(0.75);
+
+        renewer.start();
+        runLastTask();
+        runLastTask();
+
+        verify(listener).onRenewed(auth);
+        assertThat(scheduledDelays).containsExactly(0L, 2_700_000L, 450_000L);
+    }
+
+    @Test
+    public void token_that_is_not_renewable_is_not_renewed() {
+        when(vaultClient.lookupSelf()).thenReturn(new VaultClientTokenResponse().setRenewable(false).setTtl(3600));
+
+        renewer.start();
+        runLastTask();
+
+        assertThat(scheduledDelays).containsExactly(0L);
+        verify(vaultClient, never()).renewSelf(0);
+    }
+
+    @Test
+    public void failed_renewal_notifies_listeners_and_retries() {
+        final VaultClientException cause = new VaultClientException("Connection refused");
+        when(vaultClient.lookupSelf()).thenReturn(new VaultClientTokenResponse().setRenewable(true).setTtl(3600));
+        when(vaultClient.renewSelf(0)).thenThrow(cause);
+
+        renewer.start();
+        runLastTask();
+        runLastTask();
+
+        verify(listener).onRenewalFailed(cause, true);
+        assertThat(scheduledDelays).containsExactly(0L, 1_800_000L, VaultTokenRenewer.DEFAULT_RETRY_INTERVAL_MILLIS);
+    }
+
+    @Test
+    public void rejected_token_stops_renewer() {
+        final VaultServerException cause = new VaultServerException(403, Collections.singletonList("permission denied"));
+        when(vaultClient.lookupSelf()).thenThrow(cause);
+
+        renewer.start();
+        runLastTask();
+
+        verify(listener).onRenewalFailed(cause, false);
+        assertThat(scheduledDelays).containsExactly(0L);
+    }
+
+    @Test
+    public void close_cancels_scheduled_task_and_stops_scheduling() {
+        when(vaultClient.lookupSelf()).thenReturn(new VaultClientTokenResponse().setRenewable(true).setTtl(3600));
+
+        renewer.start();
+        renewer.close();
+        runLastTask();
+
+        verify(scheduledFuture).cancel(false);
+        assertThat(scheduledDelays).containsExactly(0L);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void start_throws_error_if_already_started() {
+        renewer.start();
+        renewer.start();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setRenewFraction_throws_error_if_not_between_zero_and_one() {
+        renewer.setRenewFraction(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_error_if_no_client() {
+        new VaultTokenRenewer(null, mock(ScheduledExecutorService.class));
+    }
+
+    private void runLastTask() {
+        scheduledTasks.get(scheduledTasks.size() - 1).run();
+    }
+}
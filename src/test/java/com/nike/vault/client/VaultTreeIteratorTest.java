@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client;
+
+import com.nike.vault.client.model.VaultListResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the VaultTreeIterator class
+ */
+public class VaultTreeIteratorTest {
+
+    private VaultClient vaultClient;
+
+    @Before
+    public void setup() {
+        vaultClient = mock(VaultClient.class);
+        stubListing("app", "config", "db/", "web/");
+        stubListing("app/db", "password", "replica/");
+        stubListing("app/db/replica", "password");
+        stubListing("app/web", "cert");
+    }
+
+    @Test
+    public void iterator_returns_leaves_depth_first() {
+        final List<String> paths = new ArrayList<>();
+        final Iterator<String> iterator = new VaultTreeIterator(vaultClient, "/app/", 2);
+        while (iterator.hasNext()) {
+            paths.add(iterator.next());
+        }
+
+        assertThat(paths).containsExactly("app/config", "app/db/password", "app/db/replica/password", "app/web/cert");
+    }
+
+    @Test
+    public void iterator_lists_folders_only_when_reached_without_prefetch() {
+        final Iterator<String> iterator = new VaultTreeIterator(vaultClient, "app", 0);
+
+        assertThat(iterator.next()).isEqualTo("app/config");
+        verify(vaultClient).listAsync("app");
+        verify(vaultClient, never()).listAsync("app/db");
+
+        assertThat(iterator.next()).isEqualTo("app/db/password");
+        verify(vaultClient).listAsync("app/db");
+        verify(vaultClient, never()).listAsync("app/web");
+    }
+
+    @Test
+    public void iterator_prefetches_pending_folders() {
+        final Iterator<String> iterator = new VaultTreeIterator(vaultClient, "app", 2);
+
+        assertThat(iterator.next()).isEqualTo("app/config");
+        verify(vaultClient).listAsync("app/db");
+        verify(vaultClient).listAsync("app/web");
+        verify(vaultClient, never()).listAsync("app/db/replica");
+    }
+
+    @Test
+    public void iterator_throws_list_errors_from_has_next() {
+        final CompletableFuture<VaultListResponse> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new VaultServerException(403, Arrays.asList("permission denied")));
+        when(vaultClient.listAsync("app/web")).thenReturn(failed);
+
+        final Iterator<String> iterator = new VaultTreeIterator(vaultClient, "app", 2);
+        for (int i = 0; i < 3; i++) {
+            iterator.next();
+        }
+
+        try {
+            iterator.hasNext();
+            fail("Expected VaultServerException");
+        } catch (VaultServerException vse) {
+            assertThat(vse.getCode()).isEqualTo(403);
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void next_throws_error_if_folder_is_empty() {
+        when(vaultClient.listAsync("empty")).thenReturn(CompletableFuture.completedFuture(new VaultListResponse()));
+
+        new VaultTreeIterator(vaultClient, "empty", 2).next();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_error_if_prefetch_size_is_negative() {
+        new VaultTreeIterator(vaultClient, "app", -1);
+    }
+
+    private void stubListing(final String path, final String... keys) {
+        final VaultListResponse response = new VaultListResponse().setKeys(Arrays.asList(keys));
+        when(vaultClient.listAsync(path)).thenReturn(CompletableFuture.completedFuture(response));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.auth;
+
+import com.nike.vault.client.VaultClientException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the CachingVaultCredentialsProvider class
+ */
+public class CachingVaultCredentialsProviderTest {
+
+    private VaultCredentialsProvider delegate;
+
+    private ScheduledExecutorService scheduler;
+
+    private CachingVaultCredentialsProvider credentialsProvider;
+
+    private Runnable scheduledRefresh;
+
+    @Before
+    public void setup() {
+        delegate = mock(VaultCredentialsProvider.class);
+        scheduler = mock(ScheduledExecutorService.class);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(scheduler).execute(any(Runnable.class));
+
+        credentialsProvider = new CachingVaultCredentialsProvider(delegate, 1, TimeUnit.MINUTES, scheduler);
+
+        final ArgumentCaptor<Runnable> refreshCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).scheduleWithFixedDelay(refreshCaptor.capture(), eq(1L), eq(1L), eq(TimeUnit.MINUTES));
+        scheduledRefresh = refreshCaptor.getValue();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_error_if_no_provider() {
+        new CachingVaultCredentialsProvider(null, 1, TimeUnit.MINUTES, scheduler);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_error_if_interval_not_positive() {
+        new CachingVaultCredentialsProvider(delegate, 0, TimeUnit.MINUTES, scheduler);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_error_if_no_scheduler() {
+        new CachingVaultCredentialsProvider(delegate, 1, TimeUnit.MINUTES, null);
+    }
+
+    @Test
+    public void get_credentials_loads_once_and_returns_cached_credentials() {
+        when(delegate.getCredentials()).thenReturn(new TokenVaultCredentials("TOKEN"));
+
+        assertThat(credentialsProvider.getCredentials().getToken()).isEqualTo("TOKEN");
+        assertThat(credentialsProvider.getCredentials().getToken()).isEqualTo("TOKEN");
+
+        verify(delegate, times(1)).getCredentials();
+    }
+
+    @Test(expected = VaultClientException.class)
+    public void get_credentials_throws_error_if_provider_returns_no_token() {
+        when(delegate.getCredentials()).thenReturn(null);
+
+        credentialsProvider.getCredentials();
+    }
+
+    @Test
+    public void scheduled_refresh_replaces_credentials() {
+        when(delegate.getCredentials())
+                .thenReturn(new TokenVaultCredentials("OLD"))
+                .thenReturn(new TokenVaultCredentials("NEW"));
+        credentialsProvider.getCredentials();
+
+        scheduledRefresh.run();
+
+        assertThat(credentialsProvider.getCredentials().getToken()).isEqualTo("NEW");
+    }
+
+    @Test
+    public void failed_refresh_keeps_current_credentials() {
+        when(delegate.getCredentials())
+                .thenReturn(new TokenVaultCredentials("OLD"))
+                .thenThrow(new VaultClientException("Unavailable"));
+        credentialsProvider.getCredentials();
+
+        scheduledRefresh.run();
+
+        assertThat(credentialsProvider.getCredentials().getToken()).isEqualTo("OLD");
+    }
+
+    @Test
+    public void rejected_current_token_triggers_refresh_once_within_backoff() {
+        when(delegate.getCredentials())
+                .thenReturn(new TokenVaultCredentials("OLD"))
+                .thenReturn(new TokenVaultCredentials("NEW"));
+        credentialsProvider.getCredentials();
+
+        credentialsProvider.onTokenRejected("OLD");
+        credentialsProvider.onTokenRejected("NEW");
+
+        assertThat(credentialsProvider.getCredentials().getToken()).isEqualTo("NEW");
+        verify(delegate, times(2)).getCredentials();
+    }
+
+    @Test
+    public void rejected_stale_token_does_not_trigger_refresh() {
+        when(delegate.getCredentials()).thenReturn(new TokenVaultCredentials("CURRENT"));
+        credentialsProvider.getCredentials();
+
+        credentialsProvider.onTokenRejected("STALE");
+
+        verify(scheduler, times(0)).execute(any(Runnable.class));
+        verify(delegate, times(1)).getCredentials();
+    }
+
+    @Test
+    public void close_cancels_scheduled_refresh() {
+        final ScheduledExecutorService otherScheduler = mock(ScheduledExecutorService.class);
+        final ScheduledFuture<?> future = mock(ScheduledFuture.class);
+        doReturn(future).when(otherScheduler)
+                .scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class));
+
+        new CachingVaultCredentialsProvider(delegate, 1, TimeUnit.MINUTES, otherScheduler).close();
+
+        verify(future).cancel(false);
+    }
+}
@@ -26,6 +26,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -114,6 +115,60 @@ public class VaultCredentialsProviderChainTest {
         assertThat(credentials.getToken()).isEqualTo(TOKEN);
     }
 
+    @Test
+    public void getCredentials_re_evaluates_chain_when_last_used_provider_fails() {
+        when(credentialsProviderOne.getCredentials())
+                .thenReturn(new TestVaultCredentials())
+                .thenThrow(new VaultClientException(""));
+        when(credentialsProviderTwo.getCredentials()).thenReturn(new TestVaultCredentials());
+
+        credentialsProviderChain.getCredentials();
+        VaultCredentials credentials = credentialsProviderChain.getCredentials();
+        credentialsProviderChain.getCredentials();
+
+        assertThat(credentials.getToken()).isEqualTo(TOKEN);
+        verify(credentialsProviderOne, times(2)).getCredentials();
+        verify(credentialsProviderTwo, times(2)).getCredentials();
+    }
+
+    @Test
+    public void getCredentials_re_evaluates_chain_when_last_used_provider_returns_blank_token() {
+        when(credentialsProviderOne.getCredentials()).thenReturn(new TestVaultCredentials()).thenReturn(null);
+        when(credentialsProviderTwo.getCredentials()).thenReturn(new TestVaultCredentials());
+
+        credentialsProviderChain.getCredentials();
+        VaultCredentials credentials = credentialsProviderChain.getCredentials();
+
+        assertThat(credentials.getToken()).isEqualTo(TOKEN);
+        verify(credentialsProviderTwo, times(1)).getCredentials();
+    }
+
+    @Test
+    public void reset_walks_full_chain_on_next_call() {
+        when(credentialsProviderOne.getCredentials()).thenThrow(new VaultClientException(""));
+        when(credentialsProviderTwo.getCredentials()).thenReturn(new TestVaultCredentials());
+
+        credentialsProviderChain.getCredentials();
+        credentialsProviderChain.reset();
+        credentialsProviderChain.getCredentials();
+
+        verify(credentialsProviderOne, times(2)).getCredentials();
+        verify(credentialsProviderTwo, times(2)).getCredentials();
+    }
+
+    @Test
+    public void onTokenRejected_is_passed_to_last_used_provider() {
+        when(credentialsProviderOne.getCredentials()).thenThrow(new VaultClientException(""));
+        when(credentialsProviderTwo.getCredentials()).thenReturn(new TestVaultCredentials());
+
+        credentialsProviderChain.onTokenRejected(TOKEN);
+        credentialsProviderChain.getCredentials();
+        credentialsProviderChain.onTokenRejected(TOKEN);
+
+        verify(credentialsProviderOne, never()).onTokenRejected(TOKEN);
+        verify(credentialsProviderTwo, times(1)).onTokenRejected(TOKEN);
+    }
+
     @Test
     public void isReuseLastProvider_returns_if_reuse_last_provider_is_enabled() {
         assertThat(credentialsProviderChain.isReuseLastProvider()).isTrue();
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import com.nike.vault.client.model.VaultResponse;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the GsonJsonCodec class
+ */
+public class GsonJsonCodecTest {
+
+    private final GsonJsonCodec jsonCodec = new GsonJsonCodec();
+
+    @Test
+    public void read_binds_document_with_snake_case_names() {
+        final VaultResponse response = jsonCodec.read(
+                new StringReader("{\"lease_duration\": 60, \"data\": {\"value\": \"world\"}}\n"), VaultResponse.class);
+
+        assertThat(response.getLeaseDuration()).isEqualTo(60);
+        assertThat(response.getData()).containsEntry("value", "world");
+    }
+
+    @Test
+    public void read_returns_null_for_empty_document() {
+        final VaultResponse response = jsonCodec.read(new StringReader(""), VaultResponse.class);
+
+        assertThat(response).isNull();
+    }
+
+    @Test(expected = JsonCodecException.class)
+    public void read_throws_error_if_document_is_malformed() {
+        jsonCodec.read(new StringReader("{\"data\": {\"value\": "), VaultResponse.class);
+    }
+
+    @Test(expected = JsonCodecException.class)
+    public void read_throws_error_if_document_is_followed_by_more_data() {
+        jsonCodec.read(new StringReader("{\"data\": {}} {\"data\": {}}"), VaultResponse.class);
+    }
+
+    @Test
+    public void write_writes_document_with_snake_case_names() throws Exception {
+        final StringWriter writer = new StringWriter();
+
+        jsonCodec.write(new VaultResponse().setLeaseDuration(60).setData(Collections.singletonMap("k", "v")), writer);
+
+        assertThat(writer.toString()).isEqualTo("{\"renewable\":false,\"lease_duration\":60,\"data\":{\"k\":\"v\"}}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_error_if_gson_is_null() {
+        new GsonJsonCodec(null);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2016 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.vault.client.json;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import com.nike.vault.client.model.VaultAuthResponse;
+import com.nike.vault.client.model.VaultClientTokenResponse;
+import com.nike.vault.client.model.VaultEnableAuditBackendRequest;
+import com.nike.vault.client.model.VaultEnvelope;
+import com.nike.vault.client.model.VaultHealthResponse;
+import com.nike.vault.client.model.VaultInitResponse;
+import com.nike.vault.client.model.VaultListResponse;
+import com.nike.vault.client.model.VaultPolicy;
+import com.nike.vault.client.model.VaultResponse;
+import com.nike.vault.client.model.VaultRevokeTokenRequest;
+import com.nike.vault.client.model.VaultSealStatusResponse;
+import com.nike.vault.client.model.VaultTokenAuthRequest;
+import com.nike.vault.client.model.VaultUnsealRequest;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that the VaultTypeAdapterFactory adapters match Gson's reflective binding
+ */
+public class VaultTypeAdapterFactoryTest {
+
+    private final Gson reflectiveGson = new GsonBuilder()
+            .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+            .disableHtmlEscaping()
+            .create();
+
+    private final Gson gson = new GsonBuilder()
+            .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+            .registerTypeAdapterFactory(new VaultTypeAdapterFactory())
+            .disableHtmlEscaping()
+            .create();
+
+    private final JsonParser jsonParser = new JsonParser();
+
+    @Test
+    public void factory_provides_adapters_for_model_classes() {
+        assertThat(gson.getAdapter(VaultResponse.class)).isInstanceOf(VaultResponseTypeAdapter.class);
+        assertThat(gson.getAdapter(VaultTokenAuthRequest.class)).isInstanceOf(VaultTokenAuthRequestTypeAdapter.class);
+        assertThat(gson.getAdapter(new TypeToken<VaultEnvelope<VaultListResponse>>() {
+        })).isInstanceOf(VaultEnvelopeTypeAdapter.class);
+        assertThat(new VaultTypeAdapterFactory().create(gson, TypeToken.get(String.class))).isNull();
+    }
+
+    @Test
+    public void responses_are_read_like_reflective_binding() {
+        assertReadMatches("{\"lease_id\":\"\",\"renewable\":true,\"lease_duration\":60,\"data\":{\"value\":\"world\"," +
+                "\"number\":1,\"flag\":false},\"auth\":null,\"unknown\":[1,{\"a\":2}]}", VaultResponse.class);
+        assertReadMatches("{\"keys\":[\"foo\",\"foo/\"]}", VaultListResponse.class);
+        assertReadMatches("{}", VaultListResponse.class);
+        assertReadMatches("{\"id\":\"ABCD\",\"policies\":[\"web\",\"stage\"],\"path\":\"auth/token/create\"," +
+                "\"meta\":{\"user\":\"armon\"},\"display_name\":\"token\",\"num_uses\":0," +
+                "\"creation_ttl\":3600,\"ttl\":1800,\"explicit_max_ttl\":0,\"renewable\":true}",
+                VaultClientTokenResponse.class);
+        assertReadMatches("{\"client_token\":\"ABCD\",\"policies\":[\"web\"],\"metadata\":null," +
+                "\"lease_duration\":3600,\"renewable\":true}", VaultAuthResponse.class);
+        assertReadMatches("{\"initialized\":true,\"sealed\":false,\"standby\":null}", VaultHealthResponse.class);
+        assertReadMatches("{\"initialized\":true,\"sealed\":false,\"standby\":true,\"performance_standby\":true}",
+                VaultHealthResponse.class);
+        assertReadMatches("{\"sealed\":true,\"t\":3,\"n\":\"5\",\"progress\":1}", VaultSealStatusResponse.class);
+        assertReadMatches("{\"keys\":[\"a\",\"b\"],\"root_token\":\"root\"}", VaultInitResponse.class);
+        assertReadMatches("{\"rules\":\"path \\\"secret/*\\\" {}\"}", VaultPolicy.class);
+    }
+
+    @Test
+    public void envelopes_are_read_like_reflective_binding() {
+        final String json = "{\"request_id\":\"1\",\"lease_id\":\"\",\"renewable\":false,\"lease_duration\":0," +
+                "\"data\":{\"keys\":[\"foo\"]},\"auth\":{\"client_token\":\"ABCD\"},\"warnings\":[\"w\"]}";
+        final Type type = new TypeToken<VaultEnvelope<VaultListResponse>>() {
+        }.getType();
+
+        final VaultEnvelope<VaultListResponse> expected = reflectiveGson.fromJson(json, type);
+        final VaultEnvelope<VaultListResponse> actual = gson.fromJson(json, type);
+
+        assertThat(gson.toJson(actual, type)).isEqualTo(reflectiveGson.toJson(expected, type));
+        assertThat(actual.getData().getKeys()).containsExactly("foo");
+        assertThat(actual.getAuth().getClientToken()).isEqualTo("ABCD");
+    }
+
+    @Test
+    public void requests_are_written_like_reflective_binding() {
+        final Map<String, String> options = new HashMap<>();
+        options.put("path", "/var/log/vault.log");
+
+        assertWriteMatches(new VaultEnableAuditBackendRequest().setType("file").setOptions(options));
+        assertWriteMatches(new VaultRevokeTokenRequest("ABCD"));
+        assertWriteMatches(new VaultUnsealRequest("key", false));
+        assertWriteMatches(new VaultTokenAuthRequest()
+                .setPolicies(new LinkedHashSet<>(Arrays.asList("web", "stage")))
+                .setNoParent(true)
+                .setTtl("1h")
+                .setNumUses(2));
+        assertWriteMatches(new VaultPolicy().setRules("path \"secret/*\" {}"));
+    }
+
+    @Test
+    public void null_values_are_handled_like_reflective_binding() {
+        assertThat(gson.toJson(null, VaultResponse.class)).isEqualTo(reflectiveGson.toJson(null, VaultResponse.class));
+        assertThat(gson.fromJson("null", VaultResponse.class)).isNull();
+        assertThat(gson.fromJson("{\"keys\":null}", VaultListResponse.class).getKeys()).isNull();
+    }
+
+    private <T> void assertReadMatches(final String json, final Class<T> type) {
+        final T expected = reflectiveGson.fromJson(json, type);
+        final T actual = gson.fromJson(json, type);
+
+        assertThat(jsonParser.parse(gson.toJson(actual))).isEqualTo(jsonParser.parse(reflectiveGson.toJson(expected)));
+    }
+
+    private void assertWriteMatches(final Object request) {
+        assertThat(gson.toJson(request)).isEqualTo(reflectiveGson.toJson(request));
+        assertThat(gson.toJson(gson.fromJson(gson.toJson(request), request.getClass())))
+                .isEqualTo(reflectiveGson.toJson(request));
+    }
+}